@@ -340,6 +340,9 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_group_settings;
 	public static String pref_page_query_manager_group_storage;
     public static String pref_page_query_manager_checkbox_store_log_file;
+    public static String pref_page_query_manager_checkbox_store_history;
+    public static String pref_page_query_manager_checkbox_store_history_tip;
+    public static String pref_page_query_manager_store_history_hint;
     public static String pref_page_query_manager_logs_folder;
 	public static String pref_page_query_manager_label_days_to_store_log;
 	public static String pref_page_query_manager_label_entries_per_page;
@@ -441,6 +444,8 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_checkbox_metadata_snapshot;
+	public static String pref_page_database_general_checkbox_metadata_snapshot_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	// EntityEditor
 	public static String pref_page_ui_general_show_full_name_in_editor;
@@ -620,6 +625,19 @@ public class CoreMessages extends NLS {
 
     public static String popup_open_browser_open_external_browser;
 
+    public static String view_query_statistics_column_query;
+    public static String view_query_statistics_column_datasource;
+    public static String view_query_statistics_column_count;
+    public static String view_query_statistics_column_errors;
+    public static String view_query_statistics_column_mean;
+    public static String view_query_statistics_column_p95;
+    public static String view_query_statistics_column_p99;
+    public static String view_query_statistics_column_max;
+    public static String view_query_statistics_column_total;
+    public static String view_query_statistics_column_rows;
+    public static String view_query_statistics_action_refresh;
+    public static String view_query_statistics_action_reset;
+
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, CoreMessages.class);
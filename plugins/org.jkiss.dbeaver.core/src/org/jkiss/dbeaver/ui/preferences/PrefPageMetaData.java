@@ -48,6 +48,7 @@ public class PrefPageMetaData extends TargetPrefPage
     private Combo separateMetaConnectionCombo;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button metadataSnapshotCheck;
 
     public PrefPageMetaData()
     {
@@ -62,7 +63,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_ENABLED)
             ;
     }
 
@@ -100,6 +102,7 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names_tip, false, 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            metadataSnapshotCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_metadata_snapshot, CoreMessages.pref_page_database_general_checkbox_metadata_snapshot_tip, false, 1);
         }
 
         return composite;
@@ -115,6 +118,7 @@ public class PrefPageMetaData extends TargetPrefPage
             ));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            metadataSnapshotCheck.setSelection(store.getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
 
         } catch (Exception e) {
             log.warn(e);
@@ -132,6 +136,7 @@ public class PrefPageMetaData extends TargetPrefPage
             );
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_SNAPSHOT_ENABLED, metadataSnapshotCheck.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -146,6 +151,7 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_ENABLED);
 
     }
 
@@ -156,6 +162,7 @@ public class PrefPageMetaData extends TargetPrefPage
         UIUtils.setComboSelection(separateMetaConnectionCombo, store.getDefaultString(ModelPreferences.META_SEPARATE_CONNECTION));
         caseSensitiveNamesCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_CASE_SENSITIVE));
         serverSideFiltersCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+        metadataSnapshotCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
         super.performDefaults();
     }
 
@@ -61,6 +61,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Text textHistoryDays;
     private Text textEntriesPerPage;
     private Button checkStoreLog;
+    private Button checkStoreHistory;
     private Text textOutputFolder;
 
 
@@ -118,7 +119,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
                 public void widgetSelected(SelectionEvent e)
                 {
                     UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-                    UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+                    updateHistoryDaysState();
                 }
             });
             textOutputFolder = DialogUtils.createOutputFolderChooser(storageSettings, CoreMessages.pref_page_query_manager_logs_folder, null, false, null);
@@ -132,6 +133,21 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
             Control infoLabel = UIUtils.createInfoLabel(storageSettings, CoreMessages.pref_page_query_manager_log_file_hint);
             infoLabel.setLayoutData(new GridData(GridData.FILL, GridData.BEGINNING, true, false, 2, 1));
+
+            checkStoreHistory = UIUtils.createCheckbox(
+                storageSettings,
+                CoreMessages.pref_page_query_manager_checkbox_store_history,
+                CoreMessages.pref_page_query_manager_checkbox_store_history_tip,
+                store.getBoolean(QMConstants.PROP_STORE_HISTORY),
+                2);
+            checkStoreHistory.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    updateHistoryDaysState();
+                }
+            });
+            Control historyInfoLabel = UIUtils.createInfoLabel(storageSettings, CoreMessages.pref_page_query_manager_store_history_hint);
+            historyInfoLabel.setLayoutData(new GridData(GridData.FILL, GridData.BEGINNING, true, false, 2, 1));
         }
         setSettings();
 
@@ -145,7 +161,12 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         checkObjectTypes(objectTypes);
         checkQueryTypes(queryTypes);
         UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        updateHistoryDaysState();
+    }
+
+    private void updateHistoryDaysState() {
+        // Days to keep are used both by log files and by query history
+        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection() || checkStoreHistory.getSelection());
     }
 
     private void checkObjectTypes(Collection<QMObjectType> objectTypes) {
@@ -179,9 +200,10 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         textEntriesPerPage.setText(store.getDefaultString(QMConstants.PROP_ENTRIES_PER_PAGE));
 
         checkStoreLog.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_LOG_FILE));
+        checkStoreHistory.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_HISTORY));
         textOutputFolder.setText(store.getDefaultString(QMConstants.PROP_LOG_DIRECTORY));
         UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        updateHistoryDaysState();
 
         super.performDefaults();
     }
@@ -215,6 +237,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
             store.setValue(QMConstants.PROP_ENTRIES_PER_PAGE, Math.max(1, entriesPerPage));
         }
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
+        store.setValue(QMConstants.PROP_STORE_HISTORY, checkStoreHistory.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
         PrefUtils.savePreferenceStore(store);
 
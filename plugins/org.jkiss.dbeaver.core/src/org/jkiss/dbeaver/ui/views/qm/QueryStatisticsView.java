@@ -0,0 +1,217 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.qm;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.model.IWorkbenchAdapter;
+import org.eclipse.ui.model.WorkbenchAdapter;
+import org.eclipse.ui.part.ViewPart;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+import org.jkiss.dbeaver.ui.UIIcon;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.ViewerColumnController;
+import org.jkiss.utils.CommonUtils;
+
+import java.text.Collator;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Aggregated statistics of queries executed in the current session
+ */
+public class QueryStatisticsView extends ViewPart implements QMMetaListener
+{
+    public static final String VIEW_ID = "org.jkiss.dbeaver.core.queryStatistics";
+
+    // Statistics are refreshed at most once per this period
+    private static final int REFRESH_DELAY = 1000;
+    private static final int MAX_QUERY_TEXT_LENGTH = 300;
+
+    private TableViewer viewer;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    @Override
+    public void createPartControl(Composite parent)
+    {
+        Composite group = UIUtils.createPlaceholder(parent, 1);
+
+        viewer = new TableViewer(group, SWT.MULTI | SWT.FULL_SELECTION);
+        viewer.getTable().setLayoutData(new GridData(GridData.FILL_BOTH));
+        viewer.getTable().setHeaderVisible(true);
+        viewer.getTable().setLinesVisible(true);
+        viewer.setContentProvider(new ArrayContentProvider());
+        ColumnViewerToolTipSupport.enableFor(viewer);
+
+        ViewerColumnController<Object, QMQueryStatistics> columnController = new ViewerColumnController<>("QueryStatisticsView", viewer);
+        columnController.setComparator(new ViewerColumnController.DefaultComparator(Collator.getInstance()));
+        columnController.addColumn(CoreMessages.view_query_statistics_column_query, null, SWT.LEFT, true, true, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return CommonUtils.truncateString(((QMQueryStatistics) element).getFingerprint(), MAX_QUERY_TEXT_LENGTH);
+            }
+
+            @Override
+            public String getToolTipText(Object element) {
+                return ((QMQueryStatistics) element).getLastQuery();
+            }
+        });
+        columnController.addColumn(CoreMessages.view_query_statistics_column_datasource, null, SWT.LEFT, true, false,
+            element -> CommonUtils.notEmpty(element.getContainerName()), null);
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_count, true,
+            QMQueryStatistics::getExecutionCount);
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_errors, true,
+            QMQueryStatistics::getErrorCount);
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_mean, true,
+            stats -> Math.round(stats.getMeanDuration()));
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_p95, true,
+            stats -> stats.getPercentile(95));
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_p99, true,
+            stats -> stats.getPercentile(99));
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_max, true,
+            QMQueryStatistics::getMaxDuration);
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_total, false,
+            QMQueryStatistics::getTotalDuration);
+        addNumericColumn(columnController, CoreMessages.view_query_statistics_column_rows, true,
+            QMQueryStatistics::getRowsFetched);
+        columnController.createColumns(false);
+
+        IToolBarManager toolBarManager = getViewSite().getActionBars().getToolBarManager();
+        toolBarManager.add(new Action(CoreMessages.view_query_statistics_action_refresh, DBeaverIcons.getImageDescriptor(UIIcon.REFRESH)) {
+            @Override
+            public void run() {
+                refreshStatistics();
+            }
+        });
+        toolBarManager.add(new Action(CoreMessages.view_query_statistics_action_reset, DBeaverIcons.getImageDescriptor(UIIcon.ERASE)) {
+            @Override
+            public void run() {
+                QMStatisticsCollector collector = getStatisticsCollector();
+                if (collector != null) {
+                    collector.resetStatistics();
+                }
+                refreshStatistics();
+            }
+        });
+
+        refreshStatistics();
+        columnController.repackColumns();
+
+        QMRegistry queryManager = DBWorkbench.getPlatform().getQueryManager();
+        queryManager.registerMetaListener(this);
+    }
+
+    private static void addNumericColumn(
+        @NotNull ViewerColumnController<Object, QMQueryStatistics> columnController,
+        @NotNull String name,
+        boolean defaultVisible,
+        @NotNull StatisticsValueProvider valueProvider)
+    {
+        columnController.addColumn(name, null, SWT.RIGHT, defaultVisible, false, true, null, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return String.valueOf(valueProvider.getValue((QMQueryStatistics) element));
+            }
+        }, null);
+    }
+
+    @Override
+    public void dispose()
+    {
+        DBWorkbench.getPlatform().getQueryManager().unregisterMetaListener(this);
+        super.dispose();
+    }
+
+    @Override
+    public void setFocus()
+    {
+        viewer.getControl().setFocus();
+    }
+
+    @Override
+    public void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events)
+    {
+        boolean hasExecutions = false;
+        for (QMMetaEvent event : events) {
+            if (event.getAction() == QMEventAction.END && event.getObject() instanceof QMMStatementExecuteInfo) {
+                hasExecutions = true;
+                break;
+            }
+        }
+        if (hasExecutions && refreshScheduled.compareAndSet(false, true)) {
+            UIUtils.asyncExec(() -> {
+                if (viewer.getControl().isDisposed()) {
+                    return;
+                }
+                viewer.getControl().getDisplay().timerExec(REFRESH_DELAY, () -> {
+                    refreshScheduled.set(false);
+                    refreshStatistics();
+                });
+            });
+        }
+    }
+
+    private void refreshStatistics()
+    {
+        if (viewer == null || viewer.getControl().isDisposed()) {
+            return;
+        }
+        QMStatisticsCollector collector = getStatisticsCollector();
+        List<QMQueryStatistics> statistics = collector == null ? Collections.emptyList() : collector.getQueryStatistics(null);
+        viewer.setInput(statistics);
+    }
+
+    @Nullable
+    private static QMStatisticsCollector getStatisticsCollector()
+    {
+        return DBWorkbench.getPlatform().getQueryManager().getStatisticsCollector();
+    }
+
+    @Override
+    public <T> T getAdapter(Class<T> adapter)
+    {
+        if (adapter == IWorkbenchAdapter.class) {
+            return adapter.cast(new WorkbenchAdapter() {
+                @Override
+                public String getLabel(Object o)
+                {
+                    return "Query Statistics";
+                }
+            });
+        }
+        return super.getAdapter(adapter);
+    }
+
+    private interface StatisticsValueProvider {
+        long getValue(QMQueryStatistics statistics);
+    }
+}
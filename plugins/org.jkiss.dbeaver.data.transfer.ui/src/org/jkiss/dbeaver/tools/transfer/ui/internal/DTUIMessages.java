@@ -47,6 +47,7 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_performance_group_label;
     public static String database_consumer_wizard_transactions_checkbox_label;
     public static String database_consumer_wizard_commit_spinner_label;
+    public static String database_consumer_wizard_adaptive_batch_size_tooltip;
     public static String database_consumer_wizard_general_group_label;
     public static String database_consumer_wizard_table_checkbox_label;
     public static String database_consumer_wizard_final_message_checkbox_label;
@@ -105,6 +106,9 @@ public class DTUIMessages extends NLS {
     public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
     public static String database_producer_page_extract_settings_text_fetch_size_label;
     public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+    public static String database_producer_page_extract_settings_segment_threads_tooltip;
+    public static String database_producer_page_extract_settings_preserve_segment_order_tooltip;
+    public static String database_producer_page_extract_settings_pipelined_transfer_tooltip;
 
     public static String database_producer_page_input_objects_name;
     public static String database_producer_page_input_objects_title;
@@ -223,6 +223,19 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
             gd.widthHint = UIUtils.getFontHeight(commitAfterEdit) * 6;
             commitAfterEdit.setLayoutData(gd);
 
+            final Button adaptiveBatchSizeCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTMessages.database_consumer_settings_option_adaptive_batch_size,
+                DTUIMessages.database_consumer_wizard_adaptive_batch_size_tooltip,
+                settings.isAdaptiveBatchSize(),
+                4);
+            adaptiveBatchSizeCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setAdaptiveBatchSize(adaptiveBatchSizeCheck.getSelection());
+                }
+            });
+
             final Button useMultiRowInsert = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_label, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_description, settings.isUseMultiRowInsert(), 1);
             if (useBatchCheck != null && (
                 (!useBatchCheck.isDisposed() && useBatchCheck.getSelection()) ||
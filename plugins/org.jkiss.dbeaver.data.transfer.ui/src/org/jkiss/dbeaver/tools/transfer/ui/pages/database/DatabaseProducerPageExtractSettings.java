@@ -48,8 +48,12 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label segmentThreadsLabel;
+    private Text segmentThreadsText;
+    private Button preserveSegmentOrderCheckbox;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelinedTransferCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
@@ -120,6 +124,30 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
                 ((GridData)segmentSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(segmentSizeText) * 10;
+
+                segmentThreadsLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_segment_threads);
+                segmentThreadsText = new Text(generalSettings, SWT.BORDER);
+                segmentThreadsText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_segment_threads_tooltip);
+                segmentThreadsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                segmentThreadsText.addModifyListener(e -> {
+                    settings.setSegmentThreads(CommonUtils.toInt(segmentThreadsText.getText(), 1));
+                    updatePageCompletion();
+                });
+                segmentThreadsText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+                ((GridData)segmentThreadsText.getLayoutData()).widthHint = UIUtils.getFontHeight(segmentThreadsText) * 5;
+
+                preserveSegmentOrderCheckbox = UIUtils.createCheckbox(
+                    generalSettings,
+                    DTMessages.data_transfer_wizard_output_checkbox_preserve_segment_order,
+                    DTUIMessages.database_producer_page_extract_settings_preserve_segment_order_tooltip,
+                    true,
+                    4);
+                preserveSegmentOrderCheckbox.addSelectionListener(new SelectionAdapter() {
+                    @Override
+                    public void widgetSelected(SelectionEvent e) {
+                        settings.setPreserveSegmentOrder(preserveSegmentOrderCheckbox.getSelection());
+                    }
+                });
             }
 
             newConnectionCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_new_connection, DTUIMessages.database_producer_page_extract_settings_new_connection_checkbox_tooltip, true, 4);
@@ -138,6 +166,19 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 }
             });
 
+            pipelinedTransferCheckbox = UIUtils.createCheckbox(
+                generalSettings,
+                DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer,
+                DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_tooltip,
+                false,
+                4);
+            pipelinedTransferCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelinedTransfer(pipelinedTransferCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             ((GridData)fetchSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(fetchSizeText) * 10;
@@ -229,9 +270,12 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelinedTransferCheckbox.setSelection(settings.isPipelinedTransfer());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            segmentThreadsText.setText(String.valueOf(settings.getSegmentThreads()));
+            preserveSegmentOrderCheckbox.setSelection(settings.isPreserveSegmentOrder());
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
@@ -254,13 +298,12 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
-                segmentSizeLabel.setEnabled(true);
-                segmentSizeText.setEnabled(true);
-            } else {
-                segmentSizeLabel.setEnabled(false);
-                segmentSizeText.setEnabled(false);
-            }
+            boolean segments = selectionIndex == EXTRACT_TYPE_SEGMENTS;
+            segmentSizeLabel.setEnabled(segments);
+            segmentSizeText.setEnabled(segments);
+            segmentThreadsLabel.setEnabled(segments);
+            segmentThreadsText.setEnabled(segments);
+            preserveSegmentOrderCheckbox.setEnabled(segments && CommonUtils.toInt(segmentThreadsText.getText(), 1) > 1);
         }
         return true;
     }
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.SQLScriptErrorHandling;
 import org.jkiss.dbeaver.model.sql.exec.SQLScriptProcessor;
 import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.task.*;
@@ -41,6 +42,7 @@ import org.jkiss.dbeaver.tools.sql.SQLScriptExecuteSettings;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 
@@ -108,7 +110,6 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         for (String filePath : settings.getScriptFiles()) {
             try {
                 for (DBPDataSourceContainer dataSourceContainer : dataSources) {
-                    var sqlScriptContent = RMUtils.readScriptContents(monitor, task.getProject(), filePath);
                     if (!dataSourceContainer.isConnected()) {
                         dataSourceContainer.connect(monitor, true, true);
                     }
@@ -131,7 +132,12 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
                         }
                     }
 
-                    processScript(monitor, task, settings, executionContext, filePath, sqlScriptContent, log, logStream);
+                    // Script is parsed while it is executed, so huge scripts do not have to fit in memory
+                    try (SQLScriptStreamParser scriptParser = SQLScriptParser.parseScriptStream(
+                        dataSource, RMUtils.openScriptReader(monitor, task.getProject(), filePath)))
+                    {
+                        processScript(monitor, task, settings, executionContext, scriptParser, log, logStream);
+                    }
                 }
             } catch (Throwable e) {
                 Throwable error = e instanceof InvocationTargetException ? ((InvocationTargetException) e).getTargetException() : e;
@@ -140,13 +146,12 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         }
     }
 
-    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, String filePath, String sqlScriptContent, Log log, PrintStream logStream) throws DBException {
+    private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, Iterator<SQLScriptElement> scriptElements, Log log, PrintStream logStream) throws DBException {
         PrintWriter logWriter = new PrintWriter(logStream, true);
-        List<SQLScriptElement> scriptElements = SQLScriptParser.parseScript(executionContext.getDataSource(), sqlScriptContent);
         SQLScriptContext scriptContext = new SQLScriptContext(null, () -> executionContext, null, logWriter, null);
         scriptContext.setVariables(DBTaskUtils.getVariables(task));
         SQLScriptDataReceiver dataReceiver = new SQLScriptDataReceiver();
-        SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptElements, scriptContext, dataReceiver, log);
+        SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptElements, -1, scriptContext, dataReceiver, log);
 
         scriptProcessor.setCommitType(settings.isAutoCommit() ? SQLScriptCommitType.AUTOCOMMIT : SQLScriptCommitType.AT_END);
         scriptProcessor.setErrorHandling(settings.isIgnoreErrors() ? SQLScriptErrorHandling.IGNORE : SQLScriptErrorHandling.STOP_ROLLBACK);
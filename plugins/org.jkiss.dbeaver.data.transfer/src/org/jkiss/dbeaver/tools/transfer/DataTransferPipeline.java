@@ -0,0 +1,359 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous data receiver.
+ * Producer thread fetches row values and puts them into a bounded buffer of row batches.
+ * Target receiver is called in a separate job, so reading from the source overlaps with writing to the target.
+ * Producer blocks when buffer is full.
+ * <p>
+ * Sources with LOB or complex columns are not pipelined: their values may refer to the source connection
+ * which is busy with fetching. Such result sets are passed to the target directly in the producer thread.
+ * Fetched values which must be released (see {@link DBDValue}) are kept until the target finishes the result set,
+ * because target may bind them later (e.g. on batch commit).
+ */
+public class DataTransferPipeline implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DataTransferPipeline.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private enum CommandType {
+        START,
+        ROWS,
+        END,
+        CLOSE,
+        SYNC,
+        FINISH
+    }
+
+    private static class Command {
+        private final CommandType type;
+        private final DBCSession session;
+        @Nullable
+        private final DBCResultSetMetaData meta;
+        @Nullable
+        private final List<Object[]> rows;
+        private final long offset;
+        private final long maxRows;
+        private final CountDownLatch processed = new CountDownLatch(1);
+
+        Command(@NotNull CommandType type, @Nullable DBCSession session, @Nullable DBCResultSetMetaData meta, @Nullable List<Object[]> rows, long offset, long maxRows) {
+            this.type = type;
+            this.session = session;
+            this.meta = meta;
+            this.rows = rows;
+            this.offset = offset;
+            this.maxRows = maxRows;
+        }
+
+        Command(@NotNull CommandType type, @Nullable DBCSession session) {
+            this(type, session, null, null, 0, 0);
+        }
+    }
+
+    private final DBRProgressMonitor monitor;
+    private final DBDDataReceiver target;
+    private final int batchSize;
+    private final BlockingQueue<Command> buffer;
+    private final ReceiverJob receiverJob;
+
+    private List<? extends DBCAttributeMetaData> attributes;
+    private DBDValueHandler[] valueHandlers;
+    private List<Object[]> batch;
+    // Result set is passed to the target directly
+    private boolean passThrough;
+    private volatile Throwable receiveError;
+
+    /**
+     * @param monitor   producer monitor. Cancels transfer on both sides.
+     * @param target    target receiver (usually data transfer consumer)
+     * @param batchSize number of rows passed to target in one batch
+     * @param capacity  max number of batches in the buffer
+     */
+    public DataTransferPipeline(@NotNull DBRProgressMonitor monitor, @NotNull DBDDataReceiver target, int batchSize, int capacity) {
+        this.monitor = monitor;
+        this.target = target;
+        this.batchSize = Math.max(1, batchSize);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.receiverJob = new ReceiverJob();
+        this.receiverJob.schedule();
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        DBCResultSetMetaData meta = resultSet.getMeta();
+        attributes = meta.getAttributes();
+        passThrough = hasConnectionBoundValues(attributes);
+        if (passThrough) {
+            // Target must not read values while producer fetches next rows from the same connection
+            waitForReceiver();
+            target.fetchStart(session, resultSet, offset, maxRows);
+            return;
+        }
+        valueHandlers = new DBDValueHandler[attributes.size()];
+        for (int i = 0; i < valueHandlers.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+        }
+        batch = new ArrayList<>(batchSize);
+        put(new Command(CommandType.START, session, meta, null, offset, maxRows));
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (passThrough) {
+            target.fetchRow(session, resultSet);
+            return;
+        }
+        batch.add(DataTransferResultSet.fetchRowValues(session, resultSet, attributes, valueHandlers));
+        if (batch.size() >= batchSize) {
+            flushBatch(session);
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (passThrough) {
+            target.fetchEnd(session, resultSet);
+            return;
+        }
+        flushBatch(session);
+        put(new Command(CommandType.END, session));
+    }
+
+    @Override
+    public void close() {
+        if (passThrough) {
+            target.close();
+            return;
+        }
+        try {
+            put(new Command(CommandType.CLOSE, null));
+        } catch (DBCException e) {
+            log.debug("Error closing data transfer pipeline", e);
+        }
+    }
+
+    /**
+     * Waits until target receives all buffered data. Must be called by producer in the end of the transfer.
+     */
+    public void finish() throws DBException {
+        try {
+            put(new Command(CommandType.FINISH, null));
+            while (!receiverJob.isFinished()) {
+                if (monitor.isCanceled()) {
+                    receiverJob.cancel();
+                }
+                receiverJob.join(POLL_TIMEOUT_MS, null);
+            }
+        } catch (InterruptedException e) {
+            receiverJob.cancel();
+        } finally {
+            releaseBuffer();
+        }
+        if (receiveError != null) {
+            if (receiveError instanceof DBException) {
+                throw (DBException) receiveError;
+            }
+            throw new DBException("Error writing transferred data", receiveError);
+        }
+    }
+
+    /**
+     * Stops target receiver and drops buffered data. Called if producer fails.
+     */
+    public void cancel() {
+        receiverJob.cancel();
+        releaseBuffer();
+    }
+
+    private static boolean hasConnectionBoundValues(@NotNull List<? extends DBCAttributeMetaData> attributes) {
+        for (DBCAttributeMetaData attribute : attributes) {
+            DBPDataKind dataKind = attribute.getDataKind();
+            if (dataKind == DBPDataKind.CONTENT || dataKind.isComplex()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until target receives all buffered data
+     */
+    private void waitForReceiver() throws DBCException {
+        Command sync = new Command(CommandType.SYNC, null);
+        put(sync);
+        try {
+            while (!sync.processed.await(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkReceiver();
+                if (monitor.isCanceled() || receiverJob.isFinished()) {
+                    throw new DBCException("Data transfer canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        }
+        checkReceiver();
+    }
+
+    private void flushBatch(@NotNull DBCSession session) throws DBCException {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = batch;
+        batch = new ArrayList<>(batchSize);
+        put(new Command(CommandType.ROWS, session, null, rows, 0, 0));
+    }
+
+    private void put(@NotNull Command command) throws DBCException {
+        try {
+            while (!buffer.offer(command, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkReceiver();
+                if (monitor.isCanceled() || receiverJob.isFinished()) {
+                    throw new DBCException("Data transfer canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        }
+        checkReceiver();
+    }
+
+    private void checkReceiver() throws DBCException {
+        if (receiveError != null) {
+            throw new DBCException("Error writing transferred data", receiveError);
+        }
+    }
+
+    private static boolean hasReleasableValues(@NotNull List<Object[]> rows) {
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value instanceof DBDValue) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void releasePending(@NotNull List<List<Object[]>> pendingRelease) {
+        for (List<Object[]> rows : pendingRelease) {
+            DataTransferResultSet.releaseRows(rows);
+        }
+        pendingRelease.clear();
+    }
+
+    private void releaseBuffer() {
+        for (Command command; (command = buffer.poll()) != null; ) {
+            if (command.rows != null) {
+                DataTransferResultSet.releaseRows(command.rows);
+            }
+        }
+    }
+
+    private class ReceiverJob extends AbstractJob {
+
+        ReceiverJob() {
+            super("Data transfer pipeline");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor receiverMonitor) {
+            DataTransferResultSet resultSet = null;
+            // Rows with values which target may still refer to until the end of the result set
+            List<List<Object[]>> pendingRelease = new ArrayList<>();
+            try {
+                for (;;) {
+                    if (receiverMonitor.isCanceled() || monitor.isCanceled()) {
+                        break;
+                    }
+                    Command command = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (command == null) {
+                        continue;
+                    }
+                    if (command.type == CommandType.FINISH) {
+                        break;
+                    }
+                    switch (command.type) {
+                        case START:
+                            resultSet = new DataTransferResultSet(command.session, command.meta);
+                            target.fetchStart(command.session, resultSet, command.offset, command.maxRows);
+                            break;
+                        case ROWS:
+                            try {
+                                resultSet.setRows(command.rows);
+                                while (resultSet.nextRow()) {
+                                    target.fetchRow(command.session, resultSet);
+                                }
+                            } finally {
+                                if (hasReleasableValues(command.rows)) {
+                                    pendingRelease.add(command.rows);
+                                }
+                            }
+                            break;
+                        case END:
+                            resultSet.close();
+                            try {
+                                target.fetchEnd(command.session, resultSet);
+                            } finally {
+                                releasePending(pendingRelease);
+                            }
+                            break;
+                        case CLOSE:
+                            target.close();
+                            break;
+                        case SYNC:
+                            command.processed.countDown();
+                            break;
+                    }
+                }
+            } catch (Throwable e) {
+                receiveError = e;
+            } finally {
+                releasePending(pendingRelease);
+                releaseBuffer();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.exec.*;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result set over already fetched rows.
+ * Keeps metadata of the source result set, so consumers may bind attributes as usual.
+ * Value handlers read fetched values with {@link #getAttributeValue(int)}.
+ */
+public class DataTransferResultSet implements DBCResultSet {
+
+    private final DBCSession session;
+    private final DBCResultSetMetaData meta;
+    private List<Object[]> rows = Collections.emptyList();
+    private int curPosition = -1;
+
+    public DataTransferResultSet(@NotNull DBCSession session, @NotNull DBCResultSetMetaData meta) {
+        this.session = session;
+        this.meta = meta;
+    }
+
+    public void setRows(@NotNull List<Object[]> rows) {
+        this.rows = rows;
+        this.curPosition = -1;
+    }
+
+    @Override
+    public DBCSession getSession() {
+        return session;
+    }
+
+    @Override
+    public DBCStatement getSourceStatement() {
+        return null;
+    }
+
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        Object[] row = rows.get(curPosition);
+        if (index < 0 || index >= row.length) {
+            throw new DBCException("Attribute index out of range (" + index + "/" + row.length + ")");
+        }
+        return row[index];
+    }
+
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        List<? extends DBCAttributeMetaData> attributes = meta.getAttributes();
+        for (int i = 0; i < attributes.size(); i++) {
+            if (attributes.get(i).getName().equals(name)) {
+                return getAttributeValue(i);
+            }
+        }
+        throw new DBCException("Bad attribute name: " + name);
+    }
+
+    @Override
+    public DBDValueMeta getAttributeValueMeta(int index) {
+        return null;
+    }
+
+    @Override
+    public DBDValueMeta getRowMeta() {
+        return null;
+    }
+
+    @Override
+    public boolean nextRow() {
+        if (curPosition + 1 >= rows.size()) {
+            return false;
+        }
+        curPosition++;
+        return true;
+    }
+
+    @Override
+    public boolean moveTo(int position) {
+        if (position < 0 || position >= rows.size()) {
+            return false;
+        }
+        curPosition = position;
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() {
+        return meta;
+    }
+
+    @Nullable
+    @Override
+    public String getResultSetName() {
+        return null;
+    }
+
+    @Override
+    public Object getFeature(String name) {
+        if (FEATURE_NAME_LOCAL.equals(name)) {
+            return true;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        rows = Collections.emptyList();
+        curPosition = -1;
+    }
+
+    /**
+     * Reads all values of the current row using value handlers
+     */
+    @NotNull
+    public static Object[] fetchRowValues(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull List<? extends DBCAttributeMetaData> attributes,
+        @NotNull DBDValueHandler[] valueHandlers) throws DBCException
+    {
+        Object[] row = new Object[valueHandlers.length];
+        for (int i = 0; i < valueHandlers.length; i++) {
+            row[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+        }
+        return row;
+    }
+
+    /**
+     * Releases complex values (LOBs, etc) of fetched rows
+     */
+    public static void releaseRows(@NotNull List<Object[]> rows) {
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value instanceof DBDValue) {
+                    ((DBDValue) value).release();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+
+/**
+ * Adaptive batch size controller.
+ *
+ * Measures throughput (rows/sec) of each executed batch and climbs in the direction which increases it:
+ * keeps growing (or shrinking) batch while throughput improves and reverses direction when it degrades.
+ * Batches which take longer than max latency are always shrunk (server-side statement memory, locks, timeouts).
+ * Commit size and multi-row insert batch size are scaled together, each within its own bounds.
+ */
+class DatabaseBatchSizeController {
+
+    static final int MIN_COMMIT_SIZE = 100;
+    static final int MAX_COMMIT_SIZE = 100000;
+    static final int MIN_MULTI_INSERT_SIZE = 10;
+    static final int MAX_MULTI_INSERT_SIZE = 5000;
+
+    static final long MAX_BATCH_LATENCY_MS = 5000;
+    // Throughput changes within this ratio are considered as noise
+    private static final double THROUGHPUT_TOLERANCE = 0.05;
+    private static final int SCALE_FACTOR = 2;
+
+    private final int minCommitSize;
+    private final int maxCommitSize;
+    private final int minMultiInsertSize;
+    private final int maxMultiInsertSize;
+
+    private int commitSize;
+    private int multiInsertSize;
+    private boolean growing = true;
+    private double lastThroughput;
+
+    private long samplesCount;
+    private double bestThroughput;
+    private int bestCommitSize;
+
+    DatabaseBatchSizeController(int commitSize, int multiInsertSize) {
+        this.commitSize = Math.max(1, commitSize);
+        this.multiInsertSize = Math.max(1, multiInsertSize);
+        // Never go beyond bounds, but respect user values which are out of default bounds
+        this.minCommitSize = Math.min(MIN_COMMIT_SIZE, this.commitSize);
+        this.maxCommitSize = Math.max(MAX_COMMIT_SIZE, this.commitSize);
+        this.minMultiInsertSize = Math.min(MIN_MULTI_INSERT_SIZE, this.multiInsertSize);
+        this.maxMultiInsertSize = Math.max(MAX_MULTI_INSERT_SIZE, this.multiInsertSize);
+        this.bestCommitSize = this.commitSize;
+    }
+
+    int getCommitSize() {
+        return commitSize;
+    }
+
+    int getMultiInsertSize() {
+        return multiInsertSize;
+    }
+
+    /**
+     * Registers executed batch and recalculates batch sizes.
+     *
+     * @param rows    number of rows in batch
+     * @param elapsedNanos batch execution (and commit) time
+     */
+    void reportBatch(long rows, long elapsedNanos) {
+        if (rows < commitSize || elapsedNanos <= 0) {
+            // Incomplete batch (end of data) doesn't say anything about batch size
+            return;
+        }
+        samplesCount++;
+        double throughput = rows * 1_000_000_000.0 / elapsedNanos;
+        if (throughput > bestThroughput) {
+            bestThroughput = throughput;
+            bestCommitSize = commitSize;
+        }
+
+        if (elapsedNanos / 1_000_000 > MAX_BATCH_LATENCY_MS) {
+            growing = false;
+        } else if (lastThroughput > 0 && throughput < lastThroughput * (1 - THROUGHPUT_TOLERANCE)) {
+            // Last step made things worse
+            growing = !growing;
+        }
+        lastThroughput = throughput;
+
+        int newCommitSize = scale(commitSize, minCommitSize, maxCommitSize);
+        if (newCommitSize == commitSize) {
+            // Reached the bound. Try the other direction next time
+            growing = !growing;
+            return;
+        }
+        commitSize = newCommitSize;
+        multiInsertSize = scale(multiInsertSize, minMultiInsertSize, maxMultiInsertSize);
+    }
+
+    private int scale(int size, int minSize, int maxSize) {
+        long newSize = growing ? (long) size * SCALE_FACTOR : size / SCALE_FACTOR;
+        return (int) Math.max(minSize, Math.min(maxSize, newSize));
+    }
+
+    void addStatistics(@NotNull DBCStatistics statistics, boolean multiRowInsert) {
+        if (samplesCount == 0) {
+            return;
+        }
+        statistics.addInfo("Adaptive commit size", commitSize);
+        statistics.addInfo("Best commit size", bestCommitSize);
+        if (multiRowInsert) {
+            statistics.addInfo("Adaptive multi-row insert size", multiInsertSize);
+        }
+        statistics.addInfo("Best throughput (rows/sec)", (long) bestThroughput);
+    }
+
+    @Override
+    public String toString() {
+        return "commit size=" + commitSize + ", multi-row insert size=" + multiInsertSize + ", throughput=" + (long) lastThroughput;
+    }
+}
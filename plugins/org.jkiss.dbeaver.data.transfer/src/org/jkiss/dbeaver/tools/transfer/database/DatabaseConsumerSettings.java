@@ -56,6 +56,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
     private boolean openNewConnections = true;
     private boolean useTransactions = true;
     private int commitAfterRows = 10000;
+    private boolean adaptiveBatchSize = false;
     private boolean transferAutoGeneratedColumns = true;
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
@@ -202,6 +203,14 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.commitAfterRows = commitAfterRows;
     }
 
+    public boolean isAdaptiveBatchSize() {
+        return adaptiveBatchSize;
+    }
+
+    public void setAdaptiveBatchSize(boolean adaptiveBatchSize) {
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
     public boolean isUseBulkLoad() {
         return useBulkLoad;
     }
@@ -232,6 +241,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         useTransactions = CommonUtils.getBoolean(settings.get("useTransactions"), useTransactions);
         onDuplicateKeyInsertMethodId = CommonUtils.toString(settings.get("onDuplicateKeyMethod"), onDuplicateKeyInsertMethodId);
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
+        adaptiveBatchSize = CommonUtils.getBoolean(settings.get("adaptiveBatchSize"), adaptiveBatchSize);
         useMultiRowInsert = CommonUtils.getBoolean(settings.get("useMultiRowInsert"), useMultiRowInsert);
         multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
         skipBindValues = CommonUtils.getBoolean(settings.get("skipBindValues"), skipBindValues);
@@ -305,6 +315,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("openNewConnections", openNewConnections);
         settings.put("useTransactions", useTransactions);
         settings.put("commitAfterRows", commitAfterRows);
+        settings.put("adaptiveBatchSize", adaptiveBatchSize);
         settings.put("useMultiRowInsert", useMultiRowInsert);
         settings.put("multiRowInsertBatch", multiRowInsertBatch);
         settings.put("skipBindValues", skipBindValues);
@@ -344,6 +355,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         if (useTransactions) {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_adaptive_batch_size, adaptiveBatchSize);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_multi_insert, useMultiRowInsert);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_insert_batch, multiRowInsertBatch);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_skip_bind_values, skipBindValues);
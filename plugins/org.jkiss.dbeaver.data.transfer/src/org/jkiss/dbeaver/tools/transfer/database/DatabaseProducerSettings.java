@@ -37,8 +37,12 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
     private static final int DEFAULT_FETCH_SIZE = 10000;
+    public static final int DEFAULT_PIPELINE_BATCH_SIZE = 1000;
+    private static final int DEFAULT_PIPELINE_CAPACITY = 8;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int segmentThreads = 1;
+    private boolean preserveSegmentOrder = true;
 
     private boolean openNewConnections = true;
     private boolean queryRowCount = true;
@@ -46,6 +50,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean pipelinedTransfer = false;
+    private int pipelineCapacity = DEFAULT_PIPELINE_CAPACITY;
 
     public DatabaseProducerSettings() {
     }
@@ -60,6 +66,24 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    public int getSegmentThreads() {
+        return segmentThreads;
+    }
+
+    public void setSegmentThreads(int segmentThreads) {
+        if (segmentThreads > 0) {
+            this.segmentThreads = segmentThreads;
+        }
+    }
+
+    public boolean isPreserveSegmentOrder() {
+        return preserveSegmentOrder;
+    }
+
+    public void setPreserveSegmentOrder(boolean preserveSegmentOrder) {
+        this.preserveSegmentOrder = preserveSegmentOrder;
+    }
+
     public boolean isQueryRowCount() {
         return queryRowCount;
     }
@@ -108,11 +132,36 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.extractType = extractType;
     }
 
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
+    /**
+     * Max number of row batches (fetch size rows each) buffered between producer and consumer
+     */
+    public int getPipelineCapacity() {
+        return pipelineCapacity;
+    }
+
+    public void setPipelineCapacity(int pipelineCapacity) {
+        if (pipelineCapacity > 0) {
+            this.pipelineCapacity = pipelineCapacity;
+        }
+    }
+
     @Override
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
+        segmentThreads = Math.max(1, CommonUtils.toInt(settings.get("segmentThreads"), 1));
+        preserveSegmentOrder = CommonUtils.getBoolean(settings.get("preserveSegmentOrder"), true);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
+        pipelinedTransfer = CommonUtils.toBoolean(settings.get("pipelinedTransfer"));
+        pipelineCapacity = Math.max(1, CommonUtils.toInt(settings.get("pipelineCapacity"), DEFAULT_PIPELINE_CAPACITY));
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
@@ -123,7 +172,11 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     public void saveSettings(Map<String, Object> settings) {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
+        settings.put("segmentThreads", segmentThreads);
+        settings.put("preserveSegmentOrder", preserveSegmentOrder);
         settings.put("fetchSize", fetchSize);
+        settings.put("pipelinedTransfer", pipelinedTransfer);
+        settings.put("pipelineCapacity", pipelineCapacity);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
@@ -136,7 +189,13 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_new_connection, openNewConnections);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_extract_type, extractType.name());
+        if (extractType == ExtractType.SEGMENTS) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_segment_size, segmentSize);
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_segment_threads, segmentThreads);
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_preserve_segment_order, preserveSegmentOrder);
+        }
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, pipelinedTransfer);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
 
@@ -0,0 +1,567 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.DataTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads table segments simultaneously.
+ * Segments are ranges of a single column unique key. Range boundaries are calculated on the server
+ * and then each reader job opens its own isolated execution context and reads segments with
+ * {@code key > lowerBoundary AND key <= upperBoundary} conditions, so each segment read costs the same
+ * regardless of its position in the table.
+ * Note: readers use separate connections and thus separate snapshots. Each row belongs to exactly one segment,
+ * but rows inserted, deleted or updated during the transfer may or may not be exported.
+ * Fetched segments are passed to the consumer in the caller thread, so consumer always works in a single thread.
+ * Reader keeps its segment (and its connection) until the segment is consumed: it makes LOBs readable
+ * and limits memory usage by (threads * segment size) rows.
+ */
+class DatabaseSegmentReader {
+
+    private static final Log log = Log.getLog(DatabaseSegmentReader.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final DBSDataContainer dataContainer;
+    @NotNull
+    private final DBDDataFilter dataFilter;
+    @NotNull
+    private final DBSEntityAttribute keyAttribute;
+    private final long readFlags;
+    private final DatabaseProducerSettings settings;
+    @Nullable
+    private final String defaultCatalog;
+    @Nullable
+    private final String defaultSchema;
+    private final boolean readTransactions;
+
+    private final AtomicInteger nextSegment = new AtomicInteger();
+    private final LinkedBlockingQueue<Segment> fetchedSegments = new LinkedBlockingQueue<>();
+    private final DBCStatistics statistics = new DBCStatistics();
+    // SQL literals of the last key value of each segment except the last one
+    private final List<String> boundaries = new ArrayList<>();
+    private volatile boolean stopped;
+    private volatile Throwable readError;
+
+    DatabaseSegmentReader(
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DBSEntityAttribute keyAttribute,
+        long readFlags,
+        @NotNull DatabaseProducerSettings settings,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema,
+        boolean readTransactions)
+    {
+        this.dataContainer = dataContainer;
+        this.dataFilter = makeSegmentFilter(dataFilter, keyAttribute);
+        this.keyAttribute = keyAttribute;
+        this.readFlags = readFlags;
+        this.settings = settings;
+        this.defaultCatalog = defaultCatalog;
+        this.defaultSchema = defaultSchema;
+        this.readTransactions = readTransactions;
+    }
+
+    /**
+     * Parallel read is supported only for entities with a single column numeric or string unique key:
+     * their values can be compared in range conditions. Custom ordering and OR filters aren't supported.
+     * Returns key attribute or null if parallel read isn't supported for this container.
+     */
+    @Nullable
+    static DBSEntityAttribute getSegmentKey(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter)
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            return null;
+        }
+        if (dataFilter != null && (dataFilter.hasOrdering() || dataFilter.isAnyConstraint())) {
+            return null;
+        }
+        try {
+            List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+            if (keyAttributes == null || keyAttributes.size() != 1) {
+                return null;
+            }
+            DBSEntityAttribute keyAttribute = keyAttributes.get(0);
+            DBPDataKind dataKind = keyAttribute.getDataKind();
+            if (dataKind != DBPDataKind.NUMERIC && dataKind != DBPDataKind.STRING) {
+                return null;
+            }
+            return keyAttribute;
+        } catch (DBException e) {
+            log.debug("Can't read unique key of '" + dataContainer.getName() + "'", e);
+            return null;
+        }
+    }
+
+    @NotNull
+    private static DBDDataFilter makeSegmentFilter(@Nullable DBDDataFilter dataFilter, @NotNull DBSEntityAttribute keyAttribute) {
+        DBDDataFilter segmentFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        DBDAttributeConstraint constraint = segmentFilter.getConstraint(keyAttribute, false);
+        if (constraint == null) {
+            constraint = new DBDAttributeConstraint(keyAttribute, keyAttribute.getOrdinalPosition());
+            segmentFilter.addConstraints(Collections.singletonList(constraint));
+        }
+        constraint.setOrderPosition(segmentFilter.getMaxOrderingPosition() + 1);
+        constraint.setOrderDescending(false);
+        return segmentFilter;
+    }
+
+    /**
+     * Reads all segments and passes them to the consumer.
+     * Must be called in the thread which owns the consumer.
+     */
+    @NotNull
+    DBCStatistics readSegments(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer) throws DBException
+    {
+        readBoundaries(monitor, session);
+        if (monitor.isCanceled()) {
+            return statistics;
+        }
+        DBCExecutionContext mainContext = session.getExecutionContext();
+        int threadCount = settings.getSegmentThreads();
+        List<SegmentReaderJob> readers = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            SegmentReaderJob reader = new SegmentReaderJob(i, mainContext, consumer);
+            readers.add(reader);
+            reader.schedule();
+        }
+
+        DBFetchProgress fetchProgress = new DBFetchProgress(monitor);
+        // Fetched segments which are waiting for their turn
+        Map<Long, Segment> pendingSegments = new TreeMap<>();
+        long expectedSegment = 0;
+        try {
+            while (true) {
+                if (monitor.isCanceled()) {
+                    stopped = true;
+                    break;
+                }
+                if (readError != null) {
+                    break;
+                }
+                Segment segment = fetchedSegments.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (segment == null) {
+                    if (fetchedSegments.isEmpty() && isFinished(readers)) {
+                        break;
+                    }
+                    continue;
+                }
+                if (settings.isPreserveSegmentOrder()) {
+                    pendingSegments.put(segment.index, segment);
+                    while ((segment = pendingSegments.remove(expectedSegment)) != null) {
+                        consumeSegment(session, consumer, segment, fetchProgress);
+                        expectedSegment++;
+                    }
+                } else {
+                    consumeSegment(session, consumer, segment, fetchProgress);
+                }
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+        } finally {
+            // Release readers of segments which were not consumed (cancel or error)
+            for (Segment segment : pendingSegments.values()) {
+                segment.consumed.countDown();
+            }
+            if (!isFinished(readers)) {
+                // Cancelled or failed
+                stopped = true;
+                for (SegmentReaderJob reader : readers) {
+                    reader.cancel();
+                }
+            }
+            for (Segment segment; (segment = fetchedSegments.poll()) != null; ) {
+                segment.consumed.countDown();
+            }
+        }
+        if (readError != null) {
+            if (readError instanceof DBException) {
+                throw (DBException) readError;
+            }
+            throw new DBException("Error reading table segment", readError);
+        }
+        return statistics;
+    }
+
+    /**
+     * Calculates segment boundaries on the server, key values aren't transferred to the client.
+     * Numeric key range [MIN, MAX] is split into equal ranges, so segments of sparse keys may be uneven.
+     * String keys are split with NTILE if dialect supports window functions.
+     * Otherwise the whole table is read as a single segment.
+     */
+    private void readBoundaries(@NotNull DBRProgressMonitor monitor, @NotNull DBCSession session) throws DBCException {
+        DBPDataSource dataSource = session.getDataSource();
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        String fromClause = makeFromClause(dataSource);
+
+        monitor.subTask("Read segment boundaries of " + dataContainer.getName());
+        Object[] stats = readSingleRow(session,
+            "SELECT COUNT(*), MIN(" + keyName + "), MAX(" + keyName + ")" + fromClause);
+        if (stats == null || !(stats[0] instanceof Number) || stats[1] == null || stats[2] == null) {
+            return;
+        }
+        long rowCount = ((Number) stats[0]).longValue();
+        int segmentSize = settings.getSegmentSize();
+        long segmentCount = (rowCount + segmentSize - 1) / segmentSize;
+        if (segmentCount <= 1 || monitor.isCanceled()) {
+            return;
+        }
+        if (keyAttribute.getDataKind() == DBPDataKind.NUMERIC) {
+            if (stats[1] instanceof Number && stats[2] instanceof Number) {
+                try {
+                    boundaries.addAll(makeNumericBoundaries(
+                        new BigDecimal(stats[1].toString()), new BigDecimal(stats[2].toString()), segmentCount));
+                } catch (NumberFormatException e) {
+                    log.debug("Can't split key range of '" + dataContainer.getName() + "': " + e.getMessage());
+                }
+            }
+        } else if (dataSource.getSQLDialect().supportsWindowFunctions()) {
+            readTileBoundaries(session, keyName, fromClause, segmentCount);
+        }
+    }
+
+    @NotNull
+    private String makeFromClause(@NotNull DBPDataSource dataSource) {
+        StringBuilder query = new StringBuilder();
+        query.append(" FROM ").append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+        if (dataFilter.hasConditions()) {
+            query.append(" WHERE ");
+            SQLUtils.appendConditionString(dataFilter, dataSource, null, query, true);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Returns upper boundaries of all ranges except the last one. Boundaries of integer keys are integers.
+     */
+    @NotNull
+    static List<String> makeNumericBoundaries(@NotNull BigDecimal minValue, @NotNull BigDecimal maxValue, long segmentCount) {
+        boolean integral = minValue.stripTrailingZeros().scale() <= 0 && maxValue.stripTrailingZeros().scale() <= 0;
+        BigDecimal range = maxValue.subtract(minValue);
+        BigDecimal count = BigDecimal.valueOf(segmentCount);
+        List<String> result = new ArrayList<>();
+        BigDecimal prevBoundary = null;
+        for (long i = 1; i < segmentCount; i++) {
+            BigDecimal boundary = minValue.add(range.multiply(BigDecimal.valueOf(i)).divide(count, MathContext.DECIMAL64));
+            if (integral) {
+                boundary = boundary.setScale(0, RoundingMode.FLOOR);
+            }
+            if (boundary.compareTo(maxValue) >= 0) {
+                break;
+            }
+            if (prevBoundary == null || boundary.compareTo(prevBoundary) > 0) {
+                result.add(boundary.toPlainString());
+                prevBoundary = boundary;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the last key of each tile. All tiles except the last one give boundaries.
+     */
+    private void readTileBoundaries(
+        @NotNull DBCSession session,
+        @NotNull String keyName,
+        @NotNull String fromClause,
+        long segmentCount) throws DBCException
+    {
+        DBPDataSource dataSource = session.getDataSource();
+        String query = "SELECT MAX(" + keyName + ") FROM (SELECT " + keyName + ", NTILE(" + segmentCount + ") OVER (ORDER BY " +
+            keyName + ") dbvr_tile" + fromClause + ") dbvr_tiles GROUP BY dbvr_tile ORDER BY 1";
+        List<String> tileBoundaries = new ArrayList<>();
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            dbStat.executeStatement();
+            try (DBCResultSet resultSet = dbStat.openResultSet()) {
+                if (resultSet == null) {
+                    return;
+                }
+                DBCAttributeMetaData keyMeta = resultSet.getMeta().getAttributes().get(0);
+                DBDValueHandler valueHandler = DBUtils.findValueHandler(session, keyMeta);
+                while (resultSet.nextRow()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        return;
+                    }
+                    Object value = valueHandler.fetchValueObject(session, resultSet, keyMeta, 0);
+                    if (value != null) {
+                        tileBoundaries.add(SQLUtils.convertValueToSQL(dataSource, keyAttribute, valueHandler, value, DBDDisplayFormat.NATIVE));
+                    }
+                }
+            }
+        }
+        // The last tile has no upper bound
+        if (!tileBoundaries.isEmpty()) {
+            boundaries.addAll(tileBoundaries.subList(0, tileBoundaries.size() - 1));
+        }
+    }
+
+    @Nullable
+    private static Object[] readSingleRow(@NotNull DBCSession session, @NotNull String query) throws DBCException {
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            dbStat.executeStatement();
+            try (DBCResultSet resultSet = dbStat.openResultSet()) {
+                if (resultSet == null || !resultSet.nextRow()) {
+                    return null;
+                }
+                int columnCount = resultSet.getMeta().getAttributes().size();
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = resultSet.getAttributeValue(i);
+                }
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Segment N contains keys in range (boundary[N - 1], boundary[N]].
+     * First segment has no lower bound and the last one has no upper bound: it reads rows added after boundaries were read.
+     */
+    @NotNull
+    private DBDDataFilter makeRangeFilter(int index) {
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder range = new StringBuilder();
+        if (index > 0) {
+            range.append(keyName).append(" > ").append(boundaries.get(index - 1));
+        }
+        if (index < boundaries.size()) {
+            if (range.length() > 0) {
+                range.append(" AND ");
+            }
+            range.append(keyName).append(" <= ").append(boundaries.get(index));
+        }
+        DBDDataFilter rangeFilter = new DBDDataFilter(dataFilter);
+        if (range.length() > 0) {
+            String where = dataFilter.getWhere();
+            rangeFilter.setWhere(CommonUtils.isEmptyTrimmed(where) ? range.toString() : "(" + where + ") AND " + range);
+        }
+        return rangeFilter;
+    }
+
+    private static boolean isFinished(@NotNull List<SegmentReaderJob> readers) {
+        for (SegmentReaderJob reader : readers) {
+            if (!reader.isFinished()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void consumeSegment(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull Segment segment,
+        @NotNull DBFetchProgress fetchProgress) throws DBCException
+    {
+        try {
+            if (segment.rows.isEmpty()) {
+                return;
+            }
+            if (segment.meta == null) {
+                throw new DBCException("Segment metadata is not available");
+            }
+            DataTransferResultSet resultSet = new DataTransferResultSet(session, segment.meta);
+            resultSet.setRows(segment.rows);
+            consumer.fetchStart(session, resultSet, segment.index * settings.getSegmentSize(), settings.getSegmentSize());
+            try {
+                while (resultSet.nextRow()) {
+                    if (fetchProgress.isCanceled()) {
+                        stopped = true;
+                        break;
+                    }
+                    consumer.fetchRow(session, resultSet);
+                    fetchProgress.monitorRowFetch();
+                }
+            } finally {
+                consumer.fetchEnd(session, resultSet);
+                consumer.close();
+            }
+        } finally {
+            segment.consumed.countDown();
+        }
+    }
+
+    private static class Segment {
+        private final long index;
+        private final List<Object[]> rows;
+        @Nullable
+        private final DBCResultSetMetaData meta;
+        private final CountDownLatch consumed = new CountDownLatch(1);
+
+        Segment(long index, @NotNull List<Object[]> rows, @Nullable DBCResultSetMetaData meta) {
+            this.index = index;
+            this.rows = rows;
+            this.meta = meta;
+        }
+
+        void release() {
+            DataTransferResultSet.releaseRows(rows);
+            rows.clear();
+        }
+    }
+
+    private class SegmentReaderJob extends AbstractJob {
+
+        private final DBCExecutionContext mainContext;
+        private final IDataTransferConsumer consumer;
+
+        SegmentReaderJob(int number, @NotNull DBCExecutionContext mainContext, @NotNull IDataTransferConsumer consumer) {
+            super("Read segments of " + dataContainer.getName() + " (" + (number + 1) + ")");
+            this.mainContext = mainContext;
+            this.consumer = consumer;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                readTableSegments(monitor);
+            } catch (Throwable e) {
+                if (!stopped) {
+                    readError = e;
+                    stopped = true;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void readTableSegments(@NotNull DBRProgressMonitor monitor) throws DBException, InterruptedException {
+            DBPDataSource dataSource = dataContainer.getDataSource();
+            DBCExecutionContext context = DBUtils.getObjectOwnerInstance(dataContainer).openPooledContext(
+                monitor, "Data transfer segment reader", mainContext);
+            try {
+                DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read table segments")) {
+                    session.enableLogging(false);
+                    if (readTransactions) {
+                        DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                        if (txnManager != null && txnManager.isSupportsTransactions()) {
+                            txnManager.setAutoCommit(monitor, false);
+                        }
+                    }
+                    AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, context, consumer);
+                    while (!stopped && !monitor.isCanceled()) {
+                        int index = nextSegment.getAndIncrement();
+                        if (index > boundaries.size()) {
+                            break;
+                        }
+                        SegmentCollector collector = new SegmentCollector();
+                        DBCStatistics segmentStatistics = dataContainer.readData(
+                            source, session, collector, makeRangeFilter(index), -1, -1, readFlags, settings.getFetchSize());
+                        if (segmentStatistics != null) {
+                            synchronized (statistics) {
+                                statistics.accumulate(segmentStatistics);
+                            }
+                        }
+                        Segment segment = new Segment(index, collector.rows, collector.meta);
+                        fetchedSegments.add(segment);
+                        if (!segment.rows.isEmpty()) {
+                            // Wait until consumer reads the segment. Values (e.g. LOBs) may refer to our connection.
+                            while (!segment.consumed.await(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                                if (stopped || monitor.isCanceled()) {
+                                    break;
+                                }
+                            }
+                            segment.release();
+                        }
+                    }
+                    if (readTransactions) {
+                        DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                        if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                            txnManager.rollback(session, null);
+                        }
+                    }
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Fetches segment values with value handlers of the source result set
+     */
+    private static class SegmentCollector implements DBDDataReceiver {
+        private final List<Object[]> rows = new ArrayList<>();
+        private DBCResultSetMetaData meta;
+        private List<? extends DBCAttributeMetaData> attributes;
+        private DBDValueHandler[] valueHandlers;
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            meta = resultSet.getMeta();
+            attributes = meta.getAttributes();
+            valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            rows.add(DataTransferResultSet.fetchRowValues(session, resultSet, attributes, valueHandlers));
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -80,6 +80,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBSDataManipulator.ExecuteBatch executeBatch;
     private DBSDataBulkLoader.BulkLoadManager bulkLoadManager;
     private long rowsExported = 0;
+    private long rowsInBatch = 0;
+    @Nullable
+    private DatabaseBatchSizeController batchSizeController;
     private boolean ignoreErrors = false;
 
     private List<DBSAttributeBase> targetAttributes;
@@ -313,6 +316,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
         }
+
+        if (!isPreview && settings.isAdaptiveBatchSize() && !settings.isDisableUsingBatches() && !settings.isIgnoreDuplicateRows()) {
+            batchSizeController = new DatabaseBatchSizeController(settings.getCommitAfterRows(), settings.getMultiRowInsertBatch());
+        }
     }
 
     private boolean isSkipColumn(DBDAttributeBinding attr) {
@@ -396,6 +403,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
 
         rowsExported++;
+        rowsInBatch++;
         // No need. monitor is incremented in data reader
         //session.getProgressMonitor().worked(1);
 
@@ -407,15 +415,28 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             return;
         }
         boolean ignoreDuplicateRowsErrors = settings.isIgnoreDuplicateRows();
-        boolean needCommit = force || ignoreDuplicateRowsErrors || ((rowsExported % settings.getCommitAfterRows()) == 0);
+        boolean needCommit = force || ignoreDuplicateRowsErrors || (batchSizeController != null ?
+            // Adaptive commit size changes, so rows are counted from the last commit
+            rowsInBatch >= batchSizeController.getCommitSize() :
+            (rowsExported % settings.getCommitAfterRows()) == 0);
         // Do commit action in these cases:
         // 1. This is the end of the insert operation (fetchEnd)
         // 2. ignoreDuplicateRowsErrors option is enabled - that means, what we do not have batches, only single rows, and we can loose inserted rows without commit in some databases like PG
         // 3. We approached the amount of rows selected for commenting
 
+        long batchRows = rowsInBatch;
+        long startTime = System.nanoTime();
+        boolean batchFailed = false;
+        if (needCommit) {
+            rowsInBatch = 0;
+        }
+
         if (bulkLoadManager != null) {
             if (needCommit) {
                 bulkLoadManager.flushRows(targetSession);
+                if (batchSizeController != null) {
+                    batchSizeController.reportBatch(batchRows, System.nanoTime() - startTime);
+                }
             }
             return;
         } else {
@@ -427,7 +448,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
                 Map<String, Object> options = new HashMap<>();
                 options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, disableUsingBatches);
-                options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, settings.getMultiRowInsertBatch());
+                options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE,
+                    batchSizeController != null ? batchSizeController.getMultiInsertSize() : settings.getMultiRowInsertBatch());
                 options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
 
                 boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null &&
@@ -459,6 +481,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                             }
                         });
                     } catch (Throwable e) {
+                        batchFailed = true;
                         if (ignoreDuplicateRowsErrors && (e.getCause() instanceof SQLException)) {
                             DBPErrorAssistant.ErrorType errorType = DBExecUtils.discoverErrorType(targetSession.getDataSource(), e.getCause());
                             if (errorType == DBPErrorAssistant.ErrorType.UNIQUE_KEY_VIOLATION) {
@@ -501,6 +524,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 txnManager.commit(targetSession);
             }
         }
+        if (batchSizeController != null && needCommit && !batchFailed) {
+            // Commit time is a part of the batch cost
+            batchSizeController.reportBatch(batchRows, System.nanoTime() - startTime);
+        }
     }
 
     @Override
@@ -515,6 +542,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 executeBatch.close();
                 executeBatch = null;
             }
+            if (batchSizeController != null) {
+                log.debug("Adaptive batch size for " + getObjectName() + ": " + batchSizeController);
+                batchSizeController.addStatistics(statistics, settings.isUseMultiRowInsert());
+            }
         } finally {
             DBSDataManipulator targetObject = getTargetObject();
             if (!isPreview && targetObject instanceof DBSDataManipulatorExt) {
@@ -543,7 +574,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         try {
             useIsolatedConnection = !isPreview && settings.isOpenNewConnections() && !dataSourceContainer.getDriver().isEmbedded();
             targetContext = useIsolatedConnection ?
-                DBUtils.getObjectOwnerInstance(targetDB).openIsolatedContext(monitor, "Data transfer consumer", null) : DBUtils.getDefaultContext(targetDB, false);
+                DBUtils.getObjectOwnerInstance(targetDB).openPooledContext(monitor, "Data transfer consumer", null) : DBUtils.getDefaultContext(targetDB, false);
         } catch (DBException e) {
             throw new DBCException("Error opening new connection", e);
         }
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -38,9 +39,11 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipeline;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
@@ -208,7 +211,7 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     throw new DBCException("Can't retrieve execution context from data container " + dataContainer);
                 }
                 if (!selectiveExportFromUI && newConnection) {
-                    context = DBUtils.getObjectOwnerInstance(getDatabaseObject()).openIsolatedContext(monitor, "Data transfer producer", context);
+                    context = DBUtils.getObjectOwnerInstance(getDatabaseObject()).openPooledContext(monitor, "Data transfer producer", context);
                     DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
                 }
                 if (task != null) {
@@ -263,24 +266,61 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
                         try {
                             monitor.subTask("Read data");
+                            DBSEntityAttribute segmentKey = null;
+                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SEGMENTS &&
+                                settings.getSegmentThreads() > 1 && newConnection && !selectiveExportFromUI)
+                            {
+                                // Segments can be read simultaneously only if they can be split by key ranges
+                                segmentKey = DatabaseSegmentReader.getSegmentKey(monitor, dataContainer, dataFilter);
+                                if (segmentKey == null) {
+                                    log.debug("Can't read '" + dataContainer.getName() + "' segments in parallel: no suitable unique key found");
+                                }
+                            }
+
+                            // Parallel segment readers already decouple reading from the consumer
+                            DataTransferPipeline pipeline = null;
+                            if (settings.isPipelinedTransfer() && segmentKey == null) {
+                                pipeline = new DataTransferPipeline(
+                                    monitor,
+                                    consumer,
+                                    settings.getFetchSize() > 0 ? settings.getFetchSize() : DatabaseProducerSettings.DEFAULT_PIPELINE_BATCH_SIZE,
+                                    settings.getPipelineCapacity());
+                            }
+                            DBDDataReceiver receiver = pipeline == null ? consumer : pipeline;
 
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
-                                // Just do it in single query
-                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
-                            } else {
-                                // Read all data by segments
-                                long offset = 0;
-                                int segmentSize = settings.getSegmentSize();
-                                for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
-                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
-                                        // Done
-                                        break;
+                            try {
+                                if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                                    // Just do it in single query
+                                    producerStatistics.accumulate(dataContainer.readData(transferSource, session, receiver, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                } else if (segmentKey != null) {
+                                    // Read segments simultaneously
+                                    DatabaseSegmentReader segmentReader = new DatabaseSegmentReader(
+                                        dataContainer, dataFilter, segmentKey, readFlags, settings, defaultCatalog, defaultSchema, forceDataReadTransactions);
+                                    producerStatistics.accumulate(segmentReader.readSegments(monitor, session, consumer));
+                                } else {
+                                    // Read all data by segments
+                                    long offset = 0;
+                                    int segmentSize = settings.getSegmentSize();
+                                    for (; ; ) {
+                                        DBCStatistics statistics = dataContainer.readData(
+                                            transferSource, session, receiver, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                                            // Done
+                                            break;
+                                        }
+                                        producerStatistics.accumulate(statistics);
+                                        offset += statistics.getRowsFetched();
                                     }
-                                    producerStatistics.accumulate(statistics);
-                                    offset += statistics.getRowsFetched();
+                                }
+                                if (pipeline != null) {
+                                    // Wait for the consumer
+                                    pipeline.finish();
+                                    pipeline = null;
+                                }
+                            } finally {
+                                if (pipeline != null) {
+                                    pipeline.cancel();
                                 }
                             }
                         } finally {
@@ -59,6 +59,9 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_label_insert_bom_tooltip;
     public static String data_transfer_wizard_output_label_max_threads;
     public static String data_transfer_wizard_output_label_segment_size;
+    public static String data_transfer_wizard_output_label_segment_threads;
+    public static String data_transfer_wizard_output_checkbox_preserve_segment_order;
+    public static String data_transfer_wizard_output_checkbox_pipelined_transfer;
     public static String data_transfer_wizard_output_label_add_to_end_of_file;
     public static String data_transfer_wizard_output_label_add_to_end_of_file_tip;
     public static String data_transfer_wizard_output_error_empty_output_directory;
@@ -142,6 +145,7 @@ public class DTMessages extends NLS {
     public static String database_consumer_settings_option_on_duplicate_key_method_label;
     public static String database_consumer_settings_option_transfer_auto_generated_columns;
     public static String database_consumer_settings_option_disable_referential_integrity;
+    public static String database_consumer_settings_option_adaptive_batch_size;
     public static String database_consumer_settings_option_use_bulk_load;
     public static String database_consumer_settings_option_truncate_before_load;
 
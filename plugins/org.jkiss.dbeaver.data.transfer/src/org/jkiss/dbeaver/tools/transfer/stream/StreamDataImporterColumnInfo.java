@@ -31,6 +31,9 @@ public class StreamDataImporterColumnInfo extends AbstractAttribute implements D
 
     private StreamEntityMapping entityMapping;
     private DBPDataKind dataKind;
+    // Data kind of the mapped target attribute. Null if column is not mapped to a typed attribute.
+    @Nullable
+    private DBPDataKind targetDataKind;
 
     // Determines whether the mapping metadata,
     // such as the column name, is present or not.
@@ -110,6 +113,15 @@ public class StreamDataImporterColumnInfo extends AbstractAttribute implements D
         this.typeName = typeName;
     }
 
+    @Nullable
+    public DBPDataKind getTargetDataKind() {
+        return targetDataKind;
+    }
+
+    public void setTargetDataKind(@Nullable DBPDataKind targetDataKind) {
+        this.targetDataKind = targetDataKind;
+    }
+
     public boolean isMappingMetadataPresent() {
         return mappingMetadataPresent;
     }
@@ -0,0 +1,83 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar.ArrowFileWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar.ColumnarColumn;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+
+/**
+ * Apache Arrow IPC file exporter
+ */
+public class DataExporterArrow extends StreamExporterAbstract {
+
+    private static final String PROP_RECORD_BATCH_SIZE = "recordBatchSize";
+
+    private int recordBatchSize;
+
+    private ColumnarColumn[] columns;
+    private ArrowFileWriter writer;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException
+    {
+        super.init(site);
+        recordBatchSize = Math.max(1, CommonUtils.toInt(site.getProperties().get(PROP_RECORD_BATCH_SIZE), 10000));
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException
+    {
+        columns = ColumnarColumn.createColumns(getSite().getAttributes());
+        writer = new ArrowFileWriter(getOutputStream(), columns, recordBatchSize);
+        writer.writeHeader();
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
+    {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnarColumn column = columns[i];
+            values[i] = column.normalizeValue(session, resultSet, row[i], getValueExportFormat(column.getBinding()));
+        }
+        writer.writeRow(values);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException
+    {
+        if (writer != null) {
+            writer.writeFooter();
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        writer = null;
+        super.dispose();
+    }
+
+}
@@ -0,0 +1,350 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC file writer (format version V5).
+ *
+ * Rows are buffered into record batches of the specified size.
+ * File layout: magic, schema message, record batch messages, end-of-stream marker, footer, footer length, magic.
+ * Body compression is not used.
+ */
+public class ArrowFileWriter {
+
+    private static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final int BODY_ALIGNMENT = 8;
+
+    // Schema.fbs/Message.fbs constants
+    private static final int METADATA_VERSION_V5 = 4;
+    private static final int MESSAGE_HEADER_SCHEMA = 1;
+    private static final int MESSAGE_HEADER_RECORD_BATCH = 3;
+
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_FLOATING_POINT = 3;
+    private static final int TYPE_BINARY = 4;
+    private static final int TYPE_UTF8 = 5;
+    private static final int TYPE_BOOL = 6;
+    private static final int TYPE_DECIMAL = 7;
+    private static final int TYPE_DATE = 8;
+    private static final int TYPE_TIMESTAMP = 10;
+
+    private static final int PRECISION_DOUBLE = 2;
+    private static final int DATE_UNIT_DAY = 0;
+    private static final int TIME_UNIT_MICROSECOND = 2;
+
+    private static class Block {
+        private final long offset;
+        private final int metadataLength;
+        private final long bodyLength;
+
+        Block(long offset, int metadataLength, long bodyLength) {
+            this.offset = offset;
+            this.metadataLength = metadataLength;
+            this.bodyLength = bodyLength;
+        }
+    }
+
+    private final OutputStream out;
+    private final ColumnarColumn[] columns;
+    private final int batchSize;
+    private final ColumnVector[] vectors;
+    private final List<Block> recordBatches = new ArrayList<>();
+    private long position;
+    private int batchRows;
+
+    /**
+     * @param batchSize max number of rows in a record batch
+     */
+    public ArrowFileWriter(@NotNull OutputStream out, @NotNull ColumnarColumn[] columns, int batchSize) {
+        this.out = out;
+        this.columns = columns;
+        this.batchSize = Math.max(1, batchSize);
+        this.vectors = new ColumnVector[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            vectors[i] = new ColumnVector(columns[i].getType());
+        }
+    }
+
+    public void writeHeader() throws IOException {
+        // Magic is padded to 8 bytes
+        writeBytes(MAGIC);
+        writeBytes(new byte[2]);
+        writeMessage(MESSAGE_HEADER_SCHEMA, makeSchema(), null);
+    }
+
+    /**
+     * Writes row of normalized values (see {@link ColumnarColumn#normalizeValue})
+     */
+    public void writeRow(@NotNull Object[] values) throws IOException {
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].addValue(values[i]);
+        }
+        batchRows++;
+        if (batchRows >= batchSize) {
+            flushRecordBatch();
+        }
+    }
+
+    public void writeFooter() throws IOException {
+        flushRecordBatch();
+
+        // End of stream
+        ColumnarBuffer eos = new ColumnarBuffer(8);
+        eos.writeIntLE(CONTINUATION_MARKER);
+        eos.writeIntLE(0);
+        writeBytes(eos.toByteArray());
+
+        ColumnarBuffer blocks = new ColumnarBuffer();
+        for (Block block : recordBatches) {
+            blocks.writeLongLE(block.offset);
+            blocks.writeIntLE(block.metadataLength);
+            blocks.writeIntLE(0);
+            blocks.writeLongLE(block.bodyLength);
+        }
+        FlatBufferWriter.Table footer = new FlatBufferWriter.Table()
+            .addShort(0, METADATA_VERSION_V5)
+            .addOffset(1, makeSchema())
+            .addOffset(2, new FlatBufferWriter.StructVector(new byte[0], 0, 8))
+            .addOffset(3, new FlatBufferWriter.StructVector(blocks.toByteArray(), recordBatches.size(), 8));
+        byte[] footerData = FlatBufferWriter.serialize(footer);
+        writeBytes(footerData);
+
+        ColumnarBuffer tail = new ColumnarBuffer(10);
+        tail.writeIntLE(footerData.length);
+        tail.write(MAGIC, 0, MAGIC.length);
+        writeBytes(tail.toByteArray());
+        out.flush();
+    }
+
+    @NotNull
+    private FlatBufferWriter.Table makeSchema() {
+        List<FlatBufferWriter.Table> fields = new ArrayList<>(columns.length);
+        for (ColumnarColumn column : columns) {
+            FlatBufferWriter.Table type = new FlatBufferWriter.Table();
+            int typeId;
+            switch (column.getType()) {
+                case BOOLEAN:
+                    typeId = TYPE_BOOL;
+                    break;
+                case INT32:
+                    typeId = TYPE_INT;
+                    type.addInt(0, 32).addBoolean(1, true);
+                    break;
+                case INT64:
+                    typeId = TYPE_INT;
+                    type.addInt(0, 64).addBoolean(1, true);
+                    break;
+                case DOUBLE:
+                    typeId = TYPE_FLOATING_POINT;
+                    type.addShort(0, PRECISION_DOUBLE);
+                    break;
+                case DECIMAL:
+                    typeId = TYPE_DECIMAL;
+                    type.addInt(0, column.getPrecision()).addInt(1, column.getScale()).addInt(2, 128);
+                    break;
+                case DATE:
+                    typeId = TYPE_DATE;
+                    type.addShort(0, DATE_UNIT_DAY);
+                    break;
+                case TIMESTAMP:
+                    typeId = TYPE_TIMESTAMP;
+                    type.addShort(0, TIME_UNIT_MICROSECOND);
+                    break;
+                case BINARY:
+                    typeId = TYPE_BINARY;
+                    break;
+                default:
+                    typeId = TYPE_UTF8;
+                    break;
+            }
+            fields.add(new FlatBufferWriter.Table()
+                .addString(0, column.getName())
+                .addBoolean(1, true)
+                .addByte(2, typeId)
+                .addOffset(3, type)
+                .addOffset(5, new FlatBufferWriter.TableVector(Collections.emptyList())));
+        }
+        return new FlatBufferWriter.Table()
+            .addShort(0, 0)
+            .addOffset(1, new FlatBufferWriter.TableVector(fields));
+    }
+
+    private void flushRecordBatch() throws IOException {
+        if (batchRows == 0) {
+            return;
+        }
+        ColumnarBuffer nodes = new ColumnarBuffer();
+        ColumnarBuffer buffers = new ColumnarBuffer();
+        ColumnarBuffer body = new ColumnarBuffer();
+        int bufferCount = 0;
+        for (ColumnVector vector : vectors) {
+            nodes.writeLongLE(batchRows);
+            nodes.writeLongLE(vector.nullCount);
+            for (ColumnarBuffer data : vector.getBuffers()) {
+                buffers.writeLongLE(body.size());
+                buffers.writeLongLE(data.size());
+                data.writeTo(body);
+                body.align(BODY_ALIGNMENT);
+                bufferCount++;
+            }
+            vector.reset();
+        }
+        FlatBufferWriter.Table recordBatch = new FlatBufferWriter.Table()
+            .addLong(0, batchRows)
+            .addOffset(1, new FlatBufferWriter.StructVector(nodes.toByteArray(), vectors.length, 8))
+            .addOffset(2, new FlatBufferWriter.StructVector(buffers.toByteArray(), bufferCount, 8));
+        writeMessage(MESSAGE_HEADER_RECORD_BATCH, recordBatch, body);
+        batchRows = 0;
+    }
+
+    private void writeMessage(int headerType, @NotNull FlatBufferWriter.Table header, @Nullable ColumnarBuffer body) throws IOException {
+        long bodyLength = body == null ? 0 : body.size();
+        FlatBufferWriter.Table message = new FlatBufferWriter.Table()
+            .addShort(0, METADATA_VERSION_V5)
+            .addByte(1, headerType)
+            .addOffset(2, header)
+            .addLong(3, bodyLength);
+        byte[] metadata = FlatBufferWriter.serialize(message);
+
+        long offset = position;
+        ColumnarBuffer prefix = new ColumnarBuffer(8);
+        prefix.writeIntLE(CONTINUATION_MARKER);
+        prefix.writeIntLE(metadata.length);
+        writeBytes(prefix.toByteArray());
+        writeBytes(metadata);
+        if (body != null) {
+            body.writeTo(out);
+            position += body.size();
+        }
+        if (headerType == MESSAGE_HEADER_RECORD_BATCH) {
+            recordBatches.add(new Block(offset, prefix.size() + metadata.length, bodyLength));
+        }
+    }
+
+    private void writeBytes(@NotNull byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    /**
+     * Buffers of one column of the current record batch
+     */
+    private static class ColumnVector {
+        private final ColumnarType type;
+        private final ColumnarBuffer validity = new ColumnarBuffer();
+        private final ColumnarBuffer values = new ColumnarBuffer();
+        private final ColumnarBuffer offsets = new ColumnarBuffer();
+        private int valueCount;
+        private int nullCount;
+
+        ColumnVector(@NotNull ColumnarType type) {
+            this.type = type;
+            reset();
+        }
+
+        void addValue(@Nullable Object value) {
+            if (valueCount % 8 == 0) {
+                validity.write(0);
+                if (type == ColumnarType.BOOLEAN) {
+                    values.write(0);
+                }
+            }
+            if (value == null) {
+                nullCount++;
+            } else {
+                validity.setBit(0, valueCount);
+            }
+            switch (type) {
+                case BOOLEAN:
+                    if (value != null && (Boolean) value) {
+                        values.setBit(0, valueCount);
+                    }
+                    break;
+                case INT32:
+                case DATE:
+                    values.writeIntLE(value == null ? 0 : (Integer) value);
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    values.writeLongLE(value == null ? 0 : (Long) value);
+                    break;
+                case DOUBLE:
+                    values.writeDoubleLE(value == null ? 0 : (Double) value);
+                    break;
+                case DECIMAL:
+                    writeDecimal(value == null ? BigInteger.ZERO : ((BigDecimal) value).unscaledValue());
+                    break;
+                default: {
+                    if (value != null) {
+                        byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+                        values.write(bytes, 0, bytes.length);
+                    }
+                    offsets.writeIntLE(values.size());
+                    break;
+                }
+            }
+            valueCount++;
+        }
+
+        private void writeDecimal(@NotNull BigInteger unscaledValue) {
+            // 128-bit little-endian two's complement
+            long lowBits = unscaledValue.longValue();
+            values.writeLongLE(lowBits);
+            values.writeLongLE(unscaledValue.signum() < 0 ? -1L : 0L);
+        }
+
+        @NotNull
+        List<ColumnarBuffer> getBuffers() {
+            List<ColumnarBuffer> buffers = new ArrayList<>(3);
+            buffers.add(validity);
+            switch (type) {
+                case STRING:
+                case BINARY:
+                    buffers.add(offsets);
+                    buffers.add(values);
+                    break;
+                default:
+                    buffers.add(values);
+                    break;
+            }
+            return buffers;
+        }
+
+        void reset() {
+            validity.reset();
+            values.reset();
+            offsets.reset();
+            offsets.writeIntLE(0);
+            valueCount = 0;
+            nullCount = 0;
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Growable byte buffer with little-endian primitives.
+ * Both Parquet and Arrow use little-endian encoding.
+ */
+class ColumnarBuffer extends ByteArrayOutputStream {
+
+    ColumnarBuffer() {
+        super(1024);
+    }
+
+    ColumnarBuffer(int size) {
+        super(size);
+    }
+
+    void writeShortLE(int value) {
+        write(value);
+        write(value >>> 8);
+    }
+
+    void writeIntLE(int value) {
+        write(value);
+        write(value >>> 8);
+        write(value >>> 16);
+        write(value >>> 24);
+    }
+
+    void writeLongLE(long value) {
+        writeIntLE((int) value);
+        writeIntLE((int) (value >>> 32));
+    }
+
+    void writeDoubleLE(double value) {
+        writeLongLE(Double.doubleToLongBits(value));
+    }
+
+    void writeUnsignedVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        write(value);
+    }
+
+    void writeZeros(int length) {
+        for (int i = 0; i < length; i++) {
+            write(0);
+        }
+    }
+
+    /**
+     * Pads buffer with zeros to the specified alignment
+     */
+    void align(int alignment) {
+        int padding = (alignment - count % alignment) % alignment;
+        writeZeros(padding);
+    }
+
+    void putShortLE(int position, int value) {
+        buf[position] = (byte) value;
+        buf[position + 1] = (byte) (value >>> 8);
+    }
+
+    void putIntLE(int position, int value) {
+        buf[position] = (byte) value;
+        buf[position + 1] = (byte) (value >>> 8);
+        buf[position + 2] = (byte) (value >>> 16);
+        buf[position + 3] = (byte) (value >>> 24);
+    }
+
+    void putByte(int position, int value) {
+        buf[position] = (byte) value;
+    }
+
+    /**
+     * Sets bit in the bitmap of specified byte offset (LSB numbering, used by both formats)
+     */
+    void setBit(int offset, int bitIndex) {
+        buf[offset + (bitIndex >> 3)] |= (byte) (1 << (bitIndex & 7));
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Exported column of columnar file.
+ * Resolves file column type from attribute binding and converts attribute values into normalized values of this type.
+ */
+public class ColumnarColumn {
+
+    public static final int MAX_DECIMAL_PRECISION = 18;
+
+    private final DBDAttributeBinding binding;
+    private final String name;
+    private final ColumnarType type;
+    private final int precision;
+    private final int scale;
+
+    private ColumnarColumn(@NotNull DBDAttributeBinding binding, @NotNull String name) {
+        this.binding = binding;
+        this.name = name;
+        this.precision = CommonUtils.toInt(binding.getPrecision());
+        this.scale = CommonUtils.toInt(binding.getScale());
+        this.type = resolveType(binding, precision, scale);
+    }
+
+    /**
+     * Makes file columns. Column names must be unique in columnar formats, so duplicate names get numeric suffix.
+     */
+    @NotNull
+    public static ColumnarColumn[] createColumns(@NotNull DBDAttributeBinding[] bindings) {
+        ColumnarColumn[] columns = new ColumnarColumn[bindings.length];
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < bindings.length; i++) {
+            String label = bindings[i].getLabel();
+            String name = CommonUtils.isEmpty(label) ? bindings[i].getName() : label;
+            String uniqueName = name;
+            for (int index = 2; !names.add(uniqueName); index++) {
+                uniqueName = name + "_" + index;
+            }
+            columns[i] = new ColumnarColumn(bindings[i], uniqueName);
+        }
+        return columns;
+    }
+
+    @NotNull
+    public DBDAttributeBinding getBinding() {
+        return binding;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public ColumnarType getType() {
+        return type;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    @NotNull
+    private static ColumnarType resolveType(@NotNull DBDAttributeBinding binding, int precision, int scale) {
+        switch (binding.getDataKind()) {
+            case BOOLEAN:
+                return ColumnarType.BOOLEAN;
+            case NUMERIC: {
+                // Unsigned integers (MySQL) need wider types
+                boolean unsigned = CommonUtils.notEmpty(binding.getTypeName()).toLowerCase(Locale.ENGLISH).contains("unsigned");
+                switch (binding.getTypeID()) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                        return ColumnarType.INT32;
+                    case Types.INTEGER:
+                        return unsigned ? ColumnarType.INT64 : ColumnarType.INT32;
+                    case Types.BIGINT:
+                        return unsigned ? ColumnarType.STRING : ColumnarType.INT64;
+                    case Types.NUMERIC:
+                    case Types.DECIMAL:
+                        if (precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                            return ColumnarType.DECIMAL;
+                        }
+                        // Unbounded numbers. Keep exact value
+                        return ColumnarType.STRING;
+                    default:
+                        return ColumnarType.DOUBLE;
+                }
+            }
+            case DATETIME:
+                switch (binding.getTypeID()) {
+                    case Types.DATE:
+                        return ColumnarType.DATE;
+                    case Types.TIME:
+                    case Types.TIME_WITH_TIMEZONE:
+                        return ColumnarType.STRING;
+                    default:
+                        return ColumnarType.TIMESTAMP;
+                }
+            case BINARY:
+                return ColumnarType.BINARY;
+            case CONTENT:
+                switch (binding.getTypeID()) {
+                    case Types.CLOB:
+                    case Types.NCLOB:
+                    case Types.LONGVARCHAR:
+                    case Types.LONGNVARCHAR:
+                    case Types.SQLXML:
+                        return ColumnarType.STRING;
+                    default:
+                        return ColumnarType.BINARY;
+                }
+            default:
+                return ColumnarType.STRING;
+        }
+    }
+
+    /**
+     * Converts attribute value into value of column type (see {@link ColumnarType}).
+     * Returns null for null values.
+     */
+    @Nullable
+    public Object normalizeValue(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @Nullable Object value,
+        @NotNull DBDDisplayFormat format) throws DBException
+    {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof DBDContent) {
+            DBDContent content = (DBDContent) value;
+            try {
+                if (type == ColumnarType.BINARY) {
+                    return ContentUtils.getContentBinaryValue(session.getProgressMonitor(), content);
+                }
+                value = ContentUtils.getContentStringValue(session.getProgressMonitor(), content);
+                if (value == null) {
+                    return null;
+                }
+            } finally {
+                DTUtils.closeContents(resultSet, content);
+            }
+        }
+        try {
+            switch (type) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    return CommonUtils.toBoolean(value);
+                case INT32:
+                    if (value instanceof Number) {
+                        return Math.toIntExact(((Number) value).longValue());
+                    } else if (value instanceof Boolean) {
+                        return (Boolean) value ? 1 : 0;
+                    }
+                    return Integer.parseInt(value.toString().trim());
+                case INT64:
+                    if (value instanceof Number) {
+                        return ((Number) value).longValue();
+                    }
+                    return Long.parseLong(value.toString().trim());
+                case DOUBLE:
+                    if (value instanceof Number) {
+                        return ((Number) value).doubleValue();
+                    }
+                    return Double.parseDouble(value.toString().trim());
+                case DECIMAL: {
+                    BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString().trim());
+                    decimal = decimal.setScale(scale, RoundingMode.HALF_UP);
+                    if (decimal.unscaledValue().bitLength() > 63) {
+                        throw new DBException("Value " + decimal + " doesn't fit column " + name + " precision (" + precision + ")");
+                    }
+                    return decimal;
+                }
+                case DATE: {
+                    LocalDate date = toLocalDate(value);
+                    return date == null ? null : (int) date.toEpochDay();
+                }
+                case TIMESTAMP: {
+                    LocalDateTime dateTime = toLocalDateTime(value);
+                    if (dateTime == null) {
+                        return null;
+                    }
+                    return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1000;
+                }
+                case BINARY:
+                    if (value instanceof byte[]) {
+                        return value;
+                    }
+                    return getDisplayString(value, format).getBytes(StandardCharsets.UTF_8);
+                default:
+                    if (value instanceof String) {
+                        return value;
+                    }
+                    return getDisplayString(value, format);
+            }
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new DBException("Can't convert value '" + value + "' of column " + name + " to " + type, e);
+        }
+    }
+
+    @NotNull
+    private String getDisplayString(@NotNull Object value, @NotNull DBDDisplayFormat format) {
+        return binding.getValueHandler().getValueDisplayString(binding, value, format);
+    }
+
+    @Nullable
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof Date) {
+            return new java.sql.Date(((Date) value).getTime()).toLocalDate();
+        } else if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof TemporalAccessor) {
+            LocalDateTime dateTime = toLocalDateTime(value);
+            return dateTime == null ? null : dateTime.toLocalDate();
+        }
+        return LocalDate.parse(value.toString().trim());
+    }
+
+    /**
+     * Timestamps without time zone are written as is (wall clock time).
+     * Timestamps with time zone are converted to UTC.
+     */
+    @Nullable
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        } else if (value instanceof Date) {
+            return new Timestamp(((Date) value).getTime()).toLocalDateTime();
+        } else if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof OffsetDateTime) {
+            return LocalDateTime.ofInstant(((OffsetDateTime) value).toInstant(), ZoneOffset.UTC);
+        } else if (value instanceof ZonedDateTime) {
+            return LocalDateTime.ofInstant(((ZonedDateTime) value).toInstant(), ZoneOffset.UTC);
+        } else if (value instanceof Instant) {
+            return LocalDateTime.ofInstant((Instant) value, ZoneOffset.UTC);
+        }
+        String strValue = value.toString().trim();
+        if (strValue.length() > 10 && strValue.charAt(10) == ' ') {
+            return Timestamp.valueOf(strValue).toLocalDateTime();
+        }
+        return LocalDateTime.parse(strValue);
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + type;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+/**
+ * Column type of columnar file formats.
+ * Normalized value class of each type is specified in comments.
+ */
+public enum ColumnarType {
+    // Boolean
+    BOOLEAN,
+    // Integer
+    INT32,
+    // Long
+    INT64,
+    // Double
+    DOUBLE,
+    // BigDecimal with column scale. Precision is limited by 18 digits (64-bit unscaled value)
+    DECIMAL,
+    // Integer, days since epoch
+    DATE,
+    // Long, microseconds since epoch
+    TIMESTAMP,
+    // String
+    STRING,
+    // byte[]
+    BINARY
+}
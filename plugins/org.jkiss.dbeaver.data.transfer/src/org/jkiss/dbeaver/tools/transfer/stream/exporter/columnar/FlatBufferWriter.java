@@ -0,0 +1,245 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Minimal FlatBuffers serializer (used by Arrow IPC metadata).
+ *
+ * Objects are described as a tree of nodes and then serialized top-down:
+ * each object is written before its children, so all offsets point forward as required by the format.
+ * Tables are written with their own vtables (no vtable deduplication).
+ */
+class FlatBufferWriter {
+
+    abstract static class Node {
+    }
+
+    private static class TableField {
+        private final int slot;
+        private final int size;
+        private final long value;
+        private final Node child;
+
+        TableField(int slot, int size, long value, Node child) {
+            this.slot = slot;
+            this.size = size;
+            this.value = value;
+            this.child = child;
+        }
+    }
+
+    static class Table extends Node {
+        private final List<TableField> fields = new ArrayList<>();
+
+        Table addByte(int slot, int value) {
+            fields.add(new TableField(slot, 1, value, null));
+            return this;
+        }
+
+        Table addBoolean(int slot, boolean value) {
+            return addByte(slot, value ? 1 : 0);
+        }
+
+        Table addShort(int slot, int value) {
+            fields.add(new TableField(slot, 2, value, null));
+            return this;
+        }
+
+        Table addInt(int slot, int value) {
+            fields.add(new TableField(slot, 4, value, null));
+            return this;
+        }
+
+        Table addLong(int slot, long value) {
+            fields.add(new TableField(slot, 8, value, null));
+            return this;
+        }
+
+        Table addOffset(int slot, @NotNull Node child) {
+            fields.add(new TableField(slot, 4, 0, child));
+            return this;
+        }
+
+        Table addString(int slot, @NotNull String value) {
+            return addOffset(slot, new StringNode(value));
+        }
+    }
+
+    static class StringNode extends Node {
+        private final byte[] bytes;
+
+        StringNode(@NotNull String value) {
+            this.bytes = value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Vector of structs. Structs are passed in serialized form.
+     */
+    static class StructVector extends Node {
+        private final byte[] data;
+        private final int length;
+        private final int alignment;
+
+        StructVector(@NotNull byte[] data, int length, int alignment) {
+            this.data = data;
+            this.length = length;
+            this.alignment = alignment;
+        }
+    }
+
+    static class TableVector extends Node {
+        private final List<? extends Node> items;
+
+        TableVector(@NotNull List<? extends Node> items) {
+            this.items = items;
+        }
+    }
+
+    private final ColumnarBuffer buffer = new ColumnarBuffer();
+
+    /**
+     * Serializes root table. Result size is aligned to 8 bytes.
+     */
+    @NotNull
+    static byte[] serialize(@NotNull Table root) {
+        FlatBufferWriter writer = new FlatBufferWriter();
+        writer.buffer.writeIntLE(0);
+        int rootPosition = writer.writeNode(root);
+        writer.buffer.putIntLE(0, rootPosition);
+        writer.buffer.align(8);
+        return writer.buffer.toByteArray();
+    }
+
+    /**
+     * Writes node and all its children.
+     * Returns position referenced by offsets (table start, or vector/string length prefix).
+     */
+    private int writeNode(@NotNull Node node) {
+        if (node instanceof Table) {
+            return writeTable((Table) node);
+        } else if (node instanceof StringNode) {
+            byte[] bytes = ((StringNode) node).bytes;
+            buffer.align(4);
+            int position = buffer.size();
+            buffer.writeIntLE(bytes.length);
+            buffer.write(bytes, 0, bytes.length);
+            // Null terminator
+            buffer.write(0);
+            return position;
+        } else if (node instanceof StructVector) {
+            StructVector vector = (StructVector) node;
+            // Elements (after the length prefix) must be aligned to struct alignment
+            int alignment = Math.max(4, vector.alignment);
+            while ((buffer.size() + 4) % alignment != 0) {
+                buffer.write(0);
+            }
+            int position = buffer.size();
+            buffer.writeIntLE(vector.length);
+            buffer.write(vector.data, 0, vector.data.length);
+            return position;
+        } else if (node instanceof TableVector) {
+            List<? extends Node> items = ((TableVector) node).items;
+            buffer.align(4);
+            int position = buffer.size();
+            buffer.writeIntLE(items.size());
+            int offsetsStart = buffer.size();
+            buffer.writeZeros(items.size() * 4);
+            for (int i = 0; i < items.size(); i++) {
+                int offsetPosition = offsetsStart + i * 4;
+                int itemPosition = writeNode(items.get(i));
+                buffer.putIntLE(offsetPosition, itemPosition - offsetPosition);
+            }
+            return position;
+        } else {
+            throw new IllegalArgumentException("Unsupported node " + node);
+        }
+    }
+
+    private int writeTable(@NotNull Table table) {
+        // Place bigger fields first to minimize padding
+        TableField[] fields = table.fields.toArray(new TableField[0]);
+        Arrays.sort(fields, Comparator.comparingInt((TableField f) -> f.size).reversed());
+
+        int[] fieldOffsets = new int[fields.length];
+        int tableSize = 4;
+        int maxSlot = -1;
+        int tableAlignment = 4;
+        for (int i = 0; i < fields.length; i++) {
+            int size = fields[i].size;
+            tableSize = (tableSize + size - 1) / size * size;
+            fieldOffsets[i] = tableSize;
+            tableSize += size;
+            maxSlot = Math.max(maxSlot, fields[i].slot);
+            tableAlignment = Math.max(tableAlignment, size);
+        }
+
+        // VTable: vtable size, table size, field offsets by slot
+        int slotCount = maxSlot + 1;
+        buffer.align(2);
+        int vtablePosition = buffer.size();
+        buffer.writeShortLE(4 + slotCount * 2);
+        buffer.writeShortLE(tableSize);
+        int vtableSlotsStart = buffer.size();
+        buffer.writeZeros(slotCount * 2);
+        for (int i = 0; i < fields.length; i++) {
+            buffer.putShortLE(vtableSlotsStart + fields[i].slot * 2, fieldOffsets[i]);
+        }
+
+        buffer.align(tableAlignment);
+        int tablePosition = buffer.size();
+        buffer.writeIntLE(tablePosition - vtablePosition);
+        buffer.writeZeros(tableSize - 4);
+        for (int i = 0; i < fields.length; i++) {
+            TableField field = fields[i];
+            int fieldPosition = tablePosition + fieldOffsets[i];
+            switch (field.size) {
+                case 1:
+                    buffer.putByte(fieldPosition, (int) field.value);
+                    break;
+                case 2:
+                    buffer.putShortLE(fieldPosition, (int) field.value);
+                    break;
+                case 4:
+                    buffer.putIntLE(fieldPosition, (int) field.value);
+                    break;
+                default:
+                    buffer.putIntLE(fieldPosition, (int) field.value);
+                    buffer.putIntLE(fieldPosition + 4, (int) (field.value >>> 32));
+                    break;
+            }
+        }
+        // Children go after the table
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].child != null) {
+                int fieldPosition = tablePosition + fieldOffsets[i];
+                int childPosition = writeNode(fields[i].child);
+                buffer.putIntLE(fieldPosition, childPosition - fieldPosition);
+            }
+        }
+        return tablePosition;
+    }
+
+}
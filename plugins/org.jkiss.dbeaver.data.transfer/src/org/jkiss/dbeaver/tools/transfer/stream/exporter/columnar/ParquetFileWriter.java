@@ -0,0 +1,416 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Apache Parquet file writer.
+ *
+ * All columns are flat and optional. Values are written with PLAIN encoding, definition levels with RLE.
+ * Rows are buffered in memory until row group size is reached, each column chunk is split into pages of page size.
+ * File layout: magic, row groups (column chunks), file metadata (Thrift compact protocol), metadata length, magic.
+ */
+public class ParquetFileWriter {
+
+    public enum Codec {
+        UNCOMPRESSED(0),
+        GZIP(2);
+
+        private final int id;
+
+        Codec(int id) {
+            this.id = id;
+        }
+    }
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final String CREATED_BY = "DBeaver";
+
+    // parquet.thrift constants
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTE_ARRAY = 6;
+
+    private static final int CONVERTED_TYPE_UTF8 = 0;
+    private static final int CONVERTED_TYPE_DECIMAL = 5;
+    private static final int CONVERTED_TYPE_DATE = 6;
+    private static final int CONVERTED_TYPE_TIMESTAMP_MICROS = 10;
+
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int PAGE_TYPE_DATA = 0;
+
+    private static class RowGroupInfo {
+        private final long rowCount;
+        private final long[] offsets;
+        private final long[] valueCounts;
+        private final long[] uncompressedSizes;
+        private final long[] compressedSizes;
+
+        RowGroupInfo(long rowCount, int columnCount) {
+            this.rowCount = rowCount;
+            this.offsets = new long[columnCount];
+            this.valueCounts = new long[columnCount];
+            this.uncompressedSizes = new long[columnCount];
+            this.compressedSizes = new long[columnCount];
+        }
+    }
+
+    private final OutputStream out;
+    private final ColumnarColumn[] columns;
+    private final Codec codec;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final ColumnChunkWriter[] chunkWriters;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long position;
+    private long totalRows;
+    private long rowGroupRows;
+
+    /**
+     * @param rowGroupSize max size of buffered row group, in bytes
+     * @param pageSize     max size of a single page, in bytes (before compression)
+     */
+    public ParquetFileWriter(@NotNull OutputStream out, @NotNull ColumnarColumn[] columns, @NotNull Codec codec, long rowGroupSize, int pageSize) {
+        this.out = out;
+        this.columns = columns;
+        this.codec = codec;
+        this.rowGroupSize = rowGroupSize;
+        this.pageSize = pageSize;
+        this.chunkWriters = new ColumnChunkWriter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            chunkWriters[i] = new ColumnChunkWriter(columns[i].getType());
+        }
+    }
+
+    public void writeHeader() throws IOException {
+        writeBytes(MAGIC);
+    }
+
+    /**
+     * Writes row of normalized values (see {@link ColumnarColumn#normalizeValue})
+     */
+    public void writeRow(@NotNull Object[] values) throws IOException {
+        long bufferedSize = 0;
+        for (int i = 0; i < chunkWriters.length; i++) {
+            chunkWriters[i].addValue(values[i]);
+            bufferedSize += chunkWriters[i].getBufferedSize();
+        }
+        rowGroupRows++;
+        totalRows++;
+        if (bufferedSize >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public void writeFooter() throws IOException {
+        flushRowGroup();
+
+        ColumnarBuffer metadata = new ColumnarBuffer();
+        ThriftCompactWriter writer = new ThriftCompactWriter(metadata);
+        writer.beginStruct();
+        writer.writeI32Field(1, 1);
+        writeSchema(writer);
+        writer.writeI64Field(3, totalRows);
+        writer.writeListField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            writeRowGroup(writer, rowGroup);
+        }
+        writer.writeStringField(6, CREATED_BY);
+        writer.endStruct();
+
+        ColumnarBuffer tail = new ColumnarBuffer(8);
+        tail.writeIntLE(metadata.size());
+        tail.write(MAGIC, 0, MAGIC.length);
+        writeBytes(metadata.toByteArray());
+        writeBytes(tail.toByteArray());
+        out.flush();
+    }
+
+    private void writeSchema(@NotNull ThriftCompactWriter writer) {
+        writer.writeListField(2, ThriftCompactWriter.TYPE_STRUCT, columns.length + 1);
+        // Root element
+        writer.beginStruct();
+        writer.writeStringField(4, "schema");
+        writer.writeI32Field(5, columns.length);
+        writer.endStruct();
+        for (ColumnarColumn column : columns) {
+            writer.beginStruct();
+            writer.writeI32Field(1, getPhysicalType(column.getType()));
+            writer.writeI32Field(3, REPETITION_OPTIONAL);
+            writer.writeStringField(4, column.getName());
+            switch (column.getType()) {
+                case STRING:
+                    writer.writeI32Field(6, CONVERTED_TYPE_UTF8);
+                    break;
+                case DECIMAL:
+                    writer.writeI32Field(6, CONVERTED_TYPE_DECIMAL);
+                    writer.writeI32Field(7, column.getScale());
+                    writer.writeI32Field(8, column.getPrecision());
+                    break;
+                case DATE:
+                    writer.writeI32Field(6, CONVERTED_TYPE_DATE);
+                    break;
+                case TIMESTAMP:
+                    writer.writeI32Field(6, CONVERTED_TYPE_TIMESTAMP_MICROS);
+                    break;
+            }
+            writer.endStruct();
+        }
+    }
+
+    private void writeRowGroup(@NotNull ThriftCompactWriter writer, @NotNull RowGroupInfo rowGroup) {
+        writer.beginStruct();
+        writer.writeListField(1, ThriftCompactWriter.TYPE_STRUCT, columns.length);
+        long totalSize = 0;
+        for (int i = 0; i < columns.length; i++) {
+            // ColumnChunk
+            writer.beginStruct();
+            writer.writeI64Field(2, rowGroup.offsets[i]);
+            // ColumnMetaData
+            writer.writeStructField(3);
+            writer.writeI32Field(1, getPhysicalType(columns[i].getType()));
+            writer.writeListField(2, ThriftCompactWriter.TYPE_I32, 2);
+            writer.writeI32(ENCODING_PLAIN);
+            writer.writeI32(ENCODING_RLE);
+            writer.writeListField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+            writer.writeString(columns[i].getName());
+            writer.writeI32Field(4, codec.id);
+            writer.writeI64Field(5, rowGroup.valueCounts[i]);
+            writer.writeI64Field(6, rowGroup.uncompressedSizes[i]);
+            writer.writeI64Field(7, rowGroup.compressedSizes[i]);
+            writer.writeI64Field(9, rowGroup.offsets[i]);
+            writer.endStruct();
+            writer.endStruct();
+            totalSize += rowGroup.uncompressedSizes[i];
+        }
+        writer.writeI64Field(2, totalSize);
+        writer.writeI64Field(3, rowGroup.rowCount);
+        writer.endStruct();
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rowGroupRows == 0) {
+            return;
+        }
+        RowGroupInfo rowGroup = new RowGroupInfo(rowGroupRows, columns.length);
+        for (int i = 0; i < chunkWriters.length; i++) {
+            ColumnChunkWriter chunkWriter = chunkWriters[i];
+            chunkWriter.flushPage();
+            rowGroup.offsets[i] = position;
+            rowGroup.valueCounts[i] = chunkWriter.chunkValueCount;
+            rowGroup.uncompressedSizes[i] = chunkWriter.chunkUncompressedSize;
+            rowGroup.compressedSizes[i] = chunkWriter.chunk.size();
+            chunkWriter.chunk.writeTo(out);
+            position += chunkWriter.chunk.size();
+            chunkWriter.resetChunk();
+        }
+        rowGroups.add(rowGroup);
+        rowGroupRows = 0;
+    }
+
+    private void writeBytes(@NotNull byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    @NotNull
+    private byte[] compress(@NotNull byte[] data) throws IOException {
+        if (codec == Codec.GZIP) {
+            ColumnarBuffer buffer = new ColumnarBuffer(data.length / 2 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(data);
+            }
+            return buffer.toByteArray();
+        }
+        return data;
+    }
+
+    private static int getPhysicalType(@NotNull ColumnarType type) {
+        switch (type) {
+            case BOOLEAN:
+                return TYPE_BOOLEAN;
+            case INT32:
+            case DATE:
+                return TYPE_INT32;
+            case INT64:
+            case DECIMAL:
+            case TIMESTAMP:
+                return TYPE_INT64;
+            case DOUBLE:
+                return TYPE_DOUBLE;
+            default:
+                return TYPE_BYTE_ARRAY;
+        }
+    }
+
+    /**
+     * Buffers column chunk of the current row group
+     */
+    private class ColumnChunkWriter {
+        private final ColumnarType type;
+        // Current page
+        private final ColumnarBuffer values = new ColumnarBuffer();
+        private final ColumnarBuffer levels = new ColumnarBuffer();
+        private int pageValueCount;
+        private int levelRunValue = -1;
+        private int levelRunLength;
+        private int booleanBits;
+        private int booleanBitCount;
+        // Finished pages of the current row group
+        private final ColumnarBuffer chunk = new ColumnarBuffer();
+        private long chunkValueCount;
+        private long chunkUncompressedSize;
+
+        ColumnChunkWriter(@NotNull ColumnarType type) {
+            this.type = type;
+        }
+
+        long getBufferedSize() {
+            return chunk.size() + values.size() + levels.size();
+        }
+
+        void addValue(@Nullable Object value) throws IOException {
+            // Definition level: 0 for nulls, 1 for values
+            int level = value == null ? 0 : 1;
+            if (level != levelRunValue) {
+                flushLevelRun();
+                levelRunValue = level;
+            }
+            levelRunLength++;
+            if (value != null) {
+                writeValue(value);
+            }
+            pageValueCount++;
+            if (values.size() >= pageSize) {
+                flushPage();
+            }
+        }
+
+        private void writeValue(@NotNull Object value) {
+            switch (type) {
+                case BOOLEAN:
+                    if ((Boolean) value) {
+                        booleanBits |= 1 << booleanBitCount;
+                    }
+                    if (++booleanBitCount == 8) {
+                        values.write(booleanBits);
+                        booleanBits = 0;
+                        booleanBitCount = 0;
+                    }
+                    break;
+                case INT32:
+                case DATE:
+                    values.writeIntLE((Integer) value);
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    values.writeLongLE((Long) value);
+                    break;
+                case DECIMAL:
+                    values.writeLongLE(((BigDecimal) value).unscaledValue().longValue());
+                    break;
+                case DOUBLE:
+                    values.writeDoubleLE((Double) value);
+                    break;
+                case BINARY: {
+                    byte[] bytes = (byte[]) value;
+                    values.writeIntLE(bytes.length);
+                    values.write(bytes, 0, bytes.length);
+                    break;
+                }
+                default: {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    values.writeIntLE(bytes.length);
+                    values.write(bytes, 0, bytes.length);
+                    break;
+                }
+            }
+        }
+
+        private void flushLevelRun() {
+            if (levelRunLength > 0) {
+                // RLE run: header (length << 1) and the value in one byte (bit width is 1)
+                levels.writeUnsignedVarInt(levelRunLength << 1);
+                levels.write(levelRunValue);
+                levelRunLength = 0;
+            }
+        }
+
+        void flushPage() throws IOException {
+            if (pageValueCount == 0) {
+                return;
+            }
+            flushLevelRun();
+            levelRunValue = -1;
+            if (booleanBitCount > 0) {
+                values.write(booleanBits);
+                booleanBits = 0;
+                booleanBitCount = 0;
+            }
+
+            ColumnarBuffer page = new ColumnarBuffer(4 + levels.size() + values.size());
+            page.writeIntLE(levels.size());
+            levels.writeTo(page);
+            values.writeTo(page);
+            byte[] pageData = page.toByteArray();
+            byte[] compressedData = compress(pageData);
+
+            int headerStart = chunk.size();
+            ThriftCompactWriter writer = new ThriftCompactWriter(chunk);
+            writer.beginStruct();
+            writer.writeI32Field(1, PAGE_TYPE_DATA);
+            writer.writeI32Field(2, pageData.length);
+            writer.writeI32Field(3, compressedData.length);
+            writer.writeStructField(5);
+            writer.writeI32Field(1, pageValueCount);
+            writer.writeI32Field(2, ENCODING_PLAIN);
+            writer.writeI32Field(3, ENCODING_RLE);
+            writer.writeI32Field(4, ENCODING_RLE);
+            writer.endStruct();
+            writer.endStruct();
+            int headerSize = chunk.size() - headerStart;
+            chunk.write(compressedData, 0, compressedData.length);
+
+            chunkUncompressedSize += headerSize + pageData.length;
+            chunkValueCount += pageValueCount;
+            values.reset();
+            levels.reset();
+            pageValueCount = 0;
+        }
+
+        void resetChunk() {
+            chunk.reset();
+            chunkValueCount = 0;
+            chunkUncompressedSize = 0;
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal writer of Thrift compact protocol (used by Parquet metadata).
+ * Supports only types needed for Parquet file metadata: i32, i64, binary, list and struct.
+ */
+class ThriftCompactWriter {
+
+    static final int TYPE_I32 = 5;
+    static final int TYPE_I64 = 6;
+    static final int TYPE_BINARY = 8;
+    static final int TYPE_LIST = 9;
+    static final int TYPE_STRUCT = 12;
+
+    private final ColumnarBuffer buffer;
+    private final Deque<Integer> fieldIdStack = new ArrayDeque<>();
+    private int lastFieldId;
+
+    ThriftCompactWriter(@NotNull ColumnarBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    void beginStruct() {
+        fieldIdStack.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    void endStruct() {
+        // Field stop
+        buffer.write(0);
+        lastFieldId = fieldIdStack.pop();
+    }
+
+    void writeStructField(int fieldId) {
+        writeFieldHeader(TYPE_STRUCT, fieldId);
+        beginStruct();
+    }
+
+    void writeI32Field(int fieldId, int value) {
+        writeFieldHeader(TYPE_I32, fieldId);
+        writeI32(value);
+    }
+
+    void writeI64Field(int fieldId, long value) {
+        writeFieldHeader(TYPE_I64, fieldId);
+        writeI64(value);
+    }
+
+    void writeStringField(int fieldId, @NotNull String value) {
+        writeFieldHeader(TYPE_BINARY, fieldId);
+        writeString(value);
+    }
+
+    /**
+     * Writes list header. Elements must be written right after it.
+     */
+    void writeListField(int fieldId, int elementType, int size) {
+        writeFieldHeader(TYPE_LIST, fieldId);
+        if (size < 15) {
+            buffer.write((size << 4) | elementType);
+        } else {
+            buffer.write(0xF0 | elementType);
+            writeVarint(size);
+        }
+    }
+
+    void writeI32(int value) {
+        writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    void writeI64(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    void writeString(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private void writeFieldHeader(int type, int fieldId) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            buffer.write((delta << 4) | type);
+        } else {
+            buffer.write(type);
+            writeI32(fieldId);
+        }
+        lastFieldId = fieldId;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+}
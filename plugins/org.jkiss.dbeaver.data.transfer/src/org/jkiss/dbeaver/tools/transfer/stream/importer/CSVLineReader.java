@@ -0,0 +1,41 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of parsed CSV records
+ */
+interface CSVLineReader extends Closeable {
+
+    /**
+     * Returns next record or null if end of stream is reached.
+     * Record values are strings or values already converted to the column data kind.
+     */
+    @Nullable
+    Object[] readNext() throws IOException;
+
+    /**
+     * Returns true if stream ends with un-terminated quote sequence
+     */
+    boolean isPending();
+
+}
@@ -39,6 +39,9 @@ import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +60,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARSER_THREADS = "parserThreads";
+    private static final String PROP_MAPPED_READER = "mappedReader";
+    // Default value of the timestampFormat property (see plugin.xml)
+    private static final String DEFAULT_TIMESTAMP_FORMAT = "yyyy-MM-dd[ HH:mm:ss[.SSS]]";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
 
     public enum HeaderPosition {
@@ -158,21 +165,117 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
-        String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, getDelimiter(processorProperties), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private CSVLineReader openLineReader(
+        InputStream inputStream,
+        Map<String, Object> processorProperties,
+        StreamTransferResultSet resultSet) throws IOException
+    {
+        final Charset charset = getCharset(processorProperties);
+        final char delimiter = getDelimiter(processorProperties);
+        final char quoteChar = getQuoteChar(processorProperties);
+        final char escapeChar = getEscapeChar(processorProperties);
+        if (CommonUtils.getBoolean(processorProperties.get(PROP_MAPPED_READER), false)) {
+            final Path inputFile = getSite().getSourceObject().getInputFile();
+            if (!isLocalFile(inputFile)) {
+                log.debug("Memory-mapped CSV reader is not supported for '" + inputFile + "', reading input stream");
+            } else if (MappedCSVReader.isSupported(charset, delimiter, quoteChar, escapeChar)) {
+                // Reader parses date/time values in the default format only.
+                // Values in other formats (or with time zone shift) are converted by the result set
+                final boolean parseDateTime =
+                    DEFAULT_TIMESTAMP_FORMAT.equals(CommonUtils.toString(processorProperties.get(PROP_TIMESTAMP_FORMAT))) &&
+                    CommonUtils.isEmpty(CommonUtils.toString(processorProperties.get(PROP_TIMESTAMP_ZONE)));
+                List<StreamDataImporterColumnInfo> columns = resultSet.getAttributeMappings();
+                DBPDataKind[] columnKinds = new DBPDataKind[columns.size()];
+                for (int i = 0; i < columnKinds.length; i++) {
+                    DBPDataKind targetKind = columns.get(i).getTargetDataKind();
+                    if (targetKind == DBPDataKind.DATETIME && !parseDateTime) {
+                        targetKind = null;
+                    }
+                    columnKinds[i] = targetKind;
+                }
+                return new MappedCSVReader(
+                    inputFile,
+                    charset, delimiter, quoteChar, escapeChar,
+                    columnKinds,
+                    CommonUtils.getBoolean(processorProperties.get(PROP_TRIM_WHITESPACES), false),
+                    CommonUtils.getBoolean(processorProperties.get(PROP_EMPTY_STRING_NULL), false),
+                    CommonUtils.toString(processorProperties.get(PROP_NULL_STRING)));
+            } else {
+                log.debug("Memory-mapped CSV reader is not supported for encoding " + charset.name());
+            }
+        }
+        final int parserThreads = CommonUtils.toInt(processorProperties.get(PROP_PARSER_THREADS), 1);
+        if (parserThreads > 1) {
+            if (ParallelCSVReader.isSupported(charset, delimiter, quoteChar, escapeChar)) {
+                return new ParallelCSVReader(
+                    openInputStream(inputStream, charset, false),
+                    charset, delimiter, quoteChar, escapeChar,
+                    parserThreads,
+                    ParallelCSVReader.CHUNK_SIZE);
+            }
+            log.debug("Parallel CSV parsing is not supported for encoding " + charset.name() + ", reading sequentially");
+        }
+        CSVReader csvReader = openCSVReader(new InputStreamReader(openInputStream(inputStream, charset, true), charset), processorProperties);
+        return new CSVLineReader() {
+            @Override
+            public String[] readNext() throws IOException {
+                return csvReader.readNext();
+            }
+
+            @Override
+            public boolean isPending() {
+                return csvReader.getParser().isPending();
+            }
+
+            @Override
+            public void close() throws IOException {
+                csvReader.close();
+            }
+        };
+    }
+
+    /**
+     * Only regular files of the default file system can be mapped.
+     * Other inputs (e.g. files of remote file systems) are read from the input stream.
+     */
+    private static boolean isLocalFile(@NotNull Path file) {
+        return file.getFileSystem() == FileSystems.getDefault() && Files.isRegularFile(file);
+    }
+
+    private static char getDelimiter(Map<String, Object> processorProperties) {
+        return StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER).charAt(0);
+    }
+
+    private static char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private static char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
     }
 
-    private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
+    private static Charset getCharset(Map<String, Object> processorProperties) {
         final String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
-        final Charset charset = Charset.forName(encoding);
+        return Charset.forName(encoding);
+    }
+
+    private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
+        final Charset charset = getCharset(processorProperties);
+        return new InputStreamReader(openInputStream(inputStream, charset, useBufferedStream), charset);
+    }
+
+    private InputStream openInputStream(InputStream inputStream, Charset charset, boolean useBufferedStream) {
         if (useBufferedStream) {
             inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
         }
@@ -181,7 +284,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         } catch (IllegalArgumentException ignored) {
             // This charset does not have BOM, suppress and continue
         }
-        return new InputStreamReader(inputStream, charset);
+        return inputStream;
     }
 
     private String[] getNextLine(CSVReader csvReader) throws IOException {
@@ -216,71 +319,70 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (long lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
-                            }
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
+            try (CSVLineReader csvReader = openLineReader(inputStream, properties, resultSet)) {
+                int maxRows = site.getSettings().getMaxRows();
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                boolean headerRead = false;
+                for (long lineNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    Object[] line = csvReader.readNext();
+                    if (line == null) {
+                        if (csvReader.isPending()) {
+                            throw new IOException("Un-terminated quote sequence was detected");
                         }
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (headerPosition != HeaderPosition.none && !headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    if (maxRows > 0 && lineNum >= maxRows) {
+                        break;
+                    }
 
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
+                    if (line.length < targetAttrSize) {
+                        // Stream row may be shorter than header
+                        Object[] newLine = new Object[targetAttrSize];
+                        System.arraycopy(line, 0, newLine, 0, line.length);
+                        for (int i = line.length; i < targetAttrSize; i++) {
+                            newLine[i] = null;
                         }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
+                        line = newLine;
+                    }
+                    if (trimWhitespaces) {
+                        for (int i = 0; i < line.length; i++) {
+                            if (line[i] instanceof String) {
+                                line[i] = ((String) line[i]).trim();
                             }
                         }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
+                    }
+                    if (emptyStringNull) {
+                        for (int i = 0; i < line.length; i++) {
+                            if ("".equals(line[i])) {
+                                line[i] = null;
                             }
                         }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
+                    }
+                    if (!CommonUtils.isEmpty(nullValueMark)) {
+                        for (int i = 0; i < line.length; i++) {
+                            if (nullValueMark.equals(line[i])) {
+                                line[i] = null;
                             }
                         }
+                    }
 
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
+                    resultSet.setStreamRow(line);
+                    consumer.fetchRow(producerSession, resultSet);
+                    lineNum++;
 
-                        if (DBFetchProgress.monitorFetchProgress(lineNum)) {
-                            monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
-                        }
+                    if (DBFetchProgress.monitorFetchProgress(lineNum)) {
+                        monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
                     }
                 }
             } catch (IOException e) {
@@ -0,0 +1,533 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * CSV reader which tokenizes memory-mapped file.
+ *
+ * Records are parsed directly from the mapped buffer, unescaped field values are written into a reusable record buffer.
+ * Values of columns mapped to numeric, boolean or date/time target attributes are converted directly from bytes,
+ * other values are decoded into strings. Date/time values are parsed in the importer's default format only,
+ * so the caller must not pass date/time columns for other formats.
+ *
+ * Quotes and escapes are processed the same way as in {@link org.jkiss.utils.csv.CSVReader},
+ * including its handling of quotes in the middle of a field.
+ *
+ * Mapped windows are unmapped explicitly when the next window is mapped and on close,
+ * otherwise they would hold the file (and address space) until garbage collection.
+ */
+class MappedCSVReader implements CSVLineReader {
+
+    private static final Log log = Log.getLog(MappedCSVReader.class);
+
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int NO_CHAR = -1;
+    private static final int NEED_MORE_DATA = -2;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    // There is no public API to unmap buffers, Unsafe.invokeCleaner is used when available
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            unsafe = unsafeField.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Throwable e) {
+            log.debug("Mapped buffers can't be unmapped explicitly: " + e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Charset charset;
+    private final boolean utf8;
+    private final byte delimiter;
+    private final byte quoteChar;
+    private final byte escapeChar;
+    private final int columnCount;
+    // Data kinds of columns which values are converted from bytes. Null for string columns.
+    private final DBPDataKind[] columnKinds;
+    private final boolean trimWhitespaces;
+    private final boolean emptyStringNull;
+    @Nullable
+    private final byte[] nullValueMark;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+    private int windowSize = WINDOW_SIZE;
+    private int position;
+    private boolean pending;
+
+    // Current record: field values are stored in the record buffer
+    private int fieldCount;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private byte[] recordBuffer = new byte[1024];
+    private int recordLength;
+
+    MappedCSVReader(
+        @NotNull Path file,
+        @NotNull Charset charset,
+        char delimiter,
+        char quoteChar,
+        char escapeChar,
+        @NotNull DBPDataKind[] columnKinds,
+        boolean trimWhitespaces,
+        boolean emptyStringNull,
+        @Nullable String nullValueMark) throws IOException
+    {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.charset = charset;
+        this.utf8 = charset.equals(StandardCharsets.UTF_8);
+        this.delimiter = (byte) delimiter;
+        this.quoteChar = (byte) quoteChar;
+        this.escapeChar = (byte) escapeChar;
+        this.columnCount = columnKinds.length;
+        this.columnKinds = columnKinds;
+        this.trimWhitespaces = trimWhitespaces;
+        this.emptyStringNull = emptyStringNull;
+        this.nullValueMark = CommonUtils.isEmpty(nullValueMark) ? null : nullValueMark.getBytes(charset);
+
+        mapWindow(0);
+        if (utf8 && startsWith(UTF8_BOM)) {
+            position = UTF8_BOM.length;
+        }
+    }
+
+    /**
+     * Same restrictions as for parallel reader: tokenizer works with single-byte special characters.
+     */
+    static boolean isSupported(@NotNull Charset charset, char delimiter, char quoteChar, char escapeChar) {
+        return ParallelCSVReader.isSupported(charset, delimiter, quoteChar, escapeChar);
+    }
+
+    @Nullable
+    @Override
+    public Object[] readNext() throws IOException {
+        while (windowStart + position < fileSize) {
+            int recordEnd = parseRecord(position);
+            if (recordEnd == NEED_MORE_DATA) {
+                // Record does not fit into the window
+                if (position == 0) {
+                    if (windowSize > Integer.MAX_VALUE / 2) {
+                        throw new IOException("CSV record is too long");
+                    }
+                    windowSize *= 2;
+                }
+                mapWindow(windowStart + position);
+                continue;
+            }
+            position = recordEnd;
+            if (fieldCount == 0) {
+                // Un-terminated quote at the end of file
+                continue;
+            }
+            Object[] row = new Object[Math.max(fieldCount, columnCount)];
+            for (int i = 0; i < fieldCount; i++) {
+                row[i] = getFieldValue(i);
+            }
+            return row;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseWindow();
+        channel.close();
+    }
+
+    private void mapWindow(long start) throws IOException {
+        releaseWindow();
+        long size = Math.min(windowSize, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        windowLimit = (int) size;
+        position = 0;
+    }
+
+    private void releaseWindow() {
+        MappedByteBuffer buffer = window;
+        window = null;
+        if (buffer != null && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (Throwable e) {
+                log.debug("Error unmapping CSV file window: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean startsWith(@NotNull byte[] prefix) {
+        if (windowLimit < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (window.get(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses record which starts at the specified position.
+     * Returns position of the next record or NEED_MORE_DATA if record end is beyond the mapped window.
+     */
+    private int parseRecord(int start) {
+        final boolean lastWindow = windowStart + windowLimit >= fileSize;
+        final int limit = windowLimit;
+        fieldCount = 0;
+        recordLength = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        boolean inField = false;
+        // Index of the current character in the current line
+        int charIndex = 0;
+        int pos = start;
+        while (true) {
+            if (pos >= limit) {
+                if (!lastWindow) {
+                    return NEED_MORE_DATA;
+                }
+                if (inQuotes) {
+                    // Incomplete field is not returned
+                    pending = true;
+                } else {
+                    addField(fieldStart);
+                }
+                return limit;
+            }
+            byte b = window.get(pos);
+            if (b == '\n' || b == '\r') {
+                int next = pos + 1;
+                if (b == '\r') {
+                    if (next >= limit && !lastWindow) {
+                        return NEED_MORE_DATA;
+                    }
+                    if (next < limit && window.get(next) == '\n') {
+                        next++;
+                    }
+                }
+                if (inQuotes) {
+                    // Line break inside of quoted value
+                    append((byte) '\n');
+                    charIndex = 0;
+                    pos = next;
+                    continue;
+                }
+                addField(fieldStart);
+                return next;
+            }
+            final boolean quoted = inQuotes || inField;
+            if (b == escapeChar) {
+                int nextChar = getNextChar(pos, limit, lastWindow);
+                if (nextChar == NEED_MORE_DATA) {
+                    return NEED_MORE_DATA;
+                }
+                if (quoted && (nextChar == quoteChar || nextChar == escapeChar)) {
+                    append((byte) nextChar);
+                    pos += 2;
+                    charIndex += 2;
+                } else {
+                    // Escape character is skipped
+                    pos++;
+                    charIndex++;
+                }
+            } else if (b == quoteChar) {
+                int nextChar = getNextChar(pos, limit, lastWindow);
+                if (nextChar == NEED_MORE_DATA) {
+                    return NEED_MORE_DATA;
+                }
+                if (quoted && nextChar == quoteChar) {
+                    append(quoteChar);
+                    pos += 2;
+                    charIndex += 2;
+                    continue;
+                }
+                inQuotes = !inQuotes;
+                // Quote in the middle of a field: a,bc"d"ef,g
+                if (charIndex > 2 && window.get(pos - 1) != delimiter && nextChar != NO_CHAR && nextChar != delimiter) {
+                    if (recordLength > fieldStart && hasWhitespace(fieldStart, recordLength)) {
+                        recordLength = fieldStart;
+                    } else {
+                        append(quoteChar);
+                    }
+                }
+                inField = !inField;
+                pos++;
+                charIndex++;
+            } else if (b == delimiter && !inQuotes) {
+                addField(fieldStart);
+                fieldStart = recordLength;
+                inField = false;
+                pos++;
+                charIndex++;
+            } else {
+                append(b);
+                inField = true;
+                if (!utf8 || (b & 0xC0) != 0x80) {
+                    // UTF-8 continuation bytes are parts of the previous character
+                    charIndex++;
+                }
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Returns next character in the same line, NO_CHAR at the end of line or NEED_MORE_DATA at the end of window.
+     */
+    private int getNextChar(int pos, int limit, boolean lastWindow) {
+        if (pos + 1 >= limit) {
+            return lastWindow ? NO_CHAR : NEED_MORE_DATA;
+        }
+        byte next = window.get(pos + 1);
+        return next == '\n' || next == '\r' ? NO_CHAR : next;
+    }
+
+    private boolean hasWhitespace(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = recordBuffer[i];
+            if (b >= 0 && Character.isWhitespace(b)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(byte b) {
+        if (recordLength == recordBuffer.length) {
+            recordBuffer = Arrays.copyOf(recordBuffer, recordLength * 2);
+        }
+        recordBuffer[recordLength++] = b;
+    }
+
+    private void addField(int start) {
+        if (fieldCount == fieldStarts.length) {
+            int newLength = fieldCount * 2;
+            fieldStarts = Arrays.copyOf(fieldStarts, newLength);
+            fieldEnds = Arrays.copyOf(fieldEnds, newLength);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    @Nullable
+    private Object getFieldValue(int index) {
+        int from = fieldStarts[index];
+        int to = fieldEnds[index];
+        if (trimWhitespaces) {
+            while (from < to && (recordBuffer[from] & 0xFF) <= ' ') {
+                from++;
+            }
+            while (to > from && (recordBuffer[to - 1] & 0xFF) <= ' ') {
+                to--;
+            }
+        }
+        if (emptyStringNull && from == to) {
+            return null;
+        }
+        if (nullValueMark != null && Arrays.equals(recordBuffer, from, to, nullValueMark, 0, nullValueMark.length)) {
+            return null;
+        }
+        DBPDataKind kind = index < columnKinds.length ? columnKinds[index] : null;
+        if (kind != null) {
+            Object value;
+            switch (kind) {
+                case NUMERIC:
+                    value = parseNumber(from, to);
+                    break;
+                case BOOLEAN:
+                    value = parseBoolean(from, to);
+                    break;
+                case DATETIME:
+                    value = parseTimestamp(from, to);
+                    break;
+                default:
+                    value = null;
+                    break;
+            }
+            if (value != null) {
+                return value;
+            }
+        }
+        return new String(recordBuffer, from, to - from, charset);
+    }
+
+    /**
+     * Parses plain decimal number (optional minus sign, digits, optional fraction).
+     * Returns null for other formats and for numbers which do not fit into long.
+     */
+    @Nullable
+    private Number parseNumber(int from, int to) {
+        int pos = from;
+        boolean negative = false;
+        if (pos < to && recordBuffer[pos] == '-') {
+            negative = true;
+            pos++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean hasDigits = false;
+        for (; pos < to; pos++) {
+            byte b = recordBuffer[pos];
+            if (b >= '0' && b <= '9') {
+                if (digits >= MAX_LONG_DIGITS) {
+                    return null;
+                }
+                hasDigits = true;
+                unscaled = unscaled * 10 + (b - '0');
+                if (unscaled != 0) {
+                    digits++;
+                }
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (!hasDigits) {
+            return null;
+        }
+        if (negative) {
+            unscaled = -unscaled;
+        }
+        if (scale <= 0) {
+            return unscaled;
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Nullable
+    private Boolean parseBoolean(int from, int to) {
+        int length = to - from;
+        if (length == 4 && equalsIgnoreCase(from, "true")) {
+            return Boolean.TRUE;
+        } else if (length == 5 && equalsIgnoreCase(from, "false")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private boolean equalsIgnoreCase(int from, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(recordBuffer[from + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses date/time in the importer's default format: yyyy-MM-dd[ HH:mm:ss[.SSS]].
+     * Returns null for other formats and for values which don't form a valid date, they are left to the result set
+     * (its formatter resolves some of them, e.g. day 31 of a shorter month).
+     */
+    @Nullable
+    private Timestamp parseTimestamp(int from, int to) {
+        int length = to - from;
+        if (length != 10 && length != 19 && length != 23) {
+            return null;
+        }
+        int year = parseDigits(from, 4);
+        int month = parseDigits(from + 5, 2);
+        int day = parseDigits(from + 8, 2);
+        if (year < 1 || month < 0 || day < 0 || recordBuffer[from + 4] != '-' || recordBuffer[from + 7] != '-') {
+            return null;
+        }
+        int hour = 0, minute = 0, second = 0, nanos = 0;
+        if (length > 10) {
+            hour = parseDigits(from + 11, 2);
+            minute = parseDigits(from + 14, 2);
+            second = parseDigits(from + 17, 2);
+            if (recordBuffer[from + 10] != ' ' || hour < 0 || minute < 0 || second < 0 ||
+                recordBuffer[from + 13] != ':' || recordBuffer[from + 16] != ':')
+            {
+                return null;
+            }
+            if (length > 19) {
+                int millis = parseDigits(from + 20, 3);
+                if (recordBuffer[from + 19] != '.' || millis < 0) {
+                    return null;
+                }
+                nanos = millis * 1_000_000;
+            }
+        }
+        try {
+            return Timestamp.valueOf(LocalDateTime.of(year, month, day, hour, minute, second, nanos));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int parseDigits(int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            byte b = recordBuffer[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            result = result * 10 + (b - '0');
+        }
+        return result;
+    }
+
+}
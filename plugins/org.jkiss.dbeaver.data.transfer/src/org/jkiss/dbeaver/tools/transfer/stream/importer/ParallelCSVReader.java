@@ -0,0 +1,316 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.csv.CSVReader;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV reader which parses the input stream in parallel.
+ *
+ * The input is split into chunks at line ends which are outside of quotes. Chunks are decoded and parsed
+ * by separate jobs, records are returned in the original order.
+ * If a chunk turns out to end inside a record (this may happen with escaped quotes) it is merged with the next chunk
+ * and parsed again, so the result is always the same as with the sequential {@link CSVReader}.
+ */
+class ParallelCSVReader implements CSVLineReader {
+
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final InputStream inputStream;
+    private final Charset charset;
+    private final char delimiter;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final int chunkSize;
+    private final int maxChunksAhead;
+
+    private final List<ParserJob> parsers = new ArrayList<>();
+    private final LinkedBlockingQueue<Chunk> parseQueue = new LinkedBlockingQueue<>();
+    // Chunks in the input order
+    private final ArrayDeque<Chunk> readChunks = new ArrayDeque<>();
+
+    // Split state
+    private byte[] buffer;
+    private int bufferLength;
+    private int scanPosition;
+    private int lastBoundary;
+    private boolean inQuotes;
+    private boolean skipNext;
+    private boolean endOfStream;
+
+    private List<String[]> currentRows = Collections.emptyList();
+    private int currentRow;
+    private boolean pending;
+    private volatile boolean stopped;
+
+    ParallelCSVReader(
+        @NotNull InputStream inputStream,
+        @NotNull Charset charset,
+        char delimiter,
+        char quoteChar,
+        char escapeChar,
+        int threadCount,
+        int chunkSize)
+    {
+        this.inputStream = inputStream;
+        this.charset = charset;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.chunkSize = chunkSize;
+        this.maxChunksAhead = threadCount * 2;
+        this.buffer = new byte[chunkSize];
+        for (int i = 0; i < threadCount; i++) {
+            ParserJob parser = new ParserJob(i);
+            parsers.add(parser);
+            parser.schedule();
+        }
+    }
+
+    /**
+     * Chunks are split by raw bytes, so line feed, quote and escape characters
+     * must be encoded as single bytes which never appear inside of other characters.
+     */
+    static boolean isSupported(@NotNull Charset charset, char delimiter, char quoteChar, char escapeChar) {
+        if (delimiter >= 0x80 || quoteChar >= 0x80 || escapeChar >= 0x80) {
+            return false;
+        }
+        String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) ||
+            charset.equals(StandardCharsets.US_ASCII) ||
+            name.startsWith("ISO-8859-") ||
+            name.startsWith("windows-125");
+    }
+
+    @Nullable
+    @Override
+    public String[] readNext() throws IOException {
+        while (currentRow >= currentRows.size()) {
+            if (!nextChunk()) {
+                return null;
+            }
+        }
+        return currentRows.get(currentRow++);
+    }
+
+    @Override
+    public boolean isPending() {
+        return pending;
+    }
+
+    private boolean nextChunk() throws IOException {
+        fillChunks();
+        Chunk chunk = readChunks.poll();
+        if (chunk == null) {
+            return false;
+        }
+        waitParsed(chunk);
+        while (chunk.pending) {
+            // Chunk was split inside of a record. Merge it with the next one and parse again.
+            fillChunks();
+            Chunk next = readChunks.poll();
+            if (next == null) {
+                pending = true;
+                break;
+            }
+            Chunk merged = new Chunk(concat(chunk, next));
+            merged.parse();
+            chunk = merged;
+            fillChunks();
+        }
+        if (chunk.error != null) {
+            throw chunk.error;
+        }
+        currentRows = chunk.rows;
+        currentRow = 0;
+        return true;
+    }
+
+    private void waitParsed(@NotNull Chunk chunk) throws IOException {
+        try {
+            while (!chunk.parsed.await(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new InterruptedIOException("CSV parser stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("CSV parsing interrupted");
+        }
+        if (chunk.error != null) {
+            throw chunk.error;
+        }
+    }
+
+    /**
+     * Reads input and schedules parsing of new chunks
+     */
+    private void fillChunks() throws IOException {
+        while (readChunks.size() < maxChunksAhead) {
+            byte[] data = readChunk();
+            if (data == null) {
+                break;
+            }
+            Chunk chunk = new Chunk(data);
+            readChunks.add(chunk);
+            parseQueue.add(chunk);
+        }
+    }
+
+    @Nullable
+    private byte[] readChunk() throws IOException {
+        while (true) {
+            if (lastBoundary > 0 && (bufferLength >= chunkSize || endOfStream)) {
+                return cutChunk(lastBoundary);
+            }
+            if (endOfStream) {
+                return bufferLength > 0 ? cutChunk(bufferLength) : null;
+            }
+            if (bufferLength == buffer.length) {
+                // Record is longer than chunk
+                byte[] newBuffer = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+                buffer = newBuffer;
+            }
+            int count = inputStream.read(buffer, bufferLength, buffer.length - bufferLength);
+            if (count < 0) {
+                endOfStream = true;
+                continue;
+            }
+            bufferLength += count;
+            scan();
+        }
+    }
+
+    /**
+     * Finds the last line feed outside of quotes
+     */
+    private void scan() {
+        for (; scanPosition < bufferLength; scanPosition++) {
+            byte b = buffer[scanPosition];
+            if (skipNext) {
+                skipNext = false;
+            } else if (b == escapeChar) {
+                skipNext = true;
+            } else if (b == quoteChar) {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                lastBoundary = scanPosition + 1;
+            }
+        }
+    }
+
+    @NotNull
+    private byte[] cutChunk(int length) {
+        byte[] data = new byte[length];
+        System.arraycopy(buffer, 0, data, 0, length);
+        System.arraycopy(buffer, length, buffer, 0, bufferLength - length);
+        bufferLength -= length;
+        scanPosition -= length;
+        lastBoundary = 0;
+        return data;
+    }
+
+    @NotNull
+    private static byte[] concat(@NotNull Chunk first, @NotNull Chunk second) {
+        byte[] data = new byte[first.data.length + second.data.length];
+        System.arraycopy(first.data, 0, data, 0, first.data.length);
+        System.arraycopy(second.data, 0, data, first.data.length, second.data.length);
+        return data;
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        for (ParserJob parser : parsers) {
+            parser.cancel();
+        }
+        readChunks.clear();
+        parseQueue.clear();
+    }
+
+    private class Chunk {
+        private final byte[] data;
+        private final CountDownLatch parsed = new CountDownLatch(1);
+        private volatile List<String[]> rows = Collections.emptyList();
+        private volatile boolean pending;
+        private volatile IOException error;
+
+        Chunk(@NotNull byte[] data) {
+            this.data = data;
+        }
+
+        void parse() {
+            try {
+                List<String[]> result = new ArrayList<>();
+                try (CSVReader csvReader = new CSVReader(new StringReader(new String(data, charset)), delimiter, quoteChar, escapeChar)) {
+                    for (String[] line; (line = csvReader.readNext()) != null; ) {
+                        result.add(line);
+                    }
+                    pending = csvReader.getParser().isPending();
+                }
+                rows = result;
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                parsed.countDown();
+            }
+        }
+    }
+
+    private class ParserJob extends AbstractJob {
+
+        ParserJob(int number) {
+            super("Parse CSV (" + (number + 1) + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (!stopped && !monitor.isCanceled()) {
+                    Chunk chunk = parseQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        chunk.parse();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Stopped
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
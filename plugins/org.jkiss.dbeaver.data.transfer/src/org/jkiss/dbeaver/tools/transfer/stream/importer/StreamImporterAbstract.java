@@ -99,6 +99,9 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
         // Modify source data type and data kind for timestamps and numerics
         // Do it only for valid String mappings
         if (consumer instanceof DatabaseTransferConsumer) {
+            for (StreamDataImporterColumnInfo attributeMapping : resultSet.getAttributeMappings()) {
+                attributeMapping.setTargetDataKind(null);
+            }
             for (DatabaseTransferConsumer.ColumnMapping cm : ((DatabaseTransferConsumer) consumer).getColumnMappings()) {
                 if (cm == null) {
                     continue;
@@ -114,6 +117,7 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
                                     case NUMERIC:
                                     case BOOLEAN:
                                         attributeMapping.setDataKind(targetAttr.getDataKind());
+                                        attributeMapping.setTargetDataKind(targetAttr.getDataKind());
                                         break;
                                 }
                             }
@@ -87,6 +87,14 @@ public class GenericCatalog extends GenericObjectContainer implements DBSCatalog
         return schemas;
     }
 
+    /**
+     * Returns schemas if they were already read
+     */
+    @Nullable
+    List<GenericSchema> getCachedSchemas() {
+        return schemas;
+    }
+
     public GenericSchema getSchema(DBRProgressMonitor monitor, String name)
         throws DBException
     {
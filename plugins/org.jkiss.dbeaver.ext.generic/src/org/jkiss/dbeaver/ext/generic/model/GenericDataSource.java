@@ -78,6 +78,7 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
     private boolean supportsStructCache;
     private DBCQueryPlanner queryPlanner;
     private Format nativeFormatTimestamp, nativeFormatTime, nativeFormatDate;
+    private volatile GenericMetadataSnapshot metadataSnapshot;
 
     public GenericDataSource(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSourceContainer container, @NotNull GenericMetaModel metaModel, @NotNull SQLDialect dialect)
         throws DBException {
@@ -118,6 +119,8 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
         }
 
         initializeRemoteInstance(monitor);
+
+        this.metadataSnapshot = GenericMetadataSnapshot.loadSnapshot(this);
     }
 
     // Constructor for tests
@@ -243,6 +246,9 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
 
     @Override
     public void shutdown(DBRProgressMonitor monitor) {
+        GenericMetadataSnapshot.saveSnapshot(this, metadataSnapshot);
+        disposeMetadataSnapshot();
+
         String queryShutdown = CommonUtils.toString(getContainer().getDriver().getDriverParameter(GenericConstants.PARAM_QUERY_SHUTDOWN));
         if (!CommonUtils.isEmpty(queryShutdown)) {
             for (JDBCRemoteInstance instance : getAvailableInstances()) {
@@ -287,6 +293,22 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
         return supportsStructCache;
     }
 
+    /**
+     * Metadata snapshot of the previous session. Null if there is no snapshot or it was discarded by refresh.
+     */
+    @Nullable
+    GenericMetadataSnapshot getMetadataSnapshot() {
+        return metadataSnapshot;
+    }
+
+    private void disposeMetadataSnapshot() {
+        GenericMetadataSnapshot snapshot = this.metadataSnapshot;
+        if (snapshot != null) {
+            this.metadataSnapshot = null;
+            snapshot.dispose();
+        }
+    }
+
     @Association
     public Collection<GenericTableType> getTableTypes(DBRProgressMonitor monitor)
         throws DBException {
@@ -596,6 +618,8 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
         throws DBException {
         super.refreshObject(monitor);
 
+        // Explicit refresh - do not use saved metadata anymore
+        disposeMetadataSnapshot();
         this.structureContainer = null;
         this.tableTypeCache.clearCache();
         this.catalogs = null;
@@ -725,6 +749,11 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
         return false;
     }
 
+    @Nullable
+    GenericObjectContainer getStructureContainer() {
+        return structureContainer;
+    }
+
     boolean hasCatalogs() {
         return !CommonUtils.isEmpty(catalogs);
     }
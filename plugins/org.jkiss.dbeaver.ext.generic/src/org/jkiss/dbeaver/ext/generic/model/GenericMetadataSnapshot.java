@@ -0,0 +1,653 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.generic.model;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaModel;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.connection.DBPConnectionBootstrap;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCConstants;
+import org.jkiss.dbeaver.model.navigator.DBNBrowseSettings;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Persistent snapshot of generic data source metadata.
+ *
+ * Tables and columns which were read during the session are saved in a compact binary file when the data source is disconnected.
+ * On the next connect table cache of a container is filled from the snapshot instead of reading it from the database.
+ * Restored containers are revalidated against the live catalog in background and are refreshed if they differ.
+ *
+ * Indexes, keys and other objects are not saved, they are read on demand as usual.
+ */
+public class GenericMetadataSnapshot {
+
+    private static final Log log = Log.getLog(GenericMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-snapshots";
+    private static final String SNAPSHOT_FILE_EXT = ".dat";
+    private static final int SNAPSHOT_MAGIC = 0x44424D53;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    @NotNull
+    private final GenericDataSource dataSource;
+    // Containers which were not restored yet
+    @NotNull
+    private final Map<String, ContainerInfo> containers;
+    private final List<RestoredContainer> revalidateQueue = new ArrayList<>();
+    private final RevalidateJob revalidateJob = new RevalidateJob();
+    private volatile boolean disposed;
+
+    private GenericMetadataSnapshot(@NotNull GenericDataSource dataSource, @NotNull Map<String, ContainerInfo> containers) {
+        this.dataSource = dataSource;
+        this.containers = containers;
+    }
+
+    /**
+     * Reads metadata snapshot saved by the previous session.
+     *
+     * @return snapshot or null if snapshots are disabled or there is no valid snapshot for this data source
+     */
+    @Nullable
+    static GenericMetadataSnapshot loadSnapshot(@NotNull GenericDataSource dataSource) {
+        if (!isSnapshotEnabled(dataSource)) {
+            return null;
+        }
+        Path snapshotFile = getSnapshotFile(dataSource, false);
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.debug("Unsupported metadata snapshot format in " + snapshotFile);
+                return null;
+            }
+            if (!CommonUtils.equalObjects(readString(in), dataSource.getContainer().getDriver().getFullId()) ||
+                in.readInt() != getConnectionHash(dataSource))
+            {
+                // Driver or connection settings were changed
+                return null;
+            }
+            int containerCount = in.readInt();
+            Map<String, ContainerInfo> containers = new HashMap<>(containerCount);
+            for (int i = 0; i < containerCount; i++) {
+                String key = readString(in);
+                containers.put(key, ContainerInfo.read(in));
+            }
+            return new GenericMetadataSnapshot(dataSource, containers);
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot " + snapshotFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves tables and columns currently cached in the data source.
+     * Containers of the previous snapshot which were not used in this session are saved as is.
+     */
+    static void saveSnapshot(@NotNull GenericDataSource dataSource, @Nullable GenericMetadataSnapshot prevSnapshot) {
+        if (!isSnapshotEnabled(dataSource)) {
+            return;
+        }
+        Map<String, ContainerInfo> containers = new LinkedHashMap<>();
+        if (prevSnapshot != null) {
+            synchronized (prevSnapshot) {
+                containers.putAll(prevSnapshot.containers);
+            }
+        }
+        for (GenericObjectContainer container : getLoadedContainers(dataSource)) {
+            TableCache tableCache = container.getTableCache();
+            if (!tableCache.isFullyCached()) {
+                continue;
+            }
+            containers.put(getContainerKey(container), ContainerInfo.create(tableCache));
+        }
+        Path snapshotFile = getSnapshotFile(dataSource, true);
+        if (snapshotFile == null) {
+            return;
+        }
+        if (containers.isEmpty()) {
+            try {
+                Files.deleteIfExists(snapshotFile);
+            } catch (IOException e) {
+                log.debug("Error deleting metadata snapshot " + snapshotFile, e);
+            }
+            return;
+        }
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                writeString(out, dataSource.getContainer().getDriver().getFullId());
+                out.writeInt(getConnectionHash(dataSource));
+                out.writeInt(containers.size());
+                for (Map.Entry<String, ContainerInfo> entry : containers.entrySet()) {
+                    writeString(out, entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            log.debug("Error saving metadata snapshot " + snapshotFile, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Fills table cache of the container from the snapshot and schedules container revalidation.
+     * Each container is restored only once.
+     *
+     * @return false if there is nothing to restore. Cache must be read from the database then
+     */
+    boolean restoreContainer(@NotNull DBRProgressMonitor monitor, @NotNull GenericStructContainer owner, @NotNull TableCache tableCache) {
+        if (disposed || !(owner instanceof GenericObjectContainer)) {
+            return false;
+        }
+        ContainerInfo containerInfo;
+        synchronized (this) {
+            containerInfo = containers.remove(getContainerKey(owner));
+        }
+        if (containerInfo == null) {
+            return false;
+        }
+        GenericMetaModel metaModel = dataSource.getMetaModel();
+        DBNBrowseSettings navigatorSettings = dataSource.getContainer().getNavigatorSettings();
+        // Columns of all tables are revalidated with a single query which is not supported by all drivers
+        boolean restoreColumns = containerInfo.hasColumns && dataSource.supportsStructCache();
+        List<GenericTableBase> tables = new ArrayList<>(containerInfo.tables.size());
+        Map<GenericTableBase, List<GenericTableColumn>> columns = restoreColumns ? new IdentityHashMap<>() : null;
+        try {
+            for (TableInfo tableInfo : containerInfo.tables) {
+                GenericTableBase table = metaModel.createTableOrViewImpl(owner, tableInfo.name, tableInfo.type, null);
+                if (table == null ||
+                    (table.isSystem() && !navigatorSettings.isShowSystemObjects()) ||
+                    (table.isUtility() && !navigatorSettings.isShowUtilityObjects()))
+                {
+                    continue;
+                }
+                table.setPersisted(true);
+                table.setDescription(tableInfo.description);
+                tables.add(table);
+                if (columns != null) {
+                    List<GenericTableColumn> tableColumns = new ArrayList<>(tableInfo.columns.size());
+                    for (ColumnInfo columnInfo : tableInfo.columns) {
+                        tableColumns.add(metaModel.createTableColumnImpl(
+                            monitor,
+                            null,
+                            table,
+                            columnInfo.name,
+                            columnInfo.typeName, columnInfo.valueType, columnInfo.sourceType, columnInfo.ordinalPosition,
+                            columnInfo.columnSize,
+                            columnInfo.charLength, columnInfo.scale, columnInfo.precision, columnInfo.radix, columnInfo.notNull,
+                            columnInfo.remarks, columnInfo.defaultValue, columnInfo.autoIncrement, columnInfo.autoGenerated));
+                    }
+                    columns.put(table, tableColumns);
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error restoring metadata snapshot of " + owner.getName() + ": " + e.getMessage());
+            return false;
+        }
+        tableCache.restoreCache(owner, tables, columns);
+
+        synchronized (revalidateQueue) {
+            revalidateQueue.add(new RestoredContainer((GenericObjectContainer) owner, tables, columns));
+        }
+        revalidateJob.schedule();
+        return true;
+    }
+
+    /**
+     * Drops all not restored containers and cancels revalidation
+     */
+    void dispose() {
+        disposed = true;
+        synchronized (this) {
+            containers.clear();
+        }
+        synchronized (revalidateQueue) {
+            revalidateQueue.clear();
+        }
+        revalidateJob.cancel();
+    }
+
+    private void revalidateContainer(@NotNull DBRProgressMonitor monitor, @NotNull RestoredContainer restored) throws DBException {
+        GenericObjectContainer container = restored.container;
+        TableCache tableCache = container.getTableCache();
+        GenericMetaModel metaModel = dataSource.getMetaModel();
+        Set<String> liveTables = new HashSet<>();
+        Set<String> liveTableNames = new HashSet<>();
+        Set<String> liveColumns = restored.columns == null ? null : new HashSet<>();
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, container, "Revalidate metadata snapshot")) {
+            try (JDBCStatement dbStat = metaModel.prepareTableLoadStatement(session, container, null, null)) {
+                dbStat.executeStatement();
+                try (JDBCResultSet dbResult = dbStat.getResultSet()) {
+                    while (dbResult != null && dbResult.next()) {
+                        if (monitor.isCanceled()) {
+                            return;
+                        }
+                        GenericTableBase table = metaModel.createTableImpl(session, container, tableCache.tableObject, dbResult);
+                        if (table != null) {
+                            liveTables.add(getTableSignature(table));
+                            liveTableNames.add(table.getName());
+                        }
+                    }
+                }
+            }
+            if (liveColumns != null) {
+                boolean trimName = metaModel.isTrimObjectNames();
+                try (JDBCStatement dbStat = metaModel.prepareTableColumnLoadStatement(session, container, null)) {
+                    dbStat.executeStatement();
+                    try (JDBCResultSet dbResult = dbStat.getResultSet()) {
+                        while (dbResult != null && dbResult.next()) {
+                            if (monitor.isCanceled()) {
+                                return;
+                            }
+                            String tableName = GenericUtils.safeGetStringTrimmed(tableCache.columnObject, dbResult, JDBCConstants.TABLE_NAME);
+                            if (!liveTableNames.contains(tableName)) {
+                                // System or filtered table
+                                continue;
+                            }
+                            String columnName = trimName ?
+                                GenericUtils.safeGetStringTrimmed(tableCache.columnObject, dbResult, JDBCConstants.COLUMN_NAME) :
+                                GenericUtils.safeGetString(tableCache.columnObject, dbResult, JDBCConstants.COLUMN_NAME);
+                            // Type is normalized the same way as in the table cache
+                            String typeName = TableCache.getColumnTypeName(
+                                GenericUtils.safeGetStringTrimmed(tableCache.columnObject, dbResult, JDBCConstants.TYPE_NAME));
+                            int typeID = TableCache.getColumnTypeID(
+                                dataSource, typeName, GenericUtils.safeGetInt(tableCache.columnObject, dbResult, JDBCConstants.DATA_TYPE));
+                            liveColumns.add(getColumnSignature(
+                                tableName,
+                                columnName,
+                                typeName,
+                                typeID,
+                                GenericUtils.safeGetInt(tableCache.columnObject, dbResult, JDBCConstants.ORDINAL_POSITION),
+                                GenericUtils.safeGetLong(tableCache.columnObject, dbResult, JDBCConstants.COLUMN_SIZE),
+                                GenericUtils.safeGetInt(tableCache.columnObject, dbResult, JDBCConstants.NULLABLE) == DatabaseMetaData.columnNoNulls));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DBException(e, dataSource);
+        }
+
+        Set<String> restoredTables = new HashSet<>();
+        Set<String> restoredColumns = restored.columns == null ? null : new HashSet<>();
+        for (GenericTableBase table : restored.tables) {
+            restoredTables.add(getTableSignature(table));
+            if (restoredColumns != null) {
+                for (GenericTableColumn column : restored.columns.get(table)) {
+                    restoredColumns.add(getColumnSignature(
+                        table.getName(), column.getName(), column.getTypeName(), column.getTypeID(),
+                        column.getOrdinalPosition(), column.getMaxLength(), column.isRequired()));
+                }
+            }
+        }
+        if (restoredTables.equals(liveTables) && (liveColumns == null || liveColumns.equals(restoredColumns))) {
+            return;
+        }
+        log.debug("Metadata snapshot of " + container.getName() + " is obsolete. Refresh container.");
+        DBNDatabaseNode containerNode = DBNUtils.getNodeByObject(container);
+        if (containerNode != null) {
+            containerNode.refreshNode(monitor, this);
+        } else {
+            container.refreshObject(monitor);
+        }
+    }
+
+    @NotNull
+    private static String getTableSignature(@NotNull GenericTableBase table) {
+        return table.getName() + '\0' + table.getTableType();
+    }
+
+    @NotNull
+    private static String getColumnSignature(
+        String tableName,
+        String columnName,
+        String typeName,
+        int typeID,
+        int ordinalPosition,
+        long columnSize,
+        boolean notNull
+    ) {
+        return tableName + '\0' + columnName + '\0' + typeName + '\0' + typeID + '\0' +
+            ordinalPosition + '\0' + columnSize + '\0' + notNull;
+    }
+
+    @NotNull
+    private static List<GenericObjectContainer> getLoadedContainers(@NotNull GenericDataSource dataSource) {
+        List<GenericObjectContainer> result = new ArrayList<>();
+        List<GenericCatalog> catalogs = dataSource.getCatalogs();
+        if (catalogs != null) {
+            for (GenericCatalog catalog : catalogs) {
+                result.add(catalog);
+                List<GenericSchema> schemas = catalog.getCachedSchemas();
+                if (schemas != null) {
+                    result.addAll(schemas);
+                }
+            }
+        }
+        List<GenericSchema> schemas = dataSource.getSchemas();
+        if (schemas != null) {
+            result.addAll(schemas);
+        }
+        GenericObjectContainer structureContainer = dataSource.getStructureContainer();
+        if (structureContainer != null) {
+            result.add(structureContainer);
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String getContainerKey(@NotNull GenericStructContainer container) {
+        GenericCatalog catalog = container.getCatalog();
+        GenericSchema schema = container.getSchema();
+        return (catalog == null ? "" : catalog.getName()) + '\0' + (schema == null ? "" : schema.getName());
+    }
+
+    private static boolean isSnapshotEnabled(@NotNull GenericDataSource dataSource) {
+        return dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED) &&
+            !dataSource.getContainer().isTemporary();
+    }
+
+    /**
+     * Hash of settings which affect visible metadata: driver, URL, user and default catalog/schema
+     */
+    private static int getConnectionHash(@NotNull GenericDataSource dataSource) {
+        DBPConnectionConfiguration configuration = dataSource.getContainer().getActualConnectionConfiguration();
+        DBPConnectionBootstrap bootstrap = configuration.getBootstrap();
+        return Objects.hash(
+            dataSource.getContainer().getDriver().getId(),
+            CommonUtils.notEmpty(configuration.getUrl()),
+            CommonUtils.notEmpty(configuration.getUserName()),
+            CommonUtils.notEmpty(configuration.getDatabaseName()),
+            CommonUtils.notEmpty(bootstrap.getDefaultCatalogName()),
+            CommonUtils.notEmpty(bootstrap.getDefaultSchemaName()));
+    }
+
+    @Nullable
+    private static Path getSnapshotFile(@NotNull GenericDataSource dataSource, boolean create) {
+        DBPProject project = dataSource.getContainer().getProject();
+        try {
+            Path folder = project.getMetadataFolder(create).resolve(SNAPSHOT_FOLDER);
+            if (create && !Files.exists(folder)) {
+                Files.createDirectories(folder);
+            }
+            return folder.resolve(dataSource.getContainer().getId() + SNAPSHOT_FILE_EXT);
+        } catch (Exception e) {
+            log.debug("Can't get metadata snapshot folder of project " + project.getName(), e);
+            return null;
+        }
+    }
+
+    private static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(@NotNull DataOutput out, @Nullable Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    @Nullable
+    private static Integer readInteger(@NotNull DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static class ContainerInfo {
+        final List<TableInfo> tables;
+        // Columns of all tables were read
+        final boolean hasColumns;
+
+        ContainerInfo(List<TableInfo> tables, boolean hasColumns) {
+            this.tables = tables;
+            this.hasColumns = hasColumns;
+        }
+
+        static ContainerInfo create(@NotNull TableCache tableCache) {
+            List<GenericTableBase> cachedTables = tableCache.getCachedObjects();
+            List<TableInfo> tables = new ArrayList<>(cachedTables.size());
+            boolean hasColumns = true;
+            for (GenericTableBase table : cachedTables) {
+                if (!table.isPersisted()) {
+                    continue;
+                }
+                List<GenericTableColumn> cachedColumns = tableCache.getCachedColumns(table);
+                List<ColumnInfo> columns = new ArrayList<>();
+                if (cachedColumns == null) {
+                    hasColumns = false;
+                } else {
+                    for (GenericTableColumn column : cachedColumns) {
+                        if (column.isPersisted()) {
+                            columns.add(new ColumnInfo(column));
+                        }
+                    }
+                }
+                tables.add(new TableInfo(table.getName(), table.getTableType(), table.getDescription(), columns));
+            }
+            return new ContainerInfo(tables, hasColumns && !tables.isEmpty());
+        }
+
+        static ContainerInfo read(@NotNull DataInput in) throws IOException {
+            boolean hasColumns = in.readBoolean();
+            int tableCount = in.readInt();
+            List<TableInfo> tables = new ArrayList<>(tableCount);
+            for (int i = 0; i < tableCount; i++) {
+                String name = readString(in);
+                String type = readString(in);
+                String description = readString(in);
+                int columnCount = in.readInt();
+                List<ColumnInfo> columns = new ArrayList<>(columnCount);
+                for (int k = 0; k < columnCount; k++) {
+                    columns.add(new ColumnInfo(in));
+                }
+                tables.add(new TableInfo(name, type, description, columns));
+            }
+            return new ContainerInfo(tables, hasColumns);
+        }
+
+        void write(@NotNull DataOutput out) throws IOException {
+            out.writeBoolean(hasColumns);
+            out.writeInt(tables.size());
+            for (TableInfo table : tables) {
+                writeString(out, table.name);
+                writeString(out, table.type);
+                writeString(out, table.description);
+                out.writeInt(table.columns.size());
+                for (ColumnInfo column : table.columns) {
+                    column.write(out);
+                }
+            }
+        }
+    }
+
+    private static class TableInfo {
+        final String name;
+        final String type;
+        final String description;
+        final List<ColumnInfo> columns;
+
+        TableInfo(String name, String type, String description, List<ColumnInfo> columns) {
+            this.name = name;
+            this.type = type;
+            this.description = description;
+            this.columns = columns;
+        }
+    }
+
+    private static class ColumnInfo {
+        final String name;
+        final String typeName;
+        final int valueType;
+        final int sourceType;
+        final int ordinalPosition;
+        final long columnSize;
+        final long charLength;
+        final Integer scale;
+        final Integer precision;
+        final int radix;
+        final boolean notNull;
+        final String remarks;
+        final String defaultValue;
+        final boolean autoIncrement;
+        final boolean autoGenerated;
+
+        ColumnInfo(@NotNull GenericTableColumn column) {
+            this.name = column.getName();
+            this.typeName = column.getTypeName();
+            this.valueType = column.getTypeID();
+            this.sourceType = column.getSourceType();
+            this.ordinalPosition = column.getOrdinalPosition();
+            this.columnSize = column.getMaxLength();
+            this.charLength = column.getCharLength();
+            this.scale = column.getScale();
+            this.precision = column.getPrecision();
+            this.radix = column.getRadix();
+            this.notNull = column.isRequired();
+            this.remarks = column.getDescription();
+            this.defaultValue = column.getDefaultValue();
+            this.autoIncrement = column.isAutoIncrement();
+            this.autoGenerated = column.isAutoGenerated();
+        }
+
+        ColumnInfo(@NotNull DataInput in) throws IOException {
+            this.name = readString(in);
+            this.typeName = readString(in);
+            this.valueType = in.readInt();
+            this.sourceType = in.readInt();
+            this.ordinalPosition = in.readInt();
+            this.columnSize = in.readLong();
+            this.charLength = in.readLong();
+            this.scale = readInteger(in);
+            this.precision = readInteger(in);
+            this.radix = in.readInt();
+            this.notNull = in.readBoolean();
+            this.remarks = readString(in);
+            this.defaultValue = readString(in);
+            this.autoIncrement = in.readBoolean();
+            this.autoGenerated = in.readBoolean();
+        }
+
+        void write(@NotNull DataOutput out) throws IOException {
+            writeString(out, name);
+            writeString(out, typeName);
+            out.writeInt(valueType);
+            out.writeInt(sourceType);
+            out.writeInt(ordinalPosition);
+            out.writeLong(columnSize);
+            out.writeLong(charLength);
+            writeInteger(out, scale);
+            writeInteger(out, precision);
+            out.writeInt(radix);
+            out.writeBoolean(notNull);
+            writeString(out, remarks);
+            writeString(out, defaultValue);
+            out.writeBoolean(autoIncrement);
+            out.writeBoolean(autoGenerated);
+        }
+    }
+
+    private static class RestoredContainer {
+        final GenericObjectContainer container;
+        final List<GenericTableBase> tables;
+        @Nullable
+        final Map<GenericTableBase, List<GenericTableColumn>> columns;
+
+        RestoredContainer(GenericObjectContainer container, List<GenericTableBase> tables, @Nullable Map<GenericTableBase, List<GenericTableColumn>> columns) {
+            this.container = container;
+            this.tables = new ArrayList<>(tables);
+            this.columns = columns;
+        }
+    }
+
+    private class RevalidateJob extends AbstractJob {
+        RevalidateJob() {
+            super("Revalidate metadata snapshot (" + dataSource.getContainer().getName() + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (;;) {
+                RestoredContainer restored;
+                synchronized (revalidateQueue) {
+                    if (revalidateQueue.isEmpty()) {
+                        break;
+                    }
+                    restored = revalidateQueue.remove(0);
+                }
+                if (disposed || monitor.isCanceled() || !dataSource.getContainer().isConnected()) {
+                    break;
+                }
+                try {
+                    revalidateContainer(monitor, restored);
+                } catch (Exception e) {
+                    log.debug("Error revalidating metadata snapshot of " + restored.container.getName() + ": " + e.getMessage());
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
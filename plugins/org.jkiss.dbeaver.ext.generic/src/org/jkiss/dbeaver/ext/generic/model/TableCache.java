@@ -28,13 +28,17 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCConstants;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructLookupCache;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Generic tables cache implementation
@@ -117,27 +121,12 @@ public class TableCache extends JDBCStructLookupCache<GenericStructContainer, Ge
         int ordinalPos = GenericUtils.safeGetInt(columnObject, dbResult, JDBCConstants.ORDINAL_POSITION);
         boolean autoIncrement = "YES".equals(GenericUtils.safeGetStringTrimmed(columnObject, dbResult, JDBCConstants.IS_AUTOINCREMENT));
         boolean autoGenerated = "YES".equals(GenericUtils.safeGetStringTrimmed(columnObject, dbResult, JDBCConstants.IS_GENERATEDCOLUMN));
-        if (!CommonUtils.isEmpty(typeName)) {
+        if (!CommonUtils.isEmpty(typeName) && typeName.toUpperCase(Locale.ENGLISH).endsWith(GenericConstants.TYPE_MODIFIER_IDENTITY)) {
             // Check for identity modifier [DBSPEC: MS SQL]
-            if (typeName.toUpperCase(Locale.ENGLISH).endsWith(GenericConstants.TYPE_MODIFIER_IDENTITY)) {
-                autoIncrement = true;
-                typeName = typeName.substring(0, typeName.length() - GenericConstants.TYPE_MODIFIER_IDENTITY.length());
-            }
-            // Check for empty modifiers [MS SQL]
-            if (typeName.endsWith("()")) {
-                typeName = typeName.substring(0, typeName.length() - 2);
-            }
-        } else {
-            typeName = "N/A";
-        }
-
-        {
-            // Fix value type
-            DBSDataType dataType = dataSource.getLocalDataType(typeName);
-            if (dataType != null) {
-                valueType = dataType.getTypeID();
-            }
+            autoIncrement = true;
         }
+        typeName = getColumnTypeName(typeName);
+        valueType = getColumnTypeID(dataSource, typeName, valueType);
 
         return getDataSource().getMetaModel().createTableColumnImpl(
             session.getProgressMonitor(),
@@ -151,6 +140,80 @@ public class TableCache extends JDBCStructLookupCache<GenericStructContainer, Ge
         );
     }
 
+    /**
+     * Removes identity and empty modifiers from the column type name
+     */
+    @NotNull
+    static String getColumnTypeName(@Nullable String typeName) {
+        if (CommonUtils.isEmpty(typeName)) {
+            return "N/A";
+        }
+        // Check for identity modifier [DBSPEC: MS SQL]
+        if (typeName.toUpperCase(Locale.ENGLISH).endsWith(GenericConstants.TYPE_MODIFIER_IDENTITY)) {
+            typeName = typeName.substring(0, typeName.length() - GenericConstants.TYPE_MODIFIER_IDENTITY.length());
+        }
+        // Check for empty modifiers [MS SQL]
+        if (typeName.endsWith("()")) {
+            typeName = typeName.substring(0, typeName.length() - 2);
+        }
+        return typeName;
+    }
+
+    /**
+     * Fixes value type of the column using data source local data type
+     */
+    static int getColumnTypeID(@NotNull GenericDataSource dataSource, @NotNull String typeName, int valueType) {
+        DBSDataType dataType = dataSource.getLocalDataType(typeName);
+        return dataType != null ? dataType.getTypeID() : valueType;
+    }
+
+    @Override
+    protected synchronized void loadObjects(DBRProgressMonitor monitor, GenericStructContainer owner) throws DBException {
+        GenericMetadataSnapshot snapshot = dataSource.getMetadataSnapshot();
+        if (snapshot != null && !isFullyCached() && isEmpty() && snapshot.restoreContainer(monitor, owner, this)) {
+            return;
+        }
+        super.loadObjects(monitor, owner);
+    }
+
+    /**
+     * Fills empty cache with tables restored from the metadata snapshot.
+     *
+     * @param columns table columns or null if columns were not saved in the snapshot
+     */
+    synchronized void restoreCache(
+        @NotNull GenericStructContainer owner,
+        @NotNull List<GenericTableBase> tables,
+        @Nullable Map<GenericTableBase, List<GenericTableColumn>> columns)
+    {
+        Comparator<GenericTableBase> comparator = getListOrderComparator();
+        if (comparator != null) {
+            tables.sort(comparator);
+        }
+        detectCaseSensitivity(owner);
+        setCache(tables);
+        if (columns != null) {
+            for (GenericTableBase table : tables) {
+                List<GenericTableColumn> tableColumns = columns.get(table);
+                if (tableColumns != null) {
+                    cacheChildren(table, tableColumns);
+                }
+            }
+            setChildrenCached(true);
+        }
+    }
+
+    /**
+     * Returns columns of the table if they were already read
+     */
+    @Nullable
+    List<GenericTableColumn> getCachedColumns(@NotNull GenericTableBase table) {
+        if (!isChildrenCached(table)) {
+            return null;
+        }
+        return getChildrenCache(table).getCachedObjects();
+    }
+
     @Override
     public void beforeCacheLoading(JDBCSession session, GenericStructContainer owner) throws DBException {
        // Do nothing
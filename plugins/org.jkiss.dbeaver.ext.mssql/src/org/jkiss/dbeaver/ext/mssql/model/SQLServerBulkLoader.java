@@ -0,0 +1,245 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy (Microsoft JDBC driver only).
+ *
+ * Rows are buffered in memory till the next flush (i.e. commit) and then streamed to the server
+ * through the bulk data interface of the driver. Driver classes are accessed with reflection.
+ */
+public class SQLServerBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLServerBulkLoader.class);
+
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_COPY_OPTIONS_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions";
+    // Newer drivers (9.x+) accept ISQLServerBulkData. Older accept ISQLServerBulkRecord only.
+    private static final String[] BULK_DATA_INTERFACES = {
+        "com.microsoft.sqlserver.jdbc.ISQLServerBulkData",
+        "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord"
+    };
+
+    private final SQLServerDataSource dataSource;
+    private SQLServerTableBase table;
+    private DBSAttributeBase[] attributes;
+    private Object bulkCopy;
+    private Class<?> bulkDataInterface;
+    private Method writeToServerMethod;
+    private final List<Object[]> bufferedRows = new ArrayList<>();
+
+    public SQLServerBulkLoader(SQLServerDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (SQLServerTableBase) dataContainer;
+        this.attributes = attributes;
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+
+            Class<?> bulkCopyClass = Class.forName(BULK_COPY_CLASS, true, driverClassLoader);
+            Class<?> optionsClass = Class.forName(BULK_COPY_OPTIONS_CLASS, true, driverClassLoader);
+            for (String interfaceName : BULK_DATA_INTERFACES) {
+                try {
+                    bulkDataInterface = Class.forName(interfaceName, true, driverClassLoader);
+                    writeToServerMethod = bulkCopyClass.getMethod("writeToServer", bulkDataInterface);
+                    break;
+                } catch (ClassNotFoundException | NoSuchMethodException e) {
+                    bulkDataInterface = null;
+                }
+            }
+            if (bulkDataInterface == null) {
+                throw new DBCException("Bulk copy is not supported by the driver");
+            }
+
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+            Object copyOptions = optionsClass.getConstructor().newInstance();
+            if (batchSize > 0) {
+                optionsClass.getMethod("setBatchSize", Integer.TYPE).invoke(copyOptions, batchSize);
+            }
+            // Auto-generated columns are mapped only if user asked to transfer them.
+            // Otherwise server must generate identity values itself.
+            boolean keepIdentity = false;
+            for (DBSAttributeBase attribute : attributes) {
+                if (attribute.isAutoGenerated()) {
+                    keepIdentity = true;
+                    break;
+                }
+            }
+            optionsClass.getMethod("setKeepIdentity", Boolean.TYPE).invoke(copyOptions, keepIdentity);
+            optionsClass.getMethod("setKeepNulls", Boolean.TYPE).invoke(copyOptions, true);
+            bulkCopyClass.getMethod("setBulkCopyOptions", optionsClass).invoke(bulkCopy, copyOptions);
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(
+                bulkCopy, table.getFullyQualifiedName(DBPEvaluationContext.DML));
+
+            Method addColumnMapping = bulkCopyClass.getMethod("addColumnMapping", Integer.TYPE, String.class);
+            for (int i = 0; i < attributes.length; i++) {
+                addColumnMapping.invoke(bulkCopy, i + 1, attributes[i].getName());
+            }
+        } catch (DBCException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DBCException("Can't instantiate SQLServerBulkCopy", e);
+        }
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        Object[] row = new Object[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                value = null;
+            } else if (value instanceof DBDValue) {
+                value = ((DBDValue) value).getRawValue();
+            }
+            row[i] = value;
+        }
+        bufferedRows.add(row);
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows.isEmpty()) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Bulk copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+        try {
+            writeToServerMethod.invoke(bulkCopy, createBulkData());
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying data into " + table.getName(), e);
+        } finally {
+            bufferedRows.clear();
+        }
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk copy");
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+    }
+
+    /**
+     * Makes driver's bulk data object over buffered rows
+     */
+    private Object createBulkData() {
+        Set<Integer> ordinals = new LinkedHashSet<>();
+        for (int i = 0; i < attributes.length; i++) {
+            ordinals.add(i + 1);
+        }
+        Iterator<Object[]> rowIterator = bufferedRows.iterator();
+        Object[][] currentRow = new Object[1][];
+        return Proxy.newProxyInstance(
+            bulkDataInterface.getClassLoader(),
+            new Class[] { bulkDataInterface },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnOrdinals":
+                        return ordinals;
+                    case "getColumnName":
+                        return getAttribute(args).getName();
+                    case "getColumnType":
+                        return getAttribute(args).getTypeID();
+                    case "getPrecision": {
+                        DBSAttributeBase attribute = getAttribute(args);
+                        Integer precision = attribute.getPrecision();
+                        return precision != null && precision > 0 ? precision : (int) Math.min(attribute.getMaxLength(), Integer.MAX_VALUE);
+                    }
+                    case "getScale":
+                        return CommonUtils.toInt(getAttribute(args).getScale());
+                    case "isAutoIncrement":
+                        return getAttribute(args).isAutoGenerated();
+                    case "next":
+                        if (rowIterator.hasNext()) {
+                            currentRow[0] = rowIterator.next();
+                            return true;
+                        }
+                        return false;
+                    case "getRowData":
+                        return currentRow[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "Bulk data of " + table.getName();
+                    default:
+                        // Column metadata setters and timestamp format options of ISQLServerBulkRecord
+                        return null;
+                }
+            });
+    }
+
+    @NotNull
+    private DBSAttributeBase getAttribute(Object[] args) {
+        return attributes[(Integer) args[0] - 1];
+    }
+
+    @Override
+    public void close() {
+        bufferedRows.clear();
+        if (bulkCopy != null) {
+            try {
+                bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+            } catch (Exception e) {
+                log.debug("Error closing bulk copy", e);
+            }
+            bulkCopy = null;
+        }
+    }
+}
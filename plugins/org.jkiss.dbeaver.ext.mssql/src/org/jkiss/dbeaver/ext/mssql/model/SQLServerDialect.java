@@ -160,6 +160,12 @@ public class SQLServerDialect extends JDBCSQLDialect implements TPRuleProvider,
         return true;
     }
 
+    @Override
+    public boolean supportsWindowFunctions() {
+        // Sybase doesn't support NTILE
+        return isSqlServer;
+    }
+
     @Override
     public boolean supportsNestedComments() {
         return true;
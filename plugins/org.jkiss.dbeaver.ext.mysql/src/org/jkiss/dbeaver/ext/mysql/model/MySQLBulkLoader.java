@@ -0,0 +1,264 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ *
+ * Rows are written in tab-separated format into a temporary buffer file which is loaded
+ * on each flush (i.e. each commit), so the buffer never grows beyond commit size.
+ * MySQL Connector/J reads the buffer from a stream (setLocalInfileInputStream), other drivers read it by file name.
+ * Local infile must be enabled in driver properties (allowLoadLocalInfile for MySQL, allowLocalInfile for MariaDB).
+ */
+public class MySQLBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    private static final String NULL_VALUE = "\\N";
+
+    private final MySQLDataSource dataSource;
+    private MySQLTableBase table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private String loadQuery;
+    private Path dataFile;
+    private Writer dataWriter;
+    private long bufferedRows;
+
+    private int writeBufferSize = 100 * 1024;
+
+    public MySQLBulkLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (MySQLTableBase) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+        try {
+            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "mysql-load-datasets");
+            dataFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".tsv");  //$NON-NLS-1$ //$NON-NLS-2$
+            openBuffer();
+        } catch (IOException e) {
+            throw new DBCException("Can't create data buffer file", e);
+        }
+        this.loadQuery = makeLoadQuery();
+        return this;
+    }
+
+    private String makeLoadQuery() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder binaryColumns = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                columns.append(",");
+            }
+            String columnName = DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName());
+            if (attributes[i].getDataKind() == DBPDataKind.BINARY) {
+                // Binaries are passed in hex
+                String varName = "@v" + i;
+                columns.append(varName);
+                binaryColumns.append(binaryColumns.length() == 0 ? " SET " : ",")
+                    .append(columnName).append("=UNHEX(").append(varName).append(")");
+            } else {
+                columns.append(columnName);
+            }
+        }
+        return "LOAD DATA LOCAL INFILE '" + dataFile.toAbsolutePath().toString().replace("\\", "\\\\").replace("'", "\\'") +
+            "' INTO TABLE " + table.getFullyQualifiedName(DBPEvaluationContext.DML) +
+            " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'" +
+            " (" + columns + ")" + binaryColumns;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            Object value = attributeValues[i];
+            if (DBUtils.isNullValue(value)) {
+                line.append(NULL_VALUE);
+            } else if (value instanceof Number) {
+                line.append(value);
+            } else if (value instanceof Boolean) {
+                line.append((Boolean) value ? '1' : '0');
+            } else if (value instanceof byte[]) {
+                line.append(CommonUtils.toHexString((byte[]) value));
+            } else {
+                String strValue = valueHandlers[i].getValueDisplayString(attributes[i], value, DBDDisplayFormat.NATIVE);
+                appendEscaped(line, strValue);
+            }
+        }
+        line.append('\n');
+        try {
+            dataWriter.write(line.toString());
+            bufferedRows++;
+        } catch (IOException e) {
+            throw new DBCException("Error writing data line", e);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case 0: line.append("\\0"); break;
+                default: line.append(c); break;
+            }
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        loadBuffer(session);
+        try {
+            openBuffer();
+        } catch (IOException e) {
+            throw new DBCException("Can't create data buffer file", e);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        loadBuffer(session);
+    }
+
+    private void openBuffer() throws IOException {
+        dataWriter = new BufferedWriter(
+            Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8),
+            writeBufferSize);
+        bufferedRows = 0;
+    }
+
+    private void loadBuffer(@NotNull DBCSession session) throws DBCException {
+        if (dataWriter == null) {
+            return;
+        }
+        try {
+            dataWriter.close();
+        } catch (IOException e) {
+            throw new DBCException("Error saving data buffer", e);
+        }
+        dataWriter = null;
+        if (bufferedRows == 0) {
+            return;
+        }
+
+        session.getProgressMonitor().subTask("Load data into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+        try (Statement dbStat = ((JDBCSession) session).getOriginal().createStatement()) {
+            int rowCount;
+            try (InputStream dataStream = Files.newInputStream(dataFile)) {
+                setLocalInfileStream(dbStat, dataStream);
+                rowCount = dbStat.executeUpdate(loadQuery);
+            }
+            if (rowCount != bufferedRows) {
+                log.debug("Loaded " + rowCount + " of " + bufferedRows + " rows into " + table.getName());
+            }
+
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            if (txnManager != null && !txnManager.isAutoCommit()) {
+                session.getProgressMonitor().subTask("Commit loaded data");
+                txnManager.commit(session);
+            }
+        } catch (SQLException | IOException e) {
+            throw new DBCException(
+                "Error loading data into " + table.getName() + ". Make sure local infile is enabled on the server and in the driver properties", e);
+        }
+    }
+
+    /**
+     * Connector/J may read local infile from the stream instead of the file system
+     */
+    private static void setLocalInfileStream(@NotNull Statement dbStat, @NotNull InputStream stream) {
+        try {
+            Method setStreamMethod = dbStat.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+            setStreamMethod.invoke(dbStat, stream);
+        } catch (NoSuchMethodException e) {
+            // Not a Connector/J. Driver reads data by file name
+        } catch (Exception e) {
+            log.debug("Error setting local infile stream", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dataWriter != null) {
+            try {
+                dataWriter.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            dataWriter = null;
+        }
+        if (dataFile != null && Files.exists(dataFile)) {
+            try {
+                Files.delete(dataFile);
+            } catch (IOException e) {
+                log.debug("Error deleting data buffer file " + dataFile, e);
+                dataFile.toFile().deleteOnExit();
+            }
+        }
+    }
+}
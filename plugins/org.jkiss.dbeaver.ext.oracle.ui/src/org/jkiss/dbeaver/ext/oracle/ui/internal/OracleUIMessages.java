@@ -113,6 +113,8 @@ public final class OracleUIMessages extends NLS {
     public static String edit_create_checkbox_content_group_use_another_table_query_description;
     public static String edit_create_checkbox_content_group_search_metadata_in_synonyms;
     public static String edit_create_checkbox_content_group_search_metadata_in_synonyms_tooltip;
+    public static String edit_create_checkbox_content_group_incremental_refresh;
+    public static String edit_create_checkbox_content_group_incremental_refresh_tooltip;
     public static String dialog_controlgroup_performance;
     public static String edit_create_checkbox_group_use_rule;
     public static String edit_create_checkbox_adds_rule_tool_tip_text;
@@ -132,6 +134,8 @@ public final class OracleUIMessages extends NLS {
     public static String pref_page_oracle_group_data;
     public static String pref_page_oracle_checkbox_show_date_as_date;
     public static String pref_page_oracle_checkbox_show_date_as_date_tip;
+    public static String pref_page_oracle_checkbox_bulk_load_direct_path;
+    public static String pref_page_oracle_checkbox_bulk_load_direct_path_tip;
 
     public static String dialog_schema_edit_title;
     public static String dialog_schema_edit_user_name;
@@ -48,7 +48,9 @@ public class PrefPageOracle extends TargetPrefPage
     private Button useSimpleConstraints;
     private Button useAlternativeTableMetadataQuery;
     private Button searchInSynonyms;
+    private Button incrementalRefresh;
     private Button showDateAsDate;
+    private Button bulkLoadDirectPath;
 
     public PrefPageOracle()
     {
@@ -70,7 +72,9 @@ public class PrefPageOracle extends TargetPrefPage
             store.contains(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS) ||
             store.contains(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY) ||
             store.contains(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS) ||
-            store.contains(OracleConstants.PROP_SHOW_DATE_AS_DATE)
+            store.contains(OracleConstants.PREF_META_INCREMENTAL_REFRESH) ||
+            store.contains(OracleConstants.PROP_SHOW_DATE_AS_DATE) ||
+            store.contains(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH)
             ;
     }
 
@@ -151,6 +155,13 @@ public class PrefPageOracle extends TargetPrefPage
                 globalPreferences.getBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS)
             );
             searchInSynonyms.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_search_metadata_in_synonyms_tooltip);
+
+            incrementalRefresh = UIUtils.createCheckbox(
+                performanceGroup,
+                OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh,
+                globalPreferences.getBoolean(OracleConstants.PREF_META_INCREMENTAL_REFRESH)
+            );
+            incrementalRefresh.setToolTipText(OracleUIMessages.edit_create_checkbox_content_group_incremental_refresh_tooltip);
         }
 
         {
@@ -168,6 +179,13 @@ public class PrefPageOracle extends TargetPrefPage
                 OracleUIMessages.pref_page_oracle_checkbox_show_date_as_date_tip,
                 false,
                 1);
+
+            bulkLoadDirectPath = UIUtils.createCheckbox(
+                dataGroup,
+                OracleUIMessages.pref_page_oracle_checkbox_bulk_load_direct_path,
+                OracleUIMessages.pref_page_oracle_checkbox_bulk_load_direct_path_tip,
+                false,
+                1);
         }
 
         return composite;
@@ -187,8 +205,10 @@ public class PrefPageOracle extends TargetPrefPage
         useSimpleConstraints.setSelection(store.getBoolean(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS));
         useAlternativeTableMetadataQuery.setSelection(store.getBoolean(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
         searchInSynonyms.setSelection(store.getBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS));
+        incrementalRefresh.setSelection(store.getBoolean(OracleConstants.PREF_META_INCREMENTAL_REFRESH));
 
         showDateAsDate.setSelection(store.getBoolean(OracleConstants.PROP_SHOW_DATE_AS_DATE));
+        bulkLoadDirectPath.setSelection(store.getBoolean(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH));
     }
 
     @Override
@@ -205,8 +225,10 @@ public class PrefPageOracle extends TargetPrefPage
         store.setValue(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS, useSimpleConstraints.getSelection());
         store.setValue(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY, useAlternativeTableMetadataQuery.getSelection());
         store.setValue(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS, searchInSynonyms.getSelection());
+        store.setValue(OracleConstants.PREF_META_INCREMENTAL_REFRESH, incrementalRefresh.getSelection());
 
         store.setValue(OracleConstants.PROP_SHOW_DATE_AS_DATE, showDateAsDate.getSelection());
+        store.setValue(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH, bulkLoadDirectPath.getSelection());
 
         PrefUtils.savePreferenceStore(store);
     }
@@ -225,8 +247,10 @@ public class PrefPageOracle extends TargetPrefPage
         store.setToDefault(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS);
         store.setToDefault(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY);
         store.setToDefault(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS);
+        store.setToDefault(OracleConstants.PREF_META_INCREMENTAL_REFRESH);
 
         store.setToDefault(OracleConstants.PROP_SHOW_DATE_AS_DATE);
+        store.setToDefault(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH);
     }
 
     @Override
@@ -242,7 +266,9 @@ public class PrefPageOracle extends TargetPrefPage
         useSimpleConstraints.setSelection(store.getDefaultBoolean(OracleConstants.PROP_METADATA_USE_SIMPLE_CONSTRAINTS));
         useAlternativeTableMetadataQuery.setSelection(store.getDefaultBoolean(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
         searchInSynonyms.setSelection(store.getDefaultBoolean(OracleConstants.PROP_SEARCH_METADATA_IN_SYNONYMS));
+        incrementalRefresh.setSelection(store.getDefaultBoolean(OracleConstants.PREF_META_INCREMENTAL_REFRESH));
         showDateAsDate.setSelection(store.getDefaultBoolean(OracleConstants.PROP_SHOW_DATE_AS_DATE));
+        bulkLoadDirectPath.setSelection(store.getDefaultBoolean(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH));
         super.performDefaults();
     }
 
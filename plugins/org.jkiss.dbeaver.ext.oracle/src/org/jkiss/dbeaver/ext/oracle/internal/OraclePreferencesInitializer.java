@@ -42,6 +42,10 @@ public class OraclePreferencesInitializer extends AbstractPreferenceInitializer
 
         // Metadata optimization
         PrefUtils.setDefaultPreferenceValue(store, OracleConstants.PROP_USE_META_OPTIMIZER, true);
+        PrefUtils.setDefaultPreferenceValue(store, OracleConstants.PREF_META_INCREMENTAL_REFRESH, false);
+
+        // Data transfer
+        PrefUtils.setDefaultPreferenceValue(store, OracleConstants.PREF_BULK_LOAD_DIRECT_PATH, false);
     }
 
 } 
\ No newline at end of file
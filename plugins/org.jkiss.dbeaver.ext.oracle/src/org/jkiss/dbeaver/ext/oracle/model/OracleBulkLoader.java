@@ -0,0 +1,83 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCBatchBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.Map;
+
+/**
+ * Bulk loader based on array insert.
+ * Direct-path insert (APPEND_VALUES hint, 11gR2+) is used only if enabled in preferences:
+ * it locks the whole table and writes above the high-water mark.
+ * Direct-path inserted data can't be modified in the same transaction, so each array is committed.
+ */
+public class OracleBulkLoader extends JDBCBatchBulkLoader {
+
+    private final OracleDataSource dataSource;
+    private boolean directPath;
+
+    public OracleBulkLoader(OracleDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        directPath = dataSource.getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH);
+        return super.createBulkLoad(session, dataContainer, attributes, source, batchSize, options);
+    }
+
+    @NotNull
+    @Override
+    protected String makeInsertQuery(@NotNull DBCSession session, @NotNull DBSDataContainer table, @NotNull DBSAttributeBase[] attributes) {
+        StringBuilder query = new StringBuilder(100);
+        query.append(directPath ? "INSERT /*+ APPEND_VALUES */ INTO " : "INSERT INTO ").append(getTableName(table)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        query.append(") VALUES (");
+        for (int i = 0; i < attributes.length; i++) {
+            query.append(i > 0 ? ",?" : "?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    @Override
+    protected boolean isCommitAfterFlush() {
+        return directPath;
+    }
+
+}
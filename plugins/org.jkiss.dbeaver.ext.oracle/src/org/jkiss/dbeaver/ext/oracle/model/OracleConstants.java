@@ -166,6 +166,8 @@ public class OracleConstants {
     public static final String PREF_DBMS_OUTPUT = "oracle.dbms.output";
     public static final String PREF_DBMS_READ_ALL_SYNONYMS = "oracle.read.all.synonyms";
     public static final String PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING = "oracle.disable.script.escape";
+    public static final String PREF_META_INCREMENTAL_REFRESH = "oracle.meta.incremental.refresh";
+    public static final String PREF_BULK_LOAD_DIRECT_PATH = "oracle.bulk.load.direct.path";
 
     public static final String NLS_DEFAULT_VALUE = "Default";
     public static final String PREF_KEY_DDL_FORMAT = "oracle.ddl.format";
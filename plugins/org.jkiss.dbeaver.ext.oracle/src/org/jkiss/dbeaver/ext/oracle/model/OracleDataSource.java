@@ -49,6 +49,7 @@ import org.jkiss.dbeaver.model.meta.ForTest;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -597,6 +598,10 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
             return adapter.cast(new OracleChangeUserPasswordManager(this));
         } else if (adapter == DBDAttributeContentTypeProvider.class) {
             return adapter.cast(OracleAttributeContentTypeProvider.INSTANCE);
+        } else if (adapter == DBSDataBulkLoader.class) {
+            if (isAtLeastV11()) {
+                return adapter.cast(new OracleBulkLoader(this));
+            }
         }
         return super.getAdapter(adapter);
     }
@@ -432,6 +432,11 @@ public class OracleSQLDialect extends JDBCSQLDialect
         return true;
     }
 
+    @Override
+    public boolean supportsWindowFunctions() {
+        return true;
+    }
+
     @Override
     public boolean supportsAliasInUpdate() {
         return true;
@@ -428,14 +428,16 @@ public class OracleSchema extends OracleGlobalObject implements
         throws DBException
     {
         hasStatistics = false;
-        tableCache.clearCache();
-        foreignKeyCache.clearCache();
-        constraintCache.clearCache();
-        indexCache.clearCache();
+        if (!refreshTablesIncrementally(monitor)) {
+            tableCache.clearCache();
+            foreignKeyCache.clearCache();
+            constraintCache.clearCache();
+            indexCache.clearCache();
+            tableTriggerCache.clearCache();
+        }
         packageCache.clearCache();
         proceduresCache.clearCache();
         triggerCache.clearCache();
-        tableTriggerCache.clearCache();
         dataTypeCache.clearCache();
         sequenceCache.clearCache();
         synonymCache.clearCache();
@@ -445,6 +447,92 @@ public class OracleSchema extends OracleGlobalObject implements
         return this;
     }
 
+    /**
+     * Reloads only tables and views which were changed since the last refresh.
+     * Changes are detected by LAST_DDL_TIME of schema objects.
+     *
+     * @return false if incremental refresh is disabled, not possible or was canceled. Full refresh must be performed then
+     */
+    private boolean refreshTablesIncrementally(@NotNull DBRProgressMonitor monitor) {
+        Date lastRefreshTime = tableCache.refreshTime;
+        if (lastRefreshTime == null || !tableCache.isFullyCached() || !isIncrementalRefreshEnabled()) {
+            return false;
+        }
+        try {
+            Date refreshTime;
+            Set<String> actualNames = new HashSet<>();
+            Set<String> changedNames = new LinkedHashSet<>();
+            try (JDBCSession session = DBUtils.openMetaSession(monitor, this, "Read changed tables")) {
+                refreshTime = readDatabaseTime(session);
+                try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                    "SELECT " + OracleUtils.getSysCatalogHint(getDataSource()) + " OBJECT_NAME,LAST_DDL_TIME\n" +
+                        "FROM " + OracleUtils.getAdminAllViewPrefix(monitor, getDataSource(), "OBJECTS") + "\n" +
+                        "WHERE OWNER=? AND OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')"))
+                {
+                    dbStat.setString(1, getName());
+                    try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                        while (dbResult.next()) {
+                            String objectName = JDBCUtils.safeGetString(dbResult, OracleConstants.COLUMN_OBJECT_NAME);
+                            if (objectName == null) {
+                                continue;
+                            }
+                            actualNames.add(objectName);
+                            Date lastDdlTime = JDBCUtils.safeGetTimestamp(dbResult, "LAST_DDL_TIME");
+                            if (lastDdlTime == null || !lastDdlTime.before(lastRefreshTime)) {
+                                changedNames.add(objectName);
+                            }
+                        }
+                    }
+                }
+            }
+            boolean hasChanges = !changedNames.isEmpty();
+            for (OracleTableBase table : tableCache.getCachedObjects()) {
+                if (changedNames.contains(table.getName()) || !actualNames.contains(table.getName())) {
+                    constraintCache.clearObjectCache(table);
+                    tableTriggerCache.clearObjectCache(table);
+                    if (table instanceof OracleTablePhysical) {
+                        indexCache.clearObjectCache((OracleTablePhysical) table);
+                    }
+                    hasChanges = true;
+                }
+            }
+            if (hasChanges) {
+                // Foreign keys may refer changed tables
+                foreignKeyCache.clearCache();
+            }
+            log.debug("Incremental refresh of " + getName() + ": " + changedNames.size() + " changed object(s)");
+            if (!tableCache.refreshObjects(monitor, this, changedNames, actualNames)) {
+                // Some changed tables were not reloaded, refresh time can't be advanced
+                log.debug("Incremental refresh of " + getName() + " was canceled");
+                return false;
+            }
+            tableCache.refreshTime = refreshTime;
+            return true;
+        } catch (Exception e) {
+            log.debug("Incremental refresh of " + getName() + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isIncrementalRefreshEnabled() {
+        return getDataSource().getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_META_INCREMENTAL_REFRESH);
+    }
+
+    @NotNull
+    private static Date readDatabaseTime(@NotNull JDBCSession session) throws SQLException {
+        try (JDBCPreparedStatement dbStat = session.prepareStatement("SELECT SYSDATE FROM DUAL")) {
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                if (dbResult.next()) {
+                    Date time = dbResult.getTimestamp(1);
+                    if (time != null) {
+                        return time;
+                    }
+                }
+            }
+        }
+        throw new SQLException("Can't read database time");
+    }
+
     @Override
     public boolean isSystem()
     {
@@ -617,12 +705,40 @@ public class OracleSchema extends OracleGlobalObject implements
 
     public class TableCache extends JDBCStructLookupCache<OracleSchema, OracleTableBase, OracleTableColumn> {
 
+        // Database time of the last full read. Used for incremental refresh.
+        private volatile Date refreshTime;
+
         TableCache()
         {
             super(OracleConstants.COLUMN_OBJECT_NAME);
             setListOrderComparator(DBUtils.nameComparator());
         }
 
+        @Override
+        protected synchronized void loadObjects(DBRProgressMonitor monitor, OracleSchema owner) throws DBException {
+            if (isFullyCached()) {
+                return;
+            }
+            Date loadTime = null;
+            if (owner.isIncrementalRefreshEnabled()) {
+                try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Read database time")) {
+                    loadTime = readDatabaseTime(session);
+                } catch (SQLException e) {
+                    log.debug("Can't read database time: " + e.getMessage());
+                }
+            }
+            super.loadObjects(monitor, owner);
+            if (isFullyCached()) {
+                refreshTime = loadTime;
+            }
+        }
+
+        @Override
+        public void clearCache() {
+            super.clearCache();
+            refreshTime = null;
+        }
+
         @NotNull
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner, @Nullable OracleTableBase object, @Nullable String objectName) throws SQLException {
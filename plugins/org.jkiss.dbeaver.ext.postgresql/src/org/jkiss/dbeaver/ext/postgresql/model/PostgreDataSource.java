@@ -411,6 +411,29 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
         }
     }
 
+    @Override
+    protected void resetContextState(@NotNull DBRProgressMonitor monitor, @NotNull JDBCExecutionContext context) throws DBException {
+        if (!getServerType().supportsSessionReset() || !isServerVersionAtLeast(8, 3)) {
+            return;
+        }
+        if (!context.isAutoCommit()) {
+            // DISCARD ALL can't be executed inside a transaction block
+            return;
+        }
+        if (!CommonUtils.isEmpty(getContainer().getActualConnectionConfiguration().getBootstrap().getInitQueries())) {
+            // Session settings made by bootstrap queries would be lost
+            return;
+        }
+        try (JDBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Reset session state")) {
+            session.enableLogging(false);
+            JDBCUtils.executeStatement(session, "DISCARD ALL");
+        } catch (SQLException e) {
+            throw new DBCException(e, context);
+        }
+        // Restore search path and session role
+        ((PostgreExecutionContext) context).refreshDefaults(monitor, true);
+    }
+
     public DatabaseCache getDatabaseCache()
     {
         return databaseCache;
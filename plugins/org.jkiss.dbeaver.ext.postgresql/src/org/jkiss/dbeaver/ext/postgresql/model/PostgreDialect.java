@@ -883,6 +883,11 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider, SQ
         return true;
     }
 
+    @Override
+    public boolean supportsWindowFunctions() {
+        return true;
+    }
+
     @Override
     public boolean supportsAliasInConditions() {
         return false;
@@ -227,4 +227,7 @@ public interface PostgreServerExtension {
      * True if database can use pg_dump and pg_restore clients without errors.
      */
     boolean supportsNativeClient();
+
+    /** DISCARD ALL is used to reset session state of pooled connections */
+    boolean supportsSessionReset();
 }
@@ -593,4 +593,9 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
     public boolean supportsNativeClient() {
         return true;
     }
+
+    @Override
+    public boolean supportsSessionReset() {
+        return true;
+    }
 }
@@ -489,4 +489,9 @@ public class PostgreServerRedshift extends PostgreServerExtensionBase implements
     public boolean supportsNativeClient() {
         return false;
     }
+
+    @Override
+    public boolean supportsSessionReset() {
+        return false;
+    }
 }
\ No newline at end of file
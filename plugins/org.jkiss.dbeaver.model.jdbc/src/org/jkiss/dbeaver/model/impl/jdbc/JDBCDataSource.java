@@ -414,6 +414,16 @@ public abstract class JDBCDataSource extends AbstractDataSource
 
     }
 
+    /**
+     * Resets session state of pooled context before it is returned to the pool.
+     * Called after uncommitted changes were rolled back and auto-commit mode was restored.
+     * Isolation level and default catalog/schema are restored after this call.
+     * Implementations may use native session reset commands.
+     */
+    protected void resetContextState(@NotNull DBRProgressMonitor monitor, @NotNull JDBCExecutionContext context) throws DBException {
+
+    }
+
     @NotNull
     protected JDBCConnectionImpl createConnection(
         @NotNull DBRProgressMonitor monitor,
@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPAdaptable;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
 import org.jkiss.dbeaver.model.exec.*;
@@ -29,6 +30,8 @@ import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCSavepointImpl;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
@@ -61,6 +64,19 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
 
+    // Pooled isolated context. Initial state is restored when context is returned to the pool
+    private volatile boolean pooled;
+    // Pooled context which is idle. It is not listed in the instance contexts and is reported to QM as closed
+    private volatile boolean idle;
+    private Integer initialTxnIsolationLevel;
+    private DBSCatalog initialCatalog;
+    private DBSSchema initialSchema;
+
+    // Cache of metadata statements. Invalidated on close and on default catalog/schema change
+    private volatile JDBCStatementCache statementCache;
+    private DBSCatalog statementCacheCatalog;
+    private DBSSchema statementCacheSchema;
+
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
         this.instance = instance;
@@ -181,6 +197,7 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     protected void disconnect() {
+        invalidateStatementCache();
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
@@ -190,8 +207,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
             }
             this.connection = null;
         }
-        // Notify QM
-        super.closeContext();
+        if (!idle) {
+            // Notify QM
+            super.closeContext();
+        }
     }
 
     @NotNull
@@ -210,6 +229,52 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         return connection;
     }
 
+    /**
+     * Returns prepared statements cache or null if statement caching is disabled.
+     * Cache is invalidated if default catalog or schema was changed since last call.
+     */
+    @Nullable
+    public JDBCStatementCache getStatementCache() {
+        JDBCStatementCache cache = statementCache;
+        if (cache == null) {
+            int cacheSize = dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_STATEMENT_CACHE_SIZE);
+            if (cacheSize <= 0 || connection == null) {
+                return null;
+            }
+            synchronized (this) {
+                cache = statementCache;
+                if (cache == null) {
+                    cache = new JDBCStatementCache(cacheSize);
+                    statementCache = cache;
+                }
+            }
+        }
+        DBCExecutionContextDefaults<?, ?> contextDefaults = getContextDefaults();
+        if (contextDefaults != null) {
+            DBSCatalog defaultCatalog = contextDefaults.getDefaultCatalog();
+            DBSSchema defaultSchema = contextDefaults.getDefaultSchema();
+            synchronized (this) {
+                if (defaultCatalog != statementCacheCatalog || defaultSchema != statementCacheSchema) {
+                    // Statements may refer to objects of the previous default schema
+                    statementCacheCatalog = defaultCatalog;
+                    statementCacheSchema = defaultSchema;
+                    cache.invalidate();
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Closes all cached statements
+     */
+    public void invalidateStatementCache() {
+        JDBCStatementCache cache = statementCache;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
     @NotNull
     @Override
     public JDBCSession openSession(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionPurpose purpose, @NotNull String taskTitle) {
@@ -251,9 +316,76 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
     @Override
     public void close() {
+        if (pooled && instance.releasePooledContext(this)) {
+            return;
+        }
+        closeContext(true);
+    }
+
+    /**
+     * Closes pooled context physically
+     */
+    void closePooled() {
+        pooled = false;
         closeContext(true);
     }
 
+    /**
+     * Removes idle pooled context from the instance contexts
+     */
+    void suspendPooled() {
+        instance.removeContext(this);
+        QMUtils.getDefaultHandler().handleContextClose(this);
+        idle = true;
+    }
+
+    /**
+     * Returns pooled context taken from the pool to the instance contexts
+     */
+    void resumePooled() {
+        idle = false;
+        QMUtils.getDefaultHandler().handleContextOpen(this, !isAutoCommit());
+        instance.addContext(this);
+    }
+
+    /**
+     * Marks context as pooled and remembers its current state as initial
+     */
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+        if (pooled) {
+            Integer txnLevel = transactionIsolationLevel;
+            if (txnLevel == null && isSupportsTransactions()) {
+                try {
+                    txnLevel = getConnection().getTransactionIsolation();
+                } catch (Exception e) {
+                    log.debug("Can't read transaction isolation level of pooled context", e);
+                }
+            }
+            this.initialTxnIsolationLevel = txnLevel;
+            DBCExecutionContextDefaults<?, ?> contextDefaults = getContextDefaults();
+            if (contextDefaults != null) {
+                this.initialCatalog = contextDefaults.getDefaultCatalog();
+                this.initialSchema = contextDefaults.getDefaultSchema();
+            }
+        }
+    }
+
+    @Nullable
+    Integer getInitialTransactionIsolation() {
+        return initialTxnIsolationLevel;
+    }
+
+    @Nullable
+    DBSCatalog getInitialCatalog() {
+        return initialCatalog;
+    }
+
+    @Nullable
+    DBSSchema getInitialSchema() {
+        return initialSchema;
+    }
+
     private void closeContext(boolean removeContext) {
         // We remove context before it is actually closed.
         // Because disconnect may (potentially) hang in socket forever
@@ -468,7 +600,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     }
 
     public void reconnect(DBRProgressMonitor monitor) throws DBCException {
-        close();
+        // Do not return context to the pool, connection is reopened right now
+        closeContext(true);
         connect(monitor, null, null, this, true);
     }
 
@@ -0,0 +1,240 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
+import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Pool of execution contexts opened by {@link JDBCRemoteInstance#openPooledContext}.
+ *
+ * Pooled contexts are returned to the pool on close instead of closing physical connection.
+ * Context state (transaction mode, data source specific session state, isolation level,
+ * default catalog and schema) is reset on return and context is validated on borrow.
+ * Idle contexts are removed from the instance contexts. Contexts which are idle for too long are closed.
+ */
+class JDBCExecutionContextPool {
+    private static final Log log = Log.getLog(JDBCExecutionContextPool.class);
+
+    @NotNull
+    private final JDBCRemoteInstance instance;
+    private final int maxIdleContexts;
+    private final long idleTimeout;
+
+    // Most recently returned contexts go first
+    private final LinkedList<IdleContext> idleContexts = new LinkedList<>();
+    private final EvictJob evictJob;
+    private volatile boolean closed;
+
+    JDBCExecutionContextPool(@NotNull JDBCRemoteInstance instance, int maxIdleContexts, long idleTimeout) {
+        this.instance = instance;
+        this.maxIdleContexts = maxIdleContexts;
+        this.idleTimeout = idleTimeout;
+        this.evictJob = new EvictJob();
+    }
+
+    /**
+     * Takes idle context with the same purpose from the pool. Dead contexts are closed.
+     *
+     * @return valid context or null if there are no idle contexts
+     */
+    @Nullable
+    JDBCExecutionContext borrowContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose) {
+        for (;;) {
+            JDBCExecutionContext context;
+            synchronized (idleContexts) {
+                if (closed) {
+                    return null;
+                }
+                // Context name can't be changed, so only contexts opened for the same purpose are reused
+                IdleContext idle = null;
+                for (IdleContext ic : idleContexts) {
+                    if (CommonUtils.equalObjects(ic.context.getContextName(), purpose)) {
+                        idle = ic;
+                        break;
+                    }
+                }
+                if (idle == null) {
+                    return null;
+                }
+                idleContexts.remove(idle);
+                context = idle.context;
+            }
+            try {
+                context.checkContextAlive(monitor);
+                context.resumePooled();
+                return context;
+            } catch (DBException e) {
+                log.debug("Pooled context [" + context.getContextName() + "] is not valid: " + e.getMessage());
+                context.closePooled();
+            }
+        }
+    }
+
+    /**
+     * Resets context state and puts context in the pool.
+     *
+     * @return false if context can't be pooled. It must be closed by the caller then
+     */
+    boolean releaseContext(@NotNull JDBCExecutionContext context) {
+        if (closed || !context.isConnected()) {
+            return false;
+        }
+        synchronized (idleContexts) {
+            if (idleContexts.size() >= maxIdleContexts) {
+                return false;
+            }
+        }
+        try {
+            resetContextState(new VoidProgressMonitor(), context);
+        } catch (Exception e) {
+            log.debug("Can't reset state of pooled context [" + context.getContextName() + "]: " + e.getMessage());
+            return false;
+        }
+        context.suspendPooled();
+        synchronized (idleContexts) {
+            if (closed || idleContexts.size() >= maxIdleContexts) {
+                return false;
+            }
+            idleContexts.addFirst(new IdleContext(context));
+        }
+        evictJob.schedule(idleTimeout);
+        return true;
+    }
+
+    /**
+     * Closes all idle contexts. Contexts which are returned after this are closed immediately.
+     */
+    void close() {
+        List<IdleContext> toClose;
+        synchronized (idleContexts) {
+            closed = true;
+            toClose = new ArrayList<>(idleContexts);
+            idleContexts.clear();
+        }
+        evictJob.cancel();
+        for (IdleContext idle : toClose) {
+            idle.context.closePooled();
+        }
+    }
+
+    private void evictIdleContexts() {
+        List<IdleContext> toClose = new ArrayList<>();
+        long expireTime = System.currentTimeMillis() - idleTimeout;
+        boolean hasIdle;
+        synchronized (idleContexts) {
+            for (Iterator<IdleContext> iter = idleContexts.iterator(); iter.hasNext(); ) {
+                IdleContext idle = iter.next();
+                if (idle.releaseTime <= expireTime) {
+                    toClose.add(idle);
+                    iter.remove();
+                }
+            }
+            hasIdle = !closed && !idleContexts.isEmpty();
+        }
+        for (IdleContext idle : toClose) {
+            log.debug("Close idle pooled context [" + idle.context.getContextName() + "]");
+            idle.context.closePooled();
+        }
+        if (hasIdle) {
+            evictJob.schedule(idleTimeout);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resetContextState(@NotNull DBRProgressMonitor monitor, @NotNull JDBCExecutionContext context) throws DBException {
+        boolean defaultAutoCommit = instance.getDataSource().getContainer().isDefaultAutoCommit();
+        if (context.isSupportsTransactions()) {
+            if (!context.isAutoCommit()) {
+                // Discard changes which were not committed by the borrower
+                try (JDBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Reset pooled context")) {
+                    session.enableLogging(false);
+                    context.rollback(session, null);
+                }
+            }
+            if (context.isAutoCommit() != defaultAutoCommit) {
+                context.setAutoCommit(monitor, defaultAutoCommit);
+            }
+        }
+        // Native session reset (if any) may also reset isolation level and default schema, so they are restored after it
+        instance.getDataSource().resetContextState(monitor, context);
+        if (context.isSupportsTransactions()) {
+            Integer initialIsolation = context.getInitialTransactionIsolation();
+            if (initialIsolation != null) {
+                context.setTransactionIsolation(monitor, JDBCTransactionIsolation.getByCode(initialIsolation));
+            }
+        }
+        DBCExecutionContextDefaults<DBSCatalog, DBSSchema> contextDefaults = context.getContextDefaults();
+        if (contextDefaults != null) {
+            DBSCatalog initialCatalog = context.getInitialCatalog();
+            DBSSchema initialSchema = context.getInitialSchema();
+            if (initialCatalog != null && contextDefaults.supportsCatalogChange() &&
+                contextDefaults.getDefaultCatalog() != initialCatalog)
+            {
+                contextDefaults.setDefaultCatalog(monitor, initialCatalog, initialSchema);
+            } else if (initialSchema != null && contextDefaults.supportsSchemaChange() &&
+                contextDefaults.getDefaultSchema() != initialSchema)
+            {
+                contextDefaults.setDefaultSchema(monitor, initialSchema);
+            }
+        }
+    }
+
+    private static class IdleContext {
+        final JDBCExecutionContext context;
+        final long releaseTime;
+
+        IdleContext(JDBCExecutionContext context) {
+            this.context = context;
+            this.releaseTime = System.currentTimeMillis();
+        }
+    }
+
+    private class EvictJob extends AbstractJob {
+        EvictJob() {
+            super("Evict idle contexts (" + instance.getDataSource().getContainer().getName() + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (!closed) {
+                evictIdleContexts();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.impl.SimpleExclusiveLock;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -53,6 +54,8 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
+    @Nullable
+    private volatile JDBCExecutionContextPool contextPool;
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull JDBCDataSource dataSource, boolean initContext)
         throws DBException {
@@ -158,10 +161,35 @@ public class JDBCRemoteInstance implements DBSInstance {
         if (sharedInstance != null) {
             return sharedInstance.openIsolatedContext(monitor, purpose, initFrom);
         }
+        return openContext(monitor, purpose, (JDBCExecutionContext) initFrom);
+    }
+
+    @NotNull
+    @Override
+    public DBCExecutionContext openPooledContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
+        if (sharedInstance != null) {
+            return sharedInstance.openPooledContext(monitor, purpose, initFrom);
+        }
+        JDBCExecutionContextPool pool = getContextPool();
+        if (pool == null) {
+            return openContext(monitor, purpose, (JDBCExecutionContext) initFrom);
+        }
+        JDBCExecutionContext context = pool.borrowContext(monitor, purpose);
+        if (context == null) {
+            // Pooled context is connected with default state which is restored when context is returned to the pool
+            context = openContext(monitor, purpose, null);
+            context.setPooled(true);
+        }
+        initializePooledContextState(monitor, context, initFrom);
+        return context;
+    }
+
+    @NotNull
+    private JDBCExecutionContext openContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable JDBCExecutionContext initFrom) throws DBException {
         JDBCExecutionContext context = dataSource.createExecutionContext(this, purpose);
         DBExecUtils.tryExecuteRecover(monitor, getDataSource(), monitor1 -> {
             try {
-                context.connect(monitor1, null, null, (JDBCExecutionContext) initFrom, true);
+                context.connect(monitor1, null, null, initFrom, true);
             } catch (DBCException e) {
                 throw new InvocationTargetException(e);
             }
@@ -169,6 +197,56 @@ public class JDBCRemoteInstance implements DBSInstance {
         return context;
     }
 
+    private void initializePooledContextState(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JDBCExecutionContext context,
+        @Nullable DBCExecutionContext initFrom
+    ) {
+        if (initFrom instanceof JDBCExecutionContext) {
+            try {
+                dataSource.initializeContextState(monitor, context, (JDBCExecutionContext) initFrom);
+            } catch (DBException e) {
+                log.warn("Error while initializing pooled context state", e);
+            }
+        }
+    }
+
+    /**
+     * Returns pool of contexts opened by {@link #openPooledContext} or null if pooling is disabled
+     */
+    @Nullable
+    private JDBCExecutionContextPool getContextPool() {
+        JDBCExecutionContextPool pool = contextPool;
+        if (pool == null) {
+            DBPPreferenceStore preferenceStore = dataSource.getContainer().getPreferenceStore();
+            int poolSize = preferenceStore.getInt(ModelPreferences.CONNECTION_ISOLATED_POOL_SIZE);
+            if (poolSize <= 0) {
+                return null;
+            }
+            synchronized (allContexts) {
+                pool = contextPool;
+                if (pool == null) {
+                    pool = new JDBCExecutionContextPool(
+                        this,
+                        poolSize,
+                        preferenceStore.getLong(ModelPreferences.CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT));
+                    contextPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Returns closed isolated context to the pool.
+     *
+     * @return false if context was not pooled and must be closed
+     */
+    boolean releasePooledContext(@NotNull JDBCExecutionContext context) {
+        JDBCExecutionContextPool pool = contextPool;
+        return pool != null && pool.releaseContext(context);
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -225,6 +303,15 @@ public class JDBCRemoteInstance implements DBSInstance {
      * @param keepMeta do not close meta context
      */
     public void shutdown(DBRProgressMonitor monitor, boolean keepMeta) {
+        // Close idle pooled contexts. Contexts which are in use now will be closed below
+        JDBCExecutionContextPool pool;
+        synchronized (allContexts) {
+            pool = contextPool;
+            contextPool = null;
+        }
+        if (pool != null) {
+            pool.close();
+        }
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         List<JDBCExecutionContext> ctxCopy;
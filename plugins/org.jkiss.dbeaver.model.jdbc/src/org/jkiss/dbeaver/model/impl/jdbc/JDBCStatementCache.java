@@ -0,0 +1,193 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements of one execution context. Statements are keyed by SQL text.
+ *
+ * Statement is removed from the cache while it is in use, so the same statement is never shared
+ * between two sessions. Statements are closed when they are evicted or when cache is invalidated.
+ * Statement settings are reset to driver defaults when statement is returned to the cache.
+ */
+public class JDBCStatementCache {
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    private final int maxSize;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount;
+    private long missCount;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getSize() {
+        return statements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Takes statement from the cache. Caller must return it with {@link #releaseStatement} after use.
+     *
+     * @return cached statement or null if there is no statement for this query
+     */
+    @Nullable
+    public synchronized CachedStatement takeStatement(@NotNull String sql) {
+        CachedStatement statement = statements.remove(sql);
+        if (statement == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return statement;
+    }
+
+    /**
+     * Puts statement in the cache. Least recently used statement is closed if cache is full.
+     *
+     * @return false if statement wasn't cached. Caller must close it then
+     */
+    public boolean releaseStatement(@NotNull String sql, @NotNull CachedStatement statement) {
+        try {
+            if (statement.statement.isClosed()) {
+                return false;
+            }
+            statement.reset();
+        } catch (SQLException e) {
+            log.debug("Can't reset cached statement: " + e.getMessage());
+            return false;
+        }
+        CachedStatement evicted = null;
+        synchronized (this) {
+            if (statements.containsKey(sql)) {
+                // The same query was prepared by another session
+                return false;
+            }
+            statements.put(sql, statement);
+            if (statements.size() > maxSize) {
+                Iterator<Map.Entry<String, CachedStatement>> iter = statements.entrySet().iterator();
+                evicted = iter.next().getValue();
+                iter.remove();
+            }
+        }
+        if (evicted != null) {
+            closeStatement(evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Closes all cached statements
+     */
+    public void invalidate() {
+        List<CachedStatement> toClose;
+        synchronized (this) {
+            if (statements.isEmpty()) {
+                return;
+            }
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (CachedStatement statement : toClose) {
+            closeStatement(statement);
+        }
+    }
+
+    private static void closeStatement(@NotNull CachedStatement statement) {
+        try {
+            statement.statement.close();
+        } catch (Throwable e) {
+            log.debug("Can't close cached statement", e);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Statement cache: size=" + statements.size() + ", hits=" + hitCount + ", misses=" + missCount;
+    }
+
+    /**
+     * Prepared statement with its default settings
+     */
+    public static class CachedStatement {
+        @NotNull
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private final int fetchDirection;
+
+        /**
+         * Reads default settings of the statement. Must be called right after statement was prepared.
+         */
+        public CachedStatement(@NotNull PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+            this.fetchDirection = statement.getFetchDirection();
+        }
+
+        @NotNull
+        public PreparedStatement getStatement() {
+            return statement;
+        }
+
+        /**
+         * Clears parameters and restores settings which were changed by the previous session
+         */
+        void reset() throws SQLException {
+            statement.clearParameters();
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+            if (statement.getFetchDirection() != fetchDirection) {
+                statement.setFetchDirection(fetchDirection);
+            }
+        }
+    }
+}
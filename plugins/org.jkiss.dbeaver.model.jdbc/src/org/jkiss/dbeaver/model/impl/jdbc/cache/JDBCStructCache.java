@@ -256,6 +256,16 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    /**
+     * Marks children of all objects as read. Used when children are cached by {@link #cacheChildren} from some other source.
+     */
+    protected void setChildrenCached(boolean childrenCached)
+    {
+        synchronized (childrenCache) {
+            this.childrenCached = childrenCached;
+        }
+    }
+
     protected void cacheChildren(OBJECT parent, List<CHILD> children)
     {
         synchronized (childrenCache) {
@@ -30,9 +30,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
 import java.sql.SQLException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Struct cache with ability to load/search single object by name.
@@ -97,6 +95,73 @@ public abstract class JDBCStructLookupCache<OWNER extends DBSObject, OBJECT exte
     }
 
 
+    /**
+     * Incremental cache refresh.
+     * Reloads changed objects, removes objects which do not exist anymore and keeps all other cached objects as is.
+     * Cache is loaded completely if it wasn't read before.
+     *
+     * @param changedNames names of objects which were created or modified since the last refresh
+     * @param actualNames names of all existing objects. If null then removed objects are not detected
+     * @return false if refresh was canceled before all changed objects were reloaded
+     */
+    public synchronized boolean refreshObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull Collection<String> changedNames,
+        @Nullable Set<String> actualNames)
+        throws DBException
+    {
+        if (!isFullyCached()) {
+            loadObjects(monitor, owner);
+            return !monitor.isCanceled();
+        }
+        if (actualNames != null) {
+            for (OBJECT object : new ArrayList<>(getCachedObjects())) {
+                if (object.isPersisted() && !actualNames.contains(object.getName())) {
+                    removeObject(object, false);
+                }
+            }
+        }
+        boolean hasNewObjects = false;
+        boolean canceled = false;
+        for (String objectName : changedNames) {
+            if (monitor.isCanceled()) {
+                canceled = true;
+                break;
+            }
+            missingNames.remove(objectName);
+            OBJECT oldObject = getCachedObject(objectName);
+            OBJECT newObject = reloadObject(monitor, owner, null, objectName);
+            if (oldObject == null) {
+                if (newObject != null) {
+                    cacheObject(newObject);
+                    hasNewObjects = true;
+                }
+                continue;
+            }
+            if (isChildrenCached(oldObject)) {
+                clearChildrenCache(oldObject);
+            }
+            if (newObject == null) {
+                removeObject(oldObject, false);
+            } else if (newObject.getClass() == oldObject.getClass()) {
+                deepCopyCachedObject(newObject, oldObject);
+            } else {
+                // Object type was changed (e.g. table was replaced with a view)
+                removeObject(oldObject, false);
+                cacheObject(newObject);
+                hasNewObjects = true;
+            }
+        }
+        Comparator<OBJECT> comparator = getListOrderComparator();
+        if (hasNewObjects && comparator != null) {
+            List<OBJECT> objects = new ArrayList<>(getCachedObjects());
+            objects.sort(comparator);
+            super.setCache(objects);
+        }
+        return !canceled;
+    }
+
     protected OBJECT reloadObject(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner, @Nullable OBJECT object, @Nullable String objectName)
         throws DBException
     {
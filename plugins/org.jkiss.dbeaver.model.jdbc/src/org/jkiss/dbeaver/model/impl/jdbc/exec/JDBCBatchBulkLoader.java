@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCException;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Bulk loader which sends rows as a single array (batch) insert per flush.
+ * Subclasses provide database specific insert statement (hints, formats, etc).
+ */
+public abstract class JDBCBatchBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(JDBCBatchBulkLoader.class);
+
+    // Maximum number of rows kept in the statement batch, regardless of the commit size
+    public static final int MAX_BUFFERED_ROWS = 10000;
+
+    private DBSDataContainer table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private JDBCPreparedStatement insertStatement;
+    private int batchSize;
+    private int bufferedRows;
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = dataContainer;
+        this.attributes = attributes;
+        this.batchSize = batchSize;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+        String query = makeInsertQuery(session, dataContainer, attributes);
+        try {
+            insertStatement = ((JDBCSession) session).prepareStatement(query);
+        } catch (SQLException e) {
+            throw new JDBCException(e, session.getExecutionContext());
+        }
+        return this;
+    }
+
+    /**
+     * Makes insert statement. Parameters must follow attributes order.
+     */
+    @NotNull
+    protected abstract String makeInsertQuery(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer table,
+        @NotNull DBSAttributeBase[] attributes) throws DBCException;
+
+    /**
+     * Commit after each flushed array. Required by direct-path inserts.
+     */
+    protected boolean isCommitAfterFlush() {
+        return true;
+    }
+
+    @NotNull
+    protected static String getTableName(@NotNull DBSDataContainer table) {
+        return DBUtils.getObjectFullName(table, DBPEvaluationContext.DML);
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, insertStatement, attributes[i], i, attributeValues[i]);
+        }
+        try {
+            insertStatement.addBatch();
+        } catch (SQLException e) {
+            throw new JDBCException(e, session.getExecutionContext());
+        }
+        bufferedRows++;
+        if (bufferedRows >= MAX_BUFFERED_ROWS || (batchSize > 0 && bufferedRows >= batchSize && !isCommitAfterFlush())) {
+            // Do not let array grow beyond batch size
+            if (isCommitAfterFlush()) {
+                flushRows(session);
+            } else {
+                executeBatch(session);
+            }
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (executeBatch(session) && isCommitAfterFlush()) {
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            if (txnManager != null && !txnManager.isAutoCommit()) {
+                session.getProgressMonitor().subTask("Commit loaded data");
+                txnManager.commit(session);
+            }
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+    }
+
+    private boolean executeBatch(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows == 0) {
+            return false;
+        }
+        session.getProgressMonitor().subTask("Load " + bufferedRows + " rows into " + table.getName());
+        try {
+            insertStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new JDBCException(e, session.getExecutionContext());
+        } finally {
+            bufferedRows = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (insertStatement != null) {
+            try {
+                insertStatement.close();
+            } catch (Exception e) {
+                log.debug("Error closing bulk insert statement", e);
+            }
+            insertStatement = null;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.jkiss.dbeaver.model.impl.AbstractSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCException;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStatementCache;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
@@ -257,6 +258,24 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql)
         throws SQLException
     {
+        if (sql != null && getPurpose() == DBCExecutionPurpose.META) {
+            // Metadata queries are the same on each refresh, so reuse prepared statements
+            JDBCStatementCache statementCache = context.getStatementCache();
+            if (statementCache != null) {
+                JDBCStatementCache.CachedStatement cachedStatement = statementCache.takeStatement(sql);
+                if (cachedStatement == null) {
+                    PreparedStatement original = getOriginal().prepareStatement(sql);
+                    try {
+                        cachedStatement = new JDBCStatementCache.CachedStatement(original);
+                    } catch (SQLException e) {
+                        // Driver doesn't report statement settings. Don't cache it, we won't be able to reset it
+                        log.debug("Can't read prepared statement settings: " + e.getMessage());
+                        return createPreparedStatementImpl(original, sql);
+                    }
+                }
+                return new JDBCPreparedStatementCachedImpl(this, cachedStatement, sql, !isLoggingEnabled(), statementCache);
+            }
+        }
         return createPreparedStatementImpl(getOriginal().prepareStatement(sql), sql);
     }
 
@@ -16,20 +16,50 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.exec;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStatementCache;
 
+/**
+ * Prepared statement from the context statement cache.
+ * Original statement is returned to the cache on close.
+ */
 public class JDBCPreparedStatementCachedImpl extends JDBCPreparedStatementImpl {
 
-	public JDBCPreparedStatementCachedImpl(JDBCPreparedStatementImpl statment){
-		super(statment.getSession(), statment.original, statment.query, statment.disableLogging);
+	@NotNull
+	private final JDBCStatementCache cache;
+	@NotNull
+	private final JDBCStatementCache.CachedStatement cachedStatement;
+	@NotNull
+	private final String sql;
+	private boolean dropped;
+
+	public JDBCPreparedStatementCachedImpl(
+		@NotNull JDBCSession session,
+		@NotNull JDBCStatementCache.CachedStatement cachedStatement,
+		@NotNull String sql,
+		boolean disableLogging,
+		@NotNull JDBCStatementCache cache)
+	{
+		super(session, cachedStatement.getStatement(), sql, disableLogging);
+		this.cache = cache;
+		this.cachedStatement = cachedStatement;
+		this.sql = sql;
 	}
 
 	@Override
-	public void close() {
-		// For cached statement close() do nothing
+	protected void closeOriginal() {
+		if (dropped || !cache.releaseStatement(sql, cachedStatement)) {
+			super.closeOriginal();
+		}
 	}
-	
+
+	/**
+	 * Closes statement without returning it to the cache
+	 */
 	public void drop(){
-		super.close();
+		dropped = true;
+		close();
 	}
-	
+
 }
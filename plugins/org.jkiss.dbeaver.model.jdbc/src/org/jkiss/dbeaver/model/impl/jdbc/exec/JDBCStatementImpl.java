@@ -493,7 +493,14 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
             QMUtils.getDefaultHandler().handleStatementClose(this, updateCount);
         }
 
-        // Close statement
+        closeOriginal();
+    }
+
+    /**
+     * Closes original statement. Cached statements may be kept open here.
+     */
+    protected void closeOriginal()
+    {
         try {
             getOriginal().close();
         }
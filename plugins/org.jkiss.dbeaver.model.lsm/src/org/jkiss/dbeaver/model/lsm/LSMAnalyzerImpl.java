@@ -16,11 +16,13 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ANTLRErrorListener;
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.ATNConfigSet;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
@@ -29,15 +31,47 @@ import org.jkiss.dbeaver.model.lsm.mapping.SyntaxModelMappingResult;
 import org.jkiss.dbeaver.model.lsm.sql.impl.SelectStatement;
 import org.jkiss.dbeaver.model.stm.STMErrorListener;
 import org.jkiss.dbeaver.model.stm.STMParserOverrides;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    // Max number of cached parse trees per analyzer
+    private static final int PARSE_TREE_CACHE_SIZE = 32;
+    // Longer queries are not cached
+    private static final int MAX_CACHED_QUERY_LENGTH = 100_000;
+
+    // Statements used to fill ANTLR DFA caches before first real parse
+    private static final String[] WARM_UP_QUERIES = {
+        "SELECT a, b.c, COUNT(*) AS cnt FROM s.t x INNER JOIN u y ON x.id = y.id " +
+            "WHERE a > 1 AND b.c LIKE 'x%' GROUP BY a, b.c HAVING COUNT(*) > 1 ORDER BY cnt DESC",
+        "SELECT DISTINCT t.* FROM t LEFT OUTER JOIN (SELECT id FROM u WHERE v IS NOT NULL) s ON s.id = t.id " +
+            "UNION SELECT * FROM w CROSS JOIN z",
+        "SELECT CASE WHEN a IN (1, 2, 3) THEN 'x' ELSE NULL END, CAST(b AS VARCHAR(10)) FROM t " +
+            "WHERE EXISTS (SELECT 1 FROM u WHERE u.id = t.id) AND c BETWEEN 1 AND 10",
+        "SELECT * FROM t WHERE",
+    };
+
+    // Parser classes which DFA caches are already filled
+    private static final Set<Class<?>> warmedUpParsers = ConcurrentHashMap.newKeySet();
+
     private final SyntaxModel syntaxModel;
-    
+
+    // Parse trees of recently parsed queries. Analyzer is dialect-specific, so trees are keyed by query text only
+    private final Map<String, ParseResult> parseTreeCache = new LinkedHashMap<>(PARSE_TREE_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParseResult> eldest) {
+            return size() > PARSE_TREE_CACHE_SIZE;
+        }
+    };
+
     public LSMAnalyzerImpl() {
         Pair<TLexer, TParser> pair = this.createParser(STMSource.fromString(""));
         syntaxModel = new SyntaxModel(pair.getSecond());
@@ -68,18 +102,120 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
         return parser;
     }
 
+    /**
+     * Fills ANTLR prediction caches of this analyzer's parser.
+     * Caches are shared by all parsers of the same grammar, so warm up is performed once per parser class.
+     */
+    public void warmUp() {
+        Pair<TLexer, TParser> pair = this.createParser(STMSource.fromString(""));
+        if (!warmedUpParsers.add(pair.getSecond().getClass())) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        for (String query : WARM_UP_QUERIES) {
+            try {
+                parseSqlQueryTreeImpl(STMSource.fromString(query), new STMSkippingErrorListener());
+            } catch (Exception e) {
+                log.debug("Error warming up SQL parser", e);
+            }
+        }
+        log.debug("SQL parser " + pair.getSecond().getGrammarFileName() + " warmed up in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * Parses query tree. Trees of recently parsed queries are cached and returned to all callers
+     * (including callers in other threads), so trees are read-only: their child lists can't be modified.
+     * Syntax errors of cached trees are reported to the error listener again with position and message only
+     * (without recognizer, offending symbol and exception). Other diagnostics are not reported again.
+     */
     @Nullable
     @Override
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+        String queryText = getSourceText(source);
+        if (queryText == null) {
+            return parseSqlQueryTreeImpl(source, errorListener).tree;
+        }
+        ParseResult result;
+        synchronized (parseTreeCache) {
+            result = parseTreeCache.get(queryText);
+        }
+        if (result != null) {
+            result.replayErrors(errorListener);
+        } else {
+            result = parseSqlQueryTreeImpl(STMSource.fromString(queryText), errorListener);
+            if (result.tree != null) {
+                synchronized (parseTreeCache) {
+                    parseTreeCache.put(queryText, result);
+                }
+            }
+        }
+        return result.tree;
+    }
+
+    /**
+     * Parses query in two stages. First stage uses fast SLL prediction and bails out on the first error.
+     * If it fails (because of syntax error or because grammar requires full context) then query is parsed
+     * again with full LL prediction and normal error recovery.
+     */
+    @NotNull
+    private ParseResult parseSqlQueryTreeImpl(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+        RecordingErrorListener recorder = new RecordingErrorListener(errorListener);
         try {
-            TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            TParser parser = prepareParser(source, recorder);
+            List<? extends ANTLRErrorListener> parserListeners = new ArrayList<>(parser.getErrorListeners());
+            ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+            PredictionMode predictionMode = parser.getInterpreter().getPredictionMode();
+
+            parser.removeErrorListeners();
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            STMTreeRuleNode result;
+            try {
+                result = parseSqlQueryImpl(parser);
+            } catch (ParseCancellationException e) {
+                parser.reset();
+                parserListeners.forEach(parser::addErrorListener);
+                parser.setErrorHandler(errorHandler);
+                parser.getInterpreter().setPredictionMode(predictionMode);
+                result = parseSqlQueryImpl(parser);
+            }
             result.fixup(parser);
-            return result;
+            freezeTree(result);
+            // Tree tokens reference the lexer, it must not keep the caller's listener
+            TokenSource tokenSource = parser.getInputStream().getTokenSource();
+            if (tokenSource instanceof Lexer) {
+                ((Lexer) tokenSource).removeErrorListeners();
+            }
+            return new ParseResult(result, recorder.errors);
         } catch (RecognitionException e) {
             log.debug("Recognition exception occurred while trying to parse the query", e);
+            return new ParseResult(null, recorder.errors);
+        }
+    }
+
+    /**
+     * Makes tree read-only, so it can be shared by several threads.
+     * Also drops recognition exceptions of error nodes, they reference the parser.
+     */
+    private static void freezeTree(@NotNull ParserRuleContext node) {
+        node.exception = null;
+        if (node.children != null) {
+            for (ParseTree child : node.children) {
+                if (child instanceof ParserRuleContext) {
+                    freezeTree((ParserRuleContext) child);
+                }
+            }
+            node.children = Collections.unmodifiableList(node.children);
+        }
+    }
+
+    @Nullable
+    private static String getSourceText(@NotNull STMSource source) {
+        CharStream stream = source.getStream();
+        if (stream.size() > MAX_CACHED_QUERY_LENGTH) {
             return null;
         }
+        return stream.getText(Interval.of(0, stream.size() - 1));
     }
 
     @Nullable
@@ -95,4 +231,72 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
         }
         return null;
     }
+
+    private static class ParseResult {
+        @Nullable
+        private final STMTreeRuleNode tree;
+        @NotNull
+        private final List<SyntaxError> errors;
+
+        ParseResult(@Nullable STMTreeRuleNode tree, @NotNull List<SyntaxError> errors) {
+            this.tree = tree;
+            this.errors = errors;
+        }
+
+        void replayErrors(@Nullable STMErrorListener errorListener) {
+            ANTLRErrorListener listener = errorListener != null ? errorListener : ConsoleErrorListener.INSTANCE;
+            for (SyntaxError error : errors) {
+                listener.syntaxError(null, null, error.line, error.charPositionInLine, error.message, null);
+            }
+        }
+    }
+
+    /**
+     * Position and message of syntax error. Recognizer, offending token and exception are not kept,
+     * they reference the parser and its input.
+     */
+    private static class SyntaxError {
+        private final int line;
+        private final int charPositionInLine;
+        private final String message;
+
+        SyntaxError(int line, int charPositionInLine, String message) {
+            this.line = line;
+            this.charPositionInLine = charPositionInLine;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Forwards all events to the target listener (or to console if there is no target) and remembers syntax errors
+     */
+    private static class RecordingErrorListener implements STMErrorListener {
+        private final ANTLRErrorListener target;
+        private final List<SyntaxError> errors = new ArrayList<>();
+
+        RecordingErrorListener(@Nullable STMErrorListener target) {
+            this.target = target != null ? target : ConsoleErrorListener.INSTANCE;
+        }
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+            errors.add(new SyntaxError(line, charPositionInLine, msg));
+            target.syntaxError(recognizer, offendingSymbol, line, charPositionInLine, msg, e);
+        }
+
+        @Override
+        public void reportAmbiguity(Parser parser, DFA dfa, int startIndex, int stopIndex, boolean exact, BitSet ambigAlts, ATNConfigSet configs) {
+            target.reportAmbiguity(parser, dfa, startIndex, stopIndex, exact, ambigAlts, configs);
+        }
+
+        @Override
+        public void reportAttemptingFullContext(Parser parser, DFA dfa, int startIndex, int stopIndex, BitSet conflictingAlts, ATNConfigSet configs) {
+            target.reportAttemptingFullContext(parser, dfa, startIndex, stopIndex, conflictingAlts, configs);
+        }
+
+        @Override
+        public void reportContextSensitivity(Parser parser, DFA dfa, int startIndex, int stopIndex, int prediction, ATNConfigSet configs) {
+            target.reportContextSensitivity(parser, dfa, startIndex, stopIndex, prediction, configs);
+        }
+    }
 }
@@ -51,9 +51,19 @@ public class SyntaxModel {
     private final Map<Class<?>, LiteralTypeInfo> literalTypeByClass = new HashMap<>();
     
     private final XPath xpath;
+    private final boolean precompiled;
     
     public SyntaxModel(@NotNull Parser parser) {
+        this(parser, true);
+    }
+
+    /**
+     * @param precompiled compile lookup paths and field accessors on types introduction,
+     *                    otherwise mapping evaluates XPath expressions and uses reflection for each node
+     */
+    public SyntaxModel(@NotNull Parser parser, boolean precompiled) {
         this.parser = parser;
+        this.precompiled = precompiled;
 
         XPathFactory xf = XPathFactory.newInstance();
         this.xpath = xf.newXPath();
@@ -409,11 +419,11 @@ public class SyntaxModel {
                     kind = FieldTypeKind.resolveModelLiteralFieldKind(fieldType);
                 }
                 
-                List<XPathExpression> termExprs = new ArrayList<>(field.termSpecs.length);
+                List<SyntaxPathExpression> termExprs = new ArrayList<>(field.termSpecs.length);
                 List<SubnodeInfo> subnodeExprs = new ArrayList<>(field.subnodeSpecs.length);
                 for (var termSpec : field.termSpecs) {
                     try {
-                        termExprs.add(xpath.compile(termSpec.xpath())); // TODO collect raw string too
+                        termExprs.add(SyntaxPathExpression.compile(xpath, termSpec.xpath(), precompiled));
                         if (fieldType.isEnum()) {
                             if (processedTypes.add(fieldType)) {
                                 introduceEnum(fieldType, errors);
@@ -442,8 +452,8 @@ public class SyntaxModel {
                     }
                     
                     try {
-                        XPathExpression scopeExpr = subnodeSpec.xpath() != null && subnodeSpec.xpath().length() > 0
-                            ? xpath.compile(subnodeSpec.xpath()) : null; // TODO collect raw string too
+                        SyntaxPathExpression scopeExpr = subnodeSpec.xpath() != null && subnodeSpec.xpath().length() > 0
+                            ? SyntaxPathExpression.compile(xpath, subnodeSpec.xpath(), precompiled) : null;
                         subnodeExprs.add(new SubnodeInfo(scopeExpr, subnodeType, subnodeSpec.lookup()));
                         queue.add(new Pair<>(field.info, subnodeType));
                     } catch (XPathExpressionException ex) {
@@ -452,7 +462,13 @@ public class SyntaxModel {
                     }
                 }
                 
-                NodeFieldInfo fieldInfo = new NodeFieldInfo(kind, field.info, termExprs, subnodeExprs); 
+                NodeFieldInfo fieldInfo;
+                try {
+                    fieldInfo = new NodeFieldInfo(kind, field.info, termExprs, subnodeExprs, precompiled);
+                } catch (IllegalAccessException ex) {
+                    errors.add(ex, "Failed to prepare accessors for field " + field.info.getName() + " of type " + type.getName());
+                    continue;
+                }
                 modelFields.put(field.info.getName(), fieldInfo);
                 fieldsToFixup.addLast(fieldInfo);
             }
@@ -466,7 +482,13 @@ public class SyntaxModel {
             }
 
             String ruleName = ruleAnnotation.name() != null && ruleAnnotation.name().length() > 0 ? ruleAnnotation.name() : type.getName();
-            NodeTypeInfo nodeTypeInfo = new NodeTypeInfo(ruleName, type, ctor, modelFields);
+            NodeTypeInfo nodeTypeInfo;
+            try {
+                nodeTypeInfo = new NodeTypeInfo(ruleName, type, ctor, modelFields, precompiled);
+            } catch (IllegalAccessException ex) {
+                errors.add(ex, "Failed to prepare default contructor for syntax model type " + type.getName());
+                continue;
+            }
             nodeTypeByRuleName.put(ruleName, nodeTypeInfo);
             nodeTypeByClass.put(type, nodeTypeInfo);
         }
@@ -82,7 +82,7 @@ public class SyntaxModelMappingSession {
     private AbstractSyntaxNode instantiateAndFill(@NotNull NodeTypeInfo typeInfo, @NotNull XTreeNodeBase nodeInfo) {
         try {
             if (nodeInfo.getModel() == null) {
-                AbstractSyntaxNode model = typeInfo.ctor.newInstance();
+                AbstractSyntaxNode model = typeInfo.instantiate();
                 model.setAstNode(nodeInfo);
                 nodeInfo.setModel(model);
             }
@@ -96,7 +96,7 @@ public class SyntaxModelMappingSession {
             subnodes.clear();
             for (var expr : field.termExprs) {
                 try {
-                    XPathEvaluationResult<?> value = expr.evaluateExpression(nodeInfo);
+                    XPathEvaluationResult<?> value = expr.evaluate(nodeInfo);
                     if (!isEmptyValue(value)) {
                         this.bindValue(nodeInfo, field, value);
                         XTreeNodeBase valueNode = tryGetNode(value);
@@ -114,7 +114,7 @@ public class SyntaxModelMappingSession {
                     boolean tryDescedants = subnodeInfo.lookupMode == SyntaxSubnodeLookupMode.DEPTH_FIRST;
                     try {
                         if (subnodeInfo.scopeExpr != null) {
-                            XPathEvaluationResult<?> scopeOrSubnode = subnodeInfo.scopeExpr.evaluateExpression(nodeInfo);
+                            XPathEvaluationResult<?> scopeOrSubnode = subnodeInfo.scopeExpr.evaluate(nodeInfo);
                             if (scopeOrSubnode.type() == XPathResultType.NODESET && scopeOrSubnode.value() instanceof XPathNodes) {
                                 for (var scopeSubnode : (XPathNodes) scopeOrSubnode.value()) {
                                     if (scopeSubnode instanceof XTreeNodeBase) {
@@ -152,7 +152,7 @@ public class SyntaxModelMappingSession {
                     try {
                         AbstractSyntaxNode subnode = null;
                         if (subnodeInfo.scopeExpr != null) {
-                            XPathEvaluationResult<?> scopeOrSubnode = subnodeInfo.scopeExpr.evaluateExpression(nodeInfo);
+                            XPathEvaluationResult<?> scopeOrSubnode = subnodeInfo.scopeExpr.evaluate(nodeInfo);
                             if (scopeOrSubnode.type() == XPathResultType.NODESET && scopeOrSubnode.value() instanceof XPathNodes) {
                                 for (var scopeSubnode : (XPathNodes) scopeOrSubnode.value()) {
                                     if (scopeSubnode instanceof XTreeNodeBase) {
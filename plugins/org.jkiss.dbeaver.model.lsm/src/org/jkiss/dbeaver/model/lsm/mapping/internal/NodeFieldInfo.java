@@ -17,26 +17,30 @@
 package org.jkiss.dbeaver.model.lsm.mapping.internal;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.lsm.mapping.AbstractSyntaxNode;
 import org.jkiss.dbeaver.model.lsm.mapping.SyntaxModel;
 import org.jkiss.dbeaver.model.lsm.mapping.SyntaxSubnodeLookupMode;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.List;
-import javax.xml.xpath.XPathExpression;
 
 public class NodeFieldInfo {
 
     public static class SubnodeInfo {
-        public final XPathExpression scopeExpr;
+        public final SyntaxPathExpression scopeExpr;
         public final Class<? extends AbstractSyntaxNode> subnodeType;
         public final SyntaxSubnodeLookupMode lookupMode;
         
         private NodeTypeInfo nodeTypeInfo;
         
         public SubnodeInfo(
-            @NotNull XPathExpression scopeExpr,
+            @Nullable SyntaxPathExpression scopeExpr,
             @NotNull Class<? extends AbstractSyntaxNode> subnodeType,
             @NotNull SyntaxSubnodeLookupMode lookupMode
         ) {
@@ -57,21 +61,37 @@ public class NodeFieldInfo {
     
     public final FieldTypeKind kind;
     private final Field info;
-    public final List<XPathExpression> termExprs;
+    public final List<SyntaxPathExpression> termExprs;
     public final List<SubnodeInfo> subnodesInfo;
+
+    // Accessors resolved once instead of reflective access on each binding
+    private final MethodHandle getter;
+    private final MethodHandle setter;
     
     private LiteralTypeInfo literalTypeInfo;
     
     public NodeFieldInfo(
         @NotNull FieldTypeKind kind,
         @NotNull Field info,
-        @NotNull List<XPathExpression> termExprs,
-        @NotNull List<SubnodeInfo> subnodesInfo
-    ) {
+        @NotNull List<SyntaxPathExpression> termExprs,
+        @NotNull List<SubnodeInfo> subnodesInfo,
+        boolean useHandles
+    ) throws IllegalAccessException {
         this.kind = kind;
         this.info = info;
         this.termExprs = Collections.unmodifiableList(termExprs);
         this.subnodesInfo = Collections.unmodifiableList(subnodesInfo);
+        if (useHandles) {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            this.getter = lookup.unreflectGetter(info)
+                .asType(MethodType.methodType(Object.class, AbstractSyntaxNode.class));
+            // Final fields are not writable, reflection reports it on the binding attempt
+            this.setter = Modifier.isFinal(info.getModifiers()) ? null : lookup.unreflectSetter(info)
+                .asType(MethodType.methodType(void.class, AbstractSyntaxNode.class, Object.class));
+        } else {
+            this.getter = null;
+            this.setter = null;
+        }
     }
 
     @NotNull
@@ -105,10 +125,33 @@ public class NodeFieldInfo {
     }
 
     public Object getValue(AbstractSyntaxNode model) throws IllegalArgumentException, IllegalAccessException {
-        return this.info.get(model);
+        if (this.getter == null) {
+            return this.info.get(model);
+        }
+        try {
+            return (Object) this.getter.invokeExact(model);
+        } catch (ClassCastException | NullPointerException ex) {
+            throw new IllegalArgumentException(ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
     public void setValue(AbstractSyntaxNode model, Object value) throws IllegalArgumentException, IllegalAccessException {
-        this.info.set(model, value);
+        if (this.setter == null) {
+            this.info.set(model, value);
+            return;
+        }
+        try {
+            this.setter.invokeExact(model, value);
+        } catch (ClassCastException | NullPointerException ex) {
+            throw new IllegalArgumentException(ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 }
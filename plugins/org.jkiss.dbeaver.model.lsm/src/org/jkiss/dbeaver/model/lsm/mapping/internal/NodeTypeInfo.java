@@ -19,7 +19,11 @@ package org.jkiss.dbeaver.model.lsm.mapping.internal;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.lsm.mapping.AbstractSyntaxNode;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -30,17 +34,37 @@ public class NodeTypeInfo {
     public final Class<? extends AbstractSyntaxNode> type;
     public final Constructor<? extends AbstractSyntaxNode> ctor;
     public final Map<String, NodeFieldInfo> fields;
+    private final MethodHandle ctorHandle;
 
     public NodeTypeInfo(
         @NotNull String ruleName,
         @NotNull Class<? extends AbstractSyntaxNode> type,
         @NotNull Constructor<? extends AbstractSyntaxNode> ctor,
-        @NotNull Map<String, NodeFieldInfo> fields
-    ) {
+        @NotNull Map<String, NodeFieldInfo> fields,
+        boolean useHandles
+    ) throws IllegalAccessException {
         this.ruleName = ruleName;
         this.type = type;
         this.ctor = ctor;
         this.fields = Collections.unmodifiableMap(fields);
+        this.ctorHandle = useHandles
+            ? MethodHandles.publicLookup().unreflectConstructor(ctor).asType(MethodType.methodType(AbstractSyntaxNode.class))
+            : null;
+    }
+
+    /**
+     * Creates new instance of the syntax model node
+     */
+    @NotNull
+    public AbstractSyntaxNode instantiate() throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (ctorHandle == null) {
+            return ctor.newInstance();
+        }
+        try {
+            return (AbstractSyntaxNode) ctorHandle.invokeExact();
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
     }
 
     @NotNull
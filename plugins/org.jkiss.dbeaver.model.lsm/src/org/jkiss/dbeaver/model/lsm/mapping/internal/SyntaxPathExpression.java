@@ -0,0 +1,313 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.mapping.internal;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathEvaluationResult;
+import javax.xml.xpath.XPathEvaluationResult.XPathResultType;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathNodes;
+
+/**
+ * Syntax model lookup expression.
+ *
+ * Simple relative location paths like {@code ./a/b} or {@code .//a//b/text()} are compiled into the list of steps
+ * which are evaluated directly over the syntax tree. All other expressions are evaluated by the XPath engine.
+ */
+public abstract class SyntaxPathExpression {
+
+    private static final Pattern STEP_PATTERN = Pattern.compile("(//?)(text\\(\\)|\\*|[A-Za-z_][A-Za-z0-9_]*)");
+
+    @NotNull
+    private final String source;
+
+    private SyntaxPathExpression(@NotNull String source) {
+        this.source = source;
+    }
+
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    public abstract boolean isCompiled();
+
+    /**
+     * Evaluates expression for the syntax tree node. The result is compatible with the result of the XPath evaluation
+     */
+    @NotNull
+    public abstract XPathEvaluationResult<?> evaluate(@NotNull XTreeNodeBase node) throws XPathExpressionException;
+
+    @NotNull
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Prepares lookup expression.
+     *
+     * @param precompile compile simple location paths. Otherwise all expressions are evaluated by the XPath engine
+     */
+    @NotNull
+    public static SyntaxPathExpression compile(
+        @NotNull XPath xpath,
+        @NotNull String expression,
+        boolean precompile
+    ) throws XPathExpressionException {
+        XPathExpression xexpr = xpath.compile(expression);
+        List<Step> steps = precompile ? parseSteps(expression) : null;
+        return steps == null ? new Interpreted(expression, xexpr) : new Compiled(expression, steps);
+    }
+
+    @Nullable
+    private static List<Step> parseSteps(@NotNull String expression) {
+        String path = expression.trim();
+        if (path.startsWith(".")) {
+            path = path.substring(1);
+        } else if (!path.startsWith("/")) {
+            path = "/" + path;
+        } else {
+            // Absolute path
+            return null;
+        }
+        if (path.isEmpty()) {
+            return null;
+        }
+        List<Step> steps = new ArrayList<>();
+        Matcher matcher = STEP_PATTERN.matcher(path);
+        int position = 0;
+        while (position < path.length()) {
+            if (!matcher.find(position) || matcher.start() != position) {
+                return null;
+            }
+            String test = matcher.group(2);
+            steps.add(new Step(
+                matcher.group(1).length() > 1,
+                test.equals("text()") ? Node.TEXT_NODE : Node.ELEMENT_NODE,
+                test.equals("*") || test.equals("text()") ? null : test
+            ));
+            position = matcher.end();
+        }
+        for (int i = 0; i < steps.size() - 1; i++) {
+            if (steps.get(i).nodeType == Node.TEXT_NODE) {
+                // Text nodes have no children
+                return null;
+            }
+        }
+        return steps;
+    }
+
+    private static class Interpreted extends SyntaxPathExpression {
+        @NotNull
+        private final XPathExpression expression;
+
+        Interpreted(@NotNull String source, @NotNull XPathExpression expression) {
+            super(source);
+            this.expression = expression;
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public XPathEvaluationResult<?> evaluate(@NotNull XTreeNodeBase node) throws XPathExpressionException {
+            return expression.evaluateExpression(node);
+        }
+    }
+
+    private static class Step {
+        final boolean descendants;
+        final short nodeType;
+        @Nullable
+        final String name;
+
+        Step(boolean descendants, short nodeType, @Nullable String name) {
+            this.descendants = descendants;
+            this.nodeType = nodeType;
+            this.name = name;
+        }
+
+        boolean matches(@NotNull XTreeNodeBase node) {
+            return node.getNodeType() == nodeType && (name == null || name.equals(node.getNodeName()));
+        }
+    }
+
+    private static class Compiled extends SyntaxPathExpression {
+        @NotNull
+        private final Step[] steps;
+
+        Compiled(@NotNull String source, @NotNull List<Step> steps) {
+            super(source);
+            this.steps = steps.toArray(new Step[0]);
+        }
+
+        @Override
+        public boolean isCompiled() {
+            return true;
+        }
+
+        @NotNull
+        @Override
+        public XPathEvaluationResult<?> evaluate(@NotNull XTreeNodeBase node) {
+            List<XTreeNodeBase> context = Collections.singletonList(node);
+            for (Step step : steps) {
+                NodesList<XTreeNodeBase> result = new NodesList<>();
+                if (step.descendants) {
+                    XTreeNodeBase scope = null;
+                    for (XTreeNodeBase contextNode : context) {
+                        // Descendants of the nested context node were already collected
+                        if (scope == null || !isAncestor(scope, contextNode)) {
+                            collectDescendants(contextNode, step, result);
+                            scope = contextNode;
+                        }
+                    }
+                } else {
+                    for (XTreeNodeBase contextNode : context) {
+                        for (XTreeNodeBase subnode : contextNode.getSubnodes().getCollection()) {
+                            if (step.matches(subnode)) {
+                                result.add(subnode);
+                            }
+                        }
+                    }
+                    if (context.size() > 1) {
+                        ensureDocumentOrder(result);
+                    }
+                }
+                if (result.isEmpty()) {
+                    return new NodeSetResult(result);
+                }
+                context = result;
+            }
+            return new NodeSetResult(context);
+        }
+
+        private static void collectDescendants(
+            @NotNull XTreeNodeBase root,
+            @NotNull Step step,
+            @NotNull List<XTreeNodeBase> result
+        ) {
+            ArrayList<XTreeNodeBase> stack = new ArrayList<>();
+            pushSubnodes(root, stack);
+            while (!stack.isEmpty()) {
+                XTreeNodeBase node = stack.remove(stack.size() - 1);
+                if (step.matches(node)) {
+                    result.add(node);
+                }
+                pushSubnodes(node, stack);
+            }
+        }
+
+        private static void pushSubnodes(@NotNull XTreeNodeBase node, @NotNull ArrayList<XTreeNodeBase> stack) {
+            List<XTreeNodeBase> subnodes = node.getSubnodes().getCollection();
+            for (int i = subnodes.size() - 1; i >= 0; i--) {
+                stack.add(subnodes.get(i));
+            }
+        }
+
+        private static boolean isAncestor(@NotNull XTreeNodeBase ancestor, @NotNull XTreeNodeBase node) {
+            for (XTreeNodeBase parent = node.getParentXNode(); parent != null; parent = parent.getParentXNode()) {
+                if (parent == ancestor) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static void ensureDocumentOrder(@NotNull List<XTreeNodeBase> nodes) {
+            for (int i = 1; i < nodes.size(); i++) {
+                if (compareDocumentOrder(nodes.get(i - 1), nodes.get(i)) > 0) {
+                    nodes.sort(Compiled::compareDocumentOrder);
+                    return;
+                }
+            }
+        }
+
+        private static int compareDocumentOrder(@NotNull XTreeNodeBase a, @NotNull XTreeNodeBase b) {
+            List<XTreeNodeBase> pathA = getPath(a);
+            List<XTreeNodeBase> pathB = getPath(b);
+            int common = Math.min(pathA.size(), pathB.size());
+            for (int i = 0; i < common; i++) {
+                XTreeNodeBase x = pathA.get(i);
+                XTreeNodeBase y = pathB.get(i);
+                if (x != y) {
+                    return Integer.compare(x.getIndex(), y.getIndex());
+                }
+            }
+            return Integer.compare(pathA.size(), pathB.size());
+        }
+
+        @NotNull
+        private static List<XTreeNodeBase> getPath(@NotNull XTreeNodeBase node) {
+            List<XTreeNodeBase> path = new ArrayList<>();
+            for (XTreeNodeBase n = node; n != null; n = n.getParentXNode()) {
+                path.add(n);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+
+    private static class NodeSetResult implements XPathEvaluationResult<XPathNodes>, XPathNodes {
+        @NotNull
+        private final List<XTreeNodeBase> nodes;
+
+        NodeSetResult(@NotNull List<XTreeNodeBase> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public XPathResultType type() {
+            return XPathResultType.NODESET;
+        }
+
+        @Override
+        public XPathNodes value() {
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return nodes.size();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Iterator<Node> iterator() {
+            return (Iterator<Node>) (Iterator<?>) nodes.iterator();
+        }
+
+        @Override
+        public Node get(int index) {
+            return nodes.get(index);
+        }
+    }
+}
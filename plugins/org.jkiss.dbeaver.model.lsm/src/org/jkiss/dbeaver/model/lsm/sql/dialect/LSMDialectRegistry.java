@@ -16,18 +16,17 @@
  */
 package org.jkiss.dbeaver.model.lsm.sql.dialect;
 
-import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IConfigurationElement;
-import org.eclipse.core.runtime.IExtensionRegistry;
-import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.*;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.impl.AbstractDescriptor;
 import org.jkiss.dbeaver.model.lsm.LSMAnalyzer;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerImpl;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.osgi.framework.Bundle;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Stream;
 
 
@@ -59,6 +58,10 @@ public class LSMDialectRegistry {
         IConfigurationElement[] extConfigs = registry.getConfigurationElementsFor(EXTENSION_ID);
         
         Stream.of(extConfigs).filter(e -> "lsmDialect".equals(e.getName())).forEach(this::registerLsmDialect);
+
+        if (!knownLsmAnalyzerByDialects.isEmpty()) {
+            new WarmUpJob(new LinkedHashSet<>(knownLsmAnalyzerByDialects.values())).schedule();
+        }
     }
     
     private void registerLsmDialect(IConfigurationElement dialectElt) {
@@ -84,4 +87,31 @@ public class LSMDialectRegistry {
         } while (analyzer == null && dialectClass != null);
         return analyzer;
     }
+
+    /**
+     * Fills parser prediction caches in background, so the first completion request doesn't pay for it
+     */
+    private static class WarmUpJob extends AbstractJob {
+        private final Collection<LSMAnalyzer> analyzers;
+
+        WarmUpJob(Collection<LSMAnalyzer> analyzers) {
+            super("Warm up SQL parsers");
+            this.analyzers = analyzers;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (LSMAnalyzer analyzer : analyzers) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                if (analyzer instanceof LSMAnalyzerImpl) {
+                    ((LSMAnalyzerImpl<?, ?>) analyzer).warmUp();
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
 }
\ No newline at end of file
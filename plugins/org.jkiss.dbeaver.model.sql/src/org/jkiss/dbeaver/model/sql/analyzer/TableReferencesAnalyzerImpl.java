@@ -26,7 +26,6 @@ import org.jkiss.dbeaver.model.sql.completion.SQLCompletionRequest;
 import org.jkiss.dbeaver.model.stm.*;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.StringReader;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +47,8 @@ public class TableReferencesAnalyzerImpl implements TableReferencesAnalyzer {
 
     private void prepareTableReferences(String query) {
         try {
-            STMSource querySource = STMSource.fromReader(new StringReader(query));
+            // Analyzer caches parse trees, so repeated requests for the same query are not parsed again
+            STMSource querySource = STMSource.fromString(query);
             LSMAnalyzer analyzer = LSMDialectRegistry.getInstance().getAnalyzerForDialect(
                 request.getContext().getDataSource().getSQLDialect());
             STMTreeRuleNode tree = analyzer.parseSqlQueryTree(querySource, new STMSkippingErrorListener());
@@ -63,7 +63,7 @@ public class TableReferencesAnalyzerImpl implements TableReferencesAnalyzer {
     @Override
     public Map<String, String> getFilteredTableReferences(@NotNull String tableAlias, boolean allowPartialMatch) {
         Map<String, String> result;
-        if (tableReferences == null || tableReferences.isEmpty()) {
+        if (tableReferences == null) {
             final SQLScriptElement activeQuery = request.getActiveQuery();
             if (activeQuery == null) {
                 return Collections.emptyMap();
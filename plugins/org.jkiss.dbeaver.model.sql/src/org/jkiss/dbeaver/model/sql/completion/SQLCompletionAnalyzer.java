@@ -857,6 +857,14 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 selectedContainers[i] = DBUtils.getAdapter(DBSObjectContainer.class, selectedObjects[i]);
             }
         }
+        SQLIdentifierIndex identifierIndex = getIdentifierIndex();
+        if (identifierIndex != null) {
+            for (DBSObjectContainer selectedContainer : selectedContainers) {
+                if (selectedContainer != null) {
+                    identifierIndex.scheduleIndexing(selectedContainer);
+                }
+            }
+        }
 
         String lastToken = null;
         for (int i = 0; i < tokens.length; i++) {
@@ -892,7 +900,14 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     if (childObject == null  && !request.isSimpleMode()) {
                         // Search using structure assistant
                         DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
-                        if (structureAssistant != null) {
+                        if (structureAssistant != null && identifierIndex != null) {
+                            childObject = identifierIndex.findObject(
+                                request.getWordDetector().removeQuotes(token),
+                                request.getWordDetector().isQuoted(token),
+                                getIndexParents(null),
+                                structureAssistant.getAutoCompleteObjectTypes());
+                        }
+                        if (childObject == null && structureAssistant != null) {
                             DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
                                     structureAssistant.getAutoCompleteObjectTypes(),
                                     request.getWordDetector().removeQuotes(token)
@@ -1050,6 +1065,14 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         } else if (parent instanceof DBSEntity) {
             children = ((DBSEntity)parent).getAttributes(monitor);
         }
+        SQLIdentifierIndex identifierIndex = getIdentifierIndex();
+        if (identifierIndex != null && children != null && parent instanceof DBSObject) {
+            // Children are already read, so it is cheap to index them
+            identifierIndex.addChildren((DBSObject) parent, children);
+            if (parent instanceof DBSObjectContainer && !(parent instanceof DBPDataSource)) {
+                identifierIndex.scheduleIndexing((DBSObjectContainer) parent);
+            }
+        }
         if (children != null && !children.isEmpty()) {
             //boolean isJoin = SQLConstants.KEYWORD_JOIN.equals(request.wordDetector.getPrevKeyWord());
             List<DBSObject> matchedObjects = new ArrayList<>();
@@ -1159,6 +1182,9 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         String objectName,
         @NotNull Map<String, Object> params) throws DBException
     {
+        if (makeProposalsFromIndex(rootSC, objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes, objectName, params)) {
+            return;
+        }
         DBSStructureAssistant.ObjectsSearchParams assistantParams = new DBSStructureAssistant.ObjectsSearchParams(
                 objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes,
                 makeObjectNameMask(objectName, rootSC)
@@ -1178,6 +1204,82 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    /**
+     * Searches objects in the identifier index instead of the database catalog.
+     *
+     * @return false if index doesn't contain matching objects or target containers are not indexed yet
+     */
+    private boolean makeProposalsFromIndex(
+        @Nullable DBSObjectContainer rootSC,
+        @NotNull DBSObjectType[] objectTypes,
+        @NotNull String objectName,
+        @NotNull Map<String, Object> params)
+    {
+        SQLIdentifierIndex identifierIndex = getIdentifierIndex();
+        if (identifierIndex == null || request.getContext().isSearchGlobally()) {
+            return false;
+        }
+        String namePart = makeObjectNameMask(objectName, rootSC);
+        if (namePart.startsWith(MATCH_ANY_PATTERN)) {
+            namePart = namePart.substring(MATCH_ANY_PATTERN.length());
+        }
+        if (namePart.endsWith(MATCH_ANY_PATTERN)) {
+            namePart = namePart.substring(0, namePart.length() - MATCH_ANY_PATTERN.length());
+        }
+        if (namePart.contains(MATCH_ANY_PATTERN)) {
+            // Explicit mask
+            return false;
+        }
+        List<DBSObject> objects = identifierIndex.findObjects(
+            namePart,
+            request.getWordDetector().isQuoted(objectName),
+            request.getContext().isSearchInsideNames(),
+            getIndexParents(rootSC),
+            objectTypes,
+            MAX_STRUCT_PROPOSALS);
+        if (CommonUtils.isEmpty(objects)) {
+            return false;
+        }
+        for (DBSObject object : objects) {
+            SQLCompletionProposalBase proposal = makeProposalsFromObject(object, !(rootSC instanceof DBPDataSource), params);
+            if (proposal != null) {
+                proposals.add(proposal);
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private SQLIdentifierIndex getIdentifierIndex() {
+        DBPDataSource dataSource = request.getContext().getDataSource();
+        if (dataSource == null || request.isSimpleMode() || !dataSource.getContainer().isConnected()) {
+            return null;
+        }
+        return SQLIdentifierIndex.getIndex(dataSource);
+    }
+
+    /**
+     * Containers to search in. Selected containers are used if there is no explicit container.
+     */
+    @NotNull
+    private DBSObject[] getIndexParents(@Nullable DBSObjectContainer rootSC) {
+        if (rootSC != null && !(rootSC instanceof DBPDataSource)) {
+            return new DBSObject[] { rootSC };
+        }
+        DBCExecutionContext executionContext = request.getContext().getExecutionContext();
+        if (executionContext == null) {
+            return new DBSObject[0];
+        }
+        List<DBSObject> parents = new ArrayList<>();
+        for (DBSObject selectedObject : DBUtils.getSelectedObjects(executionContext)) {
+            DBSObjectContainer container = DBUtils.getAdapter(DBSObjectContainer.class, selectedObject);
+            if (container != null) {
+                parents.add(container);
+            }
+        }
+        return parents.toArray(new DBSObject[0]);
+    }
+
     private String makeObjectNameMask(String objectName, @Nullable DBSObjectContainer rootSC) {
         SQLWordPartDetector wordDetector = request.getWordDetector();
         if (wordDetector.containsSeparator(objectName)) {
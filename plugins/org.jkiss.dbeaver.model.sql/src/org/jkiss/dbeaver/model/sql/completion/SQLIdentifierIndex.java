@@ -0,0 +1,426 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureContainer;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of object names of a data source. Used by SQL completion instead of catalog queries.
+ *
+ * Index contains objects which were already read from the database: children of containers visited by completion,
+ * containers indexed in background and attributes of entities. Container is "complete" when all its children
+ * (and procedures) were indexed - only complete containers may be used to answer completion requests.
+ * Index is kept up to date by navigator events and is dropped when data source is disconnected.
+ */
+public class SQLIdentifierIndex {
+
+    private static final Log log = Log.getLog(SQLIdentifierIndex.class);
+
+    private static final int MAX_INDEX_SIZE = 1000000;
+
+    private static final Map<DBPDataSourceContainer, SQLIdentifierIndex> indexes = new HashMap<>();
+
+    @NotNull
+    private final DBPDataSource dataSource;
+    private final SQLIdentifierTrie<DBSObject> trie = new SQLIdentifierTrie<>();
+    // Indexed children of each container
+    private final Map<DBSObject, List<DBSObject>> containerChildren = new IdentityHashMap<>();
+    private final Set<DBSObject> completeContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Names objects were indexed with. Object may be renamed later
+    private final Map<DBSObject, String> indexedNames = new IdentityHashMap<>();
+    private final IndexListener listener = new IndexListener();
+    private final IndexJob indexJob = new IndexJob();
+    @Nullable
+    private final DBNModel navigatorModel;
+    private volatile boolean disposed;
+
+    /**
+     * Returns index of the specified data source. Index is created if needed.
+     */
+    @NotNull
+    public static SQLIdentifierIndex getIndex(@NotNull DBPDataSource dataSource) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        SQLIdentifierIndex oldIndex = null;
+        SQLIdentifierIndex index;
+        synchronized (indexes) {
+            index = indexes.get(container);
+            if (index != null && index.dataSource != dataSource) {
+                // Data source was reconnected
+                oldIndex = index;
+                index = null;
+            }
+            if (index == null) {
+                index = new SQLIdentifierIndex(dataSource);
+                indexes.put(container, index);
+            }
+        }
+        if (oldIndex != null) {
+            oldIndex.dispose();
+        }
+        return index;
+    }
+
+    private SQLIdentifierIndex(@NotNull DBPDataSource dataSource) {
+        this.dataSource = dataSource;
+        DBPDataSourceContainer container = dataSource.getContainer();
+        container.getRegistry().addDataSourceListener(listener);
+        this.navigatorModel = container.getProject().getNavigatorModel();
+        if (navigatorModel != null) {
+            navigatorModel.addListener(listener);
+        }
+    }
+
+    public synchronized int getSize() {
+        return trie.size();
+    }
+
+    public synchronized boolean isComplete(@NotNull DBSObject container) {
+        return completeContainers.contains(container);
+    }
+
+    /**
+     * Adds children of the container. Container isn't marked as complete because children may be filtered.
+     */
+    public synchronized void addChildren(@NotNull DBSObject container, @NotNull Collection<? extends DBSObject> children) {
+        if (disposed) {
+            return;
+        }
+        List<DBSObject> indexed = containerChildren.computeIfAbsent(container, c -> new ArrayList<>());
+        for (DBSObject child : children) {
+            if (trie.size() >= MAX_INDEX_SIZE) {
+                log.debug("Identifier index of '" + dataSource.getContainer().getName() + "' is full");
+                return;
+            }
+            if (child != null && child.getName() != null && !indexedNames.containsKey(child) &&
+                !DBUtils.isHiddenObject(child) && !DBUtils.isVirtualObject(child))
+            {
+                indexedNames.put(child, child.getName());
+                trie.add(child.getName(), child);
+                indexed.add(child);
+            }
+        }
+    }
+
+    /**
+     * Reads all children and procedures of the container and marks it as complete.
+     * May query the database, so it must be called in background.
+     */
+    public void indexContainer(@NotNull DBRProgressMonitor monitor, @NotNull DBSObjectContainer container) throws DBException {
+        List<DBSObject> children = new ArrayList<>();
+        Collection<? extends DBSObject> containerChildren = container.getChildren(monitor);
+        if (containerChildren != null) {
+            children.addAll(containerChildren);
+        }
+        if (container instanceof DBSProcedureContainer) {
+            Collection<? extends DBSObject> procedures = ((DBSProcedureContainer) container).getProcedures(monitor);
+            if (procedures != null) {
+                children.addAll(procedures);
+            }
+        }
+        synchronized (this) {
+            addChildren(container, children);
+            if (!disposed && trie.size() < MAX_INDEX_SIZE) {
+                completeContainers.add(container);
+            }
+        }
+    }
+
+    /**
+     * Schedules background indexing of the container
+     */
+    public void scheduleIndexing(@NotNull DBSObjectContainer container) {
+        synchronized (this) {
+            if (disposed || completeContainers.contains(container) || trie.size() >= MAX_INDEX_SIZE) {
+                return;
+            }
+        }
+        indexJob.addContainer(container);
+    }
+
+    /**
+     * Finds indexed object by name.
+     *
+     * @param caseSensitive if true then object name must match exactly
+     */
+    @Nullable
+    public synchronized DBSObject findObject(
+        @NotNull String name,
+        boolean caseSensitive,
+        @NotNull DBSObject[] parents,
+        @NotNull DBSObjectType[] objectTypes)
+    {
+        List<DBSObject> objects = trie.findExact(
+            name,
+            1,
+            object -> (!caseSensitive || name.equals(object.getName())) && isMatchedObject(object, parents, objectTypes));
+        return objects.isEmpty() ? null : objects.get(0);
+    }
+
+    /**
+     * Finds indexed objects by name prefix or by part of the name.
+     * Only objects of complete containers are returned.
+     *
+     * @param parents objects must be located in one of these containers. Empty array means any container
+     * @return objects or null if some of parents are not complete yet and index can't be used
+     */
+    @Nullable
+    public synchronized List<DBSObject> findObjects(
+        @NotNull String namePart,
+        boolean caseSensitive,
+        boolean searchInside,
+        @NotNull DBSObject[] parents,
+        @NotNull DBSObjectType[] objectTypes,
+        int maxResults)
+    {
+        if (parents.length == 0) {
+            return null;
+        }
+        for (DBSObject parent : parents) {
+            if (!completeContainers.contains(parent)) {
+                return null;
+            }
+        }
+        Predicate<DBSObject> filter = object ->
+            (!caseSensitive || (searchInside ? object.getName().contains(namePart) : object.getName().startsWith(namePart))) &&
+            isMatchedObject(object, parents, objectTypes);
+        return searchInside ?
+            trie.findContaining(namePart, maxResults, filter) :
+            trie.findByPrefix(namePart, maxResults, filter);
+    }
+
+    private boolean isMatchedObject(@NotNull DBSObject object, @NotNull DBSObject[] parents, @NotNull DBSObjectType[] objectTypes) {
+        if (objectTypes.length > 0) {
+            boolean typeMatches = false;
+            for (DBSObjectType type : objectTypes) {
+                if (type.getTypeClass().isInstance(object)) {
+                    typeMatches = true;
+                    break;
+                }
+            }
+            if (!typeMatches) {
+                return false;
+            }
+        }
+        if (parents.length > 0) {
+            DBSObject objectParent = object.getParentObject();
+            for (DBSObject parent : parents) {
+                if (objectParent == parent) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void addObject(@NotNull DBSObject object) {
+        DBSObject parent = object.getParentObject();
+        if (parent != null && containerChildren.containsKey(parent)) {
+            addChildren(parent, Collections.singletonList(object));
+        }
+    }
+
+    private synchronized void removeObject(@NotNull DBSObject object) {
+        invalidateContainer(object);
+        String name = indexedNames.remove(object);
+        if (name != null) {
+            trie.remove(name, object);
+            DBSObject parent = object.getParentObject();
+            List<DBSObject> siblings = parent == null ? null : containerChildren.get(parent);
+            if (siblings != null) {
+                siblings.remove(object);
+            }
+        }
+    }
+
+    private synchronized void renameObject(@NotNull DBSObject object) {
+        String name = indexedNames.get(object);
+        if (name != null && !name.equals(object.getName())) {
+            trie.remove(name, object);
+            indexedNames.put(object, object.getName());
+            trie.add(object.getName(), object);
+        }
+    }
+
+    /**
+     * Removes all indexed children of the container (recursively)
+     */
+    private synchronized void invalidateContainer(@NotNull DBSObject container) {
+        completeContainers.remove(container);
+        List<DBSObject> children = containerChildren.remove(container);
+        if (children != null) {
+            for (DBSObject child : children) {
+                invalidateContainer(child);
+                String name = indexedNames.remove(child);
+                if (name != null) {
+                    trie.remove(name, child);
+                }
+            }
+        }
+    }
+
+    public void dispose() {
+        synchronized (indexes) {
+            if (indexes.get(dataSource.getContainer()) == this) {
+                indexes.remove(dataSource.getContainer());
+            }
+        }
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            trie.clear();
+            containerChildren.clear();
+            completeContainers.clear();
+            indexedNames.clear();
+        }
+        indexJob.cancel();
+        dataSource.getContainer().getRegistry().removeDataSourceListener(listener);
+        if (navigatorModel != null) {
+            navigatorModel.removeListener(listener);
+        }
+    }
+
+    private class IndexListener implements DBPEventListener, INavigatorListener {
+
+        @Override
+        public void handleDataSourceEvent(DBPEvent event) {
+            DBSObject object = event.getObject();
+            if (object == dataSource.getContainer()) {
+                if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE ||
+                    (event.getAction() == DBPEvent.Action.OBJECT_UPDATE && Boolean.FALSE.equals(event.getEnabled())))
+                {
+                    // Disconnect
+                    dispose();
+                }
+                return;
+            }
+            if (object == null || object.getDataSource() != dataSource) {
+                return;
+            }
+            switch (event.getAction()) {
+                case OBJECT_ADD:
+                    addObject(object);
+                    break;
+                case OBJECT_REMOVE:
+                    removeObject(object);
+                    break;
+                case OBJECT_UPDATE:
+                    renameObject(object);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void nodeChanged(DBNEvent event) {
+            if (!(event.getNode() instanceof DBNDatabaseNode)) {
+                return;
+            }
+            DBSObject object = ((DBNDatabaseNode) event.getNode()).getObject();
+            if (object == null || object.getDataSource() != dataSource) {
+                return;
+            }
+            switch (event.getAction()) {
+                case ADD:
+                    addObject(object);
+                    break;
+                case REMOVE:
+                    removeObject(object);
+                    break;
+                case UPDATE:
+                    if (event.getNodeChange() == DBNEvent.NodeChange.REFRESH ||
+                        event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH)
+                    {
+                        // Children were re-read. Old objects are not valid anymore
+                        invalidateContainer(object);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private class IndexJob extends AbstractJob {
+        private final Deque<DBSObjectContainer> queue = new ArrayDeque<>();
+
+        IndexJob() {
+            super("Index object names (" + dataSource.getContainer().getName() + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        void addContainer(@NotNull DBSObjectContainer container) {
+            synchronized (queue) {
+                if (queue.contains(container)) {
+                    return;
+                }
+                queue.add(container);
+            }
+            schedule();
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (;;) {
+                DBSObjectContainer container;
+                synchronized (queue) {
+                    container = queue.poll();
+                }
+                if (container == null || disposed || monitor.isCanceled()) {
+                    break;
+                }
+                if (!dataSource.getContainer().isConnected() || isComplete(container)) {
+                    continue;
+                }
+                try {
+                    indexContainer(monitor, container);
+                } catch (Exception e) {
+                    log.debug("Error indexing object names of '" + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI) + "'", e);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Case-insensitive prefix tree of identifiers.
+ *
+ * Child nodes are kept in sorted arrays (no per-node maps), so the tree stays compact for large dictionaries.
+ * Several values may be stored under the same identifier. Values are returned in identifier order.
+ */
+public class SQLIdentifierTrie<V> {
+
+    private static final char[] NO_KEYS = new char[0];
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root.keys = NO_KEYS;
+        root.children = null;
+        root.values = null;
+        size = 0;
+    }
+
+    public void add(@NotNull String name, @NotNull V value) {
+        Node<V> node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.getOrCreateChild(normalize(name.charAt(i)));
+        }
+        if (node.addValue(value)) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes value stored under specified identifier. Empty branches are pruned.
+     *
+     * @return true if value was found
+     */
+    public boolean remove(@NotNull String name, @NotNull V value) {
+        Node<V>[] path = newNodeArray(name.length() + 1);
+        Node<V> node = root;
+        path[0] = node;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.getChild(normalize(name.charAt(i)));
+            if (node == null) {
+                return false;
+            }
+            path[i + 1] = node;
+        }
+        if (!node.removeValue(value)) {
+            return false;
+        }
+        size--;
+        for (int i = name.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(normalize(name.charAt(i - 1)));
+        }
+        return true;
+    }
+
+    /**
+     * Finds values stored under identifier equal (ignoring case) to specified name
+     */
+    @NotNull
+    public List<V> findExact(@NotNull String name, int maxResults, @NotNull Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        Node<V> node = findNode(name);
+        if (node != null) {
+            node.collectValues(result, maxResults, filter);
+        }
+        return result;
+    }
+
+    /**
+     * Finds values which identifiers start with specified prefix (ignoring case)
+     */
+    @NotNull
+    public List<V> findByPrefix(@NotNull String prefix, int maxResults, @NotNull Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        Node<V> node = findNode(prefix);
+        if (node != null) {
+            collectSubtree(node, result, maxResults, filter);
+        }
+        return result;
+    }
+
+    /**
+     * Finds values which identifiers contain specified part (ignoring case).
+     * This is a full tree scan, but it doesn't touch anything but identifier characters.
+     */
+    @NotNull
+    public List<V> findContaining(@NotNull String part, int maxResults, @NotNull Predicate<V> filter) {
+        if (part.isEmpty()) {
+            return findByPrefix(part, maxResults, filter);
+        }
+        char[] pattern = new char[part.length()];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = normalize(part.charAt(i));
+        }
+        List<V> result = new ArrayList<>();
+        collectContaining(root, new StringBuilder(), pattern, result, maxResults, filter);
+        return result;
+    }
+
+    private void collectContaining(
+        @NotNull Node<V> node,
+        @NotNull StringBuilder key,
+        @NotNull char[] pattern,
+        @NotNull List<V> result,
+        int maxResults,
+        @NotNull Predicate<V> filter
+    ) {
+        if (endsWith(key, pattern)) {
+            // All identifiers below this node contain the pattern
+            collectSubtree(node, result, maxResults, filter);
+            return;
+        }
+        for (int i = 0; i < node.keys.length && result.size() < maxResults; i++) {
+            key.append(node.keys[i]);
+            collectContaining(node.children[i], key, pattern, result, maxResults, filter);
+            key.setLength(key.length() - 1);
+        }
+    }
+
+    private static boolean endsWith(@NotNull StringBuilder key, @NotNull char[] pattern) {
+        int offset = key.length() - pattern.length;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (key.charAt(offset + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void collectSubtree(@NotNull Node<V> node, @NotNull List<V> result, int maxResults, @NotNull Predicate<V> filter) {
+        node.collectValues(result, maxResults, filter);
+        for (int i = 0; i < node.keys.length && result.size() < maxResults; i++) {
+            collectSubtree(node.children[i], result, maxResults, filter);
+        }
+    }
+
+    private Node<V> findNode(@NotNull String name) {
+        Node<V> node = root;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            node = node.getChild(normalize(name.charAt(i)));
+        }
+        return node;
+    }
+
+    private static char normalize(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newNodeArray(int length) {
+        return new Node[length];
+    }
+
+    private static class Node<V> {
+        private char[] keys = NO_KEYS;
+        private Node<V>[] children;
+        // Null, single value or list of values
+        private Object values;
+
+        Node<V> getChild(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            return pos < 0 ? null : children[pos];
+        }
+
+        Node<V> getOrCreateChild(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            pos = -(pos + 1);
+            Node<V> child = new Node<>();
+            char[] newKeys = new char[keys.length + 1];
+            Node<V>[] newChildren = newNodeArray(keys.length + 1);
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            if (children != null) {
+                System.arraycopy(children, 0, newChildren, 0, pos);
+                System.arraycopy(children, pos, newChildren, pos + 1, keys.length - pos);
+            }
+            newKeys[pos] = c;
+            newChildren[pos] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, c);
+            if (pos < 0) {
+                return;
+            }
+            if (keys.length == 1) {
+                keys = NO_KEYS;
+                children = null;
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node<V>[] newChildren = newNodeArray(keys.length - 1);
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(keys, pos + 1, newKeys, pos, keys.length - pos - 1);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(children, pos + 1, newChildren, pos, keys.length - pos - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return values == null && keys.length == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean addValue(V value) {
+            if (values == null) {
+                values = value;
+                return true;
+            }
+            if (values instanceof ValueList) {
+                ValueList<V> list = (ValueList<V>) values;
+                if (list.indexOfValue(value) >= 0) {
+                    return false;
+                }
+                list.add(value);
+                return true;
+            }
+            if (values == value) {
+                return false;
+            }
+            ValueList<V> list = new ValueList<>();
+            list.add((V) values);
+            list.add(value);
+            values = list;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean removeValue(V value) {
+            if (values instanceof ValueList) {
+                ValueList<V> list = (ValueList<V>) values;
+                int pos = list.indexOfValue(value);
+                if (pos < 0) {
+                    return false;
+                }
+                list.remove(pos);
+                if (list.size() == 1) {
+                    values = list.get(0);
+                }
+                return true;
+            }
+            if (values == value) {
+                values = null;
+                return true;
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        void collectValues(List<V> result, int maxResults, Predicate<V> filter) {
+            if (values instanceof ValueList) {
+                for (V value : (ValueList<V>) values) {
+                    if (result.size() >= maxResults) {
+                        return;
+                    }
+                    if (filter.test(value)) {
+                        result.add(value);
+                    }
+                }
+            } else if (values != null && result.size() < maxResults && filter.test((V) values)) {
+                result.add((V) values);
+            }
+        }
+    }
+
+    // Distinct type, so a list can't be confused with a value. Values are compared by identity.
+    private static class ValueList<V> extends ArrayList<V> {
+        ValueList() {
+            super(2);
+        }
+
+        int indexOfValue(V value) {
+            for (int i = 0; i < size(); i++) {
+                if (get(i) == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -40,7 +41,9 @@ public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
 
     private final DBCExecutionContext executionContext;
-    private final List<SQLScriptElement> queries;
+    private final Iterator<? extends SQLScriptElement> queries;
+    // Total number of queries or -1 if queries are parsed on the fly
+    private final int queryCount;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -61,8 +64,23 @@ public class SQLScriptProcessor {
         @NotNull SQLScriptContext scriptContext,
         @NotNull DBDDataReceiver dataReceiver,
         @NotNull Log log) {
+        this(executionContext, queries.iterator(), queries.size(), scriptContext, dataReceiver, log);
+    }
+
+    /**
+     * Creates processor for lazily parsed script (see {@link org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser}).
+     * Queries are executed as soon as they are parsed.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull Iterator<? extends SQLScriptElement> queries,
+        int queryCount,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.queryCount = queryCount;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -109,9 +127,14 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queryCount >= 0) {
+                    monitor.beginTask("Execute queries (" + queryCount + ")", queryCount);
+                } else {
+                    monitor.beginTask("Execute queries", 1);
+                }
 
-                for (SQLScriptElement query : queries) {
+                while (queries.hasNext()) {
+                    SQLScriptElement query = queries.next();
                     if (monitor.isCanceled()) {
                         break;
                     }
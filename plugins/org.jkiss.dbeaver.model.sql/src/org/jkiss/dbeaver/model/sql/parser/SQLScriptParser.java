@@ -38,6 +38,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -941,6 +942,22 @@ public class SQLScriptParser {
         return SQLScriptParser.extractScriptQueries(parserContext, 0, sqlScriptContent.length(), true, false, true);
     }
 
+    /**
+     * Opens streaming script parser. Script text is read from the reader incrementally,
+     * elements are parsed on demand. Parser must be closed after use, it closes the reader.
+     */
+    @NotNull
+    public static SQLScriptStreamParser parseScriptStream(@NotNull DBPDataSource dataSource, @NotNull Reader reader) {
+        DBPPreferenceStore preferenceStore = dataSource.getContainer().getPreferenceStore();
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource.getSQLDialect(), preferenceStore);
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+
+        return new SQLScriptStreamParser(
+            dataSource, syntaxManager, ruleManager, preferenceStore, reader, SQLScriptStreamParser.DEFAULT_WINDOW_SIZE, true);
+    }
+
     public static List<SQLScriptElement> parseScript(
         DBPDataSource dataSource,
         SQLDialect dialect,
@@ -0,0 +1,246 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.rules.SQLDelimiterRule;
+import org.jkiss.dbeaver.model.text.parser.TPRule;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming SQL script parser.
+ *
+ * Reads script text incrementally and returns script elements one by one, so memory usage doesn't depend on the script size.
+ * Only a window of the script text is kept in memory. Statements are parsed by {@link SQLScriptParser#parseQuery}
+ * so delimiters, blocks and control commands are handled the same way as for a whole script.
+ * If a statement reaches the end of the window then the window is extended and the statement is parsed again.
+ * Delimiter changes made while parsing the incomplete statement are reverted before it is parsed again.
+ *
+ * Offsets of returned elements are absolute script offsets. Scripts larger than 2Gb do not fit
+ * into integer element offsets, use {@link #getElementOffset()} for them.
+ */
+public class SQLScriptStreamParser implements Iterator<SQLScriptElement>, Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+    // Statement which ends closer than this to the end of window may be incomplete
+    private static final int LOOKAHEAD_SIZE = 1024;
+
+    @Nullable
+    private final DBPDataSource dataSource;
+    @NotNull
+    private final SQLSyntaxManager syntaxManager;
+    @NotNull
+    private final SQLRuleManager ruleManager;
+    @Nullable
+    private final SQLDelimiterRule delimiterRule;
+    @Nullable
+    private final DBPPreferenceStore preferenceStore;
+    @NotNull
+    private final Reader reader;
+    private final int windowSize;
+    private final boolean parseParameters;
+
+    private final char[] readBuffer = new char[8192];
+    private final StringBuilder window = new StringBuilder();
+    private long windowOffset;
+    private int position;
+    private boolean endOfStream;
+
+    private SQLParserContext context;
+    private SQLScriptElement nextElement;
+    private long nextElementOffset;
+    private long elementOffset = -1;
+    private boolean finished;
+
+    public SQLScriptStreamParser(
+        @Nullable DBPDataSource dataSource,
+        @NotNull SQLSyntaxManager syntaxManager,
+        @NotNull SQLRuleManager ruleManager,
+        @Nullable DBPPreferenceStore preferenceStore,
+        @NotNull Reader reader,
+        int windowSize,
+        boolean parseParameters)
+    {
+        this.dataSource = dataSource;
+        this.syntaxManager = syntaxManager;
+        this.ruleManager = ruleManager;
+        this.delimiterRule = findDelimiterRule(ruleManager);
+        this.preferenceStore = preferenceStore;
+        this.reader = reader;
+        this.windowSize = Math.max(windowSize, LOOKAHEAD_SIZE * 2);
+        this.parseParameters = parseParameters;
+    }
+
+    /**
+     * Absolute offset of the last element returned by {@link #next()}
+     */
+    public long getElementOffset() {
+        return elementOffset;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextElement == null && !finished) {
+            try {
+                nextElement = readNextElement();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (nextElement == null) {
+                finished = true;
+            }
+        }
+        return nextElement != null;
+    }
+
+    @Override
+    public SQLScriptElement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SQLScriptElement element = nextElement;
+        nextElement = null;
+        elementOffset = nextElementOffset;
+        return element;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        nextElement = null;
+        if (context != null) {
+            context.endScriptEvaluation();
+            context = null;
+        }
+        window.setLength(0);
+        reader.close();
+    }
+
+    @Nullable
+    private SQLScriptElement readNextElement() throws IOException {
+        for (;;) {
+            int windowLength = window.length();
+            if (position >= windowLength && endOfStream) {
+                return null;
+            }
+            // Delimiter in effect at the current position
+            char[][] delimiters = delimiterRule == null ? null : delimiterRule.getDelimiters();
+            SQLScriptElement element = null;
+            if (context != null && position < windowLength) {
+                element = SQLScriptParser.parseQuery(context, position, windowLength, position, true, false);
+            }
+            int elementEnd = element == null ? windowLength : element.getOffset() + element.getLength();
+            if (!endOfStream && (element == null || elementEnd > windowLength - LOOKAHEAD_SIZE)) {
+                // Statement may continue after the end of window
+                fillWindow();
+                if (delimiterRule != null) {
+                    delimiterRule.restoreDelimiters(delimiters);
+                }
+                continue;
+            }
+            if (element == null) {
+                return null;
+            }
+            if (elementEnd <= position) {
+                // Should never happen, but we must not loop forever
+                return null;
+            }
+            position = elementEnd;
+            return relocateElement(element);
+        }
+    }
+
+    /**
+     * Drops parsed text from the window and reads the next portion of the script
+     */
+    private void fillWindow() throws IOException {
+        if (position > 0) {
+            window.delete(0, position);
+            windowOffset += position;
+            position = 0;
+        }
+        // Grow window if the current statement doesn't fit in it
+        int targetLength = Math.max(windowSize, window.length() * 2);
+        while (window.length() < targetLength) {
+            int count = reader.read(readBuffer, 0, Math.min(readBuffer.length, targetLength - window.length()));
+            if (count < 0) {
+                endOfStream = true;
+                break;
+            }
+            window.append(readBuffer, 0, count);
+        }
+        if (context != null) {
+            context.endScriptEvaluation();
+        }
+        SQLParserContext newContext = new SQLParserContext(dataSource, syntaxManager, ruleManager, new Document(window.toString()));
+        newContext.setPreferenceStore(preferenceStore);
+        newContext.startScriptEvaluation();
+        context = newContext;
+    }
+
+    @Nullable
+    private static SQLDelimiterRule findDelimiterRule(@NotNull SQLRuleManager ruleManager) {
+        for (TPRule rule : ruleManager.getAllRules()) {
+            if (rule instanceof SQLDelimiterRule) {
+                return (SQLDelimiterRule) rule;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private SQLScriptElement relocateElement(@NotNull SQLScriptElement element) {
+        nextElementOffset = windowOffset + element.getOffset();
+        int offset = (int) Math.min(nextElementOffset, Integer.MAX_VALUE);
+        if (element instanceof SQLQuery) {
+            SQLQuery query = (SQLQuery) element;
+            if (parseParameters) {
+                // Parameter offsets are relative to the query
+                query.setParameters(SQLScriptParser.parseParametersAndVariables(context, query.getOffset(), query.getLength()));
+            }
+            query.setOffset(offset);
+            return query;
+        } else if (element instanceof SQLControlCommand) {
+            SQLControlCommand command = (SQLControlCommand) element;
+            return new SQLControlCommand(
+                command.getDataSource(),
+                syntaxManager,
+                command.getText(),
+                command.getCommandId(),
+                offset,
+                command.getLength(),
+                command.isEmptyCommand());
+        }
+        return element;
+    }
+
+}
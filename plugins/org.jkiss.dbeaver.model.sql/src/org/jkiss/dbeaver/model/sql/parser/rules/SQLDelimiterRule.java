@@ -96,6 +96,23 @@ public class SQLDelimiterRule implements TPRule {
         return true;
     }
 
+    /**
+     * Restores delimiters previously returned by {@link #getDelimiters()}
+     */
+    public void restoreDelimiters(char[][] delimiters) {
+        if (delimiters == origDelimiters) {
+            this.delimiters = origDelimiters;
+            this.buffer = origBuffer;
+            return;
+        }
+        int maxLength = 0;
+        for (char[] delim : delimiters) {
+            maxLength = Math.max(maxLength, delim.length);
+        }
+        this.delimiters = delimiters;
+        this.buffer = new char[maxLength];
+    }
+
     public void changeDelimiter(String newDelimiter) {
         if (CommonUtils.isEmpty(newDelimiter)) {
             this.delimiters = this.origDelimiters;
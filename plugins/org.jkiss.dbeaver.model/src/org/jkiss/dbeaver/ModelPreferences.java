@@ -94,6 +94,8 @@ public final class ModelPreferences
     public static final String CONNECTION_OPEN_TIMEOUT = "connection.open.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_VALIDATION_TIMEOUT = "connection.validation.timeout"; //$NON-NLS-1$
     public static final String CONNECTION_CLOSE_TIMEOUT = "connection.close.timeout"; //$NON-NLS-1$
+    public static final String CONNECTION_ISOLATED_POOL_SIZE = "connection.isolated.pool.size"; //$NON-NLS-1$
+    public static final String CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT = "connection.isolated.pool.idleTimeout"; //$NON-NLS-1$
 
     public static final String SCRIPT_STATEMENT_DELIMITER = "script.sql.delimiter"; //$NON-NLS-1$
     public static final String SCRIPT_IGNORE_NATIVE_DELIMITER = "script.sql.ignoreNativeDelimiter"; //$NON-NLS-1$
@@ -108,6 +110,8 @@ public final class ModelPreferences
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
+    public static final String META_STATEMENT_CACHE_SIZE = "database.meta.statement.cache.size"; //$NON-NLS-1$
+    public static final String META_SNAPSHOT_ENABLED = "database.meta.snapshot.enabled"; //$NON-NLS-1$
 
     public static final String META_CLIENT_NAME_DISABLE = "database.meta.client.name.disable"; //$NON-NLS-1$
     public static final String META_CLIENT_NAME_OVERRIDE = "database.meta.client.name.override"; //$NON-NLS-1$
@@ -187,6 +191,9 @@ public final class ModelPreferences
     public static final String DICTIONARY_COLUMN_DIVIDER = "resultset.dictionary.columnDivider"; //$NON-NLS-1$
     public static final String RESULT_SET_USE_DATETIME_EDITOR = "resultset.datetime.editor";
 
+    public static final String TASKS_MAX_PARALLEL_RUNS = "tasks.execution.max.parallel"; //$NON-NLS-1$
+    public static final String TASKS_MAX_PARALLEL_RUNS_PER_DATASOURCE = "tasks.execution.max.parallel.datasource"; //$NON-NLS-1$
+
     private static Bundle mainBundle;
     private static DBPPreferenceStore preferences;
 
@@ -229,6 +236,8 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_OPEN_TIMEOUT, 0);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_VALIDATION_TIMEOUT, 10000);
         PrefUtils.setDefaultPreferenceValue(store, CONNECTION_CLOSE_TIMEOUT, 5000);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_ISOLATED_POOL_SIZE, 4);
+        PrefUtils.setDefaultPreferenceValue(store, CONNECTION_ISOLATED_POOL_IDLE_TIMEOUT, 60000);
 
         // SQL execution
         PrefUtils.setDefaultPreferenceValue(store, SCRIPT_STATEMENT_DELIMITER, SQLConstants.DEFAULT_STATEMENT_DELIMITER);
@@ -240,6 +249,8 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, META_SEPARATE_CONNECTION, SeparateConnectionBehavior.DEFAULT.name());
         PrefUtils.setDefaultPreferenceValue(store, META_CASE_SENSITIVE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_USE_SERVER_SIDE_FILTERS, true);
+        PrefUtils.setDefaultPreferenceValue(store, META_STATEMENT_CACHE_SIZE, 32);
+        PrefUtils.setDefaultPreferenceValue(store, META_SNAPSHOT_ENABLED, false);
 
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_DISABLE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_OVERRIDE, false);
@@ -282,6 +293,7 @@ public final class ModelPreferences
             QMObjectType.toString(Arrays.asList(QMObjectType.txn, QMObjectType.query)));
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_QUERY_TYPES, DBCExecutionPurpose.USER + "," + DBCExecutionPurpose.USER_FILTERED + "," + DBCExecutionPurpose.USER_SCRIPT);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_STORE_LOG_FILE, false);
+        PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_STORE_HISTORY, false);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_DIRECTORY, GeneralUtils.getMetadataFolder().toAbsolutePath().toString());
 
         // SQL
@@ -326,6 +338,9 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.TRANSACTIONS_SHOW_NOTIFICATIONS, true);
 
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.DICTIONARY_COLUMN_DIVIDER, " ");
+
+        PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.TASKS_MAX_PARALLEL_RUNS, 8);
+        PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.TASKS_MAX_PARALLEL_RUNS_PER_DATASOURCE, 2);
         // Data formats
         DataFormatterProfile.initDefaultPreferences(store, Locale.getDefault());
     }
@@ -20,18 +20,41 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * FunctionCountDistinct
+ * FunctionCountDistinct.
+ * In approximate mode big sets are aggregated with HyperLogLog.
  */
-public class FunctionCountDistinct implements IAggregateFunction {
+public class FunctionCountDistinct implements IAggregateFunctionApproximate {
 
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
+    private boolean approximate;
+    private HyperLogLog sketch;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    @Override
+    public boolean isResultApproximate() {
+        return sketch != null;
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
-        if (!cache.contains(value)) {
+        if (sketch != null) {
+            sketch.add(value);
+            return true;
+        }
+        if (cache.add(value)) {
             count++;
-            cache.add(value);
+            if (approximate && count > EXACT_VALUES_LIMIT) {
+                sketch = new HyperLogLog();
+                for (Object cachedValue : cache) {
+                    sketch.add(cachedValue);
+                }
+                cache = null;
+            }
             return true;
         }
         return false;
@@ -39,6 +62,9 @@ public class FunctionCountDistinct implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            return sketch.estimate();
+        }
         return count;
     }
 }
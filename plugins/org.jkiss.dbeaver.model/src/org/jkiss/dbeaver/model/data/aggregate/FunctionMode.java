@@ -16,15 +16,30 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Mode
+ * Mode.
+ * In approximate mode only frequent values are counted when there are too many distinct values (Misra-Gries summary).
  */
-public class FunctionMode implements IAggregateFunction {
+public class FunctionMode implements IAggregateFunctionApproximate {
 
-    private final List<Object> cache = new ArrayList<>();
+    private final Map<Object, long[]> counters = new LinkedHashMap<>();
+    private boolean approximate;
+    private boolean truncated;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    @Override
+    public boolean isResultApproximate() {
+        return truncated;
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,32 +48,48 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            counters.computeIfAbsent(value, k -> new long[1])[0]++;
+            if (approximate && counters.size() > EXACT_VALUES_LIMIT) {
+                truncateCounters();
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Decrements all counters by the median count and removes counters which become empty.
+     * Values which are more frequent than 1/(limit/2) of all values are never removed.
+     */
+    private void truncateCounters() {
+        long[] counts = new long[counters.size()];
+        int i = 0;
+        for (long[] counter : counters.values()) {
+            counts[i++] = counter[0];
+        }
+        Arrays.sort(counts);
+        long decrement = Math.max(1, counts[counts.length / 2]);
+        for (Iterator<long[]> iter = counters.values().iterator(); iter.hasNext(); ) {
+            long[] counter = iter.next();
+            counter[0] -= decrement;
+            if (counter[0] <= 0) {
+                iter.remove();
+            }
+        }
+        truncated = true;
+    }
+
     @Override
     public Object getResult(int valueCount) {
+        // First value with the maximum count
         Object maxValue = null;
-        int maxCount = 0;
-
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
-            if (count > maxCount) {
-                maxCount = count;
-                maxValue = cache.get(i);
+        long maxCount = 0;
+        for (Map.Entry<Object, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] > maxCount) {
+                maxCount = entry.getValue()[0];
+                maxValue = entry.getKey();
             }
         }
-//        if (maxCount <= 1) {
-//            return null;
-//        }
         return maxValue;
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.dbeaver.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Percentile (continuous). Values between two middle values are interpolated for numbers.
+ * In approximate mode big sets of numbers are aggregated with t-digest.
+ */
+public abstract class FunctionPercentile implements IAggregateFunctionApproximate {
+
+    private static final Log log = Log.getLog(FunctionPercentile.class);
+
+    private List<Comparable> cache = new ArrayList<>();
+    private boolean numbersOnly = true;
+    private boolean approximate;
+    private TDigest digest;
+
+    protected abstract double getPercentile();
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    @Override
+    public boolean isResultApproximate() {
+        return digest != null;
+    }
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        value = FunctionNumeric.getComparable(value, aggregateAsStrings);
+        if (value == null) {
+            return false;
+        }
+        if (digest != null) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+            digest.add(((Number) value).doubleValue());
+            return true;
+        }
+        cache.add((Comparable<?>) value);
+        numbersOnly &= value instanceof Number;
+        if (approximate && numbersOnly && cache.size() > EXACT_VALUES_LIMIT) {
+            digest = new TDigest();
+            for (Comparable<?> cachedValue : cache) {
+                digest.add(((Number) cachedValue).doubleValue());
+            }
+            cache = null;
+        }
+        return true;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (digest != null) {
+            return digest.quantile(getPercentile());
+        }
+        try {
+            cache.sort(AggregateUtils::compareValues);
+        } catch (Exception e) {
+            log.debug("Can't sort value collection", e);
+            return null;
+        }
+        if (cache.isEmpty()) {
+            return null;
+        }
+
+        double position = getPercentile() * (cache.size() - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        Comparable<?> val1 = cache.get(lower);
+        Comparable<?> val2 = cache.get(upper);
+        if (lower == upper) {
+            return val1;
+        }
+        if (val1 instanceof Number && val2 instanceof Number) {
+            double num1 = ((Number) val1).doubleValue();
+            return num1 + (((Number) val2).doubleValue() - num1) * (position - lower);
+        }
+        // Not true percentile - but we can't evaluate it for non-numeric values
+        // So just get first one
+        return val1;
+    }
+}
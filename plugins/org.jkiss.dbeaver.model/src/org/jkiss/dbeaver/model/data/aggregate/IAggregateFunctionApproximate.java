@@ -0,0 +1,37 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Aggregate function which may calculate approximate result.
+ *
+ * In approximate mode function calculates exact result while number of values is small
+ * and switches to a fixed-size sketch when it becomes big.
+ */
+public interface IAggregateFunctionApproximate extends IAggregateFunction {
+
+    // Number of values (or distinct values) after which approximate functions switch to sketches
+    int EXACT_VALUES_LIMIT = 100_000;
+
+    void setApproximate(boolean approximate);
+
+    /**
+     * Returns true if result of the last calculation is approximate
+     */
+    boolean isResultApproximate();
+
+}
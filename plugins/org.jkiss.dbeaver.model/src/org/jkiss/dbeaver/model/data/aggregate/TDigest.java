@@ -0,0 +1,203 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (by Ted Dunning). Approximates quantiles of a stream of numbers in a fixed amount of memory.
+ * Accuracy is much better near the ends of distribution (e.g. 99th percentile) than near the median.
+ */
+public final class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 500;
+
+    private final double compression;
+    private final double[] means;
+    private final double[] weights;
+    private int centroidCount;
+    private final double[] buffer;
+    private int bufferSize;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Merge buffers
+    private boolean mergeReversed;
+    private double scaleNormalizer;
+    private double[] mergeMeans;
+    private double[] mergeWeights;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        int maxCentroids = (int) Math.ceil(compression) * 2 + 10;
+        this.means = new double[maxCentroids];
+        this.weights = new double[maxCentroids];
+        this.buffer = new double[maxCentroids * 5];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buffer[bufferSize++] = value;
+        if (bufferSize == buffer.length) {
+            mergeBuffer();
+        }
+    }
+
+    public long size() {
+        return (long) (totalWeight + bufferSize);
+    }
+
+    /**
+     * Returns approximate quantile value
+     *
+     * @param q quantile (0..1)
+     * @return quantile value or NaN if digest is empty
+     */
+    public double quantile(double q) {
+        mergeBuffer();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        q = Math.min(1, Math.max(0, q));
+        double index = q * totalWeight;
+        if (index < 1) {
+            return min;
+        }
+        if (index > totalWeight - 1) {
+            return max;
+        }
+        // Interpolate between centroid centers. Each centroid is centered at the middle of its weight.
+        double weightSoFar = weights[0] / 2;
+        if (index < weightSoFar) {
+            return interpolate(min, means[0], (index - 1) / (weightSoFar - 1));
+        }
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                return interpolate(means[i], means[i + 1], (index - weightSoFar) / delta);
+            }
+            weightSoFar += delta;
+        }
+        double lastWeight = weights[centroidCount - 1] / 2;
+        return interpolate(means[centroidCount - 1], max, (index - weightSoFar) / Math.max(lastWeight - 1, 1));
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        if (Double.isNaN(fraction) || fraction <= 0) {
+            return from;
+        }
+        if (fraction >= 1) {
+            return to;
+        }
+        return from + (to - from) * fraction;
+    }
+
+    private void mergeBuffer() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+        min = Math.min(min, buffer[0]);
+        max = Math.max(max, buffer[bufferSize - 1]);
+
+        // Merge sorted centroids and sorted buffer
+        int total = centroidCount + bufferSize;
+        if (mergeMeans == null) {
+            mergeMeans = new double[means.length + buffer.length];
+            mergeWeights = new double[means.length + buffer.length];
+        }
+        for (int i = 0, c = 0, b = 0; i < total; i++) {
+            if (b >= bufferSize || (c < centroidCount && means[c] <= buffer[b])) {
+                mergeMeans[i] = means[c];
+                mergeWeights[i] = weights[c];
+                c++;
+            } else {
+                mergeMeans[i] = buffer[b];
+                mergeWeights[i] = 1;
+                b++;
+            }
+        }
+        totalWeight += bufferSize;
+        bufferSize = 0;
+        // Compress in alternating directions, otherwise one end of distribution is less accurate
+        mergeReversed = !mergeReversed;
+        if (mergeReversed) {
+            reverse(mergeMeans, total);
+            reverse(mergeWeights, total);
+        }
+
+        // Compress. Centroid may grow while k-scale difference stays below 1
+        scaleNormalizer = compression / (4 * Math.log(Math.max(totalWeight / compression, 1)) + 24);
+        centroidCount = 0;
+        double weightSoFar = 0;
+        double kLeft = scale(0);
+        double mean = mergeMeans[0], weight = mergeWeights[0];
+        for (int i = 1; i < total; i++) {
+            double newWeight = weight + mergeWeights[i];
+            double kRight = scale((weightSoFar + newWeight) / totalWeight);
+            if (kRight - kLeft <= 1) {
+                mean += (mergeMeans[i] - mean) * mergeWeights[i] / newWeight;
+                weight = newWeight;
+            } else {
+                weightSoFar += weight;
+                means[centroidCount] = mean;
+                weights[centroidCount] = weight;
+                centroidCount++;
+                kLeft = scale(weightSoFar / totalWeight);
+                mean = mergeMeans[i];
+                weight = mergeWeights[i];
+            }
+        }
+        means[centroidCount] = mean;
+        weights[centroidCount] = weight;
+        centroidCount++;
+        if (mergeReversed) {
+            reverse(means, centroidCount);
+            reverse(weights, centroidCount);
+        }
+    }
+
+    private static void reverse(double[] array, int length) {
+        for (int i = 0, k = length - 1; i < k; i++, k--) {
+            double tmp = array[i];
+            array[i] = array[k];
+            array[k] = tmp;
+        }
+    }
+
+    /**
+     * Scale function k2 = delta / Z * log(q / (1 - q)). It keeps centroids near both ends very small.
+     */
+    private double scale(double q) {
+        if (q <= 1e-15) {
+            q = 1e-15;
+        } else if (q >= 1 - 1e-15) {
+            q = 1 - 1e-15;
+        }
+        return scaleNormalizer * Math.log(q / (1 - q));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Query fingerprint. Queries which differ only in literal values and formatting have the same fingerprint.
+ *
+ * String and numeric literals are replaced with '?', comments are removed, tokens are separated by single spaces,
+ * unquoted words are lower-cased and lists of parameters (IN lists, VALUES rows) are collapsed.
+ */
+public final class QMQueryFingerprint {
+
+    public static final int MAX_FINGERPRINT_LENGTH = 4000;
+
+    private static final String OPERATOR_CHARS = "=<>!|&+-*/%^~:";
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, \\?)+\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\((\\?\\+?)\\)(?:, \\(\\?\\+?\\))+");
+
+    private QMQueryFingerprint() {
+    }
+
+    @NotNull
+    public static String makeFingerprint(@NotNull String query) {
+        StringBuilder result = new StringBuilder(Math.min(query.length(), MAX_FINGERPRINT_LENGTH));
+        int length = query.length();
+        int pos = 0;
+        while (pos < length && result.length() < MAX_FINGERPRINT_LENGTH) {
+            char c = query.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+                continue;
+            } else if (c == '-' && pos + 1 < length && query.charAt(pos + 1) == '-') {
+                // Line comment
+                while (pos < length && query.charAt(pos) != '\n') {
+                    pos++;
+                }
+                continue;
+            } else if (c == '/' && pos + 1 < length && query.charAt(pos + 1) == '*') {
+                // Block comment
+                int end = query.indexOf("*/", pos + 2);
+                pos = end < 0 ? length : end + 2;
+                continue;
+            } else if (c == ';' && isBlank(query, pos + 1)) {
+                // Trailing delimiter
+                break;
+            }
+            // Named parameter (:name or $name), but not a type cast (::type)
+            boolean parameter = (c == ':' || c == '$') && pos + 1 < length && isWordStart(query.charAt(pos + 1)) &&
+                (pos == 0 || query.charAt(pos - 1) != ':');
+            appendSeparator(result, parameter ? '_' : c);
+            if (c == '\'') {
+                // String literal. Quotes are escaped by doubling
+                pos++;
+                while (pos < length) {
+                    if (query.charAt(pos) == '\'') {
+                        if (pos + 1 < length && query.charAt(pos + 1) == '\'') {
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                pos++;
+                result.append('?');
+            } else if (c == '"' || c == '`' || c == '[') {
+                // Quoted identifier. Keep it as is
+                char endQuote = c == '[' ? ']' : c;
+                int end = query.indexOf(endQuote, pos + 1);
+                end = end < 0 ? length : end + 1;
+                result.append(query, pos, end);
+                pos = end;
+            } else if (Character.isDigit(c) || (c == '.' && pos + 1 < length && Character.isDigit(query.charAt(pos + 1)))) {
+                // Numeric literal (including hex and exponent forms)
+                pos++;
+                while (pos < length) {
+                    char nc = query.charAt(pos);
+                    if (Character.isLetterOrDigit(nc) || nc == '.' ||
+                        ((nc == '+' || nc == '-') && (query.charAt(pos - 1) == 'e' || query.charAt(pos - 1) == 'E')))
+                    {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                result.append('?');
+            } else if (parameter || isWordStart(c)) {
+                // Word (keyword, identifier or named parameter). Digits inside words are not literals
+                int start = pos;
+                pos++;
+                while (pos < length && isWordPart(query.charAt(pos))) {
+                    pos++;
+                }
+                result.append(query.substring(start, pos).toLowerCase(Locale.ENGLISH));
+            } else {
+                result.append(c);
+                pos++;
+            }
+        }
+
+        String fingerprint = PARAMETER_LIST.matcher(result).replaceAll("(?+)");
+        return ROW_LIST.matcher(fingerprint).replaceAll("($1)");
+    }
+
+    private static void appendSeparator(@NotNull StringBuilder result, char next) {
+        if (result.length() == 0) {
+            return;
+        }
+        char prev = result.charAt(result.length() - 1);
+        if (prev == '(' || prev == '.' || next == ',' || next == ')' || next == '.' || next == ';') {
+            return;
+        }
+        if (OPERATOR_CHARS.indexOf(prev) >= 0 && OPERATOR_CHARS.indexOf(next) >= 0) {
+            // Multi-character operator
+            return;
+        }
+        if (next == '(' && (isWordPart(prev) || prev == '"' || prev == '`' || prev == ']')) {
+            // Function call
+            return;
+        }
+        result.append(' ');
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '@' || c == '#';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+    }
+
+    private static boolean isBlank(@NotNull String query, int from) {
+        for (int i = from; i < query.length(); i++) {
+            if (!Character.isWhitespace(query.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated execution statistics of queries with the same fingerprint in one data source.
+ *
+ * Durations (ms) are kept in a log-linear histogram: values below 64 are exact, bigger values are grouped in
+ * 32 buckets per power of two. So percentiles have relative error of about 3% and the histogram is small.
+ */
+public class QMQueryStatistics {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+
+    @Nullable
+    private final String containerId;
+    @Nullable
+    private final String containerName;
+    @NotNull
+    private final String fingerprint;
+    private String lastQuery;
+
+    private long executionCount;
+    private long errorCount;
+    private long totalDuration;
+    private long minDuration = Long.MAX_VALUE;
+    private long maxDuration;
+    private long rowsFetched;
+    private long lastExecutionTime;
+    private long[] histogram = new long[LINEAR_LIMIT];
+
+    public QMQueryStatistics(@Nullable String containerId, @Nullable String containerName, @NotNull String fingerprint) {
+        this.containerId = containerId;
+        this.containerName = containerName;
+        this.fingerprint = fingerprint;
+    }
+
+    private QMQueryStatistics(@NotNull QMQueryStatistics source) {
+        this.containerId = source.containerId;
+        this.containerName = source.containerName;
+        this.fingerprint = source.fingerprint;
+        this.lastQuery = source.lastQuery;
+        this.executionCount = source.executionCount;
+        this.errorCount = source.errorCount;
+        this.totalDuration = source.totalDuration;
+        this.minDuration = source.minDuration;
+        this.maxDuration = source.maxDuration;
+        this.rowsFetched = source.rowsFetched;
+        this.lastExecutionTime = source.lastExecutionTime;
+        this.histogram = source.histogram.clone();
+    }
+
+    /**
+     * Adds query execution
+     */
+    public synchronized void addExecution(@NotNull String query, long duration, long rows, boolean error, long time) {
+        if (duration < 0) {
+            duration = 0;
+        }
+        lastQuery = query;
+        executionCount++;
+        if (error) {
+            errorCount++;
+        }
+        totalDuration += duration;
+        minDuration = Math.min(minDuration, duration);
+        maxDuration = Math.max(maxDuration, duration);
+        if (rows > 0) {
+            rowsFetched += rows;
+        }
+        lastExecutionTime = Math.max(lastExecutionTime, time);
+
+        int bucket = getBucketIndex(duration);
+        if (bucket >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, bucket + SUB_BUCKET_COUNT);
+        }
+        histogram[bucket]++;
+    }
+
+    /**
+     * Returns copy of this statistics which is not changed by new executions
+     */
+    @NotNull
+    public synchronized QMQueryStatistics copy() {
+        return new QMQueryStatistics(this);
+    }
+
+    @Nullable
+    public String getContainerId() {
+        return containerId;
+    }
+
+    @Nullable
+    public String getContainerName() {
+        return containerName;
+    }
+
+    @NotNull
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Text of the last executed query with this fingerprint
+     */
+    public synchronized String getLastQuery() {
+        return lastQuery;
+    }
+
+    public synchronized long getExecutionCount() {
+        return executionCount;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public synchronized long getMinDuration() {
+        return executionCount == 0 ? 0 : minDuration;
+    }
+
+    public synchronized long getMaxDuration() {
+        return maxDuration;
+    }
+
+    public synchronized double getMeanDuration() {
+        return executionCount == 0 ? 0 : (double) totalDuration / executionCount;
+    }
+
+    public synchronized long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public synchronized long getLastExecutionTime() {
+        return lastExecutionTime;
+    }
+
+    /**
+     * Returns duration percentile
+     *
+     * @param percentile percentile (0..100)
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (executionCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(executionCount * Math.min(100, Math.max(0, percentile)) / 100);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long count = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+            if (count >= rank) {
+                return Math.min(getBucketUpperValue(i), maxDuration);
+            }
+        }
+        return maxDuration;
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        // Position of the highest bit, >= SUB_BUCKET_BITS + 1
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent) - SUB_BUCKET_COUNT;
+        return LINEAR_LIMIT + (exponent - 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getBucketUpperValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return fingerprint + " (" + executionCount + ")";
+    }
+}
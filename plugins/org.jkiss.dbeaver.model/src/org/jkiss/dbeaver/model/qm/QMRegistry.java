@@ -17,6 +17,8 @@
 
 package org.jkiss.dbeaver.model.qm;
 
+import org.jkiss.code.Nullable;
+
 /**
  * Query manager controller
  */
@@ -28,6 +30,14 @@ public interface QMRegistry {
 
     QMEventBrowser getEventBrowser(boolean currentSessionOnly);
 
+    /**
+     * Returns collector of query execution statistics or null if query manager doesn't collect statistics
+     */
+    @Nullable
+    default QMStatisticsCollector getStatisticsCollector() {
+        return null;
+    }
+
     void registerHandler(QMExecutionHandler handler);
 
     void unregisterHandler(QMExecutionHandler handler);
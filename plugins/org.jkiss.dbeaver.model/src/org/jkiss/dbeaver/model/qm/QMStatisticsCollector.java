@@ -0,0 +1,40 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.List;
+
+/**
+ * Aggregated query execution statistics.
+ * Executed queries are grouped by data source and query fingerprint (see {@link QMQueryFingerprint}).
+ */
+public interface QMStatisticsCollector {
+
+    /**
+     * Returns snapshot of statistics of all fingerprints.
+     *
+     * @param containerId data source container ID or null for all data sources
+     */
+    @NotNull
+    List<QMQueryStatistics> getQueryStatistics(@Nullable String containerId);
+
+    void resetStatistics();
+
+}
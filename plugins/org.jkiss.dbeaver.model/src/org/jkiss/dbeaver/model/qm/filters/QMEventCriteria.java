@@ -55,6 +55,7 @@ public class QMEventCriteria {
     private QMDateRange startDateRange;
     private boolean desc = true;
     private int fetchingSize = 200;
+    private long minDuration = 0;
 
     @Nullable
     public String getContainerId() {
@@ -129,6 +130,17 @@ public class QMEventCriteria {
         this.fetchingSize = fetchingSize;
     }
 
+    /**
+     * Minimal query duration (ms). Zero means any duration.
+     */
+    public long getMinDuration() {
+        return minDuration;
+    }
+
+    public void setMinDuration(long minDuration) {
+        this.minDuration = minDuration;
+    }
+
     public boolean isSkipEmptyQueries() {
         return skipEmptyQueries;
     }
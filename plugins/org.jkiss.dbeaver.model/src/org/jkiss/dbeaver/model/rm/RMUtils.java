@@ -30,10 +30,13 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -126,17 +129,34 @@ public class RMUtils {
         @NotNull DBRProgressMonitor monitor,
         @NotNull DBPProject project,
         @NotNull String filePath
+    ) throws DBException, IOException {
+        try (Reader fileReader = openScriptReader(monitor, project, filePath)) {
+            return IOUtils.readToString(fileReader);
+        }
+    }
+
+    /**
+     * Opens reader of script contents. Unlike {@link #readScriptContents} doesn't load the whole script in memory
+     * (for local files). Reader must be closed by the caller.
+     */
+    @NotNull
+    public static Reader openScriptReader(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPProject project,
+        @NotNull String filePath
     ) throws DBException, IOException {
         Path nioPath = DBFUtils.resolvePathFromString(monitor, project, filePath);
         if (!IOUtils.isLocalPath(nioPath)) {
             // Remote file
-            return Files.readString(nioPath);
+            return Files.newBufferedReader(nioPath);
         }
 
         RMControllerProvider rmControllerProvider = DBUtils.getAdapter(RMControllerProvider.class, project);
         if (rmControllerProvider != null) {
             var rmController = rmControllerProvider.getResourceController();
-            return new String(rmController.getResourceContents(project.getId(), filePath), StandardCharsets.UTF_8);
+            return new InputStreamReader(
+                new ByteArrayInputStream(rmController.getResourceContents(project.getId(), filePath)),
+                StandardCharsets.UTF_8);
         }
         var projectRootResource = project.getRootResource();
         if (projectRootResource == null) {
@@ -146,10 +166,10 @@ public class RMUtils {
         if (sqlFile == null) {
             throw new DBException("File " + filePath + " is not found in project " + project.getId());
         }
-        try (InputStream sqlStream = sqlFile.getContents(true)) {
-            try (Reader fileReader = new InputStreamReader(sqlStream, sqlFile.getCharset())) {
-                return IOUtils.readToString(fileReader);
-            }
+        try {
+            Charset charset = Charset.forName(sqlFile.getCharset());
+            InputStream sqlStream = sqlFile.getContents(true);
+            return new BufferedReader(new InputStreamReader(sqlStream, charset));
         } catch (CoreException e) {
             throw new IOException(e);
         }
@@ -287,6 +287,13 @@ public interface SQLDialect {
 
     boolean supportsOrderByIndex();
 
+    /**
+     * Checks whether dialect supports window (analytic) functions like NTILE(n) OVER (ORDER BY ...)
+     */
+    default boolean supportsWindowFunctions() {
+        return false;
+    }
+
     boolean supportsNestedComments();
 
     /**
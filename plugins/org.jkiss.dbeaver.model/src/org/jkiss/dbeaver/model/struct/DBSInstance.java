@@ -63,6 +63,21 @@ public interface DBSInstance extends DBSObject
     @NotNull
     DBCExecutionContext openIsolatedContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException;
 
+    /**
+     * Opens isolated execution context which may be taken from the pool of previously closed contexts.
+     * Session state of pooled context is reset when it is closed, but caller must not rely on any
+     * state which can't be reset (e.g. temporary objects). Use for short-living background tasks only.
+     *
+     * @param monitor progress monitor
+     * @param purpose context purpose (just a descriptive string)
+     * @param initFrom initialize new context parameters from specified context
+     * @return execution context
+     */
+    @NotNull
+    default DBCExecutionContext openPooledContext(@NotNull DBRProgressMonitor monitor, @NotNull String purpose, @Nullable DBCExecutionContext initFrom) throws DBException {
+        return openIsolatedContext(monitor, purpose, initFrom);
+    }
+
     void shutdown(DBRProgressMonitor monitor);
 
     @NotNull
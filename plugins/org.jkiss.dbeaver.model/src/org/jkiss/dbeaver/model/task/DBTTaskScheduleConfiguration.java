@@ -34,6 +34,13 @@ public class DBTTaskScheduleConfiguration {
         EVENT // TODO: event-based schedulers not supported yet
     }
 
+    public enum MissedRunPolicy {
+        // Missed runs are ignored, task runs at the next scheduled time
+        SKIP,
+        // Task runs once as soon as possible, no matter how many runs were missed
+        RUN_ONCE
+    }
+
     public static final int DAYS_LAST = 32;
     public static final int ALL_DAYS = 33;
 
@@ -61,4 +68,10 @@ public class DBTTaskScheduleConfiguration {
     public int maxDuration;
 
     public int executionMinute;
+
+    // Cron expression (minute hour day-of-month month day-of-week). Overrides frequency settings if specified
+    public String cronExpression;
+
+    // What to do with runs missed while scheduler wasn't active
+    public MissedRunPolicy missedRunPolicy;
 }
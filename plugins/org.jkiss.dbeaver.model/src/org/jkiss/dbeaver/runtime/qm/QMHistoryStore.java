@@ -0,0 +1,995 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMDateRange;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Persistent query history.
+ *
+ * Executed queries are appended to daily segment files in the workspace metadata folder. Segments older than
+ * history retention period are deleted when a segment is opened for writing. Indexes are kept in memory and built
+ * when the first cursor is requested: record times (for date ranges and paging), data sources, durations and
+ * a full-text index of query words. Full query information is read from disk only for records returned by the cursor.
+ */
+public class QMHistoryStore implements QMMetaListener, QMEventBrowser {
+
+    private static final Log log = Log.getLog(QMHistoryStore.class);
+
+    private static final String HISTORY_FOLDER = "qm-history";
+    private static final String SEGMENT_EXT = ".qmh";
+    private static final DateTimeFormatter SEGMENT_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd", Locale.ENGLISH);
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    // Length of word parts in the text search index
+    private static final int GRAM_LENGTH = 2;
+    // Possible delay between query end and its appearance in the store
+    private static final long TIME_ORDER_SLACK = 60000;
+
+    private static final byte FLAG_ERROR = 1;
+    private static final byte FLAG_EMPTY = 2;
+
+    @NotNull
+    private final Path historyFolder;
+    private final int historyDays;
+    private boolean loaded;
+    // Segments are being read. New records are kept in pendingRecords meanwhile
+    private boolean loading;
+    private boolean closed;
+    // Serializes loaders. Store lock is not held while segments are read
+    private final Object loadLock = new Object();
+    private final List<byte[]> pendingRecords = new ArrayList<>();
+
+    // Segment files. Record location is segment index and offset in the segment. Null for expired segments
+    private final List<Path> segments = new ArrayList<>();
+    private final Map<Integer, RandomAccessFile> segmentReaders = new HashMap<>();
+    private DataOutputStream segmentWriter;
+    private LocalDate writerDate;
+    private long writerOffset;
+
+    // Record columns
+    private int recordCount;
+    // Records before this one belong to expired segments
+    private int firstRecord;
+    private int[] recordSegments = new int[1024];
+    private int[] recordOffsets = new int[1024];
+    private long[] openTimes = new long[1024];
+    // Max close time of all records up to this one. Records are appended in (almost) close time order
+    private long[] orderTimes = new long[1024];
+    private long[] durations = new long[1024];
+    private int[] containerCodes = new int[1024];
+    private int[] driverCodes = new int[1024];
+    private int[] projectCodes = new int[1024];
+    private byte[] purposes = new byte[1024];
+    private byte[] flags = new byte[1024];
+    private long maxDuration;
+
+    // Dictionaries and indexes
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private final Map<Integer, BitSet> containerIndex = new HashMap<>();
+    private final Map<String, IntList> textIndex = new HashMap<>();
+    // Words of the text index by their parts
+    private final Map<String, List<String>> gramIndex = new HashMap<>();
+
+    public QMHistoryStore(@NotNull Path metadataFolder, int historyDays) {
+        this.historyFolder = metadataFolder.resolve(HISTORY_FOLDER);
+        this.historyDays = historyDays;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        closeWriter();
+        for (RandomAccessFile reader : segmentReaders.values()) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+        }
+        segmentReaders.clear();
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        // Fresh events come first
+        List<QMMStatementExecuteInfo> executions = new ArrayList<>();
+        for (int i = events.size(); i-- > 0; ) {
+            QMMetaEvent event = events.get(i);
+            if (event.getAction() == QMEventAction.END && event.getObject() instanceof QMMStatementExecuteInfo) {
+                QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) event.getObject();
+                if (exec.isClosed() && exec.getStatement() != null) {
+                    executions.add(exec);
+                }
+            }
+        }
+        if (!executions.isEmpty()) {
+            appendRecords(executions);
+        }
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) throws DBException {
+        QMEventCriteria criteria = cursorFilter.getCriteria();
+        if (criteria.hasObjectTypes() && !criteria.hasObjectType(QMObjectType.query)) {
+            // Only queries are stored in history
+            return new QMUtils.EmptyCursorImpl();
+        }
+        ensureLoaded();
+        synchronized (this) {
+            return new HistoryCursor(criteria, cursorFilter.getFilter());
+        }
+    }
+
+    ////////////////////////////////////////////////////
+    // Storage
+
+    private synchronized void appendRecords(@NotNull List<QMMStatementExecuteInfo> executions) {
+        if (closed) {
+            return;
+        }
+        try {
+            List<byte[]> records = new ArrayList<>(executions.size());
+            for (QMMStatementExecuteInfo exec : executions) {
+                records.add(serializeRecord(exec));
+            }
+            if (loading) {
+                // Segment files are being read, they will be written after that
+                pendingRecords.addAll(records);
+                return;
+            }
+            writeRecords(records);
+        } catch (IOException e) {
+            log.debug("Error writing query history", e);
+            closeWriter();
+        }
+    }
+
+    /**
+     * Appends records to the current segment. Records are indexed only if indexes are loaded,
+     * otherwise they are indexed when the segment is read.
+     */
+    private void writeRecords(@NotNull List<byte[]> records) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (segmentWriter == null || !today.equals(writerDate)) {
+            openWriter(today);
+            deleteExpiredSegments(today);
+        }
+        for (byte[] data : records) {
+            segmentWriter.writeInt(data.length);
+            segmentWriter.write(data);
+            if (loaded) {
+                indexRecord(segments.size() - 1, (int) writerOffset, readRecord(data));
+            }
+            writerOffset += 4 + data.length;
+        }
+        segmentWriter.flush();
+    }
+
+    private void openWriter(@NotNull LocalDate date) throws IOException {
+        closeWriter();
+        Files.createDirectories(historyFolder);
+        Path segmentFile = historyFolder.resolve(SEGMENT_NAME_FORMAT.format(date) + SEGMENT_EXT);
+        if (loaded && (segments.isEmpty() || !segmentFile.equals(segments.get(segments.size() - 1)))) {
+            segments.add(segmentFile);
+        }
+        writerOffset = Files.exists(segmentFile) ? Files.size(segmentFile) : 0;
+        segmentWriter = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segmentFile.toFile(), true)));
+        writerDate = date;
+    }
+
+    private void closeWriter() {
+        if (segmentWriter != null) {
+            try {
+                segmentWriter.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            segmentWriter = null;
+            writerDate = null;
+        }
+    }
+
+    /**
+     * Reads segment files and builds indexes.
+     * Store lock is not held while segments are read, so query manager dispatcher is not blocked by loading.
+     */
+    private void ensureLoaded() {
+        synchronized (loadLock) {
+            synchronized (this) {
+                if (loaded || closed) {
+                    return;
+                }
+                loading = true;
+                // Segment files must not change while they are read
+                closeWriter();
+            }
+            try {
+                LocalDate oldestDate = LocalDate.now().minusDays(historyDays);
+                for (Path segmentFile : listSegmentFiles()) {
+                    LocalDate segmentDate = getSegmentDate(segmentFile);
+                    if (segmentDate == null) {
+                        continue;
+                    }
+                    if (segmentDate.isBefore(oldestDate)) {
+                        deleteSegmentFile(segmentFile);
+                        continue;
+                    }
+                    segments.add(segmentFile);
+                    loadSegment(segments.size() - 1, segmentFile);
+                }
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    loaded = true;
+                    if (!closed && !pendingRecords.isEmpty()) {
+                        try {
+                            writeRecords(pendingRecords);
+                        } catch (IOException e) {
+                            log.debug("Error writing query history", e);
+                            closeWriter();
+                        }
+                    }
+                    pendingRecords.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes segments older than history retention period.
+     * Records of deleted segments are excluded from the search.
+     */
+    synchronized void deleteExpiredSegments(@NotNull LocalDate today) {
+        LocalDate oldestDate = today.minusDays(historyDays);
+        if (!loaded) {
+            for (Path segmentFile : listSegmentFiles()) {
+                LocalDate segmentDate = getSegmentDate(segmentFile);
+                if (segmentDate != null && segmentDate.isBefore(oldestDate)) {
+                    deleteSegmentFile(segmentFile);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path segmentFile = segments.get(i);
+            LocalDate segmentDate = segmentFile == null ? null : getSegmentDate(segmentFile);
+            if (segmentDate == null || !segmentDate.isBefore(oldestDate)) {
+                continue;
+            }
+            RandomAccessFile reader = segmentReaders.remove(i);
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+            }
+            deleteSegmentFile(segmentFile);
+            segments.set(i, null);
+        }
+        // Records are indexed in segment order
+        while (firstRecord < recordCount && segments.get(recordSegments[firstRecord]) == null) {
+            firstRecord++;
+        }
+    }
+
+    @NotNull
+    private List<Path> listSegmentFiles() {
+        List<Path> segmentFiles = new ArrayList<>();
+        if (!Files.exists(historyFolder)) {
+            return segmentFiles;
+        }
+        try (Stream<Path> files = Files.list(historyFolder)) {
+            files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_EXT)).sorted().forEach(segmentFiles::add);
+        } catch (IOException e) {
+            log.debug("Error reading query history folder", e);
+        }
+        return segmentFiles;
+    }
+
+    @Nullable
+    private static LocalDate getSegmentDate(@NotNull Path segmentFile) {
+        String fileName = segmentFile.getFileName().toString();
+        try {
+            return LocalDate.parse(fileName.substring(0, fileName.length() - SEGMENT_EXT.length()), SEGMENT_NAME_FORMAT);
+        } catch (DateTimeParseException e) {
+            log.debug("Skip query history segment '" + fileName + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void deleteSegmentFile(@NotNull Path segmentFile) {
+        try {
+            Files.deleteIfExists(segmentFile);
+        } catch (IOException e) {
+            log.debug("Error deleting query history segment '" + segmentFile.getFileName() + "'", e);
+        }
+    }
+
+    private void loadSegment(int segmentIndex, @NotNull Path segmentFile) {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile)))) {
+            long fileSize = Files.size(segmentFile);
+            while (offset + 4 <= fileSize) {
+                int length = in.readInt();
+                if (length <= 0 || offset + 4 + length > fileSize) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                indexRecord(segmentIndex, (int) offset, readRecord(data));
+                offset += 4 + length;
+            }
+            if (offset < fileSize) {
+                // Incomplete record at the end (e.g. after crash). Cut it, otherwise new records will be lost
+                log.debug("Truncate broken query history segment '" + segmentFile.getFileName() + "'");
+                try (RandomAccessFile raf = new RandomAccessFile(segmentFile.toFile(), "rw")) {
+                    raf.setLength(offset);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Error reading query history segment '" + segmentFile.getFileName() + "'", e);
+        }
+    }
+
+    @NotNull
+    private static byte[] serializeRecord(@NotNull QMMStatementExecuteInfo exec) throws IOException {
+        QMMStatementInfo statement = exec.getStatement();
+        QMMConnectionInfo connection = statement.getConnection();
+        QMMProjectInfo project = connection.getProjectInfo();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeLong(exec.getOpenTime());
+        out.writeLong(exec.getCloseTime());
+        out.writeLong(exec.getFetchBeginTime());
+        out.writeLong(exec.getFetchEndTime());
+        out.writeLong(exec.getFetchRowCount());
+        out.writeInt(exec.getErrorCode());
+        writeString(out, exec.getErrorMessage());
+        out.writeBoolean(exec.isTransactional());
+        out.writeByte(statement.getPurpose() == null ? -1 : statement.getPurpose().ordinal());
+        out.writeLong(statement.getOpenTime());
+        out.writeLong(statement.getCloseTime());
+        writeString(out, connection.getContainerId());
+        writeString(out, connection.getContainerName());
+        writeString(out, connection.getDriverId());
+        writeString(out, connection.getInstanceId());
+        writeString(out, connection.getContextName());
+        writeString(out, connection.getConnectionUserName());
+        out.writeLong(connection.getOpenTime());
+        writeString(out, project == null ? null : project.getId());
+        writeString(out, project == null ? null : project.getName());
+        writeString(out, exec.getQueryString());
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    @NotNull
+    private static HistoryRecord readRecord(@NotNull byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        HistoryRecord record = new HistoryRecord();
+        record.openTime = in.readLong();
+        record.closeTime = in.readLong();
+        record.fetchBeginTime = in.readLong();
+        record.fetchEndTime = in.readLong();
+        record.fetchRowCount = in.readLong();
+        record.errorCode = in.readInt();
+        record.errorMessage = readString(in);
+        record.transactional = in.readBoolean();
+        record.purpose = in.readByte();
+        record.statementOpenTime = in.readLong();
+        record.statementCloseTime = in.readLong();
+        record.containerId = readString(in);
+        record.containerName = readString(in);
+        record.driverId = readString(in);
+        record.instanceId = readString(in);
+        record.contextName = readString(in);
+        record.userName = readString(in);
+        record.connectionOpenTime = in.readLong();
+        record.projectId = readString(in);
+        record.projectName = readString(in);
+        record.queryText = readString(in);
+        return record;
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @Nullable String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    private HistoryRecord readRecord(int recordId) throws IOException {
+        int segmentIndex = recordSegments[recordId];
+        RandomAccessFile reader = segmentReaders.get(segmentIndex);
+        if (reader == null) {
+            reader = new RandomAccessFile(segments.get(segmentIndex).toFile(), "r");
+            segmentReaders.put(segmentIndex, reader);
+        }
+        reader.seek(recordOffsets[recordId]);
+        byte[] data = new byte[reader.readInt()];
+        reader.readFully(data);
+        return readRecord(data);
+    }
+
+    ////////////////////////////////////////////////////
+    // Indexes
+
+    private void indexRecord(int segmentIndex, int offset, @NotNull HistoryRecord record) {
+        int id = recordCount;
+        if (id == openTimes.length) {
+            int newSize = id * 2;
+            recordSegments = Arrays.copyOf(recordSegments, newSize);
+            recordOffsets = Arrays.copyOf(recordOffsets, newSize);
+            openTimes = Arrays.copyOf(openTimes, newSize);
+            orderTimes = Arrays.copyOf(orderTimes, newSize);
+            durations = Arrays.copyOf(durations, newSize);
+            containerCodes = Arrays.copyOf(containerCodes, newSize);
+            driverCodes = Arrays.copyOf(driverCodes, newSize);
+            projectCodes = Arrays.copyOf(projectCodes, newSize);
+            purposes = Arrays.copyOf(purposes, newSize);
+            flags = Arrays.copyOf(flags, newSize);
+        }
+        recordSegments[id] = segmentIndex;
+        recordOffsets[id] = offset;
+        openTimes[id] = record.openTime;
+        orderTimes[id] = id == 0 ? record.closeTime : Math.max(record.closeTime, orderTimes[id - 1]);
+        durations[id] = record.getDuration();
+        maxDuration = Math.max(maxDuration, record.closeTime - record.openTime);
+        containerCodes[id] = getDictionaryCode(record.containerId);
+        driverCodes[id] = getDictionaryCode(record.driverId);
+        projectCodes[id] = getDictionaryCode(record.projectName);
+        purposes[id] = record.purpose;
+        byte recordFlags = 0;
+        if (record.errorMessage != null || record.errorCode != 0) {
+            recordFlags |= FLAG_ERROR;
+        }
+        if (CommonUtils.isEmptyTrimmed(record.queryText)) {
+            recordFlags |= FLAG_EMPTY;
+        }
+        flags[id] = recordFlags;
+        recordCount++;
+
+        containerIndex.computeIfAbsent(containerCodes[id], c -> new BitSet()).set(id);
+        if (record.queryText != null) {
+            for (String token : tokenize(record.queryText)) {
+                IntList postings = textIndex.get(token);
+                if (postings == null) {
+                    postings = new IntList();
+                    textIndex.put(token, postings);
+                    for (String gram : getGrams(token)) {
+                        gramIndex.computeIfAbsent(gram, g -> new ArrayList<>()).add(token);
+                    }
+                }
+                if (postings.size == 0 || postings.values[postings.size - 1] != id) {
+                    postings.add(id);
+                }
+            }
+        }
+    }
+
+    private int getDictionaryCode(@Nullable String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryCodes.put(value, code);
+        }
+        return code;
+    }
+
+    private int findDictionaryCode(@Nullable String value) {
+        Integer code = value == null ? null : dictionaryCodes.get(value);
+        return code == null ? -2 : code;
+    }
+
+    @NotNull
+    static Set<String> tokenize(@NotNull String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (wordChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase(Locale.ENGLISH));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Distinct word parts of {@link #GRAM_LENGTH} characters
+     */
+    @NotNull
+    private static Set<String> getGrams(@NotNull String word) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Finds records which may contain the search string.
+     * Each word of the search string must be a part of some word of the query.
+     *
+     * @return candidate records or null if search string has no words and all records must be checked
+     */
+    @Nullable
+    private BitSet findTextCandidates(@NotNull String searchString) {
+        BitSet result = null;
+        for (String term : tokenize(searchString)) {
+            // Words which contain the term contain all its parts. Check words of the rarest part only.
+            List<String> words = null;
+            for (String gram : getGrams(term)) {
+                List<String> gramWords = gramIndex.get(gram);
+                if (gramWords == null) {
+                    words = Collections.emptyList();
+                    break;
+                }
+                if (words == null || gramWords.size() < words.size()) {
+                    words = gramWords;
+                }
+            }
+            BitSet termRecords = new BitSet(recordCount);
+            if (words != null) {
+                for (String word : words) {
+                    if (word.contains(term)) {
+                        IntList postings = textIndex.get(word);
+                        for (int i = 0; i < postings.size; i++) {
+                            termRecords.set(postings.values[i]);
+                        }
+                    }
+                }
+            }
+            if (result == null) {
+                result = termRecords;
+            } else {
+                result.and(termRecords);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * First record with open time not before specified time
+     */
+    private int findFirstRecord(long fromTime) {
+        // Order time is greater or equal than open time of all previous records
+        int low = 0, high = recordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orderTimes[mid] < fromTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Record after the last record with open time not after specified time
+     */
+    private int findLastRecord(long toTime) {
+        long boundTime = toTime + maxDuration + TIME_ORDER_SLACK;
+        int low = 0, high = recordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orderTimes[mid] <= boundTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Nullable
+    private static Long parseTime(@Nullable String value) {
+        if (CommonUtils.isEmpty(value)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // Not a timestamp
+        }
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Not an instant
+        }
+        try {
+            return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // Not a date time
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            log.debug("Bad query history date: " + value);
+            return null;
+        }
+    }
+
+    @NotNull
+    private QMMetaEventEntity makeEvent(int recordId, @NotNull HistoryRecord record) {
+        QMMProjectInfo projectInfo = QMMProjectInfo.builder()
+            .setId(record.projectId)
+            .setName(record.projectName)
+            .build();
+        QMMConnectionInfo connection = QMMConnectionInfo.builder()
+            .setProjectInfo(projectInfo)
+            .setContainerId(record.containerId)
+            .setContainerName(record.containerName)
+            .setDriverId(record.driverId)
+            .setInstanceId(record.instanceId)
+            .setContextName(record.contextName)
+            .setConnectionUserName(record.userName)
+            .setOpenTime(record.connectionOpenTime)
+            .build();
+        DBCExecutionPurpose[] allPurposes = DBCExecutionPurpose.values();
+        QMMStatementInfo statement = new QMMStatementInfo(
+            record.statementOpenTime,
+            record.statementCloseTime,
+            connection,
+            record.purpose >= 0 && record.purpose < allPurposes.length ? allPurposes[record.purpose] : DBCExecutionPurpose.USER);
+        QMMStatementExecuteInfo exec = new QMMStatementExecuteInfo(
+            record.openTime,
+            record.closeTime,
+            statement,
+            record.queryText,
+            record.fetchRowCount,
+            record.errorCode,
+            record.errorMessage,
+            record.fetchBeginTime,
+            record.fetchEndTime,
+            record.transactional);
+        return new QMMetaEventEntity(exec, QMEventAction.END, recordId, null, null);
+    }
+
+    ////////////////////////////////////////////////////
+    // Cursor
+
+    /**
+     * Cursor over matching records. Records are matched lazily, so only requested page is read from disk.
+     */
+    private class HistoryCursor implements QMEventCursor {
+        private final boolean desc;
+        @Nullable
+        private final BitSet candidates;
+        @Nullable
+        private final String searchString;
+        @Nullable
+        private final QMEventFilter filter;
+        private final int containerCode;
+        private final Set<Integer> driverCodes;
+        private final Set<Integer> projectCodes;
+        private final Set<Byte> purposes;
+        @Nullable
+        private final Boolean failed;
+        private final boolean skipEmpty;
+        private final long minDuration;
+        private final long fromTime;
+        private final long toTime;
+        private final int lowBound;
+        private final int highBound;
+
+        // Next record to check
+        private int position;
+        @Nullable
+        private QMMetaEventEntity nextEvent;
+        private long totalSize = -1;
+
+        HistoryCursor(@NotNull QMEventCriteria criteria, @Nullable QMEventFilter filter) {
+            this.desc = criteria.isDesc();
+            this.filter = filter;
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ?
+                null : criteria.getSearchString().toLowerCase(Locale.ENGLISH);
+
+            BitSet recordSet = searchString == null ? null : findTextCandidates(searchString);
+            if (criteria.getContainerId() != null) {
+                containerCode = findDictionaryCode(criteria.getContainerId());
+                BitSet containerRecords = containerIndex.get(containerCode);
+                if (containerRecords == null) {
+                    recordSet = new BitSet();
+                } else if (recordSet == null) {
+                    recordSet = containerRecords;
+                } else {
+                    recordSet.and(containerRecords);
+                }
+            } else {
+                containerCode = -2;
+            }
+            this.candidates = recordSet == null ? null : (BitSet) recordSet.clone();
+
+            this.driverCodes = new HashSet<>();
+            for (String driverId : criteria.getDriverIds()) {
+                driverCodes.add(findDictionaryCode(driverId));
+            }
+            this.projectCodes = new HashSet<>();
+            for (String projectName : criteria.getProjectNames()) {
+                projectCodes.add(findDictionaryCode(projectName));
+            }
+            this.purposes = new HashSet<>();
+            if (criteria.hasQueryTypes()) {
+                for (DBCExecutionPurpose purpose : criteria.getQueryTypes()) {
+                    purposes.add((byte) purpose.ordinal());
+                }
+            }
+            if (criteria.hasEventStatuses()) {
+                failed = criteria.getEventStatuses().contains(QMEventStatus.FAILED);
+            } else {
+                failed = null;
+            }
+            this.skipEmpty = criteria.isSkipEmptyQueries();
+            this.minDuration = criteria.getMinDuration();
+
+            QMDateRange dateRange = criteria.getStartDateRange();
+            Long from = dateRange == null ? null : parseTime(dateRange.getFrom());
+            Long to = dateRange == null ? null : parseTime(dateRange.getTo());
+            this.fromTime = from == null ? Long.MIN_VALUE : from;
+            this.toTime = to == null ? Long.MAX_VALUE : to;
+            int low = Math.max(firstRecord, from == null ? 0 : findFirstRecord(from));
+            int high = to == null ? recordCount : findLastRecord(to);
+            if (criteria.hasLastEventId()) {
+                // Continue after the last event of the previous page
+                long lastId = criteria.getLastEventId();
+                if (desc) {
+                    high = (int) Math.max(0, Math.min(high, lastId));
+                } else {
+                    low = (int) Math.min(recordCount, Math.max(low, lastId + 1));
+                }
+            }
+            this.lowBound = low;
+            this.highBound = high;
+            this.position = desc ? highBound - 1 : lowBound;
+        }
+
+        @Override
+        public long getTotalSize() {
+            if (totalSize < 0) {
+                long count = 0;
+                try {
+                    for (int id = nextCandidate(desc ? highBound - 1 : lowBound); id >= 0; id = nextCandidate(desc ? id - 1 : id + 1)) {
+                        if (matchEvent(id) != null) {
+                            count++;
+                        }
+                    }
+                } catch (IOException e) {
+                    log.debug("Error reading query history", e);
+                }
+                totalSize = count;
+            }
+            return totalSize;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            if (position < 0) {
+                throw new DBException("Position is out of range (" + position + ")");
+            }
+            this.position = desc ? highBound - 1 : lowBound;
+            this.nextEvent = null;
+            for (int i = 0; i < position; i++) {
+                if (!hasNextEvent(monitor)) {
+                    throw new DBException("Position is out of range (" + position + ")");
+                }
+                nextEvent(monitor);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (nextEvent != null) {
+                return true;
+            }
+            try {
+                for (int id = nextCandidate(position); id >= 0 && !monitor.isCanceled(); id = nextCandidate(position)) {
+                    position = desc ? id - 1 : id + 1;
+                    nextEvent = matchEvent(id);
+                    if (nextEvent != null) {
+                        return true;
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("Error reading query history", e);
+            }
+            return false;
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events");
+            }
+            QMMetaEventEntity event = nextEvent;
+            nextEvent = null;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close. Segment readers are shared
+        }
+
+        private int nextCandidate(int from) {
+            if (desc) {
+                if (from < lowBound) {
+                    return -1;
+                }
+                int id = candidates == null ? from : candidates.previousSetBit(from);
+                return id >= lowBound ? id : -1;
+            } else {
+                if (from >= highBound) {
+                    return -1;
+                }
+                int id = candidates == null ? from : candidates.nextSetBit(from);
+                return id >= 0 && id < highBound ? id : -1;
+            }
+        }
+
+        @Nullable
+        private QMMetaEventEntity matchEvent(int id) throws IOException {
+            synchronized (QMHistoryStore.this) {
+                if (closed || id < firstRecord) {
+                    // Store was closed or segment expired
+                    return null;
+                }
+                long openTime = openTimes[id];
+                if (openTime < fromTime || openTime > toTime) {
+                    return null;
+                }
+                if (containerCode != -2 && containerCodes[id] != containerCode) {
+                    return null;
+                }
+                if (!driverCodes.isEmpty() && !driverCodes.contains(QMHistoryStore.this.driverCodes[id])) {
+                    return null;
+                }
+                if (!projectCodes.isEmpty() && !projectCodes.contains(QMHistoryStore.this.projectCodes[id])) {
+                    return null;
+                }
+                if (!purposes.isEmpty() && !purposes.contains(QMHistoryStore.this.purposes[id])) {
+                    return null;
+                }
+                if (failed != null && failed != ((flags[id] & FLAG_ERROR) != 0)) {
+                    return null;
+                }
+                if (skipEmpty && (flags[id] & FLAG_EMPTY) != 0) {
+                    return null;
+                }
+                if (minDuration > 0 && durations[id] < minDuration) {
+                    return null;
+                }
+                HistoryRecord record = readRecord(id);
+                if (searchString != null &&
+                    (record.queryText == null || !record.queryText.toLowerCase(Locale.ENGLISH).contains(searchString)))
+                {
+                    return null;
+                }
+                QMMetaEventEntity event = makeEvent(id, record);
+                if (filter != null && !filter.accept(event)) {
+                    return null;
+                }
+                return event;
+            }
+        }
+    }
+
+    private static class HistoryRecord {
+        long openTime;
+        long closeTime;
+        long fetchBeginTime;
+        long fetchEndTime;
+        long fetchRowCount;
+        int errorCode;
+        String errorMessage;
+        boolean transactional;
+        byte purpose;
+        long statementOpenTime;
+        long statementCloseTime;
+        String containerId;
+        String containerName;
+        String driverId;
+        String instanceId;
+        String contextName;
+        String userName;
+        long connectionOpenTime;
+        String projectId;
+        String projectName;
+        String queryText;
+
+        long getDuration() {
+            long fetchTime = fetchBeginTime > 0 && fetchEndTime >= fetchBeginTime ? fetchEndTime - fetchBeginTime : 0;
+            return closeTime - openTime + fetchTime;
+        }
+    }
+
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+}
@@ -31,29 +31,44 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called from all sessions of all connections, so there is no global lock here.
+ * Connection meta info is changed under the lock of the connection info itself (usually it is used by one thread).
+ * Events are put in a lock-free queue which is drained by the dispatcher job. Queue size is limited:
+ * if dispatcher can't keep up then new events are dropped (and counted).
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
     private static final Log log = Log.getLog(QMMCollectorImpl.class);
 
     private static final int MAX_HISTORY_EVENTS = 10000;
+    private static final int MAX_PENDING_EVENTS = 100000;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
-    // Temporary event pool
+    // Events which were not dispatched yet
+    private final Queue<QMMetaEvent> eventQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger eventQueueSize = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    // Events waiting for QM session id. Accessed by the dispatcher only
     private List<QMMetaEvent> eventPool = new ArrayList<>();
     // Sync object
     private final Object historySync = new Object();
@@ -71,7 +86,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         new EventDispatcher().schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -128,19 +143,43 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    /**
+     * Total number of events which were dropped because of event queue overflow
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+        if (eventQueueSize.incrementAndGet() > MAX_PENDING_EVENTS) {
+            eventQueueSize.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
         try {
             String sessionId = QMUtils.getQmSessionId(context);
-            eventPool.add(new QMMetaEvent(object, action, sessionId));
+            eventQueue.offer(new QMMetaEvent(object, action, sessionId));
         } catch (DBException e) {
+            eventQueueSize.decrementAndGet();
             log.error("Failed to fire qm meta event", e);
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
+    // Called by the dispatcher only
+    private List<QMMetaEvent> obtainEvents() {
+        for (QMMetaEvent event = eventQueue.poll(); event != null; event = eventQueue.poll()) {
+            eventQueueSize.decrementAndGet();
+            eventPool.add(event);
+        }
         if (eventPool.isEmpty()) {
             return Collections.emptyList();
         }
+        if (eventPool.size() > MAX_PENDING_EVENTS) {
+            // Events are waiting for the session for too long. Drop the oldest ones
+            int overflow = eventPool.size() - MAX_PENDING_EVENTS;
+            eventPool.subList(0, overflow).clear();
+            droppedEvents.addAndGet(overflow);
+        }
         // qm session id might be null if database migration is in progress for single user product
         if (DBWorkbench.getPlatform().getApplication() instanceof QMSessionReceiver) {
             for (QMMetaEvent event : eventPool) {
@@ -171,6 +210,36 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         return connectionInfo;
     }
 
+    /**
+     * Returns ids of contexts which were closed since the last call. Called by the event dispatcher.
+     */
+    @NotNull
+    protected List<Long> pollClosedConnections() {
+        List<Long> contextIds = new ArrayList<>();
+        for (Long contextId = closedConnections.poll(); contextId != null; contextId = closedConnections.poll()) {
+            contextIds.add(contextId);
+        }
+        return contextIds;
+    }
+
+    /**
+     * Removes infos of closed contexts. Contexts which were reopened are kept. Called by the event dispatcher.
+     */
+    protected void removeClosedConnections(@NotNull List<Long> contextIds) {
+        for (Long contextId : contextIds) {
+            final QMMConnectionInfo session = connectionMap.get(contextId);
+            if (session != null) {
+                synchronized (session) {
+                    // It is possible (rarely) that session was reopened before event dispatcher run
+                    // In that case just ignore it
+                    if (session.isClosed()) {
+                        connectionMap.remove(contextId, session);
+                    }
+                }
+            }
+        }
+    }
+
     public List<QMMetaEvent> getPastEvents() {
         synchronized (historySync) {
             return new ArrayList<>(pastEvents);
@@ -178,138 +247,177 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
-        QMMConnectionInfo connection = connectionMap.get(contextId);
-        if (connection == null) {
-            connection = new QMMConnectionInfo(
-                context,
-                transactional);
-            connectionMap.put(contextId, connection);
-        } else {
-            // This session may already be in cache in case of reconnect/invalidate
-            // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
+        while (true) {
+            QMMConnectionInfo connection = connectionMap.get(contextId);
+            boolean created = false;
+            if (connection == null) {
+                QMMConnectionInfo newConnection = new QMMConnectionInfo(context, transactional);
+                connection = connectionMap.putIfAbsent(contextId, newConnection);
+                if (connection == null) {
+                    connection = newConnection;
+                    created = true;
+                }
+            }
+            synchronized (connection) {
+                if (connectionMap.get(contextId) != connection) {
+                    // Closed session was removed by the dispatcher before we got the lock. Register a new one
+                    continue;
+                }
+                if (!created) {
+                    // This session may already be in cache in case of reconnect/invalidate
+                    // (when context closed and reopened without new context object creation)
+                    connection.reopen(context);
+                }
+                // Remove from closed sessions (in case of re-opened connection)
+                closedConnections.remove(contextId);
+                tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
+                return;
+            }
         }
-
-        // Remove from closed sessions (in case of re-opened connection)
-        closedConnections.remove(contextId);
-        tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
-        // Notify
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
-            tryFireMetaEvent(session, QMEventAction.END, context);
+            synchronized (session) {
+                session.close();
+                tryFireMetaEvent(session, QMEventAction.END, context);
+            }
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
+                tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
             }
-            tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
-        QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
+        DBCExecutionContext context = statement.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                tryFireMetaEvent(stat, QMEventAction.BEGIN, context);
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
-        QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+        DBCExecutionContext context = statement.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    tryFireMetaEvent(stat, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
-        QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+        DBCExecutionContext context = statement.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.BEGIN, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
-        QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+        DBCExecutionContext context = statement.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
-        QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+        DBCExecutionContext context = resultSet.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
-        QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+        DBCExecutionContext context = resultSet.getSession().getExecutionContext();
+        QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, context);
+                }
             }
         }
     }
 
     private class EventDispatcher extends AbstractJob {
 
+        private long reportedDroppedEvents;
+
         protected EventDispatcher() {
             super("QM meta events dispatcher");
             setUser(false);
@@ -318,12 +426,12 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
+            final List<QMMetaEvent> events = obtainEvents();
+            List<Long> sessionsToClose = pollClosedConnections();
+            long dropped = droppedEvents.get();
+            if (dropped > reportedDroppedEvents) {
+                log.warn("QM event queue overflow: " + (dropped - reportedDroppedEvents) + " event(s) dropped");
+                reportedDroppedEvents = dropped;
             }
             if (!events.isEmpty()) {
                 final List<QMMetaListener> listeners = getListeners();
@@ -350,16 +458,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 }
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
-                    }
-                }
-            }
+            removeClosedConnections(sessionsToClose);
             if (isRunning()) {
                 this.schedule(eventDispatchPeriod);
             }
@@ -17,8 +17,11 @@
 package org.jkiss.dbeaver.runtime.qm;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.*;
 import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
 import org.jkiss.dbeaver.model.qm.meta.*;
@@ -46,6 +49,8 @@ public class QMRegistryImpl implements QMRegistry {
     private QMMCollectorImpl metaHandler;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
+    private QMHistoryStore historyStore;
+    private QMStatisticsCollectorImpl statisticsCollector;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMRegistryImpl() {
@@ -56,10 +61,32 @@ public class QMRegistryImpl implements QMRegistry {
 
         metaHandler = new QMMCollectorImpl();
         registerHandler(metaHandler);
+
+        statisticsCollector = new QMStatisticsCollectorImpl();
+        metaHandler.addListener(statisticsCollector);
+
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        if (preferences.getBoolean(QMConstants.PROP_STORE_HISTORY)) {
+            historyStore = new QMHistoryStore(GeneralUtils.getMetadataFolder(), preferences.getInt(QMConstants.PROP_HISTORY_DAYS));
+            metaHandler.addListener(historyStore);
+        }
     }
 
     public void dispose()
     {
+        if (statisticsCollector != null) {
+            if (metaHandler != null) {
+                metaHandler.removeListener(statisticsCollector);
+            }
+            statisticsCollector = null;
+        }
+        if (historyStore != null) {
+            if (metaHandler != null) {
+                metaHandler.removeListener(historyStore);
+            }
+            historyStore.close();
+            historyStore = null;
+        }
         if (metaHandler != null) {
             unregisterHandler(metaHandler);
             metaHandler.dispose();
@@ -94,14 +121,20 @@ public class QMRegistryImpl implements QMRegistry {
         if (eventBrowser == null) {
             eventBrowser = GeneralUtils.adapt(this, QMEventBrowser.class);
             if (eventBrowser == null) {
-                // Default browser
-                this.eventBrowser = defaultEventBrowser;
+                // Persistent history or in-memory events of the current session
+                this.eventBrowser = historyStore != null ? historyStore : defaultEventBrowser;
             }
         }
 
         return eventBrowser;
     }
 
+    @Nullable
+    @Override
+    public QMStatisticsCollector getStatisticsCollector() {
+        return statisticsCollector;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
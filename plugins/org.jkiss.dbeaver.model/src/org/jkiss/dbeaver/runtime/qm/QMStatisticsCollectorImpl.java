@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects query statistics from QM meta events
+ */
+public class QMStatisticsCollectorImpl implements QMMetaListener, QMStatisticsCollector {
+
+    // Max number of distinct fingerprints. Least recently executed are evicted.
+    private static final int MAX_FINGERPRINTS = 10000;
+
+    private final Map<FingerprintKey, QMQueryStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        for (QMMetaEvent event : events) {
+            if (event.getAction() == QMEventAction.END && event.getObject() instanceof QMMStatementExecuteInfo) {
+                QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) event.getObject();
+                if (exec.isClosed() && exec.getStatement() != null && !CommonUtils.isEmpty(exec.getQueryString())) {
+                    addExecution(exec);
+                }
+            }
+        }
+        if (statistics.size() > MAX_FINGERPRINTS) {
+            evictOldStatistics();
+        }
+    }
+
+    private void addExecution(@NotNull QMMStatementExecuteInfo exec) {
+        QMMConnectionInfo connection = exec.getConnection();
+        String containerId = connection == null ? null : connection.getContainerId();
+        String containerName = connection == null ? null : connection.getContainerName();
+        String fingerprint = QMQueryFingerprint.makeFingerprint(exec.getQueryString());
+
+        QMQueryStatistics stats = statistics.computeIfAbsent(
+            new FingerprintKey(containerId, fingerprint),
+            key -> new QMQueryStatistics(containerId, containerName, fingerprint));
+        stats.addExecution(
+            exec.getQueryString(),
+            exec.getDuration(),
+            exec.getFetchRowCount(),
+            exec.hasError(),
+            exec.getCloseTime());
+    }
+
+    private void evictOldStatistics() {
+        List<Map.Entry<FingerprintKey, QMQueryStatistics>> entries = new ArrayList<>(statistics.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().getLastExecutionTime()));
+        // Remove 10% at once to not do it on each event
+        int removeCount = entries.size() - MAX_FINGERPRINTS + MAX_FINGERPRINTS / 10;
+        for (int i = 0; i < removeCount && i < entries.size(); i++) {
+            statistics.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<QMQueryStatistics> getQueryStatistics(@Nullable String containerId) {
+        List<QMQueryStatistics> result = new ArrayList<>();
+        for (QMQueryStatistics stats : statistics.values()) {
+            if (containerId == null || containerId.equals(stats.getContainerId())) {
+                result.add(stats.copy());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    private static class FingerprintKey {
+        private final String containerId;
+        private final String fingerprint;
+
+        FingerprintKey(@Nullable String containerId, @NotNull String fingerprint) {
+            this.containerId = containerId;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FingerprintKey)) {
+                return false;
+            }
+            FingerprintKey key = (FingerprintKey) obj;
+            return Objects.equals(containerId, key.containerId) && fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(containerId) * 31 + fingerprint.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,541 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.task.*;
+import org.jkiss.dbeaver.registry.timezone.TimezoneRegistry;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * In-process task scheduler.
+ *
+ * Schedules are saved in the workspace metadata and are triggered while the application is running.
+ * Triggered tasks are executed by the task manager, so they obey the task execution queue limits.
+ * A task which is still running (or queued) when it is triggered again is not started twice.
+ */
+public class InternalTaskScheduler implements DBTScheduler {
+
+    private static final Log log = Log.getLog(InternalTaskScheduler.class);
+
+    private static final String SCHEDULE_FILE_NAME = "task-schedule.json"; //$NON-NLS-1$
+    // Scheduler wakes up at least once per this period
+    private static final long MAX_SLEEP_TIME = 60 * 1000;
+
+    private static final Gson gson = new GsonBuilder()
+        .setLenient()
+        .setPrettyPrinting()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+
+    private final Map<String, ScheduledTask> scheduledTasks = new LinkedHashMap<>();
+    private SchedulerJob schedulerJob;
+    private boolean loaded;
+
+    @NotNull
+    @Override
+    public String getSchedulerName() {
+        return "DBeaver";
+    }
+
+    @Override
+    public boolean supportsFeature(String feature) {
+        if (feature == null || feature.startsWith(FEATURE_FREQUENCY_EVENT)) {
+            return false;
+        }
+        switch (feature) {
+            case FEATURE_FREQUENCY_HOURLY_RECURRENCE_GREATER_THAN_23:
+            case FEATURE_FREQUENCY_MINUTELY_RECURRENCE_GREATER_THAN_59:
+            case FEATURE_FREQUENCY_DAILY_RECURRENCE_GREATER_THAN_31:
+            case FEATURE_FREQUENCY_WEEKLY_RECURRENCE:
+                // Cron steps can't be greater than the field range
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public RecurrenceType getRecurrenceType() {
+        return RecurrenceType.Cron;
+    }
+
+    @NotNull
+    @Override
+    public synchronized List<DBTTaskScheduleInfo> getAllScheduledTasks() {
+        loadSchedules();
+        return new ArrayList<>(scheduledTasks.values());
+    }
+
+    @Nullable
+    @Override
+    public synchronized DBTTaskScheduleInfo getScheduledTaskInfo(@NotNull DBTTask task) {
+        loadSchedules();
+        return scheduledTasks.get(getTaskKey(task.getProject().getName(), task.getId()));
+    }
+
+    @Nullable
+    @Override
+    public synchronized DBTTaskScheduleConfiguration getScheduledTaskConfiguration(@NotNull DBTTask task) {
+        loadSchedules();
+        ScheduledTask scheduledTask = scheduledTasks.get(getTaskKey(task.getProject().getName(), task.getId()));
+        return scheduledTask == null ? null : scheduledTask.configuration;
+    }
+
+    @Override
+    public boolean canSchedule(@NotNull DBTTask task) {
+        return !task.isTemporary();
+    }
+
+    @Override
+    public void setTaskSchedule(@NotNull DBTTask task, @NotNull DBTTaskScheduleConfiguration scheduleConfiguration) throws DBException {
+        ScheduledTask scheduledTask = new ScheduledTask(task.getProject().getName(), task.getId(), scheduleConfiguration);
+        // Validate schedule
+        scheduledTask.initTrigger();
+        synchronized (this) {
+            loadSchedules();
+            scheduledTasks.put(scheduledTask.getTaskKey(), scheduledTask);
+            scheduledTask.nextRunTime = scheduledTask.getNextRunTime(new Date());
+            saveSchedules();
+        }
+        log.debug("Task '" + task.getName() + "' scheduled: " + scheduledTask.getNextRunInfo());
+        startSchedulerJob();
+        TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(task, DBTTaskEvent.Action.TASK_UPDATE));
+    }
+
+    @Override
+    public void removeTaskSchedule(@NotNull DBTTask task, DBTTaskScheduleInfo scheduleInfo) throws DBException {
+        synchronized (this) {
+            loadSchedules();
+            if (scheduledTasks.remove(getTaskKey(task.getProject().getName(), task.getId())) == null) {
+                return;
+            }
+            saveSchedules();
+        }
+        TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(task, DBTTaskEvent.Action.TASK_UPDATE));
+    }
+
+    @Override
+    public synchronized void refreshScheduledTasks(@NotNull DBRProgressMonitor monitor) throws DBException {
+        loaded = false;
+        loadSchedules();
+    }
+
+    @Nullable
+    @Override
+    public DBTSchedulerExternalSettings openSchedulerSettings() {
+        return null;
+    }
+
+    /**
+     * Starts scheduler. Runs missed tasks (according to their missed run policy).
+     */
+    public void start() {
+        List<ScheduledTask> missedTasks = new ArrayList<>();
+        synchronized (this) {
+            loadSchedules();
+            Date now = new Date();
+            for (ScheduledTask scheduledTask : scheduledTasks.values()) {
+                if (scheduledTask.lastRunTime == null && scheduledTask.configuration.frequency != DBTTaskScheduleConfiguration.Frequency.ONE_TIME) {
+                    continue;
+                }
+                Date missedTime = scheduledTask.getNextRunTime(scheduledTask.lastRunTime);
+                if (missedTime != null && missedTime.before(now)) {
+                    if (scheduledTask.configuration.missedRunPolicy == DBTTaskScheduleConfiguration.MissedRunPolicy.SKIP) {
+                        log.debug("Skip missed run of task " + scheduledTask.getTaskKey() + " scheduled at " + missedTime);
+                        scheduledTask.lastRunTime = now;
+                        scheduledTask.missedRuns++;
+                    } else {
+                        scheduledTask.nextRunTime = missedTime;
+                        missedTasks.add(scheduledTask);
+                        continue;
+                    }
+                }
+                scheduledTask.nextRunTime = scheduledTask.getNextRunTime(now);
+            }
+            saveSchedules();
+        }
+        for (ScheduledTask scheduledTask : missedTasks) {
+            runScheduledTask(scheduledTask);
+        }
+        startSchedulerJob();
+    }
+
+    public void stop() {
+        SchedulerJob job;
+        synchronized (this) {
+            job = schedulerJob;
+            schedulerJob = null;
+        }
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    private void startSchedulerJob() {
+        SchedulerJob job;
+        synchronized (this) {
+            if (scheduledTasks.isEmpty()) {
+                return;
+            }
+            if (schedulerJob == null) {
+                schedulerJob = new SchedulerJob();
+            }
+            job = schedulerJob;
+        }
+        // Wake it up to recalculate the sleep time
+        job.schedule();
+    }
+
+    /**
+     * Runs due tasks.
+     *
+     * @return time to sleep before the next check
+     */
+    private long runDueTasks() {
+        List<ScheduledTask> dueTasks = new ArrayList<>();
+        long sleepTime = MAX_SLEEP_TIME;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (ScheduledTask scheduledTask : scheduledTasks.values()) {
+                if (scheduledTask.nextRunTime == null) {
+                    continue;
+                }
+                long delay = scheduledTask.nextRunTime.getTime() - now;
+                if (delay <= 0) {
+                    dueTasks.add(scheduledTask);
+                } else {
+                    sleepTime = Math.min(sleepTime, delay);
+                }
+            }
+        }
+        for (ScheduledTask scheduledTask : dueTasks) {
+            runScheduledTask(scheduledTask);
+        }
+        return sleepTime;
+    }
+
+    private void runScheduledTask(@NotNull ScheduledTask scheduledTask) {
+        Date scheduledTime;
+        synchronized (this) {
+            scheduledTime = scheduledTask.nextRunTime;
+            Date now = new Date();
+            scheduledTask.lastRunTime = now;
+            scheduledTask.nextRunTime = scheduledTask.getNextRunTime(now);
+            saveSchedules();
+        }
+        DBPProject project = DBWorkbench.getPlatform().getWorkspace().getProject(scheduledTask.projectName);
+        DBTTask task = project == null ? null : project.getTaskManager().getTaskById(scheduledTask.taskId);
+        if (task == null) {
+            log.warn("Scheduled task " + scheduledTask.getTaskKey() + " not found");
+            return;
+        }
+        Job activeJob = scheduledTask.activeJob;
+        if (activeJob != null && activeJob.getState() != Job.NONE) {
+            log.debug("Task '" + task.getName() + "' is still running. Skip scheduled run.");
+            scheduledTask.missedRuns++;
+            return;
+        }
+        log.debug("Run scheduled task '" + task.getName() + "'");
+        Map<String, Object> options = new HashMap<>();
+        options.put(TaskConstants.OPTION_SCHEDULED_TIME, scheduledTime);
+        try {
+            scheduledTask.activeJob = project.getTaskManager().runTask(task, new ScheduledTaskListener(), options);
+        } catch (DBException e) {
+            log.error("Error running scheduled task '" + task.getName() + "'", e);
+        }
+    }
+
+    ////////////////////////////////////////////////////
+    // Persistence
+
+    private void loadSchedules() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Map<String, ScheduledTask> oldTasks = new HashMap<>(scheduledTasks);
+        scheduledTasks.clear();
+        Path scheduleFile = getScheduleFile();
+        if (!Files.exists(scheduleFile)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(scheduleFile)) {
+            List<ScheduledTask> tasks = gson.fromJson(reader, new TypeToken<List<ScheduledTask>>() {}.getType());
+            if (tasks == null) {
+                return;
+            }
+            for (ScheduledTask scheduledTask : tasks) {
+                try {
+                    scheduledTask.initTrigger();
+                } catch (DBException e) {
+                    log.error("Bad schedule of task " + scheduledTask.getTaskKey(), e);
+                    continue;
+                }
+                ScheduledTask oldTask = oldTasks.get(scheduledTask.getTaskKey());
+                if (oldTask != null) {
+                    scheduledTask.activeJob = oldTask.activeJob;
+                    scheduledTask.missedRuns = oldTask.missedRuns;
+                }
+                scheduledTask.nextRunTime = scheduledTask.getNextRunTime(new Date());
+                scheduledTasks.put(scheduledTask.getTaskKey(), scheduledTask);
+            }
+        } catch (Exception e) {
+            log.error("Error reading task schedules", e);
+        }
+    }
+
+    private void saveSchedules() {
+        Path scheduleFile = getScheduleFile();
+        try (Writer writer = Files.newBufferedWriter(scheduleFile)) {
+            gson.toJson(new ArrayList<>(scheduledTasks.values()), writer);
+        } catch (IOException e) {
+            log.error("Error saving task schedules", e);
+        }
+    }
+
+    @NotNull
+    private static Path getScheduleFile() {
+        return GeneralUtils.getMetadataFolder().resolve(SCHEDULE_FILE_NAME);
+    }
+
+    @NotNull
+    private static String getTaskKey(@NotNull String projectName, @NotNull String taskId) {
+        return projectName + "/" + taskId;
+    }
+
+    /**
+     * Converts schedule configuration into cron expression.
+     * Returns null for one-time schedules.
+     */
+    @Nullable
+    static String buildCronExpression(@NotNull DBTTaskScheduleConfiguration configuration, @NotNull ZoneId zoneId) throws DBException {
+        if (!CommonUtils.isEmpty(configuration.cronExpression)) {
+            return configuration.cronExpression;
+        }
+        if (configuration.frequency == null) {
+            throw new DBException("Schedule frequency not specified");
+        }
+        ZonedDateTime start = configuration.startTime == null ?
+            ZonedDateTime.now(zoneId) : configuration.startTime.toInstant().atZone(zoneId);
+        String time = start.getMinute() + " " + start.getHour();
+        String recurrence = configuration.recurrence > 1 ? "*/" + configuration.recurrence : "*";
+        switch (configuration.frequency) {
+            case MINUTELY:
+                return recurrence + " * * * *";
+            case HOURLY:
+                return configuration.executionMinute + " " + recurrence + " * * *";
+            case DAILY:
+                return time + " " + recurrence + " * *";
+            case WEEKLY:
+                // ISO days of week (1 - Monday, 7 - Sunday)
+                return time + " * * " + (CommonUtils.isEmpty(configuration.days) ?
+                    String.valueOf(start.getDayOfWeek().getValue()) : joinValues(configuration.days));
+            case MONTHLY: {
+                String days;
+                if (CommonUtils.isEmpty(configuration.days)) {
+                    days = String.valueOf(start.getDayOfMonth());
+                } else if (configuration.days.contains((short) DBTTaskScheduleConfiguration.ALL_DAYS)) {
+                    days = "*";
+                } else {
+                    days = configuration.days.stream()
+                        .map(day -> day == DBTTaskScheduleConfiguration.DAYS_LAST ? "L" : String.valueOf(day))
+                        .collect(Collectors.joining(","));
+                }
+                String months = CommonUtils.isEmpty(configuration.months) ? "*" : joinValues(configuration.months);
+                return time + " " + days + " " + months + " *";
+            }
+            case ONE_TIME:
+                return null;
+            default:
+                throw new DBException("Schedule frequency " + configuration.frequency + " is not supported");
+        }
+    }
+
+    @NotNull
+    private static String joinValues(@NotNull List<Short> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static class ScheduledTask implements DBTTaskScheduleInfo {
+        private String projectName;
+        private String taskId;
+        private DBTTaskScheduleConfiguration configuration;
+        private Date lastRunTime;
+
+        private transient TaskCronExpression cronExpression;
+        private transient Date nextRunTime;
+        private transient volatile Job activeJob;
+        private transient int missedRuns;
+
+        ScheduledTask(@NotNull String projectName, @NotNull String taskId, @NotNull DBTTaskScheduleConfiguration configuration) {
+            this.projectName = projectName;
+            this.taskId = taskId;
+            this.configuration = configuration;
+        }
+
+        void initTrigger() throws DBException {
+            if (configuration == null) {
+                throw new DBException("Empty schedule configuration");
+            }
+            String cron = buildCronExpression(configuration, ZoneId.of(TimezoneRegistry.getUserDefaultTimezone()));
+            if (cron == null && configuration.startTime == null) {
+                throw new DBException("Start time of one-time schedule not specified");
+            }
+            cronExpression = cron == null ? null : new TaskCronExpression(cron);
+        }
+
+        @Nullable
+        Date getNextRunTime(@Nullable Date after) {
+            Date startTime = configuration.startTime;
+            Date result;
+            if (cronExpression == null) {
+                // One time schedule
+                result = lastRunTime == null ? startTime : null;
+            } else {
+                ZoneId zoneId = ZoneId.of(TimezoneRegistry.getUserDefaultTimezone());
+                ZonedDateTime from = (after == null ? new Date() : after).toInstant().atZone(zoneId);
+                if (startTime != null && startTime.after(Date.from(from.toInstant()))) {
+                    // Do not run before the start time
+                    from = startTime.toInstant().atZone(zoneId).minusMinutes(1);
+                }
+                ZonedDateTime nextTime = cronExpression.getNextTime(from);
+                result = nextTime == null ? null : Date.from(nextTime.toInstant());
+            }
+            if (result != null && configuration.endTime != null && result.after(configuration.endTime)) {
+                return null;
+            }
+            return result;
+        }
+
+        @NotNull
+        String getTaskKey() {
+            return InternalTaskScheduler.getTaskKey(projectName, taskId);
+        }
+
+        @Override
+        public String getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public String getNextRunInfo() {
+            if (nextRunTime == null) {
+                return "N/A";
+            }
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+            dateFormat.setTimeZone(TimeZone.getTimeZone(TimezoneRegistry.getUserDefaultTimezone()));
+            return dateFormat.format(nextRunTime);
+        }
+
+        @Override
+        public String getStatus() {
+            String status;
+            Job job = activeJob;
+            if (job != null && job.getState() == Job.SLEEPING) {
+                status = "Queued";
+            } else if (job != null && job.getState() != Job.NONE) {
+                status = "Running";
+            } else if (nextRunTime == null) {
+                status = "Finished";
+            } else {
+                status = "Scheduled";
+            }
+            if (cronExpression != null) {
+                status += " (" + cronExpression + ")";
+            }
+            if (missedRuns > 0) {
+                status += ", " + missedRuns + " run(s) skipped";
+            }
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return getTaskKey() + ": " + getStatus();
+        }
+    }
+
+    private class SchedulerJob extends AbstractJob {
+        SchedulerJob() {
+            super("Task scheduler");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (DBWorkbench.getPlatform().isShuttingDown() || monitor.isCanceled()) {
+                return Status.OK_STATUS;
+            }
+            long sleepTime = MAX_SLEEP_TIME;
+            try {
+                sleepTime = runDueTasks();
+            } catch (Throwable e) {
+                log.error("Error running scheduled tasks", e);
+            }
+            synchronized (InternalTaskScheduler.this) {
+                if (schedulerJob == this && !scheduledTasks.isEmpty()) {
+                    schedule(Math.max(sleepTime, 1000));
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class ScheduledTaskListener implements DBTTaskExecutionListener {
+        @Override
+        public void taskStarted(@Nullable DBTTask task) {
+        }
+
+        @Override
+        public void taskFinished(@Nullable DBTTask task, @Nullable Object result, @Nullable Throwable error, @Nullable Object settings) {
+            if (error != null && task != null) {
+                log.error("Scheduled task '" + task.getName() + "' failed", error);
+            }
+        }
+
+        @Override
+        public void subTaskFinished(@Nullable DBTTask task, @Nullable Throwable error, @Nullable Object settings) {
+        }
+    }
+}
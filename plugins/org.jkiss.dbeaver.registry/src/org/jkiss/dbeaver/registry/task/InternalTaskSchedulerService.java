@@ -0,0 +1,51 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.dbeaver.model.app.DBPPlatformDesktop;
+import org.jkiss.dbeaver.model.task.DBTScheduler;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.IPluginService;
+
+/**
+ * Starts internal task scheduler if it is the active scheduler
+ */
+public class InternalTaskSchedulerService implements IPluginService {
+
+    private InternalTaskScheduler scheduler;
+
+    @Override
+    public void activateService() {
+        if (!(DBWorkbench.getPlatform() instanceof DBPPlatformDesktop) || DBWorkbench.getPlatform().getApplication().isMultiuser()) {
+            // Scheduled tasks are supported only in desktop applications (including headless)
+            return;
+        }
+        DBTScheduler activeScheduler = TaskRegistry.getInstance().getActiveSchedulerInstance();
+        if (activeScheduler instanceof InternalTaskScheduler) {
+            scheduler = (InternalTaskScheduler) activeScheduler;
+            scheduler.start();
+        }
+    }
+
+    @Override
+    public void deactivateService() {
+        if (scheduler != null) {
+            scheduler.stop();
+            scheduler = null;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.model.impl.AbstractContextDescriptor;
 import org.jkiss.dbeaver.model.task.DBTScheduler;
 import org.jkiss.dbeaver.model.task.DBTSchedulerDescriptor;
 import org.jkiss.dbeaver.registry.RegistryConstants;
+import org.jkiss.utils.CommonUtils;
 
 /**
  * TaskTypeDescriptor
@@ -31,6 +32,7 @@ public class SchedulerDescriptor extends AbstractContextDescriptor implements DB
     private final String name;
     private final String description;
     private final ObjectType implType;
+    private final boolean fallback;
     private DBTScheduler instance;
 
     SchedulerDescriptor(IConfigurationElement config) {
@@ -39,6 +41,7 @@ public class SchedulerDescriptor extends AbstractContextDescriptor implements DB
         this.name = config.getAttribute(RegistryConstants.ATTR_NAME);
         this.description = config.getAttribute(RegistryConstants.ATTR_NAME);
         this.implType = new ObjectType(config, "class");
+        this.fallback = CommonUtils.toBoolean(config.getAttribute("fallback"));
     }
 
     @Override
@@ -51,6 +54,13 @@ public class SchedulerDescriptor extends AbstractContextDescriptor implements DB
         return description;
     }
 
+    /**
+     * Fallback scheduler is active only if there are no other schedulers
+     */
+    public boolean isFallback() {
+        return fallback;
+    }
+
     @Override
     public synchronized DBTScheduler getInstance() throws DBException {
         if (instance == null) {
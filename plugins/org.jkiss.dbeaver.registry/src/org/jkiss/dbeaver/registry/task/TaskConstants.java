@@ -25,6 +25,9 @@ public class TaskConstants {
     
     public static final String TOOL_TASK_PROP = "isToolTask";
 
+    // Task run option: planned run time (Date) of a scheduled task
+    public static final String OPTION_SCHEDULED_TIME = "scheduledTime";
+
     static final String TAG_TASK = "task";
     static final String TAG_LABEL = "label";
     static final String TAG_DESCRIPTION = "description";
@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Cron expression: minute, hour, day of month, month and day of week.
+ *
+ * Supports lists (1,2), ranges (1-5), steps (0/15, 10-50/10), month and day names (JAN, MON)
+ * and L (last day of month). Sunday is 0 or 7.
+ * If both day of month and day of week are restricted then a day matches any of them (as in Unix cron).
+ */
+public class TaskCronExpression {
+
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    // Do not search for the next time further than this
+    private static final int MAX_SEARCH_YEARS = 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean lastDayOfMonth;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    public TaskCronExpression(@NotNull String expression) throws DBException {
+        this.expression = expression.trim();
+        String[] fields = this.expression.split("\\s+");
+        if (fields.length != 5) {
+            throw new DBException("Cron expression '" + expression + "' must have 5 fields: minute, hour, day of month, month and day of week");
+        }
+        String dayOfMonthField = fields[2].toUpperCase(Locale.ENGLISH);
+        this.minutes = parseField(fields[0], 0, 59, null);
+        this.hours = parseField(fields[1], 0, 23, null);
+        // L may be combined with other days (1,15,L)
+        List<String> dayParts = new ArrayList<>(Arrays.asList(dayOfMonthField.split(",")));
+        this.lastDayOfMonth = dayParts.remove("L");
+        this.daysOfMonth = dayParts.isEmpty() ? new BitSet() : parseField(String.join(",", dayParts), 1, 31, null);
+        this.months = parseField(fields[3], 1, 12, MONTH_NAMES);
+        this.daysOfWeek = parseField(fields[4], 0, 7, DAY_NAMES);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.anyDayOfMonth = isWildcard(dayOfMonthField);
+        this.anyDayOfWeek = isWildcard(fields[4]);
+    }
+
+    @NotNull
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the first matching time strictly after the specified time or null if there is no such time
+     */
+    @Nullable
+    public ZonedDateTime getNextTime(@NotNull ZonedDateTime after) {
+        ZonedDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        ZonedDateTime limit = after.plusYears(MAX_SEARCH_YEARS);
+        while (time.isBefore(limit)) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            } else if (!matchesDay(time)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+            } else {
+                return time;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesDay(@NotNull ZonedDateTime time) {
+        boolean dayOfMonthMatches = daysOfMonth.get(time.getDayOfMonth()) ||
+            (lastDayOfMonth && time.getDayOfMonth() == time.toLocalDate().lengthOfMonth());
+        boolean dayOfWeekMatches = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        if (anyDayOfMonth) {
+            return dayOfWeekMatches;
+        } else if (anyDayOfWeek) {
+            return dayOfMonthMatches;
+        } else {
+            return dayOfMonthMatches || dayOfWeekMatches;
+        }
+    }
+
+    private static boolean isWildcard(@NotNull String field) {
+        return field.equals("*") || field.equals("?");
+    }
+
+    @NotNull
+    private static BitSet parseField(@NotNull String field, int min, int max, @Nullable String[] names) throws DBException {
+        BitSet result = new BitSet(max + 1);
+        for (String part : field.toUpperCase(Locale.ENGLISH).split(",")) {
+            int step = 1;
+            int stepPos = part.indexOf('/');
+            if (stepPos >= 0) {
+                step = parseNumber(part.substring(stepPos + 1), 1, max, null, field);
+                part = part.substring(0, stepPos);
+            }
+            int from, to;
+            if (isWildcard(part)) {
+                from = min;
+                to = max;
+            } else {
+                int rangePos = part.indexOf('-');
+                if (rangePos > 0) {
+                    from = parseNumber(part.substring(0, rangePos), min, max, names, field);
+                    to = parseNumber(part.substring(rangePos + 1), min, max, names, field);
+                } else {
+                    from = parseNumber(part, min, max, names, field);
+                    // "5/10" means "from 5 to the end with step 10"
+                    to = stepPos >= 0 ? max : from;
+                }
+                if (from > to) {
+                    throw new DBException("Bad range '" + part + "' in cron field '" + field + "'");
+                }
+            }
+            for (int i = from; i <= to; i += step) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private static int parseNumber(@NotNull String value, int min, int max, @Nullable String[] names, @NotNull String field) throws DBException {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(value)) {
+                    // Month names start from 1, day names from 0
+                    return i + min;
+                }
+            }
+        }
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new DBException("Bad value '" + value + "' in cron field '" + field + "'");
+        }
+        if (number < min || number > max) {
+            throw new DBException("Value " + number + " is out of range " + min + "-" + max + " in cron field '" + field + "'");
+        }
+        return number;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Task execution queue.
+ *
+ * Limits the number of tasks running at the same time, in total and for each data source.
+ * Tasks which exceed the limits wait in the queue and start in submission order when running tasks finish.
+ * Tasks which use a busy data source do not block tasks which use other data sources.
+ */
+public class TaskExecutionQueue {
+
+    private static final Log log = Log.getLog(TaskExecutionQueue.class);
+
+    // Queued jobs start after this delay even if there are no free slots
+    private static final long MAX_QUEUE_TIME = 24 * 60 * 60 * 1000L;
+
+    private static TaskExecutionQueue instance;
+
+    public static synchronized TaskExecutionQueue getInstance() {
+        if (instance == null) {
+            instance = new TaskExecutionQueue();
+        }
+        return instance;
+    }
+
+    private final List<QueuedTask> queuedTasks = new ArrayList<>();
+    private final Map<String, Integer> dataSourceRuns = new HashMap<>();
+    private int runningCount;
+
+    private TaskExecutionQueue() {
+    }
+
+    /**
+     * Schedules task job. Job stays in the sleeping state until there are free execution slots,
+     * so it may be joined or cancelled as usual.
+     *
+     * @param dataSources IDs of data sources used by the task
+     */
+    public synchronized void submit(@NotNull TaskRunJob job, @NotNull Collection<String> dataSources) {
+        QueuedTask queuedTask = new QueuedTask(job, dataSources);
+        queuedTasks.add(queuedTask);
+        job.addJobChangeListener(new JobChangeAdapter() {
+            @Override
+            public void aboutToRun(IJobChangeEvent event) {
+                acquire(queuedTask);
+            }
+
+            @Override
+            public void done(IJobChangeEvent event) {
+                release(queuedTask);
+            }
+        });
+        job.schedule(MAX_QUEUE_TIME);
+        dispatch();
+        if (!queuedTask.started) {
+            log.debug("Task '" + job.getTask().getName() + "' is queued (" + runningCount + " tasks are running)");
+        }
+    }
+
+    public synchronized int getRunningCount() {
+        return runningCount;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queuedTasks.size();
+    }
+
+    public synchronized boolean isQueued(@NotNull Predicate<TaskRunJob> filter) {
+        for (QueuedTask queuedTask : queuedTasks) {
+            if (filter.test(queuedTask.job)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancels queued task jobs
+     */
+    public void cancelQueued(@NotNull Predicate<TaskRunJob> filter) {
+        List<TaskRunJob> jobs = new ArrayList<>();
+        synchronized (this) {
+            for (QueuedTask queuedTask : queuedTasks) {
+                if (filter.test(queuedTask.job)) {
+                    jobs.add(queuedTask.job);
+                }
+            }
+        }
+        for (TaskRunJob job : jobs) {
+            job.cancel();
+        }
+    }
+
+    private synchronized void acquire(@NotNull QueuedTask queuedTask) {
+        if (!queuedTask.started) {
+            // Queue timeout, run it anyway
+            log.debug("Task '" + queuedTask.job.getTask().getName() + "' waited for too long and is started out of the queue");
+            queuedTasks.remove(queuedTask);
+            start(queuedTask);
+        }
+    }
+
+    private synchronized void release(@NotNull QueuedTask queuedTask) {
+        if (!queuedTask.started) {
+            // Cancelled while queued
+            queuedTasks.remove(queuedTask);
+            return;
+        }
+        runningCount--;
+        for (String dataSource : queuedTask.dataSources) {
+            dataSourceRuns.computeIfPresent(dataSource, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        int maxRuns = preferences.getInt(ModelPreferences.TASKS_MAX_PARALLEL_RUNS);
+        int maxDataSourceRuns = preferences.getInt(ModelPreferences.TASKS_MAX_PARALLEL_RUNS_PER_DATASOURCE);
+
+        for (Iterator<QueuedTask> iter = queuedTasks.iterator(); iter.hasNext(); ) {
+            if (maxRuns > 0 && runningCount >= maxRuns) {
+                break;
+            }
+            QueuedTask queuedTask = iter.next();
+            if (maxDataSourceRuns > 0 && isDataSourceBusy(queuedTask, maxDataSourceRuns)) {
+                continue;
+            }
+            iter.remove();
+            start(queuedTask);
+            queuedTask.job.wakeUp();
+        }
+    }
+
+    private void start(@NotNull QueuedTask queuedTask) {
+        runningCount++;
+        for (String dataSource : queuedTask.dataSources) {
+            dataSourceRuns.merge(dataSource, 1, Integer::sum);
+        }
+        queuedTask.started = true;
+        queuedTask.job.setQueueTime(System.currentTimeMillis() - queuedTask.submitTime);
+    }
+
+    private boolean isDataSourceBusy(@NotNull QueuedTask queuedTask, int maxDataSourceRuns) {
+        for (String dataSource : queuedTask.dataSources) {
+            if (dataSourceRuns.getOrDefault(dataSource, 0) >= maxDataSourceRuns) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class QueuedTask {
+        private final TaskRunJob job;
+        private final Collection<String> dataSources;
+        private final long submitTime = System.currentTimeMillis();
+        private boolean started;
+
+        QueuedTask(@NotNull TaskRunJob job, @NotNull Collection<String> dataSources) {
+            this.job = job;
+            this.dataSources = dataSources;
+        }
+    }
+
+}
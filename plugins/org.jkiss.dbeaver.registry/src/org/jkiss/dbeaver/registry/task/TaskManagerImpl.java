@@ -279,17 +279,22 @@ public class TaskManagerImpl implements DBTTaskManager {
 
     @Override
     public boolean hasRunningTasks() {
-        return !runningTasks.isEmpty();
+        return !runningTasks.isEmpty() || TaskExecutionQueue.getInstance().isQueued(this::isOwnJob);
     }
 
     @Override
     public void cancelRunningTasks() {
+        TaskExecutionQueue.getInstance().cancelQueued(this::isOwnJob);
         final Job[] tasks = runningTasks.toArray(Job[]::new);
         for (Job task : tasks) {
             task.cancel();
         }
     }
 
+    private boolean isOwnJob(@NotNull TaskRunJob job) {
+        return job.getTask().getProject() == projectMetadata;
+    }
+
     @NotNull
     @Override
     public Path getStatisticsFolder() {
@@ -305,6 +310,10 @@ public class TaskManagerImpl implements DBTTaskManager {
     @Override
     public Job runTask(@NotNull DBTTask task, @NotNull DBTTaskExecutionListener listener, @NotNull Map<String, Object> options) {
         TaskRunJob runJob = new TaskRunJob((TaskImpl) task, Locale.getDefault(), listener);
+        Object scheduledTime = options.get(TaskConstants.OPTION_SCHEDULED_TIME);
+        if (scheduledTime instanceof Date) {
+            runJob.setScheduledTime((Date) scheduledTime);
+        }
         runJob.addJobChangeListener(new JobChangeAdapter() {
             @Override
             public void aboutToRun(IJobChangeEvent event) {
@@ -316,7 +325,8 @@ public class TaskManagerImpl implements DBTTaskManager {
                 runningTasks.remove((TaskRunJob) event.getJob());
             }
         });
-        runJob.schedule();
+        // Job starts when there are free execution slots for its data sources
+        TaskExecutionQueue.getInstance().submit(runJob, TaskUtils.collectTaskDataSources(task));
         return runJob;
     }
 
@@ -155,6 +155,11 @@ public class TaskRegistry implements DBTTaskRegistry
     @Override
     public DBTSchedulerDescriptor getActiveScheduler() {
         // TODO: support active scheduler configuration
+        for (SchedulerDescriptor scheduler : schedulers) {
+            if (!scheduler.isFallback()) {
+                return scheduler;
+            }
+        }
         return schedulers.isEmpty() ? null : schedulers.get(0);
     }
 
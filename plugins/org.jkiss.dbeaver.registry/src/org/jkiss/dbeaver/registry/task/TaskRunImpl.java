@@ -35,6 +35,10 @@ public class TaskRunImpl implements DBTTaskRun {
     private String errorMessage;
     private String errorStackTrace;
     private String extraMessage;
+    // Scheduled run time. Null if task was started manually
+    private Date scheduledTime;
+    // Time spent in the execution queue waiting for a free slot (ms)
+    private long queueTime;
 
     protected TaskRunImpl(
         @NotNull String id,
@@ -124,6 +128,23 @@ public class TaskRunImpl implements DBTTaskRun {
         extraMessage = message;
     }
 
+    @Nullable
+    public Date getScheduledTime() {
+        return scheduledTime;
+    }
+
+    public void setScheduledTime(@Nullable Date scheduledTime) {
+        this.scheduledTime = scheduledTime;
+    }
+
+    public long getQueueTime() {
+        return queueTime;
+    }
+
+    public void setQueueTime(long queueTime) {
+        this.queueTime = queueTime;
+    }
+
     @Override
     public String toString() {
         return id + "; " + startUser + "; " + startedBy + "; " + (isRunSuccess() ? "Success" : CommonUtils.notEmpty(errorMessage));
@@ -61,6 +61,8 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
     private long startTime;
     private long elapsedTime;
     private Throwable taskError;
+    private Date scheduledTime;
+    private long queueTime;
 
     public TaskRunJob(TaskImpl task, Locale locale, DBTTaskExecutionListener executionListener) {
         super("Task [" + task.getType().getName() + "] runner - " + task.getName());
@@ -84,6 +86,8 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
             System.getProperty(StandardConstants.ENV_USER_NAME),
             GeneralUtils.getProductTitle(),
             null, null);
+        taskRun.setScheduledTime(scheduledTime);
+        taskRun.setQueueTime(queueTime);
         task.getTaskStatsFolder(true);
         Path logFile = Objects.requireNonNull(task.getRunLog(taskRun)); // must exist on local machine
         task.addNewRun(taskRun);
@@ -124,6 +128,18 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
         return Status.OK_STATUS;
     }
 
+    public TaskImpl getTask() {
+        return task;
+    }
+
+    void setScheduledTime(@Nullable Date scheduledTime) {
+        this.scheduledTime = scheduledTime;
+    }
+
+    void setQueueTime(long queueTime) {
+        this.queueTime = queueTime;
+    }
+
     private DBTTaskRunStatus executeTask(DBRProgressMonitor monitor, PrintStream logWriter) throws DBException, InterruptedException {
         activeMonitor = monitor;
         DBTaskUtils.confirmTaskOrThrow(task, taskLog, logWriter);
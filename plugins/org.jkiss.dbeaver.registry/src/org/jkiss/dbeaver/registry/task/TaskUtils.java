@@ -17,13 +17,16 @@
 package org.jkiss.dbeaver.registry.task;
 
 import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.utils.CommonUtils;
 
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class TaskUtils {
     private static final Log log = Log.getLog(TaskUtils.class);
@@ -52,4 +55,43 @@ public class TaskUtils {
     public static String buildRunLogFileName(String runId) {
         return RUN_LOG_PREFIX + runId + "." + RUN_LOG_EXT;
     }
+
+    /**
+     * Returns IDs of data sources used by the task.
+     * Task types save data sources in different ways so we search the task state for
+     * data source IDs and object IDs (which start with data source ID).
+     */
+    @NotNull
+    public static Set<String> collectTaskDataSources(@NotNull DBTTask task) {
+        Set<String> result = new LinkedHashSet<>();
+        DBPDataSourceRegistry registry = task.getProject().getDataSourceRegistry();
+        collectDataSources(task.getProperties(), registry, result);
+        return result;
+    }
+
+    private static void collectDataSources(Object value, DBPDataSourceRegistry registry, Set<String> result) {
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object key = entry.getKey();
+                if (entry.getValue() instanceof String) {
+                    String id = (String) entry.getValue();
+                    if ("entityId".equals(key)) {
+                        int divPos = id.indexOf('/');
+                        id = divPos > 0 ? id.substring(0, divPos) : id;
+                    } else if (!"dataSource".equals(key) && !"dataSourceId".equals(key)) {
+                        continue;
+                    }
+                    if (!CommonUtils.isEmpty(id) && registry.getDataSource(id) != null) {
+                        result.add(id);
+                    }
+                } else {
+                    collectDataSources(entry.getValue(), registry, result);
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                collectDataSources(item, registry, result);
+            }
+        }
+    }
 }
@@ -244,7 +244,7 @@ public class DashboardListViewer extends StructuredViewer implements DBPDataSour
                 DBSInstance instance = DBUtils.getObjectOwnerInstance(dataSource);
                 if (instance != null) {
                     try {
-                        isolatedContext = instance.openIsolatedContext(monitor, "Dashboard connection", null);
+                        isolatedContext = instance.openPooledContext(monitor, "Dashboard connection", null);
                     } catch (DBException e) {
                         return GeneralUtils.makeExceptionStatus(e);
                     }
@@ -38,6 +38,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
     private final DBPImage icon;
     private final String type;
     private final boolean isDefault;
+    private final boolean approximate;
 
     public AggregateFunctionDescriptor(IConfigurationElement config)
     {
@@ -49,6 +50,7 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         this.icon = iconToImage(config.getAttribute("icon"));
         this.type = config.getAttribute("type");
         this.isDefault = CommonUtils.toBoolean(config.getAttribute("default"));
+        this.approximate = CommonUtils.toBoolean(config.getAttribute("approximate"));
     }
 
     public String getId() {
@@ -75,6 +77,13 @@ public class AggregateFunctionDescriptor extends AbstractContextDescriptor {
         return isDefault;
     }
 
+    /**
+     * Function may calculate approximate result (with sketches) on big data sets
+     */
+    public boolean isApproximateSupported() {
+        return approximate;
+    }
+
     public IAggregateFunction createFunction()
         throws DBException
     {
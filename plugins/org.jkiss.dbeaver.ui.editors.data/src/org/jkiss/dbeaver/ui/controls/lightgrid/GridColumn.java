@@ -40,6 +40,8 @@ public class GridColumn implements IGridColumn {
      * Default width of the column.
      */
     private static final int DEFAULT_WIDTH = 10;
+    // Max number of rows used to calculate column width
+    private static final int WIDTH_SAMPLE_SIZE = 100;
 
     static final int topMargin = 6;
     static final int bottomMargin = 6;
@@ -260,12 +262,15 @@ public class GridColumn implements IGridColumn {
     void pack(boolean reflect) {
         int newWidth = computeHeaderWidth();
         if (CommonUtils.isEmpty(children)) {
-            // Calculate width of visible cells
+            // Calculate width of visible cells. If only a few rows are visible (or grid is hidden)
+            // then use rows below them, if there are too many rows then sample them
             int topIndex = grid.getTopIndex();
             int bottomIndex = grid.getBottomIndex();
             if (topIndex >= 0 && bottomIndex >= topIndex) {
                 int itemCount = grid.getItemCount();
-                for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
+                int lastIndex = Math.min(Math.max(bottomIndex, topIndex + WIDTH_SAMPLE_SIZE - 1), itemCount - 1);
+                int step = Math.max(1, (lastIndex - topIndex + 1) / WIDTH_SAMPLE_SIZE);
+                for (int i = topIndex; i <= lastIndex; i += step) {
                     newWidth = Math.max(newWidth, computeCellWidth(grid.getRow(i)));
                 }
             }
@@ -56,6 +56,23 @@ class GridRow implements IGridRow {
         return 0;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GridRow)) {
+            return false;
+        }
+        GridRow row = (GridRow) obj;
+        return position == row.position && originalPosition == row.originalPosition && element == row.element;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * position + originalPosition;
+    }
+
     @Override
     public String toString() {
         return String.valueOf(position) + " - " + element;
@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.code.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grid rows model.
+ *
+ * Top-level rows are addressed by index in the content provider's element list and are created on demand.
+ * Only rows with expanded nested rows (and nested rows themselves) are kept in the model,
+ * so its size depends on the number of expanded rows rather than on the number of elements.
+ * Element list must not change until the model is rebuilt.
+ */
+class GridRowModel {
+
+    static final GridRowModel EMPTY = new GridRowModel(Collections.emptyList());
+
+    @NotNull
+    private final List<?> elements;
+    // Indexes of elements with expanded nested rows (ascending)
+    private final int[] expandedIndexes;
+    // Visual positions of expanded elements
+    private final int[] expandedPositions;
+    // Expanded element row followed by all its nested rows
+    private final IGridRow[][] expandedRows;
+    private final int rowCount;
+
+    // Rows are usually requested several times in a row (e.g. for each column), so keep the last one
+    private IGridRow lastRow;
+
+    GridRowModel(@NotNull List<?> elements) {
+        this(elements, new int[0], new int[0], new IGridRow[0][]);
+    }
+
+    GridRowModel(@NotNull List<?> elements, int[] expandedIndexes, int[] expandedPositions, IGridRow[][] expandedRows) {
+        this.elements = elements;
+        this.expandedIndexes = expandedIndexes;
+        this.expandedPositions = expandedPositions;
+        this.expandedRows = expandedRows;
+        int nestedCount = 0;
+        for (IGridRow[] rows : expandedRows) {
+            nestedCount += rows.length - 1;
+        }
+        this.rowCount = elements.size() + nestedCount;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    @NotNull
+    IGridRow getRow(int position) {
+        IGridRow row = lastRow;
+        if (row != null && row.getVisualPosition() == position) {
+            return row;
+        }
+        int block = findExpandedBlock(position);
+        int index;
+        if (block < 0) {
+            index = position;
+        } else {
+            int offset = position - expandedPositions[block];
+            IGridRow[] rows = expandedRows[block];
+            if (offset < rows.length) {
+                return rows[offset];
+            }
+            index = expandedIndexes[block] + offset - rows.length + 1;
+        }
+        row = new GridRow(elements.get(index), index, position);
+        lastRow = row;
+        return row;
+    }
+
+    Object getRowElement(int position) {
+        int block = findExpandedBlock(position);
+        if (block < 0) {
+            return elements.get(position);
+        }
+        int offset = position - expandedPositions[block];
+        IGridRow[] rows = expandedRows[block];
+        if (offset < rows.length) {
+            return rows[offset].getElement();
+        }
+        return elements.get(expandedIndexes[block] + offset - rows.length + 1);
+    }
+
+    /**
+     * Returns row position or -1 if row doesn't belong to this model
+     */
+    int indexOf(@NotNull IGridRow row) {
+        int position = row.getVisualPosition();
+        if (position < 0 || position >= rowCount || !getRow(position).equals(row)) {
+            return -1;
+        }
+        return position;
+    }
+
+    /**
+     * Returns rows which are not just plain elements (expanded and nested rows)
+     */
+    IGridRow[][] getExpandedRows() {
+        return expandedRows;
+    }
+
+    // Returns index of the last expanded block which starts at or before the position, or -1
+    private int findExpandedBlock(int position) {
+        if (expandedPositions.length == 0 || position < expandedPositions[0]) {
+            return -1;
+        }
+        int block = Arrays.binarySearch(expandedPositions, position);
+        return block >= 0 ? block : -block - 2;
+    }
+
+}
@@ -54,6 +54,23 @@ class GridRowNested implements IGridRow {
         return parent.getRowDepth() + 1;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GridRowNested)) {
+            return false;
+        }
+        GridRowNested row = (GridRowNested) obj;
+        return position == row.position && parent.equals(row.parent);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * parent.hashCode() + position;
+    }
+
     @Override
     public String toString() {
         return position + ":" + getRelativeIndex();
@@ -24,6 +24,9 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPImage;
 
+import java.util.Arrays;
+import java.util.List;
+
 public interface IGridContentProvider extends IContentProvider {
 
     enum ElementState {
@@ -57,6 +60,15 @@ public interface IGridContentProvider extends IContentProvider {
     @NotNull
     Object[] getElements(boolean horizontal);
 
+    /**
+     * Returns row elements. Grid addresses rows by index in this list and doesn't copy it,
+     * so the list must not be modified until the next grid refresh. Elements must not be null.
+     */
+    @NotNull
+    default List<?> getRowElements() {
+        return Arrays.asList(getElements(false));
+    }
+
     boolean hasChildren(@NotNull IGridItem item);
 
     @Nullable
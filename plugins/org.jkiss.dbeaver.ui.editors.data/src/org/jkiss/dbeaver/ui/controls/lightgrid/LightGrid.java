@@ -33,7 +33,6 @@ import org.jkiss.dbeaver.ui.controls.CustomToolTipHandler;
 import org.jkiss.dbeaver.ui.dnd.LocalObjectTransfer;
 import org.jkiss.dbeaver.ui.editors.data.internal.DataEditorsMessages;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
-import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IntKeyMap;
 
@@ -71,6 +70,8 @@ public abstract class LightGrid extends Canvas {
     private static final int DEFAULT_ROW_HEADER_WIDTH = 30;
     private static final int MIN_ROW_HEADER_WIDTH = 40;
     private static final int MAX_ROW_HEADER_WIDTH = 400;
+    // Number of rows sampled from the beginning, middle and end of the grid to calculate row header width
+    private static final int ROW_HEADER_SAMPLE_SIZE = 100;
 
 
     /**
@@ -218,7 +219,7 @@ public abstract class LightGrid extends Canvas {
     private final List<GridColumn> topColumns = new ArrayList<>();
     private final List<GridColumn> columns = new ArrayList<>();
     private int maxColumnDepth = 0;
-    protected IGridRow[] gridRows = new IGridRow[0];
+    private GridRowModel rowModel = GridRowModel.EMPTY;
     private final Map<RowLocation, RowExpandState> expandedRows = new HashMap<>();
 
     private int maxColumnDefWidth = 1000;
@@ -490,27 +491,6 @@ public abstract class LightGrid extends Canvas {
         this.maxColumnDefWidth = maxColumnDefWidth;
     }
 
-    private void collectRowsFromElements(
-        List<IGridRow> result,
-        Object[] elements)
-    {
-        int index = 0;
-        for (int i = 0; i < elements.length; i++) {
-            Object element = elements[i];
-            if (element == null) {
-                continue;
-            }
-            IGridRow row = new GridRow(element, i, index);
-            result.add(row);
-            index++;
-
-            int maxColLength = getNestedRowsCount(row);
-            if (maxColLength > 0) {
-                index = collectNestedRows(result, row, index, maxColLength);
-            }
-        }
-    }
-
     private int getNestedRowsCount(IGridRow row) {
         if (expandedRows.isEmpty()) {
             return 0;
@@ -706,12 +686,33 @@ public abstract class LightGrid extends Canvas {
     }
 
     public void refreshRowsData() {
-        // Prepare rows
-        Object[] initialElements = getContentProvider().getElements(false);
-
-        List<IGridRow> rows = new ArrayList<>(initialElements.length);
-        collectRowsFromElements(rows, initialElements);
-        this.gridRows = rows.toArray(new IGridRow[0]);
+        // Rows are addressed by index, only expanded rows are created here
+        List<?> elements = getContentProvider().getRowElements();
+        if (expandedRows.isEmpty()) {
+            this.rowModel = new GridRowModel(elements);
+            return;
+        }
+        int[] expandedIndexes = expandedRows.entrySet().stream()
+            .filter(e -> e.getKey().location.length == 1 && e.getValue().isAnyColumnExpanded())
+            .mapToInt(e -> e.getKey().location[0])
+            .filter(index -> index >= 0 && index < elements.size())
+            .sorted()
+            .toArray();
+        int[] expandedPositions = new int[expandedIndexes.length];
+        IGridRow[][] nestedRows = new IGridRow[expandedIndexes.length][];
+        int nestedCount = 0;
+        for (int i = 0; i < expandedIndexes.length; i++) {
+            int index = expandedIndexes[i];
+            int position = index + nestedCount;
+            IGridRow row = new GridRow(elements.get(index), index, position);
+            List<IGridRow> rows = new ArrayList<>();
+            rows.add(row);
+            collectNestedRows(rows, row, position + 1, getNestedRowsCount(row));
+            expandedPositions[i] = position;
+            nestedRows[i] = rows.toArray(new IGridRow[0]);
+            nestedCount += rows.size() - 1;
+        }
+        this.rowModel = new GridRowModel(elements, expandedIndexes, expandedPositions, nestedRows);
     }
 
     /**
@@ -748,17 +749,17 @@ public abstract class LightGrid extends Canvas {
         if (pos.col < 0 || pos.row < 0) {
             return null;
         }
-        if (pos.col >= columns.size() || pos.row >= gridRows.length) {
+        if (pos.col >= columns.size() || pos.row >= rowModel.getRowCount()) {
             return null;
         }
-        return new GridCell(columns.get(pos.col), gridRows[pos.row]);
+        return new GridCell(columns.get(pos.col), rowModel.getRow(pos.row));
     }
 
     @NotNull
     public GridPos cellToPos(GridCell cell)
     {
         int colIndex = columns.indexOf(cell.col);
-        int rowIndex = ArrayUtils.indexOf(gridRows, cell.row);
+        int rowIndex = rowModel.indexOf(cell.row);
         return new GridPos(colIndex, rowIndex);
     }
 
@@ -786,24 +787,25 @@ public abstract class LightGrid extends Canvas {
     }
 
     public IGridRow getRowByElement(int fromIndex, Object element) {
-        for (int i = fromIndex; i < gridRows.length; i++) {
-            if (gridRows[i].getElement() == element) {
-                return gridRows[i];
+        int rowCount = rowModel.getRowCount();
+        for (int i = fromIndex; i < rowCount; i++) {
+            if (rowModel.getRowElement(i) == element) {
+                return rowModel.getRow(i);
             }
         }
         return null;
     }
 
     public IGridRow getRow(int row) {
-        return gridRows[row];
+        return rowModel.getRow(row);
     }
 
     public Object getRowElement(int row) {
-        if (row < 0 || row >= gridRows.length) {
+        if (row < 0 || row >= rowModel.getRowCount()) {
             log.debug("Row index out of range (" + row + ")" );
             return null;
         }
-        return gridRows[row].getElement();
+        return rowModel.getRowElement(row);
     }
 
     @Override
@@ -1085,7 +1087,7 @@ public abstract class LightGrid extends Canvas {
      */
     public int getItemCount()
     {
-        return gridRows.length;
+        return rowModel.getRowCount();
     }
 
     /**
@@ -1528,7 +1530,7 @@ public abstract class LightGrid extends Canvas {
         topColumns.clear();
         columns.clear();
         expandedRows.clear();
-        gridRows = new IGridRow[0];
+        rowModel = GridRowModel.EMPTY;
     }
 
     /**
@@ -1995,10 +1997,24 @@ public abstract class LightGrid extends Canvas {
 
         // Row header width
         int newRowHeaderWidth = DEFAULT_ROW_HEADER_WIDTH;
-        for (int i = 0; i < gridRows.length; i++) {
-            IGridRow row = gridRows[i];
-            int width = rowHeaderRenderer.computeHeaderWidth(row, row.getRowDepth());
-            newRowHeaderWidth = Math.max(newRowHeaderWidth, width);
+        int rowCount = rowModel.getRowCount();
+        if (rowCount <= ROW_HEADER_SAMPLE_SIZE * 3) {
+            for (int i = 0; i < rowCount; i++) {
+                newRowHeaderWidth = Math.max(newRowHeaderWidth, computeRowHeaderWidth(rowModel.getRow(i)));
+            }
+        } else {
+            // Too many rows. Sample first and last rows, rows in between and all expanded rows
+            int step = (rowCount - ROW_HEADER_SAMPLE_SIZE * 2) / ROW_HEADER_SAMPLE_SIZE;
+            for (int i = 0; i < ROW_HEADER_SAMPLE_SIZE; i++) {
+                newRowHeaderWidth = Math.max(newRowHeaderWidth, computeRowHeaderWidth(rowModel.getRow(i)));
+                newRowHeaderWidth = Math.max(newRowHeaderWidth, computeRowHeaderWidth(rowModel.getRow(rowCount - i - 1)));
+                newRowHeaderWidth = Math.max(newRowHeaderWidth, computeRowHeaderWidth(rowModel.getRow(ROW_HEADER_SAMPLE_SIZE + i * step)));
+            }
+            for (IGridRow[] rows : rowModel.getExpandedRows()) {
+                for (IGridRow row : rows) {
+                    newRowHeaderWidth = Math.max(newRowHeaderWidth, computeRowHeaderWidth(row));
+                }
+            }
         }
         if (newRowHeaderWidth < MIN_ROW_HEADER_WIDTH) {
             newRowHeaderWidth = MIN_ROW_HEADER_WIDTH;
@@ -2011,6 +2027,10 @@ public abstract class LightGrid extends Canvas {
         }
     }
 
+    private int computeRowHeaderWidth(@NotNull IGridRow row) {
+        return rowHeaderRenderer.computeHeaderWidth(row, row.getRowDepth());
+    }
+
     /**
      * Returns the x position of the given column. Takes into account scroll
      * position.
@@ -2396,7 +2416,7 @@ public abstract class LightGrid extends Canvas {
                             selectedCells.contains(testPos),
                             focusItem == row && focusColumn == column,
                             column,
-                            gridRows[row]);
+                            rowModel.getRow(row));
 
                         //gc.setClipping((Rectangle) null);
                     }
@@ -2420,7 +2440,7 @@ public abstract class LightGrid extends Canvas {
 
                         gc.setClipping(cellBounds);
                         try {
-                            IGridRow gridRow = gridRows[row];
+                            IGridRow gridRow = rowModel.getRow(row);
                             rowHeaderRenderer.paint(
                                 gc,
                                 cellBounds,
@@ -2459,7 +2479,7 @@ public abstract class LightGrid extends Canvas {
                                 selectedCells.contains(testPos),
                                 focusItem == row && focusColumn == pc,
                                 pc,
-                                gridRows[row]);
+                                rowModel.getRow(row));
                         } finally {
                             gc.setClipping((Rectangle)null);
                         }
@@ -2565,9 +2585,9 @@ public abstract class LightGrid extends Canvas {
             gc.drawLine(rowHeaderWidth + pinnedColumnsWidth, 0, rowHeaderWidth + pinnedColumnsWidth, y);
         }
 
-        if (!columns.isEmpty() && gridRows.length > 0) {
-            int lastRow = row >= gridRows.length ? gridRows.length - 1 : row;
-            getContentProvider().validateDataPresence(columns.get(columns.size() - 1), gridRows[lastRow]);
+        if (!columns.isEmpty() && rowModel.getRowCount() > 0) {
+            int lastRow = row >= rowModel.getRowCount() ? rowModel.getRowCount() - 1 : row;
+            getContentProvider().validateDataPresence(columns.get(columns.size() - 1), rowModel.getRow(lastRow));
         }
     }
 
@@ -3223,7 +3243,7 @@ public abstract class LightGrid extends Canvas {
         GridColumn col = null;
         if (row >= 0) {
             col = getColumn(point);
-            if (getContentProvider().isVoidCell(col, gridRows[row])) {
+            if (getContentProvider().isVoidCell(col, rowModel.getRow(row))) {
                 return;
             }
 
@@ -3241,7 +3261,7 @@ public abstract class LightGrid extends Canvas {
                 }
 
                 if (e.button == 1 && !shift && !ctrl) {
-                    IGridRow gridRow = gridRows[row];
+                    IGridRow gridRow = rowModel.getRow(row);
                     if (getRowState(gridRow) != IGridContentProvider.ElementState.NONE) {
                         if (GridRowRenderer.isOverExpander(e.x, gridRow.getRowDepth()))
                         {
@@ -3348,7 +3368,7 @@ public abstract class LightGrid extends Canvas {
             selectionEvent.stateMask = e.stateMask;
             selectionEvent.button = e.button;
             selectionEvent.data = new GridCell(
-                col, row < 0 ? null : gridRows[row]);
+                col, row < 0 ? null : rowModel.getRow(row));
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
             notifyListeners(SWT.Selection, selectionEvent);
@@ -3485,12 +3505,12 @@ public abstract class LightGrid extends Canvas {
                 if (col != null) {
                     if (isListening(SWT.DefaultSelection)) {
                         Event newEvent = new Event();
-                        newEvent.data = new GridCell(col, gridRows[row]);
+                        newEvent.data = new GridCell(col, rowModel.getRow(row));
 
                         notifyListeners(SWT.DefaultSelection, newEvent);
                     }
                 } else {
-                    IGridRow gridRow = gridRows[row];
+                    IGridRow gridRow = rowModel.getRow(row);
                     if (getRowState(gridRow) != IGridContentProvider.ElementState.NONE) {
                         if (!GridRowRenderer.isOverExpander(e.x, gridRow.getRowDepth()))
                         {
@@ -3516,7 +3536,7 @@ public abstract class LightGrid extends Canvas {
                 event.x = e.x;
                 event.y = e.y;
                 event.stateMask = e.stateMask;
-                event.data = new GridCell(focusColumn, gridRows[focusItem]);
+                event.data = new GridCell(focusColumn, rowModel.getRow(focusItem));
                 notifyListeners(Event_NavigateLink, event);
                 return;
             }
@@ -3575,7 +3595,7 @@ public abstract class LightGrid extends Canvas {
                 GridColumn column = getColumn(point);
                 int rowIndex = getRow(point);
                 if (column != null && rowIndex >= 0) {
-                    se.data = new GridCell(column, gridRows[rowIndex]);
+                    se.data = new GridCell(column, rowModel.getRow(rowIndex));
                 }
                 se.stateMask = e.stateMask;
                 se.x = e.x;
@@ -3745,7 +3765,7 @@ public abstract class LightGrid extends Canvas {
             GridColumn column = getColumn(point);
             int rowIndex = getRow(point);
             if (column != null && rowIndex >= 0) {
-                selectionEvent.data = new GridCell(column, gridRows[rowIndex]);
+                selectionEvent.data = new GridCell(column, rowModel.getRow(rowIndex));
             }
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
@@ -3844,9 +3864,9 @@ public abstract class LightGrid extends Canvas {
             focusColumn = getColumn(0);
         }
 
-        if (e.character == '\r' && focusItem >= 0 && focusItem < gridRows.length) {
+        if (e.character == '\r' && focusItem >= 0 && focusItem < rowModel.getRowCount()) {
             Event newEvent = new Event();
-            newEvent.data = new GridCell(focusColumn, gridRows[focusItem]);
+            newEvent.data = new GridCell(focusColumn, rowModel.getRow(focusItem));
 
             notifyListeners(SWT.DefaultSelection, newEvent);
             return;
@@ -3979,18 +3999,18 @@ public abstract class LightGrid extends Canvas {
             case SWT.KEYPAD_ADD:
             case SWT.KEYPAD_SUBTRACT:
                 if (focusItem >= 0) {
-                    IGridRow gridRow = gridRows[focusItem];
+                    IGridRow gridRow = rowModel.getRow(focusItem);
                     if (getContentProvider().hasChildren(gridRow)) {
                         boolean isPlus = (e.keyCode == '+' || e.keyCode == '=' || e.keyCode == SWT.KEYPAD_ADD);
                         boolean isExpanded = isCellExpanded(new GridCell(focusColumn, gridRow));
                         if (isExpanded == isPlus) {
-                            toggleRowExpand(gridRows[focusItem], focusColumn);
+                            toggleRowExpand(rowModel.getRow(focusItem), focusColumn);
                         }
                     }
                 }
                 break;
             case ' ':
-                toggleCellValue(focusColumn, gridRows[focusItem]);
+                toggleCellValue(focusColumn, rowModel.getRow(focusItem));
             default:
                 break;
         }
@@ -4023,8 +4043,8 @@ public abstract class LightGrid extends Canvas {
             showItem(newSelection);
 
             GridCell newPos;
-            if (newSelection >= 0 && newSelection < gridRows.length) {
-                newPos = new GridCell(newColumnFocus, gridRows[newSelection]);
+            if (newSelection >= 0 && newSelection < rowModel.getRowCount()) {
+                newPos = new GridCell(newColumnFocus, rowModel.getRow(newSelection));
             } else {
                 newPos = null;
             }
@@ -4193,7 +4213,7 @@ public abstract class LightGrid extends Canvas {
             String newTip = null;
             if ((hoveringItem >= 0) && (hoveringColumn != null)) {
                 if (overLink) {
-                    newTip = getContentProvider().getCellLinkText(col, gridRows[row]);
+                    newTip = getContentProvider().getCellLinkText(col, rowModel.getRow(row));
                 }
                 if (CommonUtils.isEmpty(newTip)) {
                     // get cell specific tooltip
@@ -4285,18 +4305,18 @@ public abstract class LightGrid extends Canvas {
 
     @Nullable
     public Object getFocusRowElement() {
-        if (focusItem < 0 || focusItem >= gridRows.length) {
+        if (focusItem < 0 || focusItem >= rowModel.getRowCount()) {
             return null;
         }
-        return gridRows[focusItem].getElement();
+        return rowModel.getRow(focusItem).getElement();
     }
 
     @Nullable
     public IGridRow getFocusRow() {
-        if (focusItem < 0 || focusItem >= gridRows.length) {
+        if (focusItem < 0 || focusItem >= rowModel.getRowCount()) {
             return null;
         }
-        return gridRows[focusItem];
+        return rowModel.getRow(focusItem);
     }
 
     @Nullable
@@ -4723,10 +4743,10 @@ public abstract class LightGrid extends Canvas {
     @Nullable
     private String getCellToolTip(GridColumn col, int row)
     {
-        if (col == null || row < 0 || row >= gridRows.length) {
+        if (col == null || row < 0 || row >= rowModel.getRowCount()) {
             return null;
         }
-        String toolTip = getCellText(col, gridRows[row]);
+        String toolTip = getCellText(col, rowModel.getRow(row));
         if (toolTip == null) {
             return null;
         }
@@ -0,0 +1,927 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar row storage.
+ * Keeps numeric, boolean and timestamp columns in primitive arrays (with null bitmaps)
+ * and dictionary-encodes low-cardinality strings. Boxed values are created only on read.
+ * Column which receives a value it can't keep in primitive form degrades to a plain object column.
+ * <p>
+ * Storage which belongs to a {@link ResultSetSpillBuffer} may be spilled to disk and is paged back on first access.
+ */
+public class ResultSetColumnarStorage {
+
+    private static final Log log = Log.getLog(ResultSetColumnarStorage.class);
+
+    private static final int INITIAL_CAPACITY = 64;
+    // Max number of distinct strings kept in a column dictionary
+    static final int MAX_DICTIONARY_SIZE = 4096;
+
+    private static final int SPILL_FILE_MAGIC = 0xDBEA0001;
+
+    // Spilled value tags
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INTEGER = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_BYTE = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_BOOLEAN = 8;
+    private static final byte TAG_BIG_DECIMAL = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+    private static final byte TAG_BYTES = 11;
+    private static final byte TAG_TIMESTAMP = 12;
+    private static final byte TAG_DATE = 13;
+    private static final byte TAG_TIME = 14;
+
+    @Nullable
+    private final ResultSetSpillBuffer spillBuffer;
+    // Guards storage data. Spill buffer is never called while this lock is held.
+    @NotNull
+    private final Object lock = new Object();
+    private final int columnCount;
+    // Null if storage was spilled to disk
+    @Nullable
+    private ColumnVector[] columns;
+    private int capacity;
+    private int rowCount;
+    @Nullable
+    private Path spillFile;
+    // Storage was modified since it was spilled last time
+    private boolean modified;
+
+    public ResultSetColumnarStorage(int columnCount) {
+        this(columnCount, null);
+    }
+
+    public ResultSetColumnarStorage(int columnCount, @Nullable ResultSetSpillBuffer spillBuffer) {
+        this.spillBuffer = spillBuffer;
+        this.columnCount = columnCount;
+        this.capacity = INITIAL_CAPACITY;
+        this.columns = createColumns(columnCount);
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Appends row values. Values array is not retained and may be reused by caller.
+     *
+     * @return index of the new row
+     */
+    public int appendRow(@NotNull Object[] values) {
+        while (true) {
+            pageIn();
+            synchronized (lock) {
+                ColumnVector[] columns = this.columns;
+                if (columns == null) {
+                    // Spilled again before we got here
+                    continue;
+                }
+                if (rowCount >= capacity) {
+                    capacity = Math.max(capacity * 2, INITIAL_CAPACITY);
+                    for (ColumnVector column : columns) {
+                        column.ensureCapacity(capacity);
+                    }
+                }
+                int row = rowCount++;
+                for (int i = 0; i < columns.length; i++) {
+                    setColumnValue(columns, i, row, i < values.length ? values[i] : null, rowCount, capacity);
+                }
+                modified = true;
+                return row;
+            }
+        }
+    }
+
+    @Nullable
+    public Object getValue(int row, int column) {
+        while (true) {
+            pageIn();
+            synchronized (lock) {
+                if (columns != null) {
+                    checkRow(row);
+                    return columns[column].get(row);
+                }
+            }
+        }
+    }
+
+    public void setValue(int row, int column, @Nullable Object value) {
+        while (true) {
+            pageIn();
+            synchronized (lock) {
+                if (columns != null) {
+                    checkRow(row);
+                    setColumnValue(columns, column, row, value, rowCount, capacity);
+                    modified = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Materializes all row values
+     */
+    @NotNull
+    public Object[] getRowValues(int row) {
+        while (true) {
+            pageIn();
+            synchronized (lock) {
+                ColumnVector[] columns = this.columns;
+                if (columns != null) {
+                    checkRow(row);
+                    Object[] values = new Object[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        values[i] = columns[i].get(row);
+                    }
+                    return values;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes references to row values.
+     * Called when row values ownership is moved out of storage (e.g. on edit).
+     */
+    public void detachRow(int row) {
+        while (true) {
+            pageIn();
+            synchronized (lock) {
+                if (columns != null) {
+                    checkRow(row);
+                    for (ColumnVector column : columns) {
+                        column.detach(row);
+                    }
+                    modified = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases all (non-primitive) values kept in storage
+     */
+    public void release() {
+        synchronized (lock) {
+            if (columns == null) {
+                // Spilled storage keeps only plain values
+                return;
+            }
+            for (ColumnVector column : columns) {
+                column.release(rowCount);
+            }
+        }
+    }
+
+    public boolean isSpilled() {
+        synchronized (lock) {
+            return columns == null;
+        }
+    }
+
+    /**
+     * Approximate heap size of storage data
+     */
+    long estimateMemorySize() {
+        synchronized (lock) {
+            if (columns == null) {
+                return 0;
+            }
+            long size = 0;
+            for (ColumnVector column : columns) {
+                size += column.estimateSize(rowCount, capacity);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Writes storage data into the spill file and frees memory.
+     * Storage which contains complex values (LOBs, structures, etc) can't be spilled.
+     * Only this storage is locked while the file is written.
+     *
+     * @return true if storage was spilled
+     */
+    boolean spill(@NotNull Path file) throws IOException {
+        synchronized (lock) {
+            if (columns == null) {
+                return true;
+            }
+            if (spillFile == null || modified) {
+                for (ColumnVector column : columns) {
+                    if (!column.isSpillable(rowCount)) {
+                        return false;
+                    }
+                }
+                deleteSpillFile();
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                    out.writeInt(SPILL_FILE_MAGIC);
+                    out.writeInt(columns.length);
+                    out.writeInt(rowCount);
+                    for (ColumnVector column : columns) {
+                        for (int i = 0; i < rowCount; i++) {
+                            writeValue(out, column.get(i));
+                        }
+                    }
+                }
+                spillFile = file;
+                modified = false;
+            }
+            columns = null;
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the spill file. Content of a spilled storage is lost after that
+     * and any further access fails.
+     */
+    void deleteSpillFile() {
+        synchronized (lock) {
+            if (spillFile != null) {
+                try {
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException e) {
+                    log.debug("Error deleting spill file '" + spillFile + "'", e);
+                    spillFile.toFile().deleteOnExit();
+                }
+                spillFile = null;
+            }
+        }
+    }
+
+    /**
+     * Pages storage data back from the spill file (if it was spilled).
+     * File is read outside of the storage lock. Spill buffer is notified after the lock is released.
+     * Read error doesn't break the caller: storage shows nulls and error is reported to the spill buffer.
+     *
+     * @throws IllegalStateException if storage content was discarded
+     */
+    private void pageIn() {
+        Path file;
+        int fileRowCount;
+        synchronized (lock) {
+            if (columns != null) {
+                file = null;
+                fileRowCount = 0;
+            } else if (spillFile == null) {
+                throw new IllegalStateException("Result set storage was disposed");
+            } else {
+                file = spillFile;
+                fileRowCount = rowCount;
+            }
+        }
+        if (spillBuffer == null) {
+            return;
+        }
+        if (file == null) {
+            spillBuffer.touch(this);
+            return;
+        }
+
+        int newCapacity = Math.max(fileRowCount, INITIAL_CAPACITY);
+        ColumnVector[] newColumns;
+        IOException readError = null;
+        try {
+            newColumns = readSpillFile(file, fileRowCount, newCapacity);
+        } catch (IOException e) {
+            readError = e;
+            newColumns = createColumns(columnCount);
+        }
+        synchronized (lock) {
+            if (columns != null || spillFile != file) {
+                // Paged in by another thread or discarded meanwhile. Caller checks it again.
+                return;
+            }
+            columns = newColumns;
+            capacity = newCapacity;
+            // Spill file stays valid until storage is modified.
+            // After read error it is kept too, so the next page-in tries it again.
+            modified = false;
+        }
+        if (readError != null) {
+            log.error("Error reading result set spill file '" + file + "'", readError);
+            spillBuffer.reportReadError(readError);
+        }
+        // May spill other storages
+        spillBuffer.register(this);
+    }
+
+    @NotNull
+    private ColumnVector[] readSpillFile(@NotNull Path file, int rowCount, int capacity) throws IOException {
+        ColumnVector[] newColumns = createColumns(columnCount);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SPILL_FILE_MAGIC || buffer.getInt() != columnCount || buffer.getInt() != rowCount) {
+                throw new IOException("Corrupted spill file");
+            }
+            for (int column = 0; column < columnCount; column++) {
+                for (int i = 0; i < rowCount; i++) {
+                    setColumnValue(newColumns, column, i, readValue(buffer), rowCount, capacity);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated spill file", e);
+        }
+        return newColumns;
+    }
+
+    @NotNull
+    private static ColumnVector[] createColumns(int columnCount) {
+        ColumnVector[] columns = new ColumnVector[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new NullColumn();
+        }
+        return columns;
+    }
+
+    private static void setColumnValue(@NotNull ColumnVector[] columns, int column, int row, @Nullable Object value, int rowCount, int capacity) {
+        ColumnVector vector = columns[column];
+        if (!vector.set(row, value)) {
+            vector = (vector instanceof NullColumn) ? createColumn(value, row, capacity) : new ObjectColumn(vector, rowCount, capacity);
+            columns[column] = vector;
+            if (!vector.set(row, value)) {
+                // Should never happen
+                vector = new ObjectColumn(vector, rowCount, capacity);
+                columns[column] = vector;
+                vector.set(row, value);
+            }
+        }
+    }
+
+    @NotNull
+    private static ColumnVector createColumn(@NotNull Object value, int row, int capacity) {
+        ColumnVector column = createColumn(value.getClass(), capacity);
+        if (column instanceof PrimitiveColumn) {
+            // All previous values were nulls
+            ((PrimitiveColumn) column).nulls.set(0, row);
+        }
+        return column;
+    }
+
+    @NotNull
+    private static ColumnVector createColumn(@NotNull Class<?> valueClass, int capacity) {
+        if (valueClass == Integer.class || valueClass == Long.class || valueClass == Short.class || valueClass == Byte.class) {
+            return new LongColumn(valueClass, capacity);
+        } else if (valueClass == Double.class || valueClass == Float.class) {
+            return new DoubleColumn(valueClass, capacity);
+        } else if (valueClass == Boolean.class) {
+            return new BooleanColumn(capacity);
+        } else if (valueClass == Timestamp.class || valueClass == java.sql.Date.class || valueClass == java.sql.Time.class) {
+            return new TimestampColumn(valueClass, capacity);
+        } else if (valueClass == String.class) {
+            return new DictionaryColumn(capacity);
+        }
+        return new ObjectColumn(capacity);
+    }
+
+    private static boolean isSpillableValue(@Nullable Object value) {
+        if (value == null) {
+            return true;
+        }
+        Class<?> valueClass = value.getClass();
+        return valueClass == String.class || valueClass == Integer.class || valueClass == Long.class ||
+            valueClass == Short.class || valueClass == Byte.class || valueClass == Double.class ||
+            valueClass == Float.class || valueClass == Boolean.class || valueClass == BigDecimal.class ||
+            valueClass == BigInteger.class || valueClass == byte[].class || valueClass == Timestamp.class ||
+            valueClass == java.sql.Date.class || valueClass == java.sql.Time.class;
+    }
+
+    private static void writeValue(@NotNull DataOutput out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeBytes(out, value.toString().getBytes(StandardCharsets.US_ASCII));
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TAG_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof java.sql.Time) {
+            out.writeByte(TAG_TIME);
+            out.writeLong(((java.sql.Time) value).getTime());
+        } else {
+            throw new IOException("Value type " + value.getClass().getName() + " can't be spilled");
+        }
+    }
+
+    private static void writeBytes(@NotNull DataOutput out, @NotNull byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case TAG_INTEGER:
+                return buffer.getInt();
+            case TAG_LONG:
+                return buffer.getLong();
+            case TAG_SHORT:
+                return buffer.getShort();
+            case TAG_BYTE:
+                return buffer.get();
+            case TAG_DOUBLE:
+                return buffer.getDouble();
+            case TAG_FLOAT:
+                return buffer.getFloat();
+            case TAG_BOOLEAN:
+                return buffer.get() != 0;
+            case TAG_BIG_DECIMAL:
+                return new BigDecimal(new String(readBytes(buffer), StandardCharsets.US_ASCII));
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(buffer));
+            case TAG_BYTES:
+                return readBytes(buffer);
+            case TAG_TIMESTAMP: {
+                Timestamp ts = new Timestamp(buffer.getLong());
+                ts.setNanos(buffer.getInt());
+                return ts;
+            }
+            case TAG_DATE:
+                return new java.sql.Date(buffer.getLong());
+            case TAG_TIME:
+                return new java.sql.Time(buffer.getLong());
+            default:
+                throw new IOException("Bad value tag: " + tag);
+        }
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of storage bounds (" + rowCount + ")");
+        }
+    }
+
+    private static long estimateValueSize(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return 40 + ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 64;
+        }
+        return 24;
+    }
+
+    private abstract static class ColumnVector {
+        /**
+         * Stores value. Returns false if value can't be kept by this vector.
+         */
+        abstract boolean set(int row, @Nullable Object value);
+
+        @Nullable
+        abstract Object get(int row);
+
+        abstract void ensureCapacity(int capacity);
+
+        abstract long estimateSize(int rowCount, int capacity);
+
+        boolean isSpillable(int rowCount) {
+            return true;
+        }
+
+        void detach(int row) {
+            // Primitive values have no references
+        }
+
+        void release(int rowCount) {
+            // Primitive values have no resources
+        }
+    }
+
+    /**
+     * Column which had only nulls so far
+     */
+    private static class NullColumn extends ColumnVector {
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            return value == null;
+        }
+
+        @Override
+        Object get(int row) {
+            return null;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            return 16;
+        }
+    }
+
+    private abstract static class PrimitiveColumn extends ColumnVector {
+        final BitSet nulls = new BitSet();
+
+        @Override
+        final boolean set(int row, @Nullable Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (setValue(row, value)) {
+                nulls.clear(row);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        final Object get(int row) {
+            return nulls.get(row) ? null : getValue(row);
+        }
+
+        abstract boolean setValue(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object getValue(int row);
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private long[] data;
+
+        LongColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.data = new long[capacity];
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            data[row] = ((Number) value).longValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            long value = data[row];
+            if (valueClass == Integer.class) {
+                return (int) value;
+            } else if (valueClass == Short.class) {
+                return (short) value;
+            } else if (valueClass == Byte.class) {
+                return (byte) value;
+            }
+            return value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (data.length < capacity) {
+                data = Arrays.copyOf(data, capacity);
+            }
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            return 8L * data.length + capacity / 8;
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private double[] data;
+
+        DoubleColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.data = new double[capacity];
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            data[row] = ((Number) value).doubleValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            if (valueClass == Float.class) {
+                return (float) data[row];
+            }
+            return data[row];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (data.length < capacity) {
+                data = Arrays.copyOf(data, capacity);
+            }
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            return 8L * data.length + capacity / 8;
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+        private final BitSet data;
+
+        BooleanColumn(int capacity) {
+            this.data = new BitSet(capacity);
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (!(value instanceof Boolean)) {
+                return false;
+            }
+            data.set(row, (Boolean) value);
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return data.get(row);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            return capacity / 4;
+        }
+    }
+
+    /**
+     * Keeps epoch millis and nanoseconds. Restores values of the original class (timestamp, date or time).
+     */
+    private static class TimestampColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private long[] millis;
+        private int[] nanos;
+
+        TimestampColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.millis = new long[capacity];
+            if (valueClass == Timestamp.class) {
+                this.nanos = new int[capacity];
+            }
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            millis[row] = ((java.util.Date) value).getTime();
+            if (nanos != null) {
+                nanos[row] = ((Timestamp) value).getNanos();
+            }
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            if (valueClass == Timestamp.class) {
+                Timestamp ts = new Timestamp(millis[row]);
+                ts.setNanos(nanos[row]);
+                return ts;
+            } else if (valueClass == java.sql.Date.class) {
+                return new java.sql.Date(millis[row]);
+            } else {
+                return new java.sql.Time(millis[row]);
+            }
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (millis.length < capacity) {
+                millis = Arrays.copyOf(millis, capacity);
+                if (nanos != null) {
+                    nanos = Arrays.copyOf(nanos, capacity);
+                }
+            }
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            return 8L * millis.length + (nanos == null ? 0 : 4L * nanos.length) + capacity / 8;
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings. Gives up (degrades to object column) when cardinality becomes too high.
+     */
+    private static class DictionaryColumn extends PrimitiveColumn {
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private int[] codes;
+
+        DictionaryColumn(int capacity) {
+            this.codes = new int[capacity];
+        }
+
+        @Override
+        boolean setValue(int row, @NotNull Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    return false;
+                }
+                code = dictionary.size();
+                dictionary.add((String) value);
+                dictionaryIndex.put((String) value, code);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (codes.length < capacity) {
+                codes = Arrays.copyOf(codes, capacity);
+            }
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            long size = 4L * codes.length + capacity / 8;
+            for (String value : dictionary) {
+                size += estimateValueSize(value) + 48;
+            }
+            return size;
+        }
+    }
+
+    private static class ObjectColumn extends ColumnVector {
+        private Object[] data;
+
+        ObjectColumn(int capacity) {
+            this.data = new Object[capacity];
+        }
+
+        ObjectColumn(@NotNull ColumnVector source, int rowCount, int capacity) {
+            this(capacity);
+            for (int i = 0; i < rowCount; i++) {
+                data[i] = source.get(i);
+            }
+        }
+
+        @Override
+        boolean set(int row, @Nullable Object value) {
+            data[row] = value;
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return data[row];
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (data.length < capacity) {
+                data = Arrays.copyOf(data, capacity);
+            }
+        }
+
+        @Override
+        long estimateSize(int rowCount, int capacity) {
+            long size = 8L * data.length;
+            for (int i = 0; i < rowCount; i++) {
+                size += estimateValueSize(data[i]);
+            }
+            return size;
+        }
+
+        @Override
+        boolean isSpillable(int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                if (!isSpillableValue(data[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void detach(int row) {
+            data[row] = null;
+        }
+
+        @Override
+        void release(int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                DBUtils.releaseValue(data[i]);
+            }
+        }
+    }
+
+}
@@ -25,16 +25,14 @@ import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.ui.UIUtils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Data pump for SQL queries
@@ -47,6 +45,11 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
     private List<Object[]> rows = new ArrayList<>();
+    // Columnar storage chunks of the current segment. Null if columnar storage is disabled
+    private List<ResultSetColumnarStorage> storages;
+    private ResultSetColumnarStorage storage;
+    private ResultSetSpillBuffer spillBuffer;
+    private Object[] rowBuffer;
     private boolean hasMoreData;
     private boolean nextSegmentRead;
     private long offset;
@@ -112,11 +115,39 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
         }
+        DBPPreferenceStore preferenceStore = resultSetViewer.getPreferenceStore();
+        long spillBudget = preferenceStore.getLong(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET);
+        // Memory budget can be enforced only for rows kept in columnar storage, so budget enables it too
+        if (preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE) || spillBudget > 0) {
+            storages = new ArrayList<>();
+            storage = null;
+            rowBuffer = new Object[columnsCount];
+            if (!nextSegmentRead) {
+                // New result set - new spill buffer
+                spillBuffer = spillBudget > 0 ? new ResultSetSpillBuffer(spillBudget * 1024 * 1024) : null;
+            } else {
+                spillBuffer = resultSetViewer.getModel().getSpillBuffer();
+            }
+        } else {
+            storages = null;
+            storage = null;
+            spillBuffer = null;
+            rowBuffer = null;
+        }
     }
 
     @Override
     public void fetchRow(DBCSession session, DBCResultSet resultSet) {
-        Object[] row = new Object[columnsCount];
+        // Values of the first segment may be fixed during attributes binding, so they are kept as is till fetch end.
+        // Next segments go directly to columnar storage.
+        boolean toStorage = storages != null && nextSegmentRead;
+        Object[] row;
+        if (toStorage) {
+            row = rowBuffer;
+            Arrays.fill(row, null);
+        } else {
+            row = new Object[columnsCount];
+        }
         for (int i = 0; i < columnsCount; i++) {
             try {
                 DBSAttributeBase metaAttribute = metaColumns[i].getAttribute();
@@ -149,7 +180,23 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
                 }
             }
         }
-        rows.add(row);
+        if (toStorage) {
+            appendToStorage(row);
+        } else {
+            rows.add(row);
+        }
+    }
+
+    private void appendToStorage(@NotNull Object[] row) {
+        if (storage == null || (spillBuffer != null && storage.getRowCount() >= ResultSetSpillBuffer.CHUNK_SIZE)) {
+            if (storage != null && spillBuffer != null) {
+                // Chunk is complete. Spill previous chunks if needed.
+                spillBuffer.register(storage);
+            }
+            storage = new ResultSetColumnarStorage(columnsCount, spillBuffer);
+            storages.add(storage);
+        }
+        storage.appendRow(row);
     }
 
     @Override
@@ -169,6 +216,21 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         }
 
         final List<Object[]> tmpRows = rows;
+        final List<ResultSetColumnarStorage> tmpStorages = storages;
+        int fetchedRows = tmpRows.size();
+        if (tmpStorages != null) {
+            for (Object[] row : tmpRows) {
+                appendToStorage(row);
+            }
+            tmpRows.clear();
+            if (storage != null && spillBuffer != null) {
+                spillBuffer.register(storage);
+            }
+            fetchedRows = 0;
+            for (ResultSetColumnarStorage chunk : tmpStorages) {
+                fetchedRows += chunk.getRowCount();
+            }
+        }
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
@@ -177,14 +239,22 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         monitor.beginTask("Populate data", 1);
         if (!nextSegmentRead) {
             monitor.subTask("Set data");
-            resultSetViewer.setData(tmpRows, focusRow);
+            if (tmpStorages != null) {
+                resultSetViewer.setData(tmpStorages, spillBuffer, focusRow);
+            } else {
+                resultSetViewer.setData(tmpRows, focusRow);
+            }
         } else {
             monitor.subTask("Append data");
             boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            if (tmpStorages != null) {
+                resultSetViewer.appendStorages(tmpStorages, resetOldRows);
+            } else {
+                resultSetViewer.appendData(tmpRows, resetOldRows);
+            }
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && fetchedRows >= maxRows;
         monitor.done();
 
         UIUtils.syncExec(() -> {
@@ -210,6 +280,10 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
         attrErrors.clear();
         rows = new ArrayList<>();
+        storages = null;
+        storage = null;
+        spillBuffer = null;
+        rowBuffer = null;
     }
 
     @Override
@@ -58,6 +58,15 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Columnar storages which keep values of fetched rows (if columnar storage is enabled)
+    private List<ResultSetColumnarStorage> columnarStorages = new ArrayList<>();
+    // Spills columnar storages to disk when result set exceeds memory budget
+    @Nullable
+    private ResultSetSpillBuffer spillBuffer;
+    // Values of the last columnar row read for a nested or virtual attribute.
+    // Cells of the same row are usually read one after another (copy, export, filters)
+    @Nullable
+    private MaterializedRow materializedRow;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -362,7 +371,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -380,31 +389,46 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull ResultSetCellLocation cellLocation) {
-        return DBUtils.getAttributeValue(
+        return getCellValue(
             cellLocation.getAttribute(),
-            attributes,
-            cellLocation.getRow().values,
+            cellLocation.getRow(),
             cellLocation.getRowIndexes());
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            null);
+        return getCellValue(attribute, row, null);
     }
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable int[] rowIndexes) {
+        if (row.isColumnar() && attribute.getLevel() == 0 && !attribute.isCustom() && attribute.getTopParent() == attribute) {
+            // Do not materialize the whole row for a single plain cell
+            return row.getValue(attribute.getOrdinalPosition());
+        }
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            getRowValues(row),
             rowIndexes);
     }
 
+    /**
+     * Returns values of the row. Values of the last used columnar row are reused, so they must not be changed.
+     */
+    @NotNull
+    private Object[] getRowValues(@NotNull ResultSetRow row) {
+        if (!row.isColumnar()) {
+            return row.getValues();
+        }
+        MaterializedRow materialized = materializedRow;
+        if (materialized == null || materialized.row != row) {
+            materialized = new MaterializedRow(row, row.getValues());
+            materializedRow = materialized;
+        }
+        return materialized.values;
+    }
+
     /**
      * Updates cell value. Saves previous value.
      *
@@ -446,7 +470,7 @@ public class ResultSetModel {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
         int rowIndex = 0;
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -556,7 +580,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -701,6 +725,26 @@ public class ResultSetModel {
     }
 
     public void setData(@NotNull List<Object[]> rows) {
+        prepareData();
+        // Add new data
+        updateColorMapping(false);
+        appendData(rows, true);
+        completeData();
+    }
+
+    /**
+     * Sets new data kept in columnar storage chunks
+     */
+    void setData(@NotNull List<ResultSetColumnarStorage> storages, @Nullable ResultSetSpillBuffer spillBuffer) {
+        prepareData();
+        this.spillBuffer = spillBuffer;
+        // Add new data
+        updateColorMapping(false);
+        appendStorages(storages, true);
+        completeData();
+    }
+
+    private void prepareData() {
         // Clear previous data
         this.releaseAllData();
         this.clearData();
@@ -728,10 +772,9 @@ public class ResultSetModel {
                 }
             }
         }
+    }
 
-        // Add new data
-        updateColorMapping(false);
-        appendData(rows, true);
+    private void completeData() {
         updateDataFilter();
 
         this.visibleAttributes.sort(POSITION_SORTER);
@@ -865,6 +908,7 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            columnarStorages.clear();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
@@ -878,15 +922,68 @@ public class ResultSetModel {
         updateRowColors(resetOldRows, newRows);
     }
 
+    void appendStorages(@NotNull List<ResultSetColumnarStorage> storages, boolean resetOldRows) {
+        if (resetOldRows) {
+            if (spillBuffer != null) {
+                spillBuffer.removeRowObjects(curRows.size());
+            }
+            curRows.clear();
+            materializedRow = null;
+            if (spillBuffer != null) {
+                for (ResultSetColumnarStorage storage : columnarStorages) {
+                    spillBuffer.discard(storage);
+                }
+            }
+            columnarStorages.clear();
+        }
+        int firstRowNum = curRows.size();
+        List<ResultSetRow> newRows = new ArrayList<>();
+        for (ResultSetColumnarStorage storage : storages) {
+            columnarStorages.add(storage);
+            int rowCount = storage.getRowCount();
+            for (int i = 0; i < rowCount; i++) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + newRows.size(), storage, i));
+            }
+        }
+        curRows.addAll(newRows);
+        if (spillBuffer != null) {
+            spillBuffer.addRowObjects(newRows.size());
+        }
+
+        updateRowColors(resetOldRows, newRows);
+    }
+
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.columnarStorages = new ArrayList<>();
+        this.materializedRow = null;
+        if (this.spillBuffer != null) {
+            this.spillBuffer.dispose();
+            this.spillBuffer = null;
+        }
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
         this.hasData = false;
     }
 
+    @Nullable
+    ResultSetSpillBuffer getSpillBuffer() {
+        return spillBuffer;
+    }
+
+    /**
+     * Returns error of reading result set data spilled to disk.
+     * Rows which failed to load show nulls.
+     */
+    @Nullable
+    public Throwable getStorageError() {
+        ResultSetSpillBuffer spillBuffer = this.spillBuffer;
+        return spillBuffer == null ? null : spillBuffer.getReadError();
+    }
+
     public boolean hasData() {
         return hasData;
     }
@@ -975,6 +1072,8 @@ public class ResultSetModel {
 
     void releaseAllData() {
         final List<ResultSetRow> oldRows = curRows;
+        final List<ResultSetColumnarStorage> oldStorages = columnarStorages;
+        materializedRow = null;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -982,6 +1081,9 @@ public class ResultSetModel {
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
+            for (ResultSetColumnarStorage storage : oldStorages) {
+                storage.release();
+            }
         }, "Release values", 5000);
     }
 
@@ -1113,31 +1215,20 @@ public class ResultSetModel {
 
         if (hasOrdering) {
             // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(new ResultSetCellLocation(binding, row1));
-                    Object cell2 = getCellValue(new ResultSetCellLocation(binding, row2));
-                    if (cell1 instanceof String && cell2 instanceof String) {
-                    	result = (cell1.toString()).compareToIgnoreCase(cell2.toString());
-                    } else {
-                    	result = DBUtils.compareDataValues(cell1, cell2);
-                    }
-                          
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
+            List<ResultSetSorter.SortColumn> sortColumns = new ArrayList<>();
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    sortColumns.add(new ResultSetSorter.SortColumn(binding, co.isOrderDescending()));
+                }
+            }
+            if (!sortColumns.isEmpty()) {
+                int[] order = new ResultSetSorter(this, curRows, sortColumns).sort();
+                ResultSetRow[] rows = curRows.toArray(new ResultSetRow[0]);
+                for (int i = 0; i < order.length; i++) {
+                    curRows.set(i, rows[order[i]]);
                 }
-                return result;
-            });
+            }
         }
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
@@ -1186,4 +1277,14 @@ public class ResultSetModel {
     public DBCTrace getTrace() {
         return trace;
     }
+
+    private static class MaterializedRow {
+        private final ResultSetRow row;
+        private final Object[] values;
+
+        MaterializedRow(@NotNull ResultSetRow row, @NotNull Object[] values) {
+            this.row = row;
+            this.values = values;
+        }
+    }
 }
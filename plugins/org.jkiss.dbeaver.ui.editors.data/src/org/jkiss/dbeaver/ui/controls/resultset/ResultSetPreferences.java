@@ -69,6 +69,8 @@ public final class ResultSetPreferences {
     public static final String RESULT_SET_INLINE_ENTER = "resultset.behavior.inlineEnter";
     public static final String RESULT_SET_ROW_BATCH_SIZE = "resultset.show.row.batch.size"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_COLUMN_DEF_WIDTH = "resultset.max.column.def.width"; //$NON-NLS-1$
+    public static final String RESULT_SET_COLUMNAR_STORAGE = "resultset.storage.columnar"; //$NON-NLS-1$
+    public static final String RESULT_SET_SPILL_MEMORY_BUDGET = "resultset.storage.spill.budget"; //$NON-NLS-1$
     
     public static final String RESULT_SET_FILTER_AUTO_COMPLETE_PROPOSIAL = "resultset.behavior.autoCompleteProposial"; //$NON-NLS-1$
 
@@ -49,9 +49,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in columnar storage
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetColumnarStorage storage;
+    private int storageIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -66,11 +69,64 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnarStorage storage, int storageIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.storage = storage;
+        this.storageIndex = storageIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values.
+     * For rows kept in columnar storage values are materialized on each call,
+     * so changes must be made thru {@link #setValue(int, Object)}.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null && storage != null) {
+            return storage.getRowValues(storageIndex);
+        }
         return values;
     }
 
+    @Nullable
+    public Object getValue(int index) {
+        if (values == null && storage != null) {
+            return index < storage.getColumnCount() ? storage.getValue(storageIndex, index) : null;
+        }
+        return index < values.length ? values[index] : null;
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        pinValues()[index] = value;
+    }
+
+    void setValues(@NotNull Object[] values) {
+        if (storage != null) {
+            storage.detachRow(storageIndex);
+            storage = null;
+        }
+        this.values = values;
+    }
+
+    /**
+     * Columnar rows are read-only. Edited row takes ownership of its values.
+     */
+    @NotNull
+    private Object[] pinValues() {
+        if (values == null && storage != null) {
+            values = storage.getRowValues(storageIndex);
+            storage.detachRow(storageIndex);
+            storage = null;
+        }
+        return values;
+    }
+
+    boolean isColumnar() {
+        return values == null && storage != null;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -127,8 +183,11 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        // Columnar storage values are released by model
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -0,0 +1,453 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Local (client side) result set sorter.
+ *
+ * Values of each sort column are read once and converted into ranks: numbers and dates are ranked as primitives,
+ * strings are ranked case-folded. If ranks of all columns fit into a long they are packed together with the
+ * row index and sorted with the primitive parallel sort. Otherwise an index permutation is sorted with a stable
+ * parallel merge sort. In both cases comparisons do not read cell values and do not allocate.
+ * Results are the same as comparing values with {@link String#compareToIgnoreCase} and {@link DBUtils#compareDataValues}.
+ */
+class ResultSetSorter {
+
+    // Smaller ranges are sorted in the current thread
+    private static final int PARALLEL_THRESHOLD = 8192;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final int rowCount;
+    private final SortKey[] keys;
+
+    ResultSetSorter(@NotNull ResultSetModel model, @NotNull List<ResultSetRow> rows, @NotNull List<SortColumn> columns) {
+        this.rowCount = rows.size();
+        this.keys = new SortKey[columns.size()];
+        for (int i = 0; i < keys.length; i++) {
+            SortColumn column = columns.get(i);
+            Object[] values = new Object[rowCount];
+            for (int k = 0; k < rowCount; k++) {
+                values[k] = model.getCellValue(column.binding, rows.get(k));
+            }
+            keys[i] = makeSortKey(values, column.descending);
+        }
+    }
+
+    /**
+     * Creates sorter of column values. Each array contains values of one sort column in row order.
+     */
+    ResultSetSorter(int rowCount, @NotNull List<Object[]> columnValues, @NotNull boolean[] descending) {
+        this.rowCount = rowCount;
+        this.keys = new SortKey[columnValues.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = makeSortKey(columnValues.get(i), descending[i]);
+        }
+    }
+
+    /**
+     * Returns row indexes in sorted order. Sort is stable.
+     */
+    @NotNull
+    int[] sort() {
+        if (rowCount >= 2 && keys.length > 0 && isPackable()) {
+            return sortPacked();
+        }
+        int[] indexes = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            indexes[i] = i;
+        }
+        if (rowCount < 2 || keys.length == 0) {
+            return indexes;
+        }
+        int[] buffer = indexes.clone();
+        if (rowCount < PARALLEL_THRESHOLD) {
+            mergeSort(buffer, indexes, 0, rowCount);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(buffer, indexes, 0, rowCount));
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns true if all columns are ranked and their ranks fit into a long together with the row index
+     */
+    boolean isPackable() {
+        int totalBits = getBitCount(rowCount - 1);
+        for (SortKey key : keys) {
+            if (!(key instanceof RankKey)) {
+                return false;
+            }
+            totalBits += ((RankKey) key).bits;
+        }
+        return totalBits <= 63;
+    }
+
+    /**
+     * Packs ranks of all columns and row index into a single long and sorts them as primitives.
+     * Row index makes the sort stable.
+     */
+    @NotNull
+    private int[] sortPacked() {
+        int indexBits = getBitCount(rowCount - 1);
+        long[] packed = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            long value = 0;
+            for (SortKey key : keys) {
+                RankKey rankKey = (RankKey) key;
+                value = (value << rankKey.bits) | rankKey.ranks[i];
+            }
+            packed[i] = (value << indexBits) | i;
+        }
+        Arrays.parallelSort(packed);
+        long indexMask = (1L << indexBits) - 1;
+        int[] indexes = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            indexes[i] = (int) (packed[i] & indexMask);
+        }
+        return indexes;
+    }
+
+    private int compare(int row1, int row2) {
+        for (SortKey key : keys) {
+            int result = key.compare(row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts range of dst. src must contain the same values in this range, it is used as a merge buffer.
+     */
+    private void mergeSort(int[] src, int[] dst, int from, int to) {
+        int length = to - from;
+        if (length <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(dst, src, from, middle);
+        mergeSort(dst, src, middle, to);
+        merge(src, dst, from, middle, to);
+    }
+
+    private void insertionSort(int[] array, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int value = array[i];
+            int k = i - 1;
+            while (k >= from && compare(array[k], value) > 0) {
+                array[k + 1] = array[k];
+                k--;
+            }
+            array[k + 1] = value;
+        }
+    }
+
+    /**
+     * Merges sorted ranges [from, middle) and [middle, to) of src into dst
+     */
+    private void merge(int[] src, int[] dst, int from, int middle, int to) {
+        if (compare(src[middle - 1], src[middle]) <= 0) {
+            // Already ordered
+            System.arraycopy(src, from, dst, from, to - from);
+            return;
+        }
+        int left = from, right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(src[left], src[right]) <= 0)) {
+                dst[i] = src[left++];
+            } else {
+                dst[i] = src[right++];
+            }
+        }
+    }
+
+    private class SortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int from;
+        private final int to;
+
+        SortTask(int[] src, int[] dst, int from, int to) {
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                mergeSort(src, dst, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(dst, src, from, middle), new SortTask(dst, src, middle, to));
+            merge(src, dst, from, middle, to);
+        }
+    }
+
+    static class SortColumn {
+        final DBDAttributeBinding binding;
+        final boolean descending;
+
+        SortColumn(@NotNull DBDAttributeBinding binding, boolean descending) {
+            this.binding = binding;
+            this.descending = descending;
+        }
+    }
+
+    ////////////////////////////////////////////////////
+    // Sort keys
+
+    @NotNull
+    private static SortKey makeSortKey(@NotNull Object[] values, boolean descending) {
+        boolean[] nulls = new boolean[values.length];
+        int valueCount = 0;
+        boolean allNumbers = true, allStrings = true, allDates = true, allTimestamps = true;
+        Class<?> dateClass = null;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (DBUtils.isNullValue(value)) {
+                nulls[i] = true;
+                continue;
+            }
+            valueCount++;
+            allNumbers &= value instanceof Number;
+            allStrings &= value instanceof String;
+            // Dates of different classes are not comparable, so check the exact class
+            if (dateClass == null) {
+                dateClass = value.getClass();
+            }
+            allDates &= value.getClass() == dateClass && (dateClass == Date.class || dateClass == java.sql.Date.class);
+            allTimestamps &= value.getClass() == Timestamp.class;
+        }
+        int[] ranks;
+        if (allNumbers) {
+            double[] keys = new double[valueCount];
+            for (int i = 0, k = 0; i < values.length; i++) {
+                if (!nulls[i]) {
+                    keys[k++] = ((Number) values[i]).doubleValue();
+                }
+            }
+            ranks = rankValues(keys, nulls);
+        } else if (allStrings) {
+            String[] keys = new String[valueCount];
+            for (int i = 0, k = 0; i < values.length; i++) {
+                if (!nulls[i]) {
+                    keys[k++] = foldCase((String) values[i]);
+                }
+            }
+            ranks = rankValues(keys, nulls);
+        } else if (allDates || allTimestamps) {
+            long[] keys = new long[valueCount];
+            for (int i = 0, k = 0; i < values.length; i++) {
+                if (nulls[i]) {
+                    continue;
+                }
+                Date date = (Date) values[i];
+                if (allTimestamps) {
+                    // Nanoseconds since epoch (fits in long until year 2262)
+                    long seconds = Math.floorDiv(date.getTime(), 1000L);
+                    if (Math.abs(seconds) >= Long.MAX_VALUE / 1_000_000_000L - 1) {
+                        return new ObjectKey(nulls, descending, values);
+                    }
+                    keys[k++] = seconds * 1_000_000_000L + ((Timestamp) date).getNanos();
+                } else {
+                    keys[k++] = date.getTime();
+                }
+            }
+            ranks = rankValues(keys, nulls);
+        } else {
+            return new ObjectKey(nulls, descending, values);
+        }
+        return new RankKey(ranks, descending);
+    }
+
+    /**
+     * Ranks of values. Values are in the same order as non-null rows.
+     * Null rows get rank -1.
+     */
+    @NotNull
+    private static int[] rankValues(@NotNull double[] values, @NotNull boolean[] nulls) {
+        double[] distinct = values.clone();
+        Arrays.parallelSort(distinct);
+        int count = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            // == treats 0.0 and -0.0 as equal, the same as CommonUtils.compareNumbers
+            if (count == 0 || distinct[i] != distinct[count - 1]) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        int[] ranks = new int[nulls.length];
+        for (int i = 0, k = 0; i < nulls.length; i++) {
+            if (nulls[i]) {
+                ranks[i] = -1;
+                continue;
+            }
+            double value = values[k++];
+            int low = 0, high = count - 1;
+            // NaNs go last
+            int rank = count;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (distinct[middle] < value) {
+                    low = middle + 1;
+                } else if (distinct[middle] > value) {
+                    high = middle - 1;
+                } else {
+                    rank = middle;
+                    break;
+                }
+            }
+            ranks[i] = rank;
+        }
+        return ranks;
+    }
+
+    @NotNull
+    private static int[] rankValues(@NotNull long[] values, @NotNull boolean[] nulls) {
+        long[] distinct = values.clone();
+        Arrays.parallelSort(distinct);
+        int count = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (count == 0 || distinct[i] != distinct[count - 1]) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        int[] ranks = new int[nulls.length];
+        for (int i = 0, k = 0; i < nulls.length; i++) {
+            ranks[i] = nulls[i] ? -1 : Arrays.binarySearch(distinct, 0, count, values[k++]);
+        }
+        return ranks;
+    }
+
+    @NotNull
+    private static int[] rankValues(@NotNull String[] values, @NotNull boolean[] nulls) {
+        // Usually there are many duplicates, so sort distinct values only
+        Map<String, Integer> rankMap = new HashMap<>();
+        for (String value : values) {
+            rankMap.put(value, 0);
+        }
+        String[] distinct = rankMap.keySet().toArray(new String[0]);
+        Arrays.parallelSort(distinct);
+        for (int i = 0; i < distinct.length; i++) {
+            rankMap.put(distinct[i], i);
+        }
+        int[] ranks = new int[nulls.length];
+        for (int i = 0, k = 0; i < nulls.length; i++) {
+            ranks[i] = nulls[i] ? -1 : rankMap.get(values[k++]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Folds string case the same way as {@link String#compareToIgnoreCase} does.
+     * So folded strings may be compared with {@link String#compareTo}.
+     */
+    @NotNull
+    static String foldCase(@NotNull String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars == null ? value : new String(chars);
+    }
+
+    private static int getBitCount(int value) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(value));
+    }
+
+    private interface SortKey {
+        int compare(int row1, int row2);
+    }
+
+    /**
+     * Non-negative ranks which already take into account sort direction and nulls
+     */
+    private static class RankKey implements SortKey {
+        private final int[] ranks;
+        private final int bits;
+
+        RankKey(@NotNull int[] ranks, boolean descending) {
+            int maxRank = -1;
+            for (int rank : ranks) {
+                maxRank = Math.max(maxRank, rank);
+            }
+            // Nulls go last (as in DBUtils.compareDataValues), descending order reverses everything
+            int nullRank = maxRank + 1;
+            for (int i = 0; i < ranks.length; i++) {
+                int rank = ranks[i] < 0 ? nullRank : ranks[i];
+                ranks[i] = descending ? nullRank - rank : rank;
+            }
+            this.ranks = ranks;
+            this.bits = getBitCount(nullRank);
+        }
+
+        @Override
+        public int compare(int row1, int row2) {
+            return Integer.compare(ranks[row1], ranks[row2]);
+        }
+    }
+
+    private static class ObjectKey implements SortKey {
+        private final boolean[] nulls;
+        private final boolean descending;
+        private final Object[] values;
+
+        ObjectKey(@NotNull boolean[] nulls, boolean descending, @NotNull Object[] values) {
+            this.nulls = nulls;
+            this.descending = descending;
+            this.values = values;
+        }
+
+        @Override
+        public int compare(int row1, int row2) {
+            int result;
+            if (nulls[row1] || nulls[row2]) {
+                // Nulls go last (as in DBUtils.compareDataValues)
+                result = nulls[row1] == nulls[row2] ? 0 : (nulls[row1] ? 1 : -1);
+            } else if (values[row1] instanceof String && values[row2] instanceof String) {
+                result = ((String) values[row1]).compareToIgnoreCase((String) values[row2]);
+            } else {
+                result = DBUtils.compareDataValues(values[row1], values[row2]);
+            }
+            return descending ? -result : result;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Keeps result set memory usage within the budget.
+ * Tracks columnar storage chunks of a single result set and spills least recently used chunks
+ * into segment files in the workspace temp folder. Spilled chunks are paged back on access.
+ * <p>
+ * Row objects of the model can't be spilled, so their estimated size is counted against the budget too.
+ * <p>
+ * Chunks are written and read outside of the buffer lock, so disk I/O of one chunk doesn't block access to others.
+ */
+public class ResultSetSpillBuffer {
+
+    private static final Log log = Log.getLog(ResultSetSpillBuffer.class);
+
+    // Number of rows in a single spillable chunk
+    public static final int CHUNK_SIZE = 10000;
+    // Estimated size of a single ResultSetRow object (with reference in the rows list)
+    public static final int ROW_OBJECT_SIZE = 56;
+
+    private static final String SPILL_FOLDER = "resultset-spill"; //$NON-NLS-1$
+
+    private final long memoryBudget;
+    // Resident chunks in access order
+    private final LinkedHashMap<ResultSetColumnarStorage, Long> residentChunks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<ResultSetColumnarStorage> spilledChunks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long residentSize;
+    private long rowObjectsSize;
+    @Nullable
+    private Path spillFolder;
+    private final boolean ownSpillFolder;
+    private int fileCounter;
+    private boolean disposed;
+    // First error of reading spilled data
+    @Nullable
+    private IOException readError;
+    @Nullable
+    private Runnable readErrorHandler;
+
+    /**
+     * @param memoryBudget max size of resident chunks in bytes
+     */
+    public ResultSetSpillBuffer(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        this.ownSpillFolder = true;
+    }
+
+    /**
+     * @param memoryBudget max size of resident chunks in bytes
+     * @param spillFolder  folder for segment files. It is not deleted on dispose
+     */
+    public ResultSetSpillBuffer(long memoryBudget, @NotNull Path spillFolder) {
+        this.memoryBudget = memoryBudget;
+        this.spillFolder = spillFolder;
+        this.ownSpillFolder = false;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public synchronized long getResidentSize() {
+        return residentSize;
+    }
+
+    public synchronized long getRowObjectsSize() {
+        return rowObjectsSize;
+    }
+
+    public synchronized int getSpilledChunkCount() {
+        return spilledChunks.size();
+    }
+
+    /**
+     * Returns error of reading spilled data. Chunk which failed to load shows nulls.
+     */
+    @Nullable
+    public synchronized IOException getReadError() {
+        return readError;
+    }
+
+    /**
+     * Sets handler which is called (in the reading thread) when spilled data can't be read
+     */
+    public synchronized void setReadErrorHandler(@Nullable Runnable readErrorHandler) {
+        this.readErrorHandler = readErrorHandler;
+    }
+
+    void reportReadError(@NotNull IOException error) {
+        Runnable handler;
+        synchronized (this) {
+            if (readError == null) {
+                readError = error;
+            }
+            handler = readErrorHandler;
+        }
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    /**
+     * Registers filled (or just loaded) chunk. Spills other chunks if memory budget is exceeded.
+     */
+    public void register(@NotNull ResultSetColumnarStorage chunk) {
+        List<ResultSetColumnarStorage> overflow;
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            Long oldSize = residentChunks.remove(chunk);
+            if (oldSize != null) {
+                residentSize -= oldSize;
+            }
+            spilledChunks.remove(chunk);
+            long size = chunk.estimateMemorySize();
+            residentChunks.put(chunk, size);
+            residentSize += size;
+
+            overflow = collectOverflow(chunk);
+        }
+        spillChunks(overflow);
+    }
+
+    /**
+     * Counts new model rows against the budget. Spills chunks if memory budget is exceeded.
+     */
+    public void addRowObjects(int count) {
+        List<ResultSetColumnarStorage> overflow;
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            rowObjectsSize += (long) count * ROW_OBJECT_SIZE;
+            overflow = collectOverflow(null);
+        }
+        spillChunks(overflow);
+    }
+
+    public synchronized void removeRowObjects(int count) {
+        rowObjectsSize = Math.max(0, rowObjectsSize - (long) count * ROW_OBJECT_SIZE);
+    }
+
+    /**
+     * Marks chunk as recently used
+     */
+    synchronized void touch(@NotNull ResultSetColumnarStorage chunk) {
+        residentChunks.get(chunk);
+    }
+
+    /**
+     * Removes chunk from buffer and deletes its spill file
+     */
+    synchronized void discard(@NotNull ResultSetColumnarStorage chunk) {
+        Long size = residentChunks.remove(chunk);
+        if (size != null) {
+            residentSize -= size;
+        }
+        spilledChunks.remove(chunk);
+        chunk.deleteSpillFile();
+    }
+
+    /**
+     * Deletes all spill files
+     */
+    synchronized void dispose() {
+        disposed = true;
+        for (ResultSetColumnarStorage chunk : residentChunks.keySet()) {
+            chunk.deleteSpillFile();
+        }
+        for (ResultSetColumnarStorage chunk : spilledChunks) {
+            chunk.deleteSpillFile();
+        }
+        residentChunks.clear();
+        spilledChunks.clear();
+        residentSize = 0;
+        rowObjectsSize = 0;
+        if (spillFolder != null && ownSpillFolder) {
+            try {
+                Files.deleteIfExists(spillFolder);
+            } catch (IOException e) {
+                log.debug("Error deleting result set spill folder '" + spillFolder + "'", e);
+            }
+            spillFolder = null;
+        }
+    }
+
+    /**
+     * Removes least recently used chunks from resident set until memory budget is met.
+     * Removed chunks must be passed to {@link #spillChunks(List)}.
+     */
+    @NotNull
+    private List<ResultSetColumnarStorage> collectOverflow(@Nullable ResultSetColumnarStorage keep) {
+        if (residentSize + rowObjectsSize <= memoryBudget) {
+            return Collections.emptyList();
+        }
+        List<ResultSetColumnarStorage> overflow = new ArrayList<>();
+        for (Iterator<Map.Entry<ResultSetColumnarStorage, Long>> iter = residentChunks.entrySet().iterator();
+             iter.hasNext() && residentSize + rowObjectsSize > memoryBudget; ) {
+            Map.Entry<ResultSetColumnarStorage, Long> entry = iter.next();
+            ResultSetColumnarStorage chunk = entry.getKey();
+            if (chunk == keep) {
+                continue;
+            }
+            iter.remove();
+            residentSize -= entry.getValue();
+            overflow.add(chunk);
+        }
+        return overflow;
+    }
+
+    /**
+     * Writes chunks to disk. Must be called without buffer lock.
+     * Chunks which can't be spilled go back to the resident set.
+     */
+    private void spillChunks(@NotNull List<ResultSetColumnarStorage> overflow) {
+        for (int i = 0; i < overflow.size(); i++) {
+            ResultSetColumnarStorage chunk = overflow.get(i);
+            boolean spilled;
+            try {
+                spilled = chunk.spill(nextSpillFile());
+            } catch (IOException e) {
+                log.debug("Error spilling result set data to disk", e);
+                // Do not try to spill anymore. Just keep everything in memory.
+                for (ResultSetColumnarStorage rest : overflow.subList(i, overflow.size())) {
+                    keepResident(rest);
+                }
+                return;
+            }
+            if (spilled) {
+                markSpilled(chunk);
+            } else {
+                keepResident(chunk);
+            }
+        }
+    }
+
+    private synchronized void markSpilled(@NotNull ResultSetColumnarStorage chunk) {
+        if (disposed) {
+            chunk.deleteSpillFile();
+        } else if (chunk.isSpilled()) {
+            // Otherwise it was paged back already and registered as resident
+            spilledChunks.add(chunk);
+        }
+    }
+
+    private synchronized void keepResident(@NotNull ResultSetColumnarStorage chunk) {
+        if (disposed || residentChunks.containsKey(chunk)) {
+            return;
+        }
+        long size = chunk.estimateMemorySize();
+        residentChunks.put(chunk, size);
+        residentSize += size;
+    }
+
+    @NotNull
+    private synchronized Path nextSpillFile() throws IOException {
+        if (spillFolder == null) {
+            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), SPILL_FOLDER);
+            spillFolder = Files.createTempDirectory(tempFolder, "rs");
+        }
+        return spillFolder.resolve("chunk-" + (fileCounter++) + ".bin");
+    }
+
+}
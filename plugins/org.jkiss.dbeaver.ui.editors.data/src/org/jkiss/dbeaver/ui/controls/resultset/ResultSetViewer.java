@@ -2195,6 +2195,10 @@ public class ResultSetViewer extends Viewer
                 }
             }
         }
+        boolean hasErrors = model.getStorageError() != null;
+        if (hasErrors) {
+            statusMessage += " - " + ResultSetMessages.controls_resultset_viewer_status_storage_error;
+        }
         boolean hasWarnings = !dataReceiver.getErrorList().isEmpty();
         if (hasWarnings) {
             statusMessage += " - " + dataReceiver.getErrorList().size() + " warning(s)";
@@ -2216,7 +2220,7 @@ public class ResultSetViewer extends Viewer
         if (isTooltip) {
             setStatusTooltip(statusMessage);
         } else {
-            setStatus(statusMessage, hasWarnings ? DBPMessageType.WARNING :DBPMessageType.INFORMATION);
+            setStatus(statusMessage, hasErrors ? DBPMessageType.ERROR : hasWarnings ? DBPMessageType.WARNING : DBPMessageType.INFORMATION);
         }
     }
 
@@ -2387,12 +2391,30 @@ public class ResultSetViewer extends Viewer
         }
         this.curRow = null;
         this.model.setData(rows);
+        updateDataState(rows.size(), focusRow);
+    }
+
+    void setData(List<ResultSetColumnarStorage> storages, @Nullable ResultSetSpillBuffer spillBuffer, int focusRow)
+    {
+        if (viewerPanel.isDisposed()) {
+            return;
+        }
+        this.curRow = null;
+        this.model.setData(storages, spillBuffer);
+        if (spillBuffer != null) {
+            spillBuffer.setReadErrorHandler(() -> UIUtils.asyncExec(this::updateStatusMessage));
+        }
+        updateDataState(this.model.getRowCount(), focusRow);
+    }
+
+    private void updateDataState(int rowCount, int focusRow)
+    {
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
         if (focusRow > 0 && focusRow < model.getRowCount()) {
             this.curRow = model.getRow(focusRow);
         }
         if (this.selectedRecords.length > 1) {
-            this.selectedRecords = Arrays.stream(this.selectedRecords).filter(value -> value < rows.size()).toArray();
+            this.selectedRecords = Arrays.stream(this.selectedRecords).filter(value -> value < rowCount).toArray();
             if (this.selectedRecords.length == 0) {
                 this.selectedRecords = this.curRow == null ? new int[0] : new int[]{curRow.getVisualNumber()};
             }
@@ -2408,13 +2430,13 @@ public class ResultSetViewer extends Viewer
             {
                 boolean newRecordMode;
                 if (autoRecordMode != null) {
-                    if (rows.size() <= 1) {
+                    if (rowCount <= 1) {
                         newRecordMode = autoRecordMode;
                     } else {
                         newRecordMode = false;
                     }
                 } else {
-                    newRecordMode = (rows.size() <= 1);
+                    newRecordMode = (rowCount <= 1);
                 }
                 if (newRecordMode != recordMode) {
                     UIUtils.asyncExec(this::toggleMode);
@@ -2425,12 +2447,20 @@ public class ResultSetViewer extends Viewer
 
     void appendData(List<Object[]> rows, boolean resetOldRows) {
         model.appendData(rows, resetOldRows);
+        updateAppendStatus(rows.size());
+    }
+
+    void appendStorages(List<ResultSetColumnarStorage> storages, boolean resetOldRows) {
+        model.appendStorages(storages, resetOldRows);
+        updateAppendStatus(storages.stream().mapToInt(ResultSetColumnarStorage::getRowCount).sum());
+    }
 
+    private void updateAppendStatus(int rowCount) {
         UIUtils.asyncExec(() -> {
             String message = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(false);
+                rowCount) + getExecutionTimeMessage(false);
             String tooltip = NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(),
-                rows.size()) + getExecutionTimeMessage(true);
+                rowCount) + getExecutionTimeMessage(true);
             setStatus(message, DBPMessageType.INFORMATION);
             setStatusTooltip(tooltip);
             updateEditControls();
@@ -105,6 +105,7 @@ public class ResultSetMessages extends NLS {
     public static String controls_resultset_viewer_status_rows_fetched;
     public static String controls_resultset_viewer_status_rows_updated;
     public static String controls_resultset_viewer_status_rows_size;
+    public static String controls_resultset_viewer_status_storage_error;
     public static String controls_resultset_viewer_status_rows_time;
     public static String controls_resultset_viewer_status_rows_time_fetch;
     public static String controls_resultset_viewer_status_rows_time_long;
@@ -346,6 +347,10 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_read_metadata_tip;
     public static String pref_page_database_resultsets_label_read_references_tip;
     public static String pref_page_database_resultsets_label_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_columnar_storage;
+    public static String pref_page_database_resultsets_label_columnar_storage_tip;
+    public static String pref_page_database_resultsets_label_spill_memory_budget;
+    public static String pref_page_database_resultsets_label_spill_memory_budget_tip;
 
     public static String pref_page_content_cache_clob;
     public static String pref_page_content_cache_blob;
@@ -442,6 +447,10 @@ public class ResultSetMessages extends NLS {
     public static String aggregate_columns_reset_text;
     public static String aggregate_columns_copy_value_text;
     public static String aggregate_columns_copy_all_text;
+    public static String aggregate_columns_approximate_text;
+    public static String aggregate_columns_approximate_tip;
+    public static String aggregate_columns_calculating_text;
+    public static String aggregate_columns_calculating_values_text;
     public static String result_set_view_menu_text;
     public static String result_set_stat_columns;
     public static String result_set_stat_rows;
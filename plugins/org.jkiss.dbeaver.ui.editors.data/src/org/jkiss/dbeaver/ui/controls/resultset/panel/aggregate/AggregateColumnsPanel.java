@@ -16,16 +16,21 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
@@ -33,6 +38,10 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionApproximate;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -61,6 +70,13 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
 
+    // Selections with more cells are aggregated in background job
+    private static final int BACKGROUND_AGGREGATE_THRESHOLD = 10_000;
+    // Cell values of large selections are read from the model by chunks, so UI is not blocked
+    private static final int READ_VALUES_CHUNK_SIZE = 10_000;
+    private static final int PROGRESS_STEP = 10_000;
+    private static final String APPROXIMATE_PREFIX = "~";
+
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
 
@@ -74,7 +90,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private IDialogSettings panelSettings;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
+    private final Set<String> approximateFunctions = new HashSet<>();
     private boolean featureTracked;
+    private volatile AggregateJob aggregateJob;
 
     public AggregateColumnsPanel() {
     }
@@ -110,7 +128,10 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
         menuMgr.setRemoveAllWhenShown(true);
         this.aggregateTable.setMenu(menuMgr.createContextMenu(this.aggregateTable));
-        this.aggregateTable.addDisposeListener(e -> menuMgr.dispose());
+        this.aggregateTable.addDisposeListener(e -> {
+            menuMgr.dispose();
+            cancelAggregateJob();
+        });
 
         aggregateTable.addSelectionListener(new SelectionAdapter() {
             @Override
@@ -136,6 +157,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
             for (IDialogSettings funcSection : functionsSection.getSections()) {
                 String funcId = funcSection.getName();
+                if (funcSection.getBoolean("approximate")) {
+                    approximateFunctions.add(funcId);
+                }
                 if (!funcSection.getBoolean("enabled")) {
                     continue;
                 }
@@ -173,6 +197,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             IDialogSettings funcSection = UIUtils.getSettingsSection(functionsSection, func.getId());
             boolean enabled = enabledFunctions.contains(func);
             funcSection.put("enabled", enabled);
+            funcSection.put("approximate", approximateFunctions.contains(func.getId()));
             if (enabled) {
                 funcSection.put("index", enabledFunctions.indexOf(func));
             } else {
@@ -198,6 +223,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        cancelAggregateJob();
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -228,89 +254,166 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             ));
             featureTracked = true;
         }
-        ResultSetModel model = presentation.getController().getModel();
-        if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
-            }
+        // Model is not thread-safe, so cell values are read in UI thread.
+        // Only functions are calculated in background.
+        ValueSnapshot snapshot = new ValueSnapshot(
+            presentation.getController().getModel(), selection, selection.toArray(), groupByColumns);
+        List<AggregateFunctionDescriptor> functions = new ArrayList<>(enabledFunctions);
+        Set<String> approximate = new HashSet<>(approximateFunctions);
+        int valueCount = snapshot.elements.length;
+        if (valueCount < BACKGROUND_AGGREGATE_THRESHOLD) {
+            snapshot.readValues(valueCount);
+            List<AggregateGroup> groups = snapshot.getGroups();
+            calculateGroups(new VoidProgressMonitor(), groups, functions, approximate, aggregateAsStrings);
+            showGroups(groups, functions);
+        } else {
+            TreeItem progressItem = new TreeItem(aggregateTable, SWT.NONE);
+            progressItem.setText(0, ResultSetMessages.aggregate_columns_calculating_text);
+            progressItem.setText(1, NLS.bind(ResultSetMessages.aggregate_columns_calculating_values_text, INTEGER_FORMAT.format(valueCount)));
+            AggregateJob job = new AggregateJob(snapshot, functions, approximate, aggregateAsStrings, valueCount);
+            aggregateJob = job;
+            readValues(job);
+        }
+    }
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
-                TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
-                attrItem.setText(entry.getKey().getName());
-                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
-                attrItem.setExpanded(true);
+    /**
+     * Reads next chunk of values in UI thread and schedules the job when all values are read.
+     * Reading stops if the job was canceled by panel refresh.
+     */
+    private void readValues(@NotNull AggregateJob job) {
+        UIUtils.asyncExec(() -> {
+            if (aggregateJob != job || aggregateTable == null || aggregateTable.isDisposed()) {
+                return;
             }
-        } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                if (row != null) {
-                    Object cellValue = model.getCellValue(attr, row);
-                    allValues.add(cellValue);
-                }
+            if (job.snapshot.readValues(READ_VALUES_CHUNK_SIZE)) {
+                job.schedule();
+            } else {
+                readValues(job);
             }
-            aggregateValues(null, allValues);
+        });
+    }
+
+    private void cancelAggregateJob() {
+        AggregateJob job = aggregateJob;
+        if (job != null) {
+            aggregateJob = null;
+            job.cancel();
         }
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
-            TreeItem funcItem = (parentItem == null) ?
-                new TreeItem(aggregateTable, SWT.NONE) :
-                new TreeItem(parentItem, SWT.NONE);
-            funcItem.setData(funcDesc);
-            funcItem.setText(0, funcDesc.getLabel());
-            DBPImage icon = funcDesc.getIcon();
-            if (icon != null) {
-                funcItem.setImage(0, DBeaverIcons.getImage(icon));
+    private void showGroups(@NotNull List<AggregateGroup> groups, @NotNull List<AggregateFunctionDescriptor> functions) {
+        for (AggregateGroup group : groups) {
+            TreeItem attrItem = null;
+            if (group.attribute != null) {
+                attrItem = new TreeItem(aggregateTable, SWT.NONE);
+                attrItem.setText(group.attribute.getName());
+                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(group.attribute)));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
+            for (AggregateFunctionDescriptor funcDesc : functions) {
+                TreeItem funcItem = (attrItem == null) ?
+                    new TreeItem(aggregateTable, SWT.NONE) :
+                    new TreeItem(attrItem, SWT.NONE);
+                funcItem.setData(funcDesc);
+                funcItem.setText(0, funcDesc.getLabel());
+                DBPImage icon = funcDesc.getIcon();
+                if (icon != null) {
+                    funcItem.setImage(0, DBeaverIcons.getImage(icon));
+                }
+                String strValue = group.results.get(funcDesc);
+                if (strValue != null) {
+                    funcItem.setText(1, strValue);
+                }
+            }
+            if (attrItem != null) {
+                attrItem.setExpanded(true);
             }
         }
+    }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+    /**
+     * Calculates functions for all groups. May be called outside of UI thread.
+     * Returns false if calculation was canceled.
+     */
+    private static boolean calculateGroups(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<AggregateGroup> groups,
+        @NotNull List<AggregateFunctionDescriptor> functions,
+        @NotNull Set<String> approximate,
+        boolean aggregateAsStrings
+    ) {
+        // Formats are not thread-safe
+        DecimalFormat doubleFormat = (DecimalFormat) DOUBLE_FORMAT.clone();
+        DecimalFormat integerFormat = (DecimalFormat) INTEGER_FORMAT.clone();
+        for (AggregateGroup group : groups) {
+            List<AggregateFunctionDescriptor> descriptors = new ArrayList<>(functions.size());
+            List<IAggregateFunction> funcList = new ArrayList<>(functions.size());
+            for (AggregateFunctionDescriptor funcDesc : functions) {
+                try {
+                    IAggregateFunction func = funcDesc.createFunction();
+                    if (func instanceof IAggregateFunctionApproximate) {
+                        ((IAggregateFunctionApproximate) func).setApproximate(
+                            funcDesc.isApproximateSupported() && approximate.contains(funcDesc.getId()));
+                    }
+                    descriptors.add(funcDesc);
+                    funcList.add(func);
+                } catch (DBException e) {
+                    log.error(e);
                 }
             }
-        }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
+
+            IAggregateFunction[] funcs = funcList.toArray(new IAggregateFunction[0]);
+            int[] funcCount = new int[funcs.length];
+            int processed = 0;
+            for (Object element : group.values) {
+                for (int i = 0; i < funcs.length; i++) {
+                    if (funcs[i].accumulate(element, aggregateAsStrings)) {
+                        funcCount[i]++;
+                    }
+                }
+                if (++processed % PROGRESS_STEP == 0) {
+                    if (monitor.isCanceled()) {
+                        return false;
+                    }
+                    monitor.worked(PROGRESS_STEP);
+                }
             }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
+            monitor.worked(processed % PROGRESS_STEP);
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcCount[i] <= 0) {
+                    continue;
                 }
-                if (strValue != null) {
-                    treeItem.setText(1, strValue);
+                IAggregateFunction func = funcs[i];
+                Object result = func.getResult(funcCount[i]);
+                if (result != null) {
+                    String strValue;
+                    if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
+                        strValue = doubleFormat.format(result);
+                    } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
+                        strValue = integerFormat.format(result);
+                    } else {
+                        strValue = result.toString();
+                    }
+                    if (strValue != null) {
+                        if (func instanceof IAggregateFunctionApproximate && ((IAggregateFunctionApproximate) func).isResultApproximate()) {
+                            strValue = APPROXIMATE_PREFIX + strValue;
+                        }
+                        group.results.put(descriptors.get(i), strValue);
+                    }
                 }
             }
+            // Values are not needed anymore
+            group.values.clear();
         }
+        return true;
+    }
+
+    @Nullable
+    private AggregateFunctionDescriptor getSelectedFunction() {
+        if (aggregateTable == null || aggregateTable.isDisposed() || aggregateTable.getSelectionCount() == 0) {
+            return null;
+        }
+        Object data = aggregateTable.getSelection()[0].getData();
+        return data instanceof AggregateFunctionDescriptor ? (AggregateFunctionDescriptor) data : null;
     }
 
     public void clearValue()
@@ -326,6 +429,120 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new GroupByColumnsAction());
         contributionManager.add(new ValueTypeToggleAction());
+        contributionManager.add(new ApproximateToggleAction());
+    }
+
+    private static class AggregateGroup {
+        @Nullable
+        private final DBDAttributeBinding attribute;
+        private final List<Object> values = new ArrayList<>();
+        private final Map<AggregateFunctionDescriptor, String> results = new IdentityHashMap<>();
+
+        AggregateGroup(@Nullable DBDAttributeBinding attribute) {
+            this.attribute = attribute;
+        }
+    }
+
+    /**
+     * Copy of selected cell values. Values must be read in UI thread.
+     */
+    private static class ValueSnapshot {
+        private final ResultSetModel model;
+        private final IResultSetSelection selection;
+        private final Object[] elements;
+        private final boolean groupByColumns;
+        private final Map<DBDAttributeBinding, AggregateGroup> attrGroups = new LinkedHashMap<>();
+        private final AggregateGroup group = new AggregateGroup(null);
+        private int position;
+
+        ValueSnapshot(
+            @NotNull ResultSetModel model,
+            @NotNull IResultSetSelection selection,
+            @NotNull Object[] elements,
+            boolean groupByColumns
+        ) {
+            this.model = model;
+            this.selection = selection;
+            this.elements = elements;
+            this.groupByColumns = groupByColumns;
+        }
+
+        /**
+         * Reads values of the next selected cells.
+         * Returns true if all values were read.
+         */
+        boolean readValues(int count) {
+            int end = Math.min(elements.length, position + count);
+            for (; position < end; position++) {
+                Object element = elements[position];
+                DBDAttributeBinding attr = selection.getElementAttribute(element);
+                ResultSetRow row = selection.getElementRow(element);
+                if (attr == null || row == null) {
+                    continue;
+                }
+                AggregateGroup valueGroup = groupByColumns ? attrGroups.computeIfAbsent(attr, AggregateGroup::new) : group;
+                valueGroup.values.add(model.getCellValue(attr, row));
+            }
+            return position >= elements.length;
+        }
+
+        @NotNull
+        List<AggregateGroup> getGroups() {
+            return groupByColumns ? new ArrayList<>(attrGroups.values()) : Collections.singletonList(group);
+        }
+    }
+
+    private class AggregateJob extends AbstractJob {
+        private final ValueSnapshot snapshot;
+        private final List<AggregateFunctionDescriptor> functions;
+        private final Set<String> approximate;
+        private final boolean aggregateAsStrings;
+        private final int valueCount;
+
+        AggregateJob(
+            @NotNull ValueSnapshot snapshot,
+            @NotNull List<AggregateFunctionDescriptor> functions,
+            @NotNull Set<String> approximate,
+            boolean aggregateAsStrings,
+            int valueCount
+        ) {
+            super("Calculate aggregate functions");
+            this.snapshot = snapshot;
+            this.functions = functions;
+            this.approximate = approximate;
+            this.aggregateAsStrings = aggregateAsStrings;
+            this.valueCount = valueCount;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            monitor.beginTask("Calculate aggregate functions", valueCount);
+            List<AggregateGroup> groups = snapshot.getGroups();
+            try {
+                if (!calculateGroups(monitor, groups, functions, approximate, aggregateAsStrings)) {
+                    return Status.CANCEL_STATUS;
+                }
+            } finally {
+                monitor.done();
+            }
+            UIUtils.asyncExec(() -> {
+                if (aggregateJob != this || aggregateTable == null || aggregateTable.isDisposed()) {
+                    return;
+                }
+                aggregateJob = null;
+                aggregateTable.setRedraw(false);
+                try {
+                    aggregateTable.removeAll();
+                    showGroups(groups, functions);
+                    UIUtils.packColumns(aggregateTable, false, null);
+                } finally {
+                    aggregateTable.setRedraw(true);
+                }
+            });
+            return Status.OK_STATUS;
+        }
     }
 
     private class GroupByColumnsAction extends Action {
@@ -360,6 +577,35 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    private class ApproximateToggleAction extends Action {
+        private final AggregateFunctionDescriptor func;
+
+        public ApproximateToggleAction() {
+            super(ResultSetMessages.aggregate_columns_approximate_text, IAction.AS_CHECK_BOX);
+            setToolTipText(ResultSetMessages.aggregate_columns_approximate_tip);
+            setImageDescriptor(DBeaverIcons.getImageDescriptor(UIIcon.CHART_CURVE));
+            this.func = getSelectedFunction();
+            setChecked(func != null && approximateFunctions.contains(func.getId()));
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return func != null && func.isApproximateSupported();
+        }
+
+        @Override
+        public void run() {
+            if (func == null) {
+                return;
+            }
+            if (!approximateFunctions.remove(func.getId())) {
+                approximateFunctions.add(func.getId());
+            }
+            setChecked(approximateFunctions.contains(func.getId()));
+            refresh(false);
+        }
+    }
+
     private class AddFunctionAction extends Action {
         public AddFunctionAction() {
             super(ResultSetMessages.aggregate_columns_add_function_text, DBeaverIcons.getImageDescriptor(UIIcon.ADD));
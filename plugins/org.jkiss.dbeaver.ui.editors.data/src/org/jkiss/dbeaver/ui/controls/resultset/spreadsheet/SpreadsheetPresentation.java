@@ -519,7 +519,7 @@ public class SpreadsheetPresentation extends AbstractPresentation
 
         GridCell prevCell = null;
         for (GridCell cell : selectedCells) {
-            if (prevCell == null || cell.row != prevCell.row) {
+            if (prevCell == null || !cell.row.equals(prevCell.row)) {
                 // Next row
                 if (prevCell != null && prevCell.col != cell.col) {
                     // Fill empty row tail
@@ -1906,6 +1906,17 @@ public class SpreadsheetPresentation extends AbstractPresentation
             }
         }
 
+        @NotNull
+        @Override
+        public List<?> getRowElements() {
+            if (!controller.isRecordMode()) {
+                // Model rows may change before the grid is refreshed, so grid gets a snapshot.
+                // Copying references is cheap compared to creating grid rows
+                return Arrays.asList(controller.getModel().getAllRows().toArray());
+            }
+            return IGridContentProvider.super.getRowElements();
+        }
+
         @Override
         public boolean hasChildren(@NotNull IGridItem item) {
             if (item.getElement() instanceof DBDAttributeBinding) {
@@ -76,6 +76,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Button markCellValueOccurrences;
 
     private Button advUseFetchSize;
+    private Button advUseColumnarStorage;
+    private Text advSpillMemoryBudget;
 
     private Button ignoreColumnLabelCheck;
     private Button useDateTimeEditor;
@@ -105,6 +107,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(ResultSetPreferences.KEEP_STATEMENT_OPEN) ||
             store.contains(ResultSetPreferences.RESULT_SET_ORDERING_MODE) ||
             store.contains(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET) ||
             store.contains(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS) ||
             store.contains(ResultSetPreferences.RESULT_SET_CONFIRM_BEFORE_SAVE) ||
             store.contains(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG) ||
@@ -172,10 +176,14 @@ public class PrefPageResultSetMain extends TargetPrefPage
 
         }
         {
-            Group advGroup = UIUtils.createControlGroup(leftPane, ResultSetMessages.pref_page_results_group_advanced, 1, GridData.VERTICAL_ALIGN_BEGINNING, 0);
-
-            ignoreColumnLabelCheck = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_general_use_column_names, ResultSetMessages.pref_page_database_general_use_column_names_tip, false, 1);
-            advUseFetchSize = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_size, ResultSetMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 1);
+            Group advGroup = UIUtils.createControlGroup(leftPane, ResultSetMessages.pref_page_results_group_advanced, 2, GridData.VERTICAL_ALIGN_BEGINNING, 0);
+
+            ignoreColumnLabelCheck = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_general_use_column_names, ResultSetMessages.pref_page_database_general_use_column_names_tip, false, 2);
+            advUseFetchSize = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_size, ResultSetMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 2);
+            advUseColumnarStorage = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_columnar_storage, ResultSetMessages.pref_page_database_resultsets_label_columnar_storage_tip, false, 2);
+            advSpillMemoryBudget = UIUtils.createLabelText(advGroup, ResultSetMessages.pref_page_database_resultsets_label_spill_memory_budget, "0", SWT.BORDER);
+            advSpillMemoryBudget.setToolTipText(ResultSetMessages.pref_page_database_resultsets_label_spill_memory_budget_tip);
+            advSpillMemoryBudget.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
         }
 
 
@@ -286,6 +294,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             useNavigatorFilters.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS));
 
             advUseFetchSize.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE));
+            advUseColumnarStorage.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE));
+            advSpillMemoryBudget.setText(String.valueOf(store.getInt(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET)));
             ignoreColumnLabelCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL));
 
             if (confirmDataSave != null) {
@@ -323,6 +333,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS, useNavigatorFilters.getSelection());
 
             store.setValue(ModelPreferences.RESULT_SET_USE_FETCH_SIZE, advUseFetchSize.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE, advUseColumnarStorage.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET, CommonUtils.toInt(advSpillMemoryBudget.getText()));
             store.setValue(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL, ignoreColumnLabelCheck.getSelection());
 
             if (confirmDataSave != null) {
@@ -358,6 +370,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS);
 
         store.setToDefault(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET);
         store.setToDefault(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL);
 
         store.setToDefault(ResultSetPreferences.RESULT_SET_CONFIRM_BEFORE_SAVE);
@@ -391,6 +405,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
         showErrorsInDialog.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG));
         markCellValueOccurrences.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_MARK_CELL_VALUE_OCCURRENCES));
         advUseFetchSize.setSelection(store.getDefaultBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE));
+        advUseColumnarStorage.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE));
+        advSpillMemoryBudget.setText(String.valueOf(store.getDefaultInt(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_BUDGET)));
         ignoreColumnLabelCheck.setSelection(store.getDefaultBoolean(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL));
         useDateTimeEditor.setSelection(store.getDefaultBoolean(ModelPreferences.RESULT_SET_USE_DATETIME_EDITOR));
         useBrowserCheckbox.setSelection(store.getDefaultBoolean(ResultSetPreferences.RESULT_IMAGE_USE_BROWSER_BASED_RENDERER));
@@ -29,7 +29,7 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
 
 
     private ISearchQuery searchQuery;
-    private List<OBJECT_TYPE> objects = new ArrayList<>();
+    private final List<OBJECT_TYPE> objects = new ArrayList<>();
     private final List<ISearchResultListener> listeners = new ArrayList<>();
 
     public AbstractSearchResult(ISearchQuery searchQuery) {
@@ -67,11 +67,18 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
     }
 
     public List<OBJECT_TYPE> getObjects() {
-        return objects;
+        synchronized (objects) {
+            return new ArrayList<>(objects);
+        }
     }
 
+    /**
+     * Adds found objects. May be called from several search threads at once.
+     */
     public void addObjects(List<OBJECT_TYPE> objects) {
-        this.objects.addAll(objects);
+        synchronized (this.objects) {
+            this.objects.addAll(objects);
+        }
         fireChange(new DatabaseSearchResultEvent(objects));
     }
 
@@ -55,6 +55,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_MASK = "search.data.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.data.case-sensitive"; //$NON-NLS-1$
     private static final String PROP_SAMPLE_ROWS = "search.data.sample-rows"; //$NON-NLS-1$
+    private static final String PROP_MAX_TOTAL_ROWS = "search.data.max-total-rows"; //$NON-NLS-1$
+    private static final String PROP_PARALLELISM = "search.data.parallelism"; //$NON-NLS-1$
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
@@ -193,6 +195,28 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            final Spinner maxTotalResultsSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_max_total_results,
+                UISearchMessages.dialog_data_search_spinner_max_total_results_tip, params.maxTotalResults,
+                0,
+                Integer.MAX_VALUE);
+            maxTotalResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxTotalResultsSpinner.addModifyListener(e -> params.maxTotalResults = maxTotalResultsSpinner.getSelection());
+
+            if (params.parallelism <= 0) {
+                params.parallelism = SearchDataQuery.DEFAULT_PARALLELISM;
+            }
+
+            final Spinner parallelismSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_parallelism,
+                UISearchMessages.dialog_data_search_spinner_parallelism_tip, params.parallelism,
+                1,
+                SearchDataQuery.MAX_PARALLELISM);
+            parallelismSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            parallelismSpinner.addModifyListener(e -> params.parallelism = parallelismSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(
                 optionsGroup2,
                 UISearchMessages.dialog_search_objects_case_sensitive,
@@ -298,6 +322,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxTotalResults = store.getInt(PROP_MAX_TOTAL_ROWS);
+        params.parallelism = store.getInt(PROP_PARALLELISM);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -322,6 +348,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_MASK, params.searchString);
         store.setValue(PROP_CASE_SENSITIVE, params.caseSensitive);
         store.setValue(PROP_SAMPLE_ROWS, params.maxResults);
+        store.setValue(PROP_MAX_TOTAL_ROWS, params.maxTotalResults);
+        store.setValue(PROP_PARALLELISM, params.parallelism);
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
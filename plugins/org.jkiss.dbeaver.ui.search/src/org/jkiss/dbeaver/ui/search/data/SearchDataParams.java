@@ -35,6 +35,8 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int maxTotalResults; // 0 means no limit
+    int parallelism;
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +107,22 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    public int getMaxTotalResults() {
+        return maxTotalResults;
+    }
+
+    public void setMaxTotalResults(int maxTotalResults) {
+        this.maxTotalResults = maxTotalResults;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
@@ -36,12 +36,15 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -55,11 +58,16 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int MAX_PARALLELISM = 16;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
 
@@ -108,26 +116,37 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
-
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
+            SearchState state = new SearchState(monitor, dbnModel, getSearchQueue(monitor));
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
+                int parallelism = Math.min(
+                    Math.max(1, params.parallelism <= 0 ? DEFAULT_PARALLELISM : Math.min(params.parallelism, MAX_PARALLELISM)),
+                    state.containers.size());
+                if (parallelism <= 1) {
+                    new SearchWorker(state, 0).searchContainers(monitor);
+                } else {
+                    // The first worker uses the regular utility context, others open isolated contexts
+                    List<SearchWorkerJob> jobs = new ArrayList<>();
+                    for (int i = 0; i < parallelism; i++) {
+                        SearchWorkerJob job = new SearchWorkerJob(new SearchWorker(state, i));
+                        jobs.add(job);
+                        job.schedule();
                     }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                    for (SearchWorkerJob job : jobs) {
+                        while (!job.join(100, null)) {
+                            if (monitor.isCanceled()) {
+                                state.stopped = true;
+                            }
+                        }
                     }
-                    monitor.worked(1);
                 }
             } finally {
                 monitor.done();
             }
 
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, state.foundObjects.get()));
 
             return Status.OK_STATUS;
         } catch (Exception e) {
@@ -135,24 +154,59 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    /**
+     * Orders tables by estimated size, biggest first. So the longest searches start early and do not delay
+     * the end of the parallel search. Tables without statistics go last.
+     */
+    @NotNull
+    private List<DBSDataContainer> getSearchQueue(@NotNull DBRProgressMonitor monitor) {
+        Set<DBSObject> collectors = new HashSet<>();
+        for (DBSDataContainer dataContainer : params.sources) {
+            DBSObject parent = dataContainer.getParentObject();
+            if (parent instanceof DBPObjectStatisticsCollector && collectors.add(parent) &&
+                !((DBPObjectStatisticsCollector) parent).isStatisticsCollected())
+            {
+                try {
+                    ((DBPObjectStatisticsCollector) parent).collectObjectStatistics(monitor, false, false);
+                } catch (DBException e) {
+                    log.debug("Error reading statistics of " + DBUtils.getObjectFullName(parent, DBPEvaluationContext.UI), e);
+                }
+            }
+        }
+        List<DBSDataContainer> queue = new ArrayList<>(params.sources);
+        queue.sort(Comparator.comparingLong(SearchDataQuery::getEstimatedSize).reversed());
+        return queue;
+    }
+
+    private static long getEstimatedSize(@NotNull DBSDataContainer dataContainer) {
+        if (dataContainer instanceof DBPObjectStatistics && ((DBPObjectStatistics) dataContainer).hasStatistics()) {
+            return ((DBPObjectStatistics) dataContainer).getStatObjectSize();
+        }
+        return -1;
+    }
+
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull SearchState state,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSDataContainer dataContainer)
+    {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
 
         String objectName = DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
-        DBNDatabaseNode node = dbnModel.getNodeByObject(monitor, dataContainer, false);
+        DBNDatabaseNode node = state.dbnModel.getNodeByObject(monitor, dataContainer, false);
         if (node == null) {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
-        monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
-        SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
-            TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
+        SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor, state);
+        try (DBCSession session = executionContext.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName)) {
+            TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor, state);
             try {
-                findRows(session, dataContainer, dataReceiver);
+                findRows(session, dataContainer, dataReceiver, state.getRowLimit());
             } catch (DBCException e) {
                 // Search failed in some container - just write an error in log.
                 // We don't want to break whole search because of one single table.
@@ -164,8 +218,6 @@ public class SearchDataQuery implements ISearchQuery {
                 searchResult.addObjects(Collections.singletonList(object));
                 return true;
             }
-        } catch (DBCException e) {
-            log.error("Error searching data in container", e);
         }
         return false;
     }
@@ -173,7 +225,8 @@ public class SearchDataQuery implements ISearchQuery {
     private DBCStatistics findRows(
         @NotNull DBCSession session,
         @NotNull DBSDataContainer dataContainer,
-        @NotNull TestDataReceiver dataReceiver) throws DBCException
+        @NotNull TestDataReceiver dataReceiver,
+        long maxRows) throws DBCException
     {
         DBSEntity entity;
         if (dataContainer instanceof DBSEntity) {
@@ -295,7 +348,8 @@ public class SearchDataQuery implements ISearchQuery {
             }
             dataReceiver.filter.setAnyConstraint(true);
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0, 0);
+            // Let the server limit the number of rows
+            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, 0, maxRows, 0, 0);
         } catch (DBException e) {
             throw new DBCException("Error finding rows", e);
         }
@@ -331,29 +385,171 @@ public class SearchDataQuery implements ISearchQuery {
         return dataFilter;
     }
 
+    /**
+     * Search state shared by all workers
+     */
+    private class SearchState {
+        private final DBRProgressMonitor monitor;
+        private final DBNModel dbnModel;
+        private final List<DBSDataContainer> containers;
+        private int nextContainer;
+        private final AtomicInteger foundObjects = new AtomicInteger();
+        private final AtomicLong foundRows = new AtomicLong();
+        private volatile boolean stopped;
+
+        SearchState(@NotNull DBRProgressMonitor monitor, @NotNull DBNModel dbnModel, @NotNull List<DBSDataContainer> containers) {
+            this.monitor = monitor;
+            this.dbnModel = dbnModel;
+            this.containers = containers;
+        }
+
+        /**
+         * Returns next container to search or null if there is nothing to search anymore.
+         * Data sources which can't open extra connections are searched by the first worker only.
+         */
+        @Nullable
+        synchronized DBSDataContainer nextContainer(int workerIndex) {
+            if (stopped || monitor.isCanceled()) {
+                return null;
+            }
+            DBSDataContainer result = null;
+            for (int i = nextContainer; i < containers.size(); i++) {
+                DBSDataContainer container = containers.get(i);
+                if (container != null && (workerIndex == 0 || !container.getDataSource().getContainer().isForceUseSingleConnection())) {
+                    result = container;
+                    containers.set(i, null);
+                    break;
+                }
+            }
+            while (nextContainer < containers.size() && containers.get(nextContainer) == null) {
+                nextContainer++;
+            }
+            if (result != null) {
+                monitor.subTask("Search in '" + DBUtils.getObjectFullName(result, DBPEvaluationContext.UI) + "'");
+            }
+            return result;
+        }
+
+        synchronized void containerFinished() {
+            monitor.worked(1);
+        }
+
+        long getRowLimit() {
+            long limit = params.maxResults;
+            if (params.maxTotalResults > 0) {
+                limit = Math.min(limit, params.maxTotalResults - foundRows.get());
+            }
+            return Math.max(limit, 1);
+        }
+
+        void addFoundRow() {
+            if (params.maxTotalResults > 0 && foundRows.incrementAndGet() >= params.maxTotalResults) {
+                stopped = true;
+            }
+        }
+    }
+
+    private class SearchWorker {
+        private final SearchState state;
+        private final int index;
+        private final Map<DBSInstance, DBCExecutionContext> isolatedContexts = new HashMap<>();
+
+        SearchWorker(@NotNull SearchState state, int index) {
+            this.state = state;
+            this.index = index;
+        }
+
+        void searchContainers(@NotNull DBRProgressMonitor monitor) {
+            try {
+                for (DBSDataContainer dataContainer = state.nextContainer(index);
+                     dataContainer != null;
+                     dataContainer = state.nextContainer(index))
+                {
+                    try {
+                        DBCExecutionContext executionContext = getExecutionContext(monitor, dataContainer);
+                        if (searchDataInContainer(monitor, state, executionContext, dataContainer)) {
+                            state.foundObjects.incrementAndGet();
+                        }
+                    } catch (DBException e) {
+                        log.error("Error searching data in container", e);
+                    } finally {
+                        state.containerFinished();
+                    }
+                }
+            } finally {
+                for (DBCExecutionContext context : isolatedContexts.values()) {
+                    context.close();
+                }
+                isolatedContexts.clear();
+            }
+        }
+
+        @NotNull
+        private DBCExecutionContext getExecutionContext(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBSDataContainer dataContainer) throws DBException
+        {
+            DBCExecutionContext defaultContext = DBUtils.getOrOpenDefaultContext(dataContainer, false);
+            if (defaultContext == null) {
+                throw new DBCException("Default context not found");
+            }
+            if (index == 0) {
+                return defaultContext;
+            }
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+            DBCExecutionContext context = isolatedContexts.get(instance);
+            if (context == null) {
+                context = instance.openPooledContext(monitor, "Data search", defaultContext);
+                isolatedContexts.put(instance, context);
+            }
+            return context;
+        }
+    }
+
+    private class SearchWorkerJob extends AbstractJob {
+        private final SearchWorker worker;
+
+        SearchWorkerJob(@NotNull SearchWorker worker) {
+            super("Data search (" + (worker.index + 1) + ")");
+            this.worker = worker;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            worker.searchContainers(new SearchTableMonitor(worker.state.monitor, worker.state));
+            return Status.OK_STATUS;
+        }
+    }
+
     private class SearchTableMonitor extends VoidProgressMonitor {
 
-        private DBRProgressMonitor baseMonitor;
+        private final DBRProgressMonitor baseMonitor;
+        private final SearchState state;
         private volatile boolean canceled;
 
-        private SearchTableMonitor(DBRProgressMonitor monitor) {
+        private SearchTableMonitor(DBRProgressMonitor monitor, SearchState state) {
             this.baseMonitor = monitor;
+            this.state = state;
         }
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || state.stopped || baseMonitor.isCanceled();
         }
     }
 
     private class TestDataReceiver implements DBDDataReceiver {
 
-        private SearchTableMonitor searchMonitor;
+        private final SearchTableMonitor searchMonitor;
+        private final SearchState state;
         private int rowCount = 0;
         private DBDDataFilter filter;
 
-        TestDataReceiver(SearchTableMonitor searchMonitor) {
+        TestDataReceiver(SearchTableMonitor searchMonitor, SearchState state) {
             this.searchMonitor = searchMonitor;
+            this.state = state;
         }
 
         @Override
@@ -364,6 +560,7 @@ public class SearchDataQuery implements ISearchQuery {
         @Override
         public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
             rowCount++;
+            state.addFoundRow();
             if (rowCount >= params.maxResults) {
                 searchMonitor.canceled = true;
             }
@@ -0,0 +1,219 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.generic.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaModel;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.registry.DataSourceNavigatorSettings;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GenericMetadataSnapshotTest {
+
+    private static final String CATALOG_NAME = "TEST_CATALOG";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private DBPPreferenceStore preferenceStore;
+    private DBPDataSourceContainer container;
+    private DBPConnectionConfiguration connectionConfiguration;
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() throws Exception {
+        preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        preferenceStore.setValue(ModelPreferences.META_SNAPSHOT_ENABLED, true);
+
+        Path metadataFolder = tempFolder.newFolder().toPath();
+        snapshotFile = metadataFolder.resolve("metadata-snapshots").resolve("test-ds.dat");
+        DBPProject project = Mockito.mock(DBPProject.class);
+        Mockito.when(project.getMetadataFolder(Mockito.anyBoolean())).thenReturn(metadataFolder);
+
+        connectionConfiguration = new DBPConnectionConfiguration();
+        connectionConfiguration.setUrl("jdbc:sqlite:test.db");
+        connectionConfiguration.setUserName("user1");
+
+        // We do not have generic driver, so use SQLite one.
+        DBPDriver driver = DBWorkbench.getPlatform().getDataSourceProviderRegistry().findDriver("sqlite_jdbc");
+        container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn("test-ds");
+        Mockito.when(container.getName()).thenReturn("Test");
+        Mockito.when(container.getDriver()).thenReturn(driver);
+        Mockito.when(container.getProject()).thenReturn(project);
+        Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(container.getNavigatorSettings()).thenReturn(new DataSourceNavigatorSettings());
+        Mockito.when(container.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+    }
+
+    @After
+    public void tearDown() {
+        preferenceStore.setToDefault(ModelPreferences.META_SNAPSHOT_ENABLED);
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        preferenceStore.setToDefault(ModelPreferences.META_SNAPSHOT_ENABLED);
+        Assert.assertFalse(preferenceStore.getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
+
+        GenericMetadataSnapshot.saveSnapshot(createDataSourceWithTables(), null);
+        Assert.assertFalse(Files.exists(snapshotFile));
+    }
+
+    @Test
+    public void testSaveAndRestore() throws Exception {
+        GenericMetadataSnapshot.saveSnapshot(createDataSourceWithTables(), null);
+        Assert.assertTrue(Files.exists(snapshotFile));
+
+        TestDataSource dataSource = new TestDataSource(container);
+        GenericMetadataSnapshot snapshot = GenericMetadataSnapshot.loadSnapshot(dataSource);
+        Assert.assertNotNull(snapshot);
+        try {
+            GenericCatalog catalog = new GenericCatalog(dataSource, CATALOG_NAME);
+            TableCache tableCache = catalog.getTableCache();
+            Assert.assertTrue(snapshot.restoreContainer(monitor, catalog, tableCache));
+            Assert.assertTrue(tableCache.isFullyCached());
+
+            GenericTableBase orders = tableCache.getCachedObject("ORDERS");
+            Assert.assertNotNull(orders);
+            Assert.assertNotNull(tableCache.getCachedObject("CUSTOMERS"));
+            Assert.assertTrue(orders.isPersisted());
+            List<GenericTableColumn> columns = tableCache.getCachedColumns(orders);
+            Assert.assertNotNull(columns);
+            Assert.assertEquals(2, columns.size());
+            GenericTableColumn idColumn = columns.get(0);
+            Assert.assertEquals("ID", idColumn.getName());
+            Assert.assertEquals("INTEGER", idColumn.getTypeName());
+            Assert.assertEquals(Types.INTEGER, idColumn.getTypeID());
+            Assert.assertTrue(idColumn.isRequired());
+            GenericTableColumn nameColumn = columns.get(1);
+            Assert.assertEquals("NAME", nameColumn.getName());
+            Assert.assertEquals("VARCHAR", nameColumn.getTypeName());
+            Assert.assertEquals(100, nameColumn.getMaxLength());
+
+            // Each container is restored only once
+            Assert.assertFalse(snapshot.restoreContainer(monitor, catalog, tableCache));
+        } finally {
+            snapshot.dispose();
+        }
+    }
+
+    @Test
+    public void testInvalidatedByConnectionSettings() throws Exception {
+        GenericMetadataSnapshot.saveSnapshot(createDataSourceWithTables(), null);
+        TestDataSource dataSource = new TestDataSource(container);
+        assertSnapshotValid(dataSource, true);
+
+        connectionConfiguration.setUserName("user2");
+        assertSnapshotValid(dataSource, false);
+        connectionConfiguration.setUserName("user1");
+        assertSnapshotValid(dataSource, true);
+
+        connectionConfiguration.getBootstrap().setDefaultCatalogName("OTHER_CATALOG");
+        assertSnapshotValid(dataSource, false);
+        connectionConfiguration.getBootstrap().setDefaultCatalogName(null);
+        assertSnapshotValid(dataSource, true);
+
+        connectionConfiguration.setDatabaseName("other");
+        assertSnapshotValid(dataSource, false);
+        connectionConfiguration.setDatabaseName(null);
+
+        DBPDriver otherDriver = Mockito.mock(DBPDriver.class);
+        Mockito.when(otherDriver.getId()).thenReturn("other_driver");
+        Mockito.when(otherDriver.getFullId()).thenReturn("generic:other_driver");
+        Mockito.when(container.getDriver()).thenReturn(otherDriver);
+        assertSnapshotValid(dataSource, false);
+    }
+
+    private static void assertSnapshotValid(GenericDataSource dataSource, boolean valid) {
+        GenericMetadataSnapshot snapshot = GenericMetadataSnapshot.loadSnapshot(dataSource);
+        Assert.assertEquals(valid, snapshot != null);
+        if (snapshot != null) {
+            snapshot.dispose();
+        }
+    }
+
+    private TestDataSource createDataSourceWithTables() throws DBException {
+        TestDataSource dataSource = new TestDataSource(container);
+        GenericCatalog catalog = new GenericCatalog(dataSource, CATALOG_NAME);
+        dataSource.catalogs.add(catalog);
+
+        List<GenericTableBase> tables = new ArrayList<>();
+        Map<GenericTableBase, List<GenericTableColumn>> columns = new IdentityHashMap<>();
+        GenericTable orders = createTable(catalog, "ORDERS");
+        tables.add(orders);
+        columns.put(orders, new ArrayList<>(List.of(
+            new GenericTableColumn(orders, "ID", "INTEGER", Types.INTEGER, 0, 1, 10, 0, null, null, 10, true, null, null, true, false),
+            new GenericTableColumn(orders, "NAME", "VARCHAR", Types.VARCHAR, 0, 2, 100, 100, null, null, 10, false, "Name", null, false, false)
+        )));
+        GenericTable customers = createTable(catalog, "CUSTOMERS");
+        tables.add(customers);
+        columns.put(customers, new ArrayList<>(List.of(
+            new GenericTableColumn(customers, "ID", "INTEGER", Types.INTEGER, 0, 1, 10, 0, null, null, 10, true, null, null, false, false)
+        )));
+        catalog.getTableCache().restoreCache(catalog, tables, columns);
+        return dataSource;
+    }
+
+    private static GenericTable createTable(GenericCatalog catalog, String name) {
+        GenericTable table = new GenericTable(catalog, name, "TABLE", null);
+        table.setPersisted(true);
+        return table;
+    }
+
+    private static class TestDataSource extends GenericDataSource {
+        final List<GenericCatalog> catalogs = new ArrayList<>();
+
+        TestDataSource(DBPDataSourceContainer container) throws DBException {
+            super(new VoidProgressMonitor(), new GenericMetaModel(), container, new GenericSQLDialect());
+        }
+
+        @Override
+        public List<GenericCatalog> getCatalogs() {
+            return catalogs;
+        }
+
+        @Override
+        boolean supportsStructCache() {
+            // Columns are saved only if they can be revalidated
+            return true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCBatchBulkLoader;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OracleBulkLoaderTest {
+
+    @Mock
+    private DBPDataSourceContainer mockDataSourceContainer;
+    @Mock
+    private JDBCSession session;
+    @Mock
+    private JDBCPreparedStatement statement;
+    @Mock
+    private DBRProgressMonitor monitor;
+    @Mock
+    private DBCExecutionSource executionSource;
+
+    private DBPPreferenceStore preferenceStore;
+    private OracleDataSource testDataSource;
+    private OracleTable oracleTable;
+    private DBSAttributeBase[] attributes;
+
+    @Before
+    public void setUp() throws Exception {
+        Mockito.when(mockDataSourceContainer.getDriver()).thenReturn(DBWorkbench.getPlatform().getDataSourceProviderRegistry().findDriver("oracle"));
+        testDataSource = new OracleDataSource(mockDataSourceContainer);
+
+        preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        Mockito.when(mockDataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+
+        OracleSchema testSchema = new OracleSchema(testDataSource, -1, "TEST_SCHEMA");
+        oracleTable = new OracleTable(testSchema, "TEST_TABLE");
+        attributes = new DBSAttributeBase[] {
+            OracleTestUtils.addColumn(oracleTable, "COLUMN1", "VARCHAR2", 1),
+            OracleTestUtils.addColumn(oracleTable, "COLUMN2", "NUMBER", 2)
+        };
+
+        Mockito.when(session.getDataSource()).thenReturn(testDataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+    }
+
+    @After
+    public void tearDown() {
+        preferenceStore.setToDefault(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH);
+    }
+
+    @Test
+    public void conventionalInsertByDefault() throws Exception {
+        Mockito.when(session.prepareStatement("INSERT INTO TEST_SCHEMA.TEST_TABLE (COLUMN1,COLUMN2) VALUES (?,?)")).thenReturn(statement);
+
+        DBSDataBulkLoader.BulkLoadManager loadManager = createBulkLoad(2);
+        for (int i = 0; i < 5; i++) {
+            loadManager.addRow(session, new Object[] { "value" + i, null });
+        }
+        // Arrays are sent at batch size without commit
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+
+        loadManager.finishBulkLoad(session);
+        loadManager.close();
+        Mockito.verify(statement, Mockito.times(5)).addBatch();
+        Mockito.verify(statement, Mockito.times(3)).executeBatch();
+        Mockito.verify(statement).close();
+        Mockito.verify(session, Mockito.never()).getExecutionContext();
+    }
+
+    @Test
+    public void directPathInsertCommitsEachArray() throws Exception {
+        preferenceStore.setValue(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH, true);
+        Mockito.when(session.prepareStatement("INSERT /*+ APPEND_VALUES */ INTO TEST_SCHEMA.TEST_TABLE (COLUMN1,COLUMN2) VALUES (?,?)")).thenReturn(statement);
+        DBCTransactionManager txnManager = mockTransactionManager();
+
+        DBSDataBulkLoader.BulkLoadManager loadManager = createBulkLoad(2);
+        for (int i = 0; i < 5; i++) {
+            loadManager.addRow(session, new Object[] { "value" + i, null });
+        }
+        // Array is sent on commit boundary only
+        Mockito.verify(statement, Mockito.never()).executeBatch();
+
+        loadManager.flushRows(session);
+        Mockito.verify(statement, Mockito.times(1)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(1)).commit(session);
+
+        // Nothing to load and commit
+        loadManager.finishBulkLoad(session);
+        loadManager.close();
+        Mockito.verify(statement, Mockito.times(1)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(1)).commit(session);
+    }
+
+    @Test
+    public void directPathArrayIsLimited() throws Exception {
+        preferenceStore.setValue(OracleConstants.PREF_BULK_LOAD_DIRECT_PATH, true);
+        Mockito.when(session.prepareStatement("INSERT /*+ APPEND_VALUES */ INTO TEST_SCHEMA.TEST_TABLE (COLUMN1,COLUMN2) VALUES (?,?)")).thenReturn(statement);
+        DBCTransactionManager txnManager = mockTransactionManager();
+
+        // No commit boundary
+        DBSDataBulkLoader.BulkLoadManager loadManager = createBulkLoad(0);
+        for (int i = 0; i < JDBCBatchBulkLoader.MAX_BUFFERED_ROWS + 1; i++) {
+            loadManager.addRow(session, new Object[] { "value", null });
+        }
+        Mockito.verify(statement, Mockito.times(1)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(1)).commit(session);
+
+        loadManager.finishBulkLoad(session);
+        loadManager.close();
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(2)).commit(session);
+    }
+
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoad(int batchSize) throws DBException {
+        OracleBulkLoader bulkLoader = new OracleBulkLoader(testDataSource);
+        return bulkLoader.createBulkLoad(session, oracleTable, attributes, executionSource, batchSize, Collections.emptyMap());
+    }
+
+    private DBCTransactionManager mockTransactionManager() throws DBException {
+        DBCExecutionContext executionContext = Mockito.mock(
+            DBCExecutionContext.class,
+            Mockito.withSettings().extraInterfaces(DBCTransactionManager.class));
+        DBCTransactionManager txnManager = (DBCTransactionManager) executionContext;
+        Mockito.when(executionContext.isConnected()).thenReturn(true);
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(false);
+        Mockito.when(session.getExecutionContext()).thenReturn(executionContext);
+        return txnManager;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LSMAnalyzerImplTest {
+
+    @Test
+    public void testSyntaxErrorsReportedOnce() {
+        String query = "SELECT a, FROM t WHERE";
+        List<String> expectedErrors = parseWithFullContext(query);
+        Assert.assertFalse(expectedErrors.isEmpty());
+
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer();
+        CollectingErrorListener listener = new CollectingErrorListener();
+        STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(query), listener);
+        Assert.assertNotNull(tree);
+        // SLL stage fails on the first error and query is parsed again with LL, errors of the first stage are not reported
+        Assert.assertEquals(expectedErrors, listener.errors);
+
+        // Cached tree is returned, its errors are reported again
+        CollectingErrorListener cachedListener = new CollectingErrorListener();
+        Assert.assertSame(tree, analyzer.parseSqlQueryTree(STMSource.fromString(query), cachedListener));
+        Assert.assertEquals(expectedErrors, cachedListener.errors);
+    }
+
+    @Test
+    public void testValidQueryCached() {
+        String query = "SELECT a, b.c FROM s.t x WHERE a > 1 ORDER BY b.c";
+        Assert.assertTrue(parseWithFullContext(query).isEmpty());
+
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer();
+        CollectingErrorListener listener = new CollectingErrorListener();
+        STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(query), listener);
+        Assert.assertNotNull(tree);
+        Assert.assertSame(tree, analyzer.parseSqlQueryTree(STMSource.fromString(query), listener));
+        Assert.assertTrue(listener.errors.isEmpty());
+
+        // Cached trees are shared, so they can't be modified
+        Assert.assertThrows(UnsupportedOperationException.class, tree::removeLastChild);
+    }
+
+    private static List<String> parseWithFullContext(String query) {
+        CollectingErrorListener listener = new CollectingErrorListener();
+        SQLStandardLexer lexer = new SQLStandardLexer(CharStreams.fromString(query));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(listener);
+        SQLStandardParser parser = new SQLStandardParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+        parser.sqlQuery();
+        return listener.errors;
+    }
+
+    private static class CollectingErrorListener extends STMSkippingErrorListener {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+            errors.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+}
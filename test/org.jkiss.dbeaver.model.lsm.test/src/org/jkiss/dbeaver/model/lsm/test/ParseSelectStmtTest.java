@@ -26,10 +26,6 @@ import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Scanner;
 
 
 @RunWith(MockitoJUnitRunner.class)
@@ -37,32 +33,9 @@ public class ParseSelectStmtTest {
     
     private static final String _selectStatementsSqlTextResourceName = "SelectStatements.sql.txt";
     
-    private static List<String> readStatements(InputStream stream) {
-        List<String> result = new LinkedList<>();
-        
-        try (Scanner scanner = new Scanner(stream)) {
-            StringBuilder sb = new StringBuilder();
-            
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                String trimmed = line.trim();
-                if (trimmed.length() > 0) {
-                    if (!(trimmed.startsWith("#") || trimmed.startsWith("--"))) {
-                        sb.append(line).append(" \n");
-                    }
-                } else if (sb.toString().trim().length() > 0) {
-                    result.add(sb.toString());
-                    sb.setLength(0);
-                }
-            }
-        }
-        
-        return result;
-    }
-    
     @Test
     public void testModel() throws IOException {
-        var statementsToParse = readStatements(ParseSelectStmtTest.class.getResourceAsStream(_selectStatementsSqlTextResourceName));
+        var statementsToParse = LSMTestUtils.readStatements(ParseSelectStmtTest.class.getResourceAsStream(_selectStatementsSqlTextResourceName));
         
         for (String stmtText : statementsToParse) {
             var input = CharStreams.fromString(stmtText);
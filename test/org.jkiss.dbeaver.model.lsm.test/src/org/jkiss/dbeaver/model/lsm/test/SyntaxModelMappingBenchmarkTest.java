@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.Tree;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.lsm.mapping.SyntaxModel;
+import org.jkiss.dbeaver.model.lsm.mapping.internal.XTreeNodeBase;
+import org.jkiss.dbeaver.model.lsm.sql.impl.SelectStatement;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares syntax model mapping with precompiled lookups and accessors against
+ * XPath evaluation and reflective access.
+ */
+public class SyntaxModelMappingBenchmarkTest {
+
+    private static final Log log = Log.getLog(SyntaxModelMappingBenchmarkTest.class);
+
+    private static final String SELECT_STATEMENTS_RESOURCE = "SelectStatements.sql.txt";
+    private static final int WARM_UP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private List<String> statements;
+
+    @Before
+    public void setUp() {
+        statements = LSMTestUtils.readStatements(
+            SyntaxModelMappingBenchmarkTest.class.getResourceAsStream(SELECT_STATEMENTS_RESOURCE));
+        // Syntax model is mapped over the trees built with the adapted contextSuperClass only.
+        // Path evaluation itself is checked over hand-built trees in SyntaxPathExpressionTest
+        Assume.assumeTrue("Parse tree is not supported by syntax model", parse("SELECT 1") instanceof XTreeNodeBase);
+    }
+
+    @Test
+    public void testPrecompiledMappingMatchesInterpreted() {
+        SyntaxModel interpreted = createModel(false);
+        SyntaxModel precompiled = createModel(true);
+
+        for (String stmtText : statements) {
+            var expected = interpreted.map(parse(stmtText), SelectStatement.class);
+            var actual = precompiled.map(parse(stmtText), SelectStatement.class);
+            Assert.assertEquals(stmtText, expected.isNoErrors(), actual.isNoErrors());
+            if (expected.getModel() == null) {
+                Assert.assertNull(stmtText, actual.getModel());
+            } else {
+                Assert.assertEquals(stmtText, interpreted.stringify(expected.getModel()), precompiled.stringify(actual.getModel()));
+            }
+        }
+    }
+
+    @Test
+    public void benchmarkMapping() {
+        SyntaxModel interpreted = createModel(false);
+        SyntaxModel precompiled = createModel(true);
+        List<Tree> interpretedTrees = parseAll();
+        List<Tree> precompiledTrees = parseAll();
+
+        measure(interpreted, interpretedTrees, WARM_UP_ITERATIONS);
+        measure(precompiled, precompiledTrees, WARM_UP_ITERATIONS);
+
+        long interpretedTime = measure(interpreted, interpretedTrees, MEASURED_ITERATIONS);
+        long precompiledTime = measure(precompiled, precompiledTrees, MEASURED_ITERATIONS);
+
+        long count = (long) MEASURED_ITERATIONS * statements.size();
+        Assert.assertTrue(count > 0);
+        log.debug("Syntax model mapping, interpreted: " + (interpretedTime / count) + " ns/statement");
+        log.debug("Syntax model mapping, precompiled: " + (precompiledTime / count) + " ns/statement");
+    }
+
+    private static long measure(SyntaxModel model, List<Tree> trees, int iterations) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (Tree tree : trees) {
+                model.map(tree, SelectStatement.class);
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static SyntaxModel createModel(boolean precompiled) {
+        SyntaxModel model = new SyntaxModel(createParser(""), precompiled);
+        model.introduce(SelectStatement.class);
+        return model;
+    }
+
+    private List<Tree> parseAll() {
+        List<Tree> trees = new ArrayList<>(statements.size());
+        for (String stmtText : statements) {
+            trees.add(parse(stmtText));
+        }
+        return trees;
+    }
+
+    private static Tree parse(String text) {
+        return createParser(text).sqlQuery();
+    }
+
+    private static SQLStandardParser createParser(String text) {
+        var lexer = new SQLStandardLexer(CharStreams.fromString(text));
+        var parser = new SQLStandardParser(new CommonTokenStream(lexer));
+        parser.setBuildParseTree(true);
+        return parser;
+    }
+}
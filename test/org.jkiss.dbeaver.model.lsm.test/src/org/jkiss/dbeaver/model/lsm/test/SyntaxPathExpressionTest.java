@@ -0,0 +1,226 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.tree.Tree;
+import org.jkiss.dbeaver.model.lsm.mapping.internal.SyntaxPathExpression;
+import org.jkiss.dbeaver.model.lsm.mapping.internal.TreeRuleNode;
+import org.jkiss.dbeaver.model.lsm.mapping.internal.XTreeElementBase;
+import org.jkiss.dbeaver.model.lsm.mapping.internal.XTreeNodeBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathNodes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares precompiled syntax model lookups with XPath evaluation over hand-built syntax trees
+ */
+public class SyntaxPathExpressionTest {
+
+    private static final String[] NODE_NAMES = { "a", "b", "c" };
+    private static final int TREE_COUNT = 300;
+    private static final int TREE_DEPTH = 6;
+
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+
+    @Test
+    public void testCompiledPathsMatchXPath() throws XPathExpressionException {
+        String[] paths = {
+            "./a", "./a/b", "./a//b", "./a//b/c", ".//a", ".//a/b", ".//a//b", ".//b//a/c",
+            ".//a/text()", "./a//text()", "./*/a", "a/b", ".//*"
+        };
+        Random random = new Random(1);
+        for (int i = 0; i < TREE_COUNT; i++) {
+            TestNode root = generateTree(random, null, TREE_DEPTH);
+            for (String path : paths) {
+                SyntaxPathExpression expression = SyntaxPathExpression.compile(xpath, path, true);
+                Assert.assertTrue(path, expression.isCompiled());
+                Assert.assertEquals(path, evaluateXPath(path, root), evaluate(expression, root));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedPathsAreInterpreted() throws XPathExpressionException {
+        TestNode root = generateTree(new Random(2), null, TREE_DEPTH);
+        for (String path : new String[] { "./parent::*", "..", "./a[1]", "/a", "./a/text()/b" }) {
+            SyntaxPathExpression expression = SyntaxPathExpression.compile(xpath, path, true);
+            Assert.assertFalse(path, expression.isCompiled());
+            Assert.assertEquals(path, evaluateXPath(path, root), evaluate(expression, root));
+        }
+    }
+
+    @Test
+    public void testPrecompileDisabled() throws XPathExpressionException {
+        Assert.assertFalse(SyntaxPathExpression.compile(xpath, "./a/b", false).isCompiled());
+    }
+
+    private List<Node> evaluateXPath(String path, TestNode root) throws XPathExpressionException {
+        List<Node> result = new ArrayList<>();
+        xpath.compile(path).evaluateExpression(root, XPathNodes.class).forEach(result::add);
+        return result;
+    }
+
+    private static List<Node> evaluate(SyntaxPathExpression expression, TestNode root) throws XPathExpressionException {
+        List<Node> result = new ArrayList<>();
+        ((XPathNodes) expression.evaluate(root).value()).forEach(result::add);
+        return result;
+    }
+
+    private static TestNode generateTree(Random random, TestNode parent, int depth) {
+        TestNode node = new TestNode(parent, NODE_NAMES[random.nextInt(NODE_NAMES.length)], false);
+        if (depth > 0) {
+            int childCount = random.nextInt(4);
+            for (int i = 0; i < childCount; i++) {
+                generateTree(random, node, depth - 1);
+            }
+        }
+        if (random.nextInt(3) == 0) {
+            new TestNode(node, "text", true);
+        }
+        return node;
+    }
+
+    private static class TestNode implements XTreeElementBase, TreeRuleNode.SubnodesList {
+        private final TestNode parent;
+        private final String name;
+        private final boolean text;
+        private final int index;
+        private final List<XTreeNodeBase> subnodes = new ArrayList<>();
+
+        TestNode(TestNode parent, String name, boolean text) {
+            this.parent = parent;
+            this.name = name;
+            this.text = text;
+            if (parent != null) {
+                this.index = parent.subnodes.size();
+                parent.subnodes.add(this);
+            } else {
+                this.index = 0;
+            }
+        }
+
+        @Override
+        public Interval getRealInterval() {
+            return null;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public void fixup(Parser parser, int index) {
+        }
+
+        @Override
+        public TreeRuleNode.SubnodesList getSubnodes() {
+            return this;
+        }
+
+        @Override
+        public Map<String, Object> getUserDataMap(boolean createIfMissing) {
+            return null;
+        }
+
+        @Override
+        public Interval getSourceInterval() {
+            return null;
+        }
+
+        @Override
+        public Tree getParent() {
+            return parent;
+        }
+
+        @Override
+        public Object getPayload() {
+            return this;
+        }
+
+        @Override
+        public Tree getChild(int i) {
+            return subnodes.get(i);
+        }
+
+        @Override
+        public int getChildCount() {
+            return subnodes.size();
+        }
+
+        @Override
+        public String toStringTree() {
+            return name;
+        }
+
+        @Override
+        public String getNodeName() {
+            return text ? "#text" : name;
+        }
+
+        @Override
+        public short getNodeType() {
+            return text ? Node.TEXT_NODE : Node.ELEMENT_NODE;
+        }
+
+        @Override
+        public String getNodeValue() {
+            return name;
+        }
+
+        @Override
+        public List<XTreeNodeBase> getCollection() {
+            return subnodes;
+        }
+
+        @Override
+        public XTreeNodeBase item(int index) {
+            return index < 0 || index >= subnodes.size() ? null : subnodes.get(index);
+        }
+
+        @Override
+        public int getLength() {
+            return subnodes.size();
+        }
+
+        @Override
+        public XTreeNodeBase getFirst() {
+            return subnodes.isEmpty() ? null : subnodes.get(0);
+        }
+
+        @Override
+        public XTreeNodeBase getLast() {
+            return subnodes.isEmpty() ? null : subnodes.get(subnodes.size() - 1);
+        }
+
+        @Override
+        public String toString() {
+            return getNodeName() + "[" + index + "]";
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ApproximateAggregateTest {
+
+    @Test
+    public void testTDigestQuantiles() {
+        Random random = new Random(1);
+        int count = 500_000;
+        double[] values = new double[count];
+        TDigest digest = new TDigest();
+        for (int i = 0; i < count; i++) {
+            // Skewed distribution
+            values[i] = Math.exp(random.nextGaussian());
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+        Assert.assertEquals(count, digest.size());
+        for (double q : new double[] {0.01, 0.1, 0.5, 0.9, 0.99, 0.999}) {
+            double exact = values[(int) (q * (count - 1))];
+            double estimate = digest.quantile(q);
+            Assert.assertEquals("Quantile " + q, exact, estimate, exact * 0.01);
+        }
+        Assert.assertEquals(values[0], digest.quantile(0), 0);
+        Assert.assertEquals(values[count - 1], digest.quantile(1), 0);
+    }
+
+    @Test
+    public void testHyperLogLog() {
+        for (int count : new int[] {10, 1000, 100_000, 2_000_000}) {
+            HyperLogLog hll = new HyperLogLog();
+            for (int i = 0; i < count; i++) {
+                hll.add("value" + i);
+                hll.add("value" + (i / 2));
+            }
+            Assert.assertEquals("Distinct count " + count, count, hll.estimate(), Math.max(1, count * 0.03));
+        }
+    }
+
+    @Test
+    public void testExactForSmallSets() {
+        FunctionMedian median = new FunctionMedian();
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        FunctionMode mode = new FunctionMode();
+        median.setApproximate(true);
+        countDistinct.setApproximate(true);
+        mode.setApproximate(true);
+        for (int value : new int[] {5, 1, 4, 2, 4, 3}) {
+            median.accumulate(value, false);
+            countDistinct.accumulate(value, false);
+            mode.accumulate(value, false);
+        }
+        Assert.assertEquals(3.5, (Double) median.getResult(6), 0);
+        Assert.assertFalse(median.isResultApproximate());
+        Assert.assertEquals(5, countDistinct.getResult(6));
+        Assert.assertFalse(countDistinct.isResultApproximate());
+        Assert.assertEquals(4, mode.getResult(6));
+        Assert.assertFalse(mode.isResultApproximate());
+    }
+
+    @Test
+    public void testApproximateForBigSets() {
+        int count = IAggregateFunctionApproximate.EXACT_VALUES_LIMIT * 3;
+        FunctionMedian median = new FunctionMedian();
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        FunctionMode mode = new FunctionMode();
+        median.setApproximate(true);
+        countDistinct.setApproximate(true);
+        mode.setApproximate(true);
+        for (int i = 0; i < count; i++) {
+            median.accumulate(i, false);
+            countDistinct.accumulate(i, false);
+            // Every tenth value is the same
+            mode.accumulate(i % 10 == 0 ? -1 : i, false);
+        }
+        Assert.assertTrue(median.isResultApproximate());
+        Assert.assertEquals(count / 2.0, (Double) median.getResult(count), count * 0.005);
+        Assert.assertTrue(countDistinct.isResultApproximate());
+        Assert.assertEquals(count, ((Number) countDistinct.getResult(count)).doubleValue(), count * 0.03);
+        Assert.assertTrue(mode.isResultApproximate());
+        Assert.assertEquals(-1.0, ((Number) mode.getResult(count)).doubleValue(), 0);
+    }
+}
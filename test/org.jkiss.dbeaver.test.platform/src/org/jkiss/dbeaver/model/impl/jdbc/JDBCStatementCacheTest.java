@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JDBCStatementCacheTest {
+
+    private static final String QUERY = "SELECT * FROM information_schema.tables WHERE table_schema=?";
+
+    @Test
+    public void testSettingsAreResetOnRelease() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement statement = mockStatement();
+        JDBCStatementCache.CachedStatement cachedStatement = new JDBCStatementCache.CachedStatement(statement);
+
+        // First session changes statement settings
+        Mockito.when(statement.getFetchSize()).thenReturn(1000);
+        Mockito.when(statement.getMaxRows()).thenReturn(50);
+        Mockito.when(statement.getQueryTimeout()).thenReturn(30);
+        Mockito.when(statement.getFetchDirection()).thenReturn(ResultSet.FETCH_REVERSE);
+        Assert.assertTrue(cache.releaseStatement(QUERY, cachedStatement));
+
+        Mockito.verify(statement).clearParameters();
+        Mockito.verify(statement).setFetchSize(10);
+        Mockito.verify(statement).setMaxRows(0);
+        Mockito.verify(statement).setQueryTimeout(0);
+        Mockito.verify(statement).setFetchDirection(ResultSet.FETCH_FORWARD);
+
+        // Second session gets the same statement
+        Assert.assertSame(cachedStatement, cache.takeStatement(QUERY));
+        Assert.assertNull(cache.takeStatement(QUERY));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testUnchangedSettingsAreNotReset() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement statement = mockStatement();
+        JDBCStatementCache.CachedStatement cachedStatement = new JDBCStatementCache.CachedStatement(statement);
+
+        Assert.assertTrue(cache.releaseStatement(QUERY, cachedStatement));
+        Mockito.verify(statement).clearParameters();
+        Mockito.verify(statement, Mockito.never()).setFetchSize(Mockito.anyInt());
+        Mockito.verify(statement, Mockito.never()).setMaxRows(Mockito.anyInt());
+        Mockito.verify(statement, Mockito.never()).setQueryTimeout(Mockito.anyInt());
+        Mockito.verify(statement, Mockito.never()).setFetchDirection(Mockito.anyInt());
+        Assert.assertSame(cachedStatement, cache.takeStatement(QUERY));
+    }
+
+    @Test
+    public void testStatementIsNotCachedIfResetFails() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement statement = mockStatement();
+        JDBCStatementCache.CachedStatement cachedStatement = new JDBCStatementCache.CachedStatement(statement);
+
+        Mockito.when(statement.getMaxRows()).thenReturn(50);
+        Mockito.doThrow(new SQLException("Not supported")).when(statement).setMaxRows(Mockito.anyInt());
+        Assert.assertFalse(cache.releaseStatement(QUERY, cachedStatement));
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertNull(cache.takeStatement(QUERY));
+    }
+
+    @Test
+    public void testClosedStatementIsNotCached() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement statement = mockStatement();
+        JDBCStatementCache.CachedStatement cachedStatement = new JDBCStatementCache.CachedStatement(statement);
+
+        Mockito.when(statement.isClosed()).thenReturn(true);
+        Assert.assertFalse(cache.releaseStatement(QUERY, cachedStatement));
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(2);
+        PreparedStatement statement1 = mockStatement();
+        PreparedStatement statement2 = mockStatement();
+        PreparedStatement statement3 = mockStatement();
+        Assert.assertTrue(cache.releaseStatement("Q1", new JDBCStatementCache.CachedStatement(statement1)));
+        Assert.assertTrue(cache.releaseStatement("Q2", new JDBCStatementCache.CachedStatement(statement2)));
+        Assert.assertTrue(cache.releaseStatement("Q3", new JDBCStatementCache.CachedStatement(statement3)));
+
+        Assert.assertEquals(2, cache.getSize());
+        Mockito.verify(statement1).close();
+        Assert.assertNull(cache.takeStatement("Q1"));
+
+        cache.invalidate();
+        Assert.assertEquals(0, cache.getSize());
+        Mockito.verify(statement2).close();
+        Mockito.verify(statement3).close();
+    }
+
+    private static PreparedStatement mockStatement() throws SQLException {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.getFetchSize()).thenReturn(10);
+        Mockito.when(statement.getMaxRows()).thenReturn(0);
+        Mockito.when(statement.getQueryTimeout()).thenReturn(0);
+        Mockito.when(statement.getFetchDirection()).thenReturn(ResultSet.FETCH_FORWARD);
+        return statement;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.qm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QMQueryStatisticsTest {
+
+    @Test
+    public void testFingerprintLiterals() {
+        String expected = "select * from t where id = ? and name = ?";
+        Assert.assertEquals(expected, QMQueryFingerprint.makeFingerprint("SELECT * FROM t WHERE id = 42 AND name='O''Brien' -- comment\n"));
+        Assert.assertEquals(expected, QMQueryFingerprint.makeFingerprint("select *\n  from t /* x */ where id=7 and name = 'x';"));
+        Assert.assertEquals("select a from \"My Tab\" where b = :p1 and c :: int > ?",
+            QMQueryFingerprint.makeFingerprint("SELECT a FROM \"My Tab\" WHERE b = :p1 AND c::int > 1.5e-3"));
+    }
+
+    @Test
+    public void testFingerprintLists() {
+        Assert.assertEquals(
+            QMQueryFingerprint.makeFingerprint("select a from t where x in (1)"),
+            QMQueryFingerprint.makeFingerprint("select a from t where x in (?)"));
+        Assert.assertEquals(
+            QMQueryFingerprint.makeFingerprint("select a from t where x in (1, 2, 3)"),
+            QMQueryFingerprint.makeFingerprint("select a from t where x in ('a','b')"));
+        Assert.assertEquals(
+            QMQueryFingerprint.makeFingerprint("insert into t values (1, 'a')"),
+            QMQueryFingerprint.makeFingerprint("insert into t values (1, 'a'), (2, 'b'), (3, 'c')"));
+    }
+
+    @Test
+    public void testPercentiles() {
+        QMQueryStatistics statistics = new QMQueryStatistics(null, null, "select ?");
+        for (int i = 1; i <= 1000; i++) {
+            statistics.addExecution("select " + i, i, 10, i % 100 == 0, i);
+        }
+        Assert.assertEquals(1000, statistics.getExecutionCount());
+        Assert.assertEquals(10, statistics.getErrorCount());
+        Assert.assertEquals(10000, statistics.getRowsFetched());
+        Assert.assertEquals(500.5, statistics.getMeanDuration(), 0.001);
+        Assert.assertEquals(1000, statistics.getMaxDuration());
+        assertPercentile(500, statistics.getPercentile(50));
+        assertPercentile(950, statistics.getPercentile(95));
+        assertPercentile(990, statistics.getPercentile(99));
+        Assert.assertEquals(1000, statistics.getPercentile(100));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] { 0, 1, 63, 64, 65, 127, 128, 1000, 123456789L }) {
+            int bucket = QMQueryStatistics.getBucketIndex(value);
+            long upper = QMQueryStatistics.getBucketUpperValue(bucket);
+            Assert.assertTrue(upper >= value);
+            Assert.assertTrue(upper - value <= value / 32 + 1);
+        }
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        // Histogram precision is about 3%
+        Assert.assertTrue("Expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected * 0.04);
+    }
+}
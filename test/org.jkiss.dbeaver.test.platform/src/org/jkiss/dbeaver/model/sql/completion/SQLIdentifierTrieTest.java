@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SQLIdentifierTrieTest {
+
+    private SQLIdentifierTrie<String> trie;
+
+    @Before
+    public void setUp() {
+        trie = new SQLIdentifierTrie<>();
+        for (String name : new String[] { "CUSTOMER", "customer_address", "Orders", "order_items", "ADDRESS" }) {
+            trie.add(name, name);
+        }
+    }
+
+    @Test
+    public void testFindByPrefix() {
+        Assert.assertEquals(Arrays.asList("CUSTOMER", "customer_address"), trie.findByPrefix("cust", 10, v -> true));
+        Assert.assertEquals(Arrays.asList("order_items", "Orders"), trie.findByPrefix("ORDER", 10, v -> true));
+        Assert.assertEquals(Collections.singletonList("CUSTOMER"), trie.findByPrefix("c", 1, v -> true));
+        Assert.assertTrue(trie.findByPrefix("xyz", 10, v -> true).isEmpty());
+        Assert.assertEquals(5, trie.findByPrefix("", 10, v -> true).size());
+    }
+
+    @Test
+    public void testFindExact() {
+        Assert.assertEquals(Collections.singletonList("Orders"), trie.findExact("ORDERS", 10, v -> true));
+        Assert.assertTrue(trie.findExact("order", 10, v -> true).isEmpty());
+    }
+
+    @Test
+    public void testFindContaining() {
+        List<String> result = trie.findContaining("address", 10, v -> true);
+        Assert.assertEquals(Arrays.asList("ADDRESS", "customer_address"), result);
+        Assert.assertEquals(Collections.singletonList("order_items"), trie.findContaining("_I", 10, v -> true));
+    }
+
+    @Test
+    public void testFilter() {
+        Assert.assertEquals(Collections.singletonList("customer_address"), trie.findByPrefix("cust", 10, v -> v.contains("_")));
+    }
+
+    @Test
+    public void testRemove() {
+        trie.add("orders", "orders");
+        Assert.assertEquals(6, trie.size());
+        Assert.assertEquals(2, trie.findExact("orders", 10, v -> true).size());
+
+        Assert.assertTrue(trie.remove("Orders", "Orders"));
+        Assert.assertFalse(trie.remove("Orders", "Orders"));
+        Assert.assertEquals(Collections.singletonList("orders"), trie.findExact("orders", 10, v -> true));
+
+        Assert.assertTrue(trie.remove("orders", "orders"));
+        Assert.assertEquals(Collections.singletonList("order_items"), trie.findByPrefix("order", 10, v -> true));
+        Assert.assertEquals(4, trie.size());
+    }
+}
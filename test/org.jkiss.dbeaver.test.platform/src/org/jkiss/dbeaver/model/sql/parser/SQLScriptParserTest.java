@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.model.sql.parser;
 
 import org.eclipse.jface.text.Document;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreDialect;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
@@ -42,6 +43,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -49,6 +52,9 @@ import java.util.stream.Collectors;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SQLScriptParserTest {
+    // Minimal window size of the stream parser, lookahead is a half of it
+    private static final int STREAM_WINDOW_SIZE = 2048;
+
     @Mock
     private JDBCDataSource dataSource;
     @Mock
@@ -608,6 +614,100 @@ public class SQLScriptParserTest {
         }
     }
     
+    @Test
+    public void parseStreamStatementsAtWindowBoundary() throws Exception {
+        SQLDialect dialect = setDialect("postgresql");
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; body.length() < STREAM_WINDOW_SIZE * 4; i++) {
+            // String literals with delimiters and line feeds inside
+            body.append("select ").append(i).append(", '").append("a;\n".repeat(i * 37 % 150)).append("' from t;\n");
+        }
+        for (int padding = 0; padding < 200; padding++) {
+            assertStreamParse(dialect, makePaddingStatement(padding) + body);
+        }
+    }
+
+    @Test
+    public void parseStreamStatementLargerThanWindow() throws Exception {
+        SQLDialect dialect = setDialect("postgresql");
+        String script = "select 1;\n" +
+            "select '" + "x;".repeat(STREAM_WINDOW_SIZE * 2) + "' from t;\n" +
+            "select 2;\n";
+        List<SQLScriptElement> elements = assertStreamParse(dialect, script);
+        Assert.assertEquals(3, elements.size());
+        Assert.assertEquals("select 2", elements.get(2).getText());
+    }
+
+    @Test
+    public void parseStreamBlocksAtWindowBoundary() throws Exception {
+        String postgresBlock = "do $$\nbegin\n" + "    raise notice 'a;b';\n".repeat(60) + "end $$;\n";
+        SQLDialect dialect = setDialect("postgresql");
+        for (int padding = 0; padding < 1100; padding += 7) {
+            assertStreamParse(dialect, makePaddingStatement(padding) + postgresBlock + postgresBlock + "select 1;\n");
+        }
+
+        String oracleBlock = "BEGIN\n" + "    NULL;\n".repeat(150) + "END;\n";
+        dialect = setDialect("oracle");
+        for (int padding = 0; padding < 1100; padding += 7) {
+            assertStreamParse(dialect, makePaddingStatement(padding) + oracleBlock + oracleBlock + "select 1 from dual;\n");
+        }
+    }
+
+    @Test
+    public void parseStreamDelimiterCommandAtWindowBoundary() throws Exception {
+        SQLDialect dialect = initDialect(new PostgreDialect() {
+            @Override
+            public String getScriptDelimiterRedefiner() {
+                return "DELIMITER";
+            }
+        });
+        // Statement without delimiter ends at the delimiter command, which is cut by the end of the first window
+        String body = "select '" + "x".repeat(1900) + "'\n" +
+            "DELIMITER //\n" +
+            "select 1; select 2//\n".repeat(100) +
+            "DELIMITER ;\n" +
+            "select 3;\n";
+        for (int padding = 0; padding < 200; padding++) {
+            List<SQLScriptElement> elements = assertStreamParse(dialect, makePaddingStatement(padding) + body);
+            Assert.assertEquals("select 1; select 2", elements.get(3).getText());
+            Assert.assertEquals("select 3", elements.get(elements.size() - 1).getText());
+        }
+    }
+
+    private static String makePaddingStatement(int length) {
+        return "select '" + "p".repeat(length) + "';\n";
+    }
+
+    /**
+     * Checks that stream parser returns the same elements with the same offsets as the whole script parser
+     */
+    private List<SQLScriptElement> assertStreamParse(SQLDialect dialect, String script) throws IOException {
+        SQLParserContext context = createParserContext(dialect, script);
+        List<SQLScriptElement> expected = SQLScriptParser.extractScriptQueries(context, 0, script.length(), true, false, false);
+
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, dataSourceContainer.getPreferenceStore());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+        List<SQLScriptElement> elements = new ArrayList<>();
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(
+            dataSource, syntaxManager, ruleManager, dataSourceContainer.getPreferenceStore(),
+            new StringReader(script), STREAM_WINDOW_SIZE, false)
+        ) {
+            while (parser.hasNext()) {
+                SQLScriptElement element = parser.next();
+                int index = elements.size();
+                Assert.assertTrue("Unexpected element " + index + ": " + element.getText(), index < expected.size());
+                Assert.assertEquals("Element " + index, expected.get(index).getText(), element.getText());
+                Assert.assertEquals("Element " + index, expected.get(index).getOffset(), element.getOffset());
+                Assert.assertEquals("Element " + index, expected.get(index).getOffset(), parser.getElementOffset());
+                elements.add(element);
+            }
+        }
+        Assert.assertEquals(expected.size(), elements.size());
+        return elements;
+    }
+
     private void assertParse(String dialectName, String[] expected) throws DBException {
     	String source = Arrays.stream(expected).filter(e -> e != null).collect(Collectors.joining());
     	List<String> expectedParts = new ArrayList<>(expected.length);
@@ -648,8 +748,11 @@ public class SQLScriptParserTest {
         if (name.equals("sqlserver")) {
             Mockito.when(driver.getSampleURL()).thenReturn("jdbc:sqlserver://localhost;user=MyUserName;password=*****;");
         }
-        SQLDialect dialect = registry.getDialect(name).createInstance();
-        ((JDBCSQLDialect) dialect).initDriverSettings(session, dataSource, databaseMetaData);
+        return initDialect((JDBCSQLDialect) registry.getDialect(name).createInstance());
+    }
+
+    private SQLDialect initDialect(JDBCSQLDialect dialect) {
+        dialect.initDriverSettings(session, dataSource, databaseMetaData);
         Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
         return dialect;
     }
@@ -0,0 +1,75 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.dbeaver.DBException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+public class TaskCronExpressionTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final ZonedDateTime BASE = ZonedDateTime.of(2024, 1, 31, 10, 7, 30, 0, UTC);
+
+    @Test
+    public void testSimpleFields() throws DBException {
+        Assert.assertEquals(time(2024, 1, 31, 10, 8), next("* * * * *", BASE));
+        Assert.assertEquals(time(2024, 1, 31, 10, 15), next("*/15 * * * *", BASE));
+        Assert.assertEquals(time(2024, 1, 31, 10, 25), next("5/20 * * * *", BASE));
+        Assert.assertEquals(time(2024, 2, 1, 2, 0), next("0 2 * * *", BASE));
+        Assert.assertEquals(time(2024, 2, 1, 1, 30), next("30 1 * * MON-FRI", time(2024, 1, 31, 10, 7)));
+        Assert.assertEquals(time(2024, 2, 5, 1, 30), next("30 1 * * MON-FRI", time(2024, 2, 2, 1, 30)));
+    }
+
+    @Test
+    public void testDays() throws DBException {
+        // Sunday may be specified as 0 or 7
+        Assert.assertEquals(time(2024, 2, 4, 0, 0), next("0 0 * * 0", BASE));
+        Assert.assertEquals(time(2024, 2, 4, 0, 0), next("0 0 * * 7", BASE));
+        // Last day of month
+        Assert.assertEquals(time(2024, 2, 29, 0, 0), next("0 0 L * *", BASE));
+        Assert.assertEquals(time(2024, 2, 29, 0, 0), next("0 0 1,15,L * *", time(2024, 2, 15, 0, 0)));
+        // Leap day
+        Assert.assertEquals(time(2028, 2, 29, 12, 0), next("0 12 29 2 *", time(2024, 2, 29, 12, 0)));
+        // Day of month OR day of week
+        Assert.assertEquals(time(2024, 2, 2, 0, 0), next("0 0 13 * FRI", BASE));
+        Assert.assertEquals(time(2024, 2, 13, 0, 0), next("0 0 13 * FRI", time(2024, 2, 9, 0, 0)));
+    }
+
+    @Test
+    public void testBadExpressions() {
+        for (String expression : new String[] { "* * *", "61 * * * *", "a * * * *", "5-1 * * * *", "* * * 13 *" }) {
+            try {
+                new TaskCronExpression(expression);
+                Assert.fail("Expression '" + expression + "' must be rejected");
+            } catch (DBException e) {
+                // Expected
+            }
+        }
+    }
+
+    private static ZonedDateTime next(String expression, ZonedDateTime after) throws DBException {
+        return new TaskCronExpression(expression).getNextTime(after);
+    }
+
+    private static ZonedDateTime time(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, UTC);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMProjectInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class QMHistoryStoreTest {
+
+    private static final int HISTORY_DAYS = 7;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final VoidProgressMonitor monitor = new VoidProgressMonitor();
+    private QMMConnectionInfo connection;
+    private QMHistoryStore store;
+
+    @Before
+    public void setUp() {
+        connection = QMMConnectionInfo.builder()
+            .setProjectInfo(QMMProjectInfo.builder().setId("test").setName("Test").build())
+            .setContainerId("test-container")
+            .setContainerName("Test")
+            .setDriverId("test-driver")
+            .setOpenTime(System.currentTimeMillis())
+            .build();
+        store = new QMHistoryStore(tempFolder.getRoot().toPath(), HISTORY_DAYS);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void testSubstringSearch() throws Exception {
+        addQueries(store,
+            "select * from customers",
+            "select id from customer_accounts",
+            "select * from orders",
+            "update orders set customer_id = 1");
+
+        Assert.assertEquals(2, countQueries(store, "ustom"));
+        Assert.assertEquals(3, countQueries(store, "customer"));
+        Assert.assertEquals(1, countQueries(store, "customer_accounts"));
+        Assert.assertEquals(0, countQueries(store, "missing"));
+        Assert.assertEquals(4, countQueries(store, null));
+
+        // Words added after loading are searchable too
+        addQueries(store, "delete from custom_fields");
+        Assert.assertEquals(3, countQueries(store, "ustom"));
+    }
+
+    @Test
+    public void testLazyLoading() throws Exception {
+        addQueries(store, "select 1", "select 2", "select 3");
+        // Records are indexed when the first cursor is opened
+        Assert.assertEquals(0, store.getRecordCount());
+        Assert.assertEquals(3, countQueries(store, null));
+        Assert.assertEquals(3, store.getRecordCount());
+
+        addQueries(store, "select 4");
+        Assert.assertEquals(4, store.getRecordCount());
+        store.close();
+
+        store = new QMHistoryStore(tempFolder.getRoot().toPath(), HISTORY_DAYS);
+        Assert.assertEquals(4, countQueries(store, null));
+        Assert.assertEquals(1, countQueries(store, "select 4"));
+    }
+
+    @Test
+    public void testRetentionOnAppend() throws Exception {
+        addQueries(store, "select 1", "select 2");
+        store.close();
+
+        Path historyFolder = tempFolder.getRoot().toPath().resolve("qm-history");
+        Path expiredSegment = historyFolder.resolve(getSegmentName(LocalDate.now().minusDays(HISTORY_DAYS + 1)));
+        Files.move(historyFolder.resolve(getSegmentName(LocalDate.now())), expiredSegment);
+
+        // Expired segment is deleted when the new segment is opened, before any cursor was requested
+        store = new QMHistoryStore(tempFolder.getRoot().toPath(), HISTORY_DAYS);
+        addQueries(store, "select 3");
+        Assert.assertFalse(Files.exists(expiredSegment));
+        Assert.assertEquals(1, countQueries(store, null));
+    }
+
+    @Test
+    public void testRetentionOfLoadedSegments() throws Exception {
+        addQueries(store, "select 1", "select 2");
+        Assert.assertEquals(2, countQueries(store, null));
+        QMEventCursor cursor = store.getQueryHistoryCursor(createFilter(null));
+
+        store.deleteExpiredSegments(LocalDate.now().plusDays(HISTORY_DAYS + 1));
+        Assert.assertFalse(Files.exists(tempFolder.getRoot().toPath().resolve("qm-history").resolve(getSegmentName(LocalDate.now()))));
+        Assert.assertEquals(0, countQueries(store, null));
+        // Records of deleted segments are skipped by open cursors
+        Assert.assertFalse(cursor.hasNextEvent(monitor));
+    }
+
+    private void addQueries(QMHistoryStore store, String... queries) {
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (String query : queries) {
+            long time = System.currentTimeMillis();
+            QMMStatementInfo statement = new QMMStatementInfo(time, time + 1, connection, DBCExecutionPurpose.USER);
+            QMMStatementExecuteInfo exec = new QMMStatementExecuteInfo(time, time + 1, statement, query, 0, 0, null, 0, 0, false);
+            events.add(new QMMetaEvent(exec, QMEventAction.END, null));
+        }
+        store.metaInfoChanged(monitor, events);
+    }
+
+    private int countQueries(QMHistoryStore store, String searchString) throws Exception {
+        QMEventCursor cursor = store.getQueryHistoryCursor(createFilter(searchString));
+        int count = 0;
+        while (cursor.hasNextEvent(monitor)) {
+            cursor.nextEvent(monitor);
+            count++;
+        }
+        cursor.close();
+        return count;
+    }
+
+    private static QMCursorFilter createFilter(String searchString) {
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setSearchString(searchString);
+        return new QMCursorFilter(null, criteria, null);
+    }
+
+    private static String getSegmentName(LocalDate date) {
+        return DateTimeFormatter.ofPattern("yyyyMMdd").format(date) + ".qmh";
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.auth.SMSessionContext;
+import org.jkiss.dbeaver.model.auth.SMSessionPersistent;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class QMMCollectorImplTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int ITERATIONS = 5000;
+
+    private TestCollector collector;
+
+    @Before
+    public void setUp() {
+        collector = new TestCollector();
+    }
+
+    @After
+    public void tearDown() {
+        collector.dispose();
+    }
+
+    @Test
+    public void testReopenClosedContext() throws Exception {
+        DBCExecutionContext context = mockContext(1);
+        collector.handleContextOpen(context, false);
+        QMMConnectionInfo connection = collector.getConnectionInfo(context);
+        collector.handleContextClose(context);
+        Assert.assertTrue(connection.isClosed());
+
+        // Reopened before cleanup: the same info is reused
+        collector.handleContextOpen(context, false);
+        collector.cleanup();
+        Assert.assertSame(connection, collector.getConnectionInfo(context));
+        Assert.assertFalse(connection.isClosed());
+
+        // Reopened after cleanup: a new info is registered
+        collector.handleContextClose(context);
+        collector.cleanup();
+        Assert.assertNull(collector.getConnectionInfo(context));
+        collector.handleContextOpen(context, false);
+        QMMConnectionInfo newConnection = collector.getConnectionInfo(context);
+        Assert.assertNotNull(newConnection);
+        Assert.assertFalse(newConnection.isClosed());
+    }
+
+    @Test
+    public void testConcurrentOpenCloseCleanup() throws Exception {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            DBCExecutionContext context = mockContext(i + 1);
+            workers.add(new Thread(() -> {
+                try {
+                    for (int k = 0; k < ITERATIONS && error.get() == null; k++) {
+                        collector.handleContextOpen(context, false);
+                        // Only this thread closes the context, so it must stay open and registered
+                        QMMConnectionInfo connection = collector.getConnectionInfo(context);
+                        Assert.assertNotNull("Opened context is not registered", connection);
+                        Assert.assertFalse("Opened context is closed", connection.isClosed());
+                        collector.handleContextClose(context);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        Thread cleaner = new Thread(() -> {
+            while (error.get() == null && workers.stream().anyMatch(Thread::isAlive)) {
+                collector.cleanup();
+            }
+        });
+        workers.forEach(Thread::start);
+        cleaner.start();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        cleaner.join();
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+    }
+
+    private static DBCExecutionContext mockContext(long contextId) throws Exception {
+        DBCExecutionContext context = Mockito.mock(DBCExecutionContext.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(context.getContextId()).thenReturn(contextId);
+        // QM session id is read from the project session
+        SMSessionContext sessionContext = context.getDataSource().getContainer().getProject().getSessionContext();
+        SMSessionPersistent session = Mockito.mock(SMSessionPersistent.class);
+        Mockito.when(sessionContext.getSpaceSession(Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(session);
+        return context;
+    }
+
+    private static class TestCollector extends QMMCollectorImpl {
+        void cleanup() {
+            removeClosedConnections(pollClosedConnections());
+        }
+    }
+}
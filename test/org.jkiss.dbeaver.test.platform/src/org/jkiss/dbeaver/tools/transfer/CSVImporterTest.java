@@ -18,13 +18,18 @@ package org.jkiss.dbeaver.tools.transfer;
 
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamProducerSettings;
 import org.jkiss.dbeaver.tools.transfer.stream.importer.DataImporterCSV;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -32,7 +37,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,13 +48,20 @@ import java.util.Map;
 @RunWith(MockitoJUnitRunner.class)
 public class CSVImporterTest {
     private static final Path DUMMY_FILE = Path.of("dummy");
+    // Parallel reader splits input into chunks of this size
+    private static final int PARSER_CHUNK_SIZE = 4 * 1024 * 1024;
 
     private final DataImporterCSV importer = new DataImporterCSV();
     private final StreamEntityMapping mapping = new StreamEntityMapping(DUMMY_FILE);
     private final Map<String, Object> properties = new HashMap<>();
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Mock
     private IStreamDataImporterSite site;
+    @Mock
+    private IDataTransferConsumer consumer;
 
     @Before
     public void init() throws DBException {
@@ -118,6 +133,166 @@ public class CSVImporterTest {
         Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
     }
 
+    @Test
+    public void parallelReadMatchesSequentialRead() throws DBException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; data.length() < PARSER_CHUNK_SIZE * 2 + PARSER_CHUNK_SIZE / 2; i++) {
+            appendRow(data, i, makeValue(i), "\n");
+        }
+        List<String[]> sequentialRows = importRows(data.toString(), 1);
+        List<String[]> parallelRows = importRows(data.toString(), 4);
+        assertRowsEqual(sequentialRows, parallelRows);
+        assertRowOrder(parallelRows);
+    }
+
+    @Test
+    public void parallelReadQuotedNewLinesAtChunkBoundary() throws DBException {
+        String multiLineValue = "first line\nsecond, line\n\"\"quoted\"\"\nlast line";
+        StringBuilder data = new StringBuilder();
+        int rowCount = appendRowsUntil(data, PARSER_CHUNK_SIZE - multiLineValue.length() / 2, "\n");
+        // Chunk boundary is inside of this value
+        appendRow(data, rowCount, multiLineValue, "\n");
+        appendRow(data, rowCount + 1, "next", "\n");
+
+        List<String[]> rows = importRows(data.toString(), 4);
+        Assert.assertEquals(rowCount + 2, rows.size());
+        assertRowOrder(rows);
+        Assert.assertEquals("first line\nsecond, line\n\"quoted\"\nlast line", rows.get(rowCount)[1]);
+        Assert.assertEquals("next", rows.get(rowCount + 1)[1]);
+        assertRowsEqual(importRows(data.toString(), 1), rows);
+    }
+
+    @Test
+    public void parallelReadCRLF() throws DBException {
+        StringBuilder data = new StringBuilder();
+        int rowCount = appendRowsUntil(data, PARSER_CHUNK_SIZE + 1, "\r\n");
+        // Chunk boundary is between CR and LF of the last row
+        while (data.length() < PARSER_CHUNK_SIZE + 1) {
+            data.insert(data.indexOf(",\"") + 2, 'x');
+        }
+        Assert.assertEquals('\r', data.charAt(PARSER_CHUNK_SIZE - 1));
+        appendRow(data, rowCount, "multi\r\nline", "\r\n");
+        appendRow(data, rowCount + 1, "last", "\r\n");
+
+        List<String[]> rows = importRows(data.toString(), 4);
+        Assert.assertEquals(rowCount + 2, rows.size());
+        assertRowOrder(rows);
+        for (String[] row : rows) {
+            Assert.assertFalse(row[1].endsWith("\r"));
+        }
+        // CSV reader reads values line by line, so line breaks of multi-line values are normalized
+        Assert.assertEquals("multi\nline", rows.get(rowCount)[1]);
+        assertRowsEqual(importRows(data.toString(), 1), rows);
+    }
+
+    @Test
+    public void mappedReaderFallsBackToInputStream() throws Exception {
+        String data = "1,\"first\"\n2,\"multi\nline\"\n";
+        // Input file does not exist, rows must be read from the input stream
+        List<String[]> rows = importRows(mapping, data, true, 1);
+        Assert.assertEquals(2, rows.size());
+        Assert.assertArrayEquals(new String[] { "1", "first" }, rows.get(0));
+        Assert.assertArrayEquals(new String[] { "2", "multi\nline" }, rows.get(1));
+    }
+
+    @Test
+    public void mappedReaderReadsLocalFile() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append(i).append(",\"").append(makeValue(i)).append("\"\n");
+        }
+        Path file = tempFolder.newFile("mapped.csv").toPath();
+        Files.writeString(file, data, StandardCharsets.UTF_8);
+
+        // Mapped reader reads the file itself, so input stream is empty
+        List<String[]> rows = importRows(new StreamEntityMapping(file), "", true, 1);
+        assertRowOrder(rows);
+        assertRowsEqual(importRows(data.toString(), 1), rows);
+
+        // Fails on Windows if the mapped window was not released
+        Files.delete(file);
+    }
+
+    private static String makeValue(int index) {
+        switch (index % 5) {
+            case 0:
+                return "value " + index;
+            case 1:
+                return "multi\nline\nvalue " + index;
+            case 2:
+                return "\"\"quoted\"\", " + index;
+            case 3:
+                return "";
+            default:
+                return "x".repeat(index % 1000);
+        }
+    }
+
+    /**
+     * Appends short rows while data is shorter than the specified length. Returns number of rows.
+     */
+    private static int appendRowsUntil(StringBuilder data, int length, String lineSeparator) {
+        int rowCount = 0;
+        while (data.length() + 20 < length) {
+            appendRow(data, rowCount++, "value", lineSeparator);
+        }
+        return rowCount;
+    }
+
+    private static void appendRow(StringBuilder data, int index, String quotedValue, String lineSeparator) {
+        data.append(index).append(",\"").append(quotedValue).append('"').append(lineSeparator);
+    }
+
+    private static void assertRowOrder(List<String[]> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertEquals(String.valueOf(i), rows.get(i)[0]);
+        }
+    }
+
+    private static void assertRowsEqual(List<String[]> expected, List<String[]> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals("Row " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    private List<String[]> importRows(String data, int parserThreads) throws DBException {
+        return importRows(mapping, data, false, parserThreads);
+    }
+
+    private List<String[]> importRows(
+        StreamEntityMapping sourceMapping,
+        String data,
+        boolean mappedReader,
+        int parserThreads
+    ) throws DBException {
+        properties.put("header", DataImporterCSV.HeaderPosition.none);
+        properties.put("quoteChar", "\"");
+        properties.put("parserThreads", parserThreads);
+        properties.put("mappedReader", mappedReader);
+        sourceMapping.getStreamColumns().clear();
+        for (int i = 0; i < 2; i++) {
+            sourceMapping.getStreamColumns().add(new StreamDataImporterColumnInfo(sourceMapping, i, "Column" + (i + 1), "VARCHAR", 1, DBPDataKind.STRING));
+        }
+        Mockito.when(site.getSourceObject()).thenReturn(sourceMapping);
+        Mockito.when(site.getSettings()).thenReturn(new StreamProducerSettings());
+
+        List<String[]> rows = new ArrayList<>();
+        Mockito.reset(consumer);
+        Mockito.doAnswer(invocation -> {
+            DBCResultSet resultSet = invocation.getArgument(1);
+            rows.add(new String[] { (String) resultSet.getAttributeValue(0), (String) resultSet.getAttributeValue(1) });
+            return null;
+        }).when(consumer).fetchRow(Mockito.any(), Mockito.any());
+
+        importer.runImport(
+            new VoidProgressMonitor(),
+            sourceMapping.getDataSource(),
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+            consumer);
+        return rows;
+    }
+
     private List<StreamDataImporterColumnInfo> readColumnsInfo(String data, boolean isHeaderPresent) throws DBException, IOException {
         properties.put("header", isHeaderPresent ? DataImporterCSV.HeaderPosition.top : DataImporterCSV.HeaderPosition.none);
         try (ByteArrayInputStream is = new ByteArrayInputStream(data.getBytes())) {
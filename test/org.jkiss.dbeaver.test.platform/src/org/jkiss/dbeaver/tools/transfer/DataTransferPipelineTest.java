@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataTransferPipelineTest {
+
+    @Mock
+    private DBCSession session;
+    @Mock
+    private DBCResultSet resultSet;
+    @Mock
+    private DBCResultSetMetaData meta;
+    @Mock
+    private DBCAttributeMetaData attribute;
+    @Mock
+    private DBDValueHandler valueHandler;
+
+    private final List<Object> sourceValues = new ArrayList<>();
+    private int sourcePosition;
+
+    @Before
+    public void init() throws DBCException {
+        Mockito.when(resultSet.getMeta()).thenReturn(meta);
+        Mockito.doReturn(Collections.singletonList(attribute)).when(meta).getAttributes();
+    }
+
+    @Test
+    public void testRowsDeliveredInOrder() throws DBException {
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        mockValueHandler();
+        for (int i = 0; i < 100; i++) {
+            sourceValues.add(i);
+        }
+        RecordingReceiver target = new RecordingReceiver();
+        transfer(new DataTransferPipeline(new VoidProgressMonitor(), target, 7, 2));
+
+        Assert.assertEquals(sourceValues, target.values);
+        Assert.assertEquals(1, target.fetchEndCount);
+        Assert.assertTrue(target.closed);
+        Assert.assertNotEquals(Thread.currentThread(), target.fetchThread);
+    }
+
+    @Test
+    public void testLobColumnsArePassedThrough() throws DBException {
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.CONTENT);
+        for (int i = 0; i < 10; i++) {
+            sourceValues.add("lob" + i);
+        }
+        Mockito.when(resultSet.getAttributeValue(0)).thenAnswer(invocation -> sourceValues.get(sourcePosition - 1));
+        RecordingReceiver target = new RecordingReceiver();
+        transfer(new DataTransferPipeline(new VoidProgressMonitor(), target, 3, 2));
+
+        // Target reads the source result set in the producer thread
+        Assert.assertEquals(sourceValues, target.values);
+        Assert.assertSame(resultSet, target.resultSet);
+        Assert.assertEquals(Thread.currentThread(), target.fetchThread);
+        Assert.assertEquals(1, target.fetchEndCount);
+        Assert.assertTrue(target.closed);
+        Mockito.verify(valueHandler, Mockito.never()).fetchValueObject(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    public void testValuesReleasedAfterFetchEnd() throws DBException {
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.BINARY);
+        mockValueHandler();
+        List<DBDValue> values = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DBDValue value = Mockito.mock(DBDValue.class);
+            values.add(value);
+            sourceValues.add(value);
+        }
+        RecordingReceiver target = new RecordingReceiver() {
+            @Override
+            public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+                super.fetchEnd(session, resultSet);
+                // Target may bind values on commit, they must still be alive
+                for (DBDValue value : values) {
+                    Mockito.verify(value, Mockito.never()).release();
+                }
+            }
+        };
+        transfer(new DataTransferPipeline(new VoidProgressMonitor(), target, 3, 2));
+
+        Assert.assertEquals(sourceValues, target.values);
+        for (DBDValue value : values) {
+            Mockito.verify(value).release();
+        }
+    }
+
+    private void mockValueHandler() throws DBCException {
+        Mockito.when(session.getDefaultValueHandler()).thenReturn(valueHandler);
+        Mockito.when(valueHandler.fetchValueObject(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+            .thenAnswer(invocation -> invocation.<DBCResultSet>getArgument(1).getAttributeValue(invocation.<Integer>getArgument(3)));
+        Mockito.when(resultSet.getAttributeValue(0)).thenAnswer(invocation -> sourceValues.get(sourcePosition - 1));
+    }
+
+    private void transfer(DataTransferPipeline pipeline) throws DBException {
+        pipeline.fetchStart(session, resultSet, 0, 0);
+        for (sourcePosition = 1; sourcePosition <= sourceValues.size(); sourcePosition++) {
+            pipeline.fetchRow(session, resultSet);
+        }
+        pipeline.fetchEnd(session, resultSet);
+        pipeline.close();
+        pipeline.finish();
+    }
+
+    private static class RecordingReceiver implements DBDDataReceiver {
+        private final List<Object> values = Collections.synchronizedList(new ArrayList<>());
+        private volatile DBCResultSet resultSet;
+        private volatile Thread fetchThread;
+        private volatile int fetchEndCount;
+        private volatile boolean closed;
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            fetchThread = Thread.currentThread();
+            values.add(resultSet.getAttributeValue(0));
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+            fetchEndCount++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
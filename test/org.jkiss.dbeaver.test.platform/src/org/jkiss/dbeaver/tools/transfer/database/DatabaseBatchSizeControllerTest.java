@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatabaseBatchSizeControllerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testGrowWhileThroughputImproves() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(1000, 100);
+        controller.reportBatch(1000, SECOND);
+        assertSizes(controller, 2000, 200);
+        controller.reportBatch(2000, SECOND);
+        assertSizes(controller, 4000, 400);
+        // Throughput changes within tolerance keep the direction
+        controller.reportBatch(4000, 2 * SECOND);
+        assertSizes(controller, 8000, 800);
+    }
+
+    @Test
+    public void testShrinkWhenThroughputDegrades() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(1000, 100);
+        controller.reportBatch(1000, SECOND);
+        assertSizes(controller, 2000, 200);
+        controller.reportBatch(2000, 4 * SECOND);
+        assertSizes(controller, 1000, 100);
+        controller.reportBatch(1000, 4 * SECOND);
+        // Still worse than before, so direction is reversed again
+        assertSizes(controller, 2000, 200);
+    }
+
+    @Test
+    public void testShrinkSlowBatches() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(10000, 1000);
+        controller.reportBatch(10000, (DatabaseBatchSizeController.MAX_BATCH_LATENCY_MS + 1000) * 1_000_000L);
+        assertSizes(controller, 5000, 500);
+    }
+
+    @Test
+    public void testIncompleteBatchIsIgnored() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(1000, 100);
+        controller.reportBatch(500, SECOND);
+        controller.reportBatch(1000, 0);
+        assertSizes(controller, 1000, 100);
+    }
+
+    @Test
+    public void testClampToBounds() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(
+            DatabaseBatchSizeController.MAX_COMMIT_SIZE, DatabaseBatchSizeController.MAX_MULTI_INSERT_SIZE);
+        controller.reportBatch(DatabaseBatchSizeController.MAX_COMMIT_SIZE, SECOND);
+        assertSizes(controller, DatabaseBatchSizeController.MAX_COMMIT_SIZE, DatabaseBatchSizeController.MAX_MULTI_INSERT_SIZE);
+        // Upper bound reached, the next step goes down
+        controller.reportBatch(DatabaseBatchSizeController.MAX_COMMIT_SIZE, SECOND);
+        assertSizes(controller, DatabaseBatchSizeController.MAX_COMMIT_SIZE / 2, DatabaseBatchSizeController.MAX_MULTI_INSERT_SIZE / 2);
+
+        controller = new DatabaseBatchSizeController(
+            DatabaseBatchSizeController.MIN_COMMIT_SIZE, DatabaseBatchSizeController.MIN_MULTI_INSERT_SIZE);
+        controller.reportBatch(DatabaseBatchSizeController.MIN_COMMIT_SIZE, 10 * SECOND);
+        assertSizes(controller, DatabaseBatchSizeController.MIN_COMMIT_SIZE, DatabaseBatchSizeController.MIN_MULTI_INSERT_SIZE);
+    }
+
+    @Test
+    public void testUserSizesOutOfBounds() {
+        DatabaseBatchSizeController controller = new DatabaseBatchSizeController(10, 2);
+        controller.reportBatch(10, 10 * SECOND);
+        assertSizes(controller, 10, 2);
+
+        // User value is the upper bound of multi-row insert size
+        controller = new DatabaseBatchSizeController(1000, 10000);
+        controller.reportBatch(1000, SECOND);
+        assertSizes(controller, 2000, 10000);
+    }
+
+    private static void assertSizes(DatabaseBatchSizeController controller, int commitSize, int multiInsertSize) {
+        Assert.assertEquals(commitSize, controller.getCommitSize());
+        Assert.assertEquals(multiInsertSize, controller.getMultiInsertSize());
+    }
+}
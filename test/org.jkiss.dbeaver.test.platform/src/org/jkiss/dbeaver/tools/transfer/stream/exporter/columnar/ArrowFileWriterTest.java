@@ -0,0 +1,264 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrowFileWriterTest {
+
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final int MESSAGE_HEADER_SCHEMA = 1;
+    private static final int MESSAGE_HEADER_RECORD_BATCH = 3;
+
+    @Test
+    public void testMagicAndFooter() throws IOException {
+        byte[] data = write(1024, new ColumnarColumn[] { ParquetFileWriterTest.column("a", DBPDataKind.NUMERIC, Types.INTEGER) },
+            new Object[] { 1 }, new Object[] { null }, new Object[] { -1 });
+        // Leading magic is padded to 8 bytes
+        Assert.assertEquals("41 52 52 4f 57 31 00 00", ParquetFileWriterTest.toHex(Arrays.copyOfRange(data, 0, 8)));
+        Assert.assertEquals("ARROW1", new String(data, data.length - 6, 6, StandardCharsets.US_ASCII));
+
+        int footerLength = ParquetFileWriterTest.readIntLE(data, data.length - 10);
+        int footerStart = data.length - 10 - footerLength;
+        Assert.assertEquals(0, footerStart % 8);
+        // End of stream marker right before the footer
+        Assert.assertEquals("ff ff ff ff 00 00 00 00",
+            ParquetFileWriterTest.toHex(Arrays.copyOfRange(data, footerStart - 8, footerStart)));
+
+        FlatBuffer footer = new FlatBuffer(data, footerStart);
+        int footerTable = footer.root();
+        // MetadataVersion.V5
+        Assert.assertEquals(4, footer.readShort(footer.field(footerTable, 0)));
+        List<Integer> blocks = footer.vectorElements(footerTable, 3, 24);
+        Assert.assertEquals(1, blocks.size());
+        int block = blocks.get(0);
+        int messageOffset = (int) ParquetFileWriterTest.readLongLE(data, block);
+        Assert.assertEquals(CONTINUATION_MARKER, ParquetFileWriterTest.readIntLE(data, messageOffset));
+        // Block metadata length includes continuation marker and length prefix
+        Assert.assertEquals(8 + ParquetFileWriterTest.readIntLE(data, messageOffset + 4), ParquetFileWriterTest.readIntLE(data, block + 8));
+    }
+
+    @Test
+    public void testMessageAlignment() throws IOException {
+        ColumnarColumn[] columns = {
+            ParquetFileWriterTest.column("a", DBPDataKind.NUMERIC, Types.INTEGER),
+            ParquetFileWriterTest.column("s", DBPDataKind.STRING, Types.VARCHAR)
+        };
+        byte[] data = write(3, columns, makeRows(10));
+        int position = 8;
+        int recordBatches = 0;
+        for (;;) {
+            Assert.assertEquals("Message must be aligned", 0, position % 8);
+            Assert.assertEquals(CONTINUATION_MARKER, ParquetFileWriterTest.readIntLE(data, position));
+            int metadataLength = ParquetFileWriterTest.readIntLE(data, position + 4);
+            if (metadataLength == 0) {
+                break;
+            }
+            Assert.assertEquals("Metadata must be padded", 0, metadataLength % 8);
+            FlatBuffer message = new FlatBuffer(data, position + 8);
+            int messageTable = message.root();
+            long bodyLength = message.readLong(message.field(messageTable, 3));
+            Assert.assertEquals("Body must be padded", 0, bodyLength % 8);
+            if (message.readByte(message.field(messageTable, 1)) == MESSAGE_HEADER_RECORD_BATCH) {
+                recordBatches++;
+                int recordBatch = message.table(messageTable, 2);
+                for (int buffer : message.vectorElements(recordBatch, 2, 16)) {
+                    Assert.assertEquals("Buffer must be aligned", 0, message.readLong(buffer) % 8);
+                }
+            }
+            position += 8 + metadataLength + (int) bodyLength;
+        }
+        Assert.assertEquals(4, recordBatches);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ColumnarColumn[] columns = {
+            ParquetFileWriterTest.column("a", DBPDataKind.NUMERIC, Types.INTEGER),
+            ParquetFileWriterTest.column("s", DBPDataKind.STRING, Types.VARCHAR)
+        };
+        Object[][] rows = makeRows(10);
+        byte[] data = write(4, columns, rows);
+
+        List<Object[]> readRows = new ArrayList<>();
+        int position = 8;
+        for (;;) {
+            int metadataLength = ParquetFileWriterTest.readIntLE(data, position + 4);
+            if (metadataLength == 0) {
+                break;
+            }
+            FlatBuffer message = new FlatBuffer(data, position + 8);
+            int messageTable = message.root();
+            int bodyStart = position + 8 + metadataLength;
+            long bodyLength = message.readLong(message.field(messageTable, 3));
+            int headerType = message.readByte(message.field(messageTable, 1));
+            if (headerType == MESSAGE_HEADER_SCHEMA) {
+                int schema = message.table(messageTable, 2);
+                List<Integer> fields = message.tableVectorElements(schema, 1);
+                Assert.assertEquals(2, fields.size());
+                Assert.assertEquals("a", message.string(fields.get(0), 0));
+                Assert.assertEquals("s", message.string(fields.get(1), 0));
+            } else {
+                Assert.assertEquals(MESSAGE_HEADER_RECORD_BATCH, headerType);
+                readRecordBatch(data, message, message.table(messageTable, 2), bodyStart, readRows);
+            }
+            position = bodyStart + (int) bodyLength;
+        }
+        Assert.assertEquals(rows.length, readRows.size());
+        for (int i = 0; i < rows.length; i++) {
+            Assert.assertArrayEquals("Row " + i, rows[i], readRows.get(i));
+        }
+    }
+
+    private static void readRecordBatch(byte[] data, FlatBuffer message, int recordBatch, int bodyStart, List<Object[]> rows) {
+        int rowCount = (int) message.readLong(message.field(recordBatch, 0));
+        List<Integer> nodes = message.vectorElements(recordBatch, 1, 16);
+        List<Integer> buffers = message.vectorElements(recordBatch, 2, 16);
+        Assert.assertEquals(2, nodes.size());
+        // Int column: validity, values. String column: validity, offsets, values
+        Assert.assertEquals(5, buffers.size());
+        int[] bufferStarts = new int[buffers.size()];
+        for (int i = 0; i < buffers.size(); i++) {
+            bufferStarts[i] = bodyStart + (int) message.readLong(buffers.get(i));
+        }
+        int nullCount = 0;
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = new Object[2];
+            if (isValid(data, bufferStarts[0], i)) {
+                row[0] = ParquetFileWriterTest.readIntLE(data, bufferStarts[1] + i * 4);
+            } else {
+                nullCount++;
+            }
+            if (isValid(data, bufferStarts[2], i)) {
+                int start = ParquetFileWriterTest.readIntLE(data, bufferStarts[3] + i * 4);
+                int end = ParquetFileWriterTest.readIntLE(data, bufferStarts[3] + i * 4 + 4);
+                row[1] = new String(data, bufferStarts[4] + start, end - start, StandardCharsets.UTF_8);
+            }
+            rows.add(row);
+        }
+        Assert.assertEquals(rowCount, message.readLong(nodes.get(0)));
+        Assert.assertEquals(nullCount, message.readLong(nodes.get(0) + 8));
+    }
+
+    private static boolean isValid(byte[] data, int validityStart, int index) {
+        return (data[validityStart + (index >> 3)] & (1 << (index & 7))) != 0;
+    }
+
+    private static Object[][] makeRows(int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[] { i % 4 == 0 ? null : i * -1000, i % 3 == 0 ? null : "value " + i };
+        }
+        return rows;
+    }
+
+    private static byte[] write(int batchSize, ColumnarColumn[] columns, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowFileWriter writer = new ArrowFileWriter(out, columns, batchSize);
+        writer.writeHeader();
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.writeFooter();
+        return out.toByteArray();
+    }
+
+    /**
+     * FlatBuffers reader. Positions are absolute positions in the file.
+     */
+    private static class FlatBuffer {
+        private final byte[] data;
+        private final int start;
+
+        FlatBuffer(byte[] data, int start) {
+            this.data = data;
+            this.start = start;
+        }
+
+        int root() {
+            return start + readInt(start);
+        }
+
+        /**
+         * Returns field position or -1 if field is absent
+         */
+        int field(int table, int slot) {
+            int vtable = table - readInt(table);
+            int vtableSize = readShort(vtable);
+            int slotPosition = 4 + slot * 2;
+            if (slotPosition >= vtableSize) {
+                return -1;
+            }
+            int offset = readShort(vtable + slotPosition);
+            return offset == 0 ? -1 : table + offset;
+        }
+
+        int table(int table, int slot) {
+            int field = field(table, slot);
+            Assert.assertTrue("Field " + slot + " is absent", field >= 0);
+            return field + readInt(field);
+        }
+
+        String string(int table, int slot) {
+            int position = table(table, slot);
+            return new String(data, position + 4, readInt(position), StandardCharsets.UTF_8);
+        }
+
+        List<Integer> vectorElements(int table, int slot, int elementSize) {
+            int position = table(table, slot);
+            List<Integer> elements = new ArrayList<>();
+            for (int i = 0; i < readInt(position); i++) {
+                elements.add(position + 4 + i * elementSize);
+            }
+            return elements;
+        }
+
+        List<Integer> tableVectorElements(int table, int slot) {
+            List<Integer> elements = new ArrayList<>();
+            for (int offsetPosition : vectorElements(table, slot, 4)) {
+                elements.add(offsetPosition + readInt(offsetPosition));
+            }
+            return elements;
+        }
+
+        int readByte(int position) {
+            return data[position];
+        }
+
+        int readShort(int position) {
+            return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8;
+        }
+
+        int readInt(int position) {
+            return ParquetFileWriterTest.readIntLE(data, position);
+        }
+
+        long readLong(int position) {
+            return ParquetFileWriterTest.readLongLE(data, position);
+        }
+    }
+}
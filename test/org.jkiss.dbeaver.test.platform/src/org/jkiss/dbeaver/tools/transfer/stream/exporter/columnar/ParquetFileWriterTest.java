@@ -0,0 +1,381 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter.columnar;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+
+public class ParquetFileWriterTest {
+
+    // One optional INT32 column "a" with values 1, null, -1
+    private static final String GOLDEN_FILE =
+        "50 41 52 31 15 00 15 24 15 24 2c 15 06 15 00 15 " +
+        "06 15 06 00 00 06 00 00 00 02 01 02 00 02 01 01 " +
+        "00 00 00 ff ff ff ff 15 02 19 2c 48 06 73 63 68 " +
+        "65 6d 61 15 02 00 15 02 25 02 18 01 61 00 16 06 " +
+        "19 1c 19 1c 26 08 1c 15 02 19 25 00 06 19 18 01 " +
+        "61 15 00 16 06 16 46 16 46 26 08 00 00 16 46 16 " +
+        "06 00 28 07 44 42 65 61 76 65 72 00 45 00 00 00 " +
+        "50 41 52 31";
+
+    @Test
+    public void testGoldenFile() throws IOException {
+        byte[] data = write(ParquetFileWriter.Codec.UNCOMPRESSED, 1 << 16,
+            new ColumnarColumn[] { column("a", DBPDataKind.NUMERIC, Types.INTEGER) },
+            new Object[] { 1 }, new Object[] { null }, new Object[] { -1 });
+        Assert.assertEquals(GOLDEN_FILE, toHex(data));
+    }
+
+    @Test
+    public void testMagicAndFooter() throws IOException {
+        byte[] data = write(ParquetFileWriter.Codec.GZIP, 1 << 16,
+            new ColumnarColumn[] { column("a", DBPDataKind.NUMERIC, Types.INTEGER) },
+            new Object[] { 1 });
+        Assert.assertEquals("PAR1", new String(data, 0, 4, StandardCharsets.US_ASCII));
+        Assert.assertEquals("PAR1", new String(data, data.length - 4, 4, StandardCharsets.US_ASCII));
+        int footerLength = readIntLE(data, data.length - 8);
+        ThriftReader reader = new ThriftReader(data, data.length - 8 - footerLength);
+        Map<Integer, Object> metadata = reader.readStruct();
+        Assert.assertEquals(data.length - 8, reader.position);
+        Assert.assertEquals(1, metadata.get(1));
+        Assert.assertEquals(1L, metadata.get(3));
+        Assert.assertEquals("DBeaver", string(metadata.get(6)));
+    }
+
+    @Test
+    public void testVarIntBoundaries() throws IOException {
+        // 63 values: zigzag(63) = 126 fits one byte. Page size 4 + 2 + 63 * 4 = 258, zigzag 516
+        Assert.assertEquals(
+            "15 00 15 84 04 15 84 04 2c 15 7e 15 00 15 06 15 06 00 00",
+            toHex(readFirstPageHeader(makeIntRows(63))));
+        // 64 values: zigzag(64) = 128 needs two bytes. Page size 4 + 3 + 64 * 4 = 263, zigzag 526
+        Assert.assertEquals(
+            "15 00 15 8e 04 15 8e 04 2c 15 80 01 15 00 15 06 15 06 00 00",
+            toHex(readFirstPageHeader(makeIntRows(64))));
+    }
+
+    @Test
+    public void testLongListAndStringHeaders() throws IOException {
+        // 15 columns + root element: list size doesn't fit the short list header
+        ColumnarColumn[] columns = new ColumnarColumn[15];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column("c" + i, DBPDataKind.STRING, Types.VARCHAR);
+        }
+        Object[] row = new Object[columns.length];
+        byte[] data = write(ParquetFileWriter.Codec.UNCOMPRESSED, 1 << 16, columns, row);
+        Assert.assertTrue(indexOf(data, "19 fc 10") > 0);
+
+        // Name of 200 bytes: length varint takes two bytes
+        String longName = "n".repeat(200);
+        data = write(ParquetFileWriter.Codec.UNCOMPRESSED, 1 << 16,
+            new ColumnarColumn[] { column(longName, DBPDataKind.STRING, Types.VARCHAR) }, new Object[] { "x" });
+        Assert.assertTrue(indexOf(data, "18 c8 01 6e 6e") > 0);
+        Map<Integer, Object> metadata = readMetadata(data);
+        Map<Integer, Object> schemaColumn = struct(list(metadata.get(2)).get(1));
+        Assert.assertEquals(longName, string(schemaColumn.get(4)));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ColumnarColumn[] columns = {
+            column("id", DBPDataKind.NUMERIC, Types.BIGINT),
+            column("name", DBPDataKind.STRING, Types.VARCHAR),
+            column("flag", DBPDataKind.BOOLEAN, Types.BOOLEAN)
+        };
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Object[] {
+                i % 7 == 0 ? null : (long) i * 1_000_000_007L,
+                i % 5 == 0 ? null : "row " + i,
+                i % 3 == 0 ? null : i % 2 == 0
+            });
+        }
+        // Small pages and row groups: several pages per chunk and several row groups
+        byte[] data = write(ParquetFileWriter.Codec.GZIP, 300, 64, columns, rows.toArray(new Object[0][]));
+        Map<Integer, Object> metadata = readMetadata(data);
+        Assert.assertEquals((long) rows.size(), metadata.get(3));
+        List<Object> rowGroups = list(metadata.get(4));
+        Assert.assertTrue(rowGroups.size() > 1);
+
+        List<Object[]> readRows = new ArrayList<>();
+        for (Object rowGroup : rowGroups) {
+            Map<Integer, Object> rowGroupInfo = struct(rowGroup);
+            int rowCount = (int) (long) (Long) rowGroupInfo.get(3);
+            List<Object> chunks = list(rowGroupInfo.get(1));
+            Assert.assertEquals(columns.length, chunks.size());
+            Object[][] values = new Object[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                Map<Integer, Object> chunkMeta = struct(struct(chunks.get(i)).get(3));
+                Assert.assertEquals((long) rowCount, chunkMeta.get(5));
+                values[i] = readColumnChunk(data, chunkMeta, columns[i].getType(), rowCount);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                Object[] readRow = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    readRow[i] = values[i][row];
+                }
+                readRows.add(readRow);
+            }
+        }
+        Assert.assertEquals(rows.size(), readRows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertArrayEquals("Row " + i, rows.get(i), readRows.get(i));
+        }
+    }
+
+    private static Object[][] makeIntRows(int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[] { i };
+        }
+        return rows;
+    }
+
+    private static byte[] readFirstPageHeader(Object[][] rows) throws IOException {
+        byte[] data = write(ParquetFileWriter.Codec.UNCOMPRESSED, 1 << 16,
+            new ColumnarColumn[] { column("a", DBPDataKind.NUMERIC, Types.INTEGER) }, rows);
+        ThriftReader reader = new ThriftReader(data, 4);
+        reader.readStruct();
+        return Arrays.copyOfRange(data, 4, reader.position);
+    }
+
+    private static Object[] readColumnChunk(byte[] data, Map<Integer, Object> chunkMeta, ColumnarType type, int rowCount) throws IOException {
+        // GZIP codec
+        Assert.assertEquals(2, chunkMeta.get(4));
+        Object[] values = new Object[rowCount];
+        int valueIndex = 0;
+        ThriftReader reader = new ThriftReader(data, (int) (long) (Long) chunkMeta.get(9));
+        while (valueIndex < rowCount) {
+            Map<Integer, Object> pageHeader = reader.readStruct();
+            int compressedSize = (Integer) pageHeader.get(3);
+            byte[] page = gunzip(Arrays.copyOfRange(data, reader.position, reader.position + compressedSize));
+            Assert.assertEquals(pageHeader.get(2), page.length);
+            reader.position += compressedSize;
+            int pageValues = (Integer) struct(pageHeader.get(5)).get(1);
+
+            // Definition levels: RLE runs with bit width 1
+            int levelsLength = readIntLE(page, 0);
+            int position = 4;
+            List<Integer> levels = new ArrayList<>();
+            while (position < 4 + levelsLength) {
+                int header = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int b = page[position++] & 0xFF;
+                    header |= (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) {
+                        break;
+                    }
+                }
+                Assert.assertEquals("Only RLE runs expected", 0, header & 1);
+                int level = page[position++];
+                for (int i = 0; i < header >> 1; i++) {
+                    levels.add(level);
+                }
+            }
+            Assert.assertEquals(pageValues, levels.size());
+            int bitIndex = 0;
+            for (int level : levels) {
+                Object value = null;
+                if (level == 1) {
+                    switch (type) {
+                        case INT64:
+                            value = readLongLE(page, position);
+                            position += 8;
+                            break;
+                        case STRING: {
+                            int length = readIntLE(page, position);
+                            value = new String(page, position + 4, length, StandardCharsets.UTF_8);
+                            position += 4 + length;
+                            break;
+                        }
+                        case BOOLEAN:
+                            value = (page[position + (bitIndex >> 3)] & (1 << (bitIndex & 7))) != 0;
+                            bitIndex++;
+                            break;
+                        default:
+                            Assert.fail("Unexpected type " + type);
+                    }
+                }
+                values[valueIndex++] = value;
+            }
+        }
+        return values;
+    }
+
+    private static byte[] write(ParquetFileWriter.Codec codec, int pageSize, ColumnarColumn[] columns, Object[]... rows) throws IOException {
+        return write(codec, 1 << 20, pageSize, columns, rows);
+    }
+
+    private static byte[] write(ParquetFileWriter.Codec codec, long rowGroupSize, int pageSize, ColumnarColumn[] columns, Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetFileWriter writer = new ParquetFileWriter(out, columns, codec, rowGroupSize, pageSize);
+        writer.writeHeader();
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.writeFooter();
+        return out.toByteArray();
+    }
+
+    static ColumnarColumn column(String name, DBPDataKind dataKind, int typeId) {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(binding.getLabel()).thenReturn(name);
+        Mockito.when(binding.getDataKind()).thenReturn(dataKind);
+        Mockito.when(binding.getTypeID()).thenReturn(typeId);
+        return ColumnarColumn.createColumns(new DBDAttributeBinding[] { binding })[0];
+    }
+
+    private static Map<Integer, Object> readMetadata(byte[] data) {
+        int footerLength = readIntLE(data, data.length - 8);
+        return new ThriftReader(data, data.length - 8 - footerLength).readStruct();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(new java.io.ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Object value) {
+        return (Map<Integer, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value) {
+        return (List<Object>) value;
+    }
+
+    private static String string(Object value) {
+        return new String((byte[]) value, StandardCharsets.UTF_8);
+    }
+
+    static int readIntLE(byte[] data, int position) {
+        return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8 |
+            (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+    }
+
+    static long readLongLE(byte[] data, int position) {
+        return (readIntLE(data, position) & 0xFFFFFFFFL) | (long) readIntLE(data, position + 4) << 32;
+    }
+
+    static String toHex(byte[] data) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : data) {
+            if (hex.length() > 0) {
+                hex.append(' ');
+            }
+            hex.append(String.format("%02x", b & 0xFF));
+        }
+        return hex.toString();
+    }
+
+    private static int indexOf(byte[] data, String hex) {
+        return toHex(data).indexOf(hex) / 3;
+    }
+
+    /**
+     * Thrift compact protocol reader. Structs are read as maps of field id to value.
+     */
+    private static class ThriftReader {
+        private final byte[] data;
+        private int position;
+
+        ThriftReader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        Map<Integer, Object> readStruct() {
+            Map<Integer, Object> fields = new LinkedHashMap<>();
+            int fieldId = 0;
+            for (;;) {
+                int header = data[position++] & 0xFF;
+                if (header == 0) {
+                    return fields;
+                }
+                int delta = header >> 4;
+                fieldId = delta == 0 ? (int) readZigZag() : fieldId + delta;
+                fields.put(fieldId, readValue(header & 0x0F));
+            }
+        }
+
+        private Object readValue(int type) {
+            switch (type) {
+                case ThriftCompactTypes.I32:
+                    return (int) readZigZag();
+                case ThriftCompactTypes.I64:
+                    return readZigZag();
+                case ThriftCompactTypes.BINARY: {
+                    int length = (int) readVarInt();
+                    byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+                    position += length;
+                    return bytes;
+                }
+                case ThriftCompactTypes.LIST: {
+                    int header = data[position++] & 0xFF;
+                    int size = header >> 4;
+                    if (size == 15) {
+                        size = (int) readVarInt();
+                    }
+                    List<Object> items = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        items.add(readValue(header & 0x0F));
+                    }
+                    return items;
+                }
+                case ThriftCompactTypes.STRUCT:
+                    return readStruct();
+                default:
+                    throw new IllegalStateException("Unexpected Thrift type " + type + " at " + position);
+            }
+        }
+
+        private long readVarInt() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[position++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readZigZag() {
+            long value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    private interface ThriftCompactTypes {
+        int I32 = 5;
+        int I64 = 6;
+        int BINARY = 8;
+        int LIST = 9;
+        int STRUCT = 12;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.List;
+
+public class MappedCSVReaderTest {
+
+    // Default value of the CSV importer timestampFormat property
+    private static final DateTimeFormatter DEFAULT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm:ss[.SSS]]");
+
+    private static final List<String> DATE_TIME_VALUES = List.of(
+        "2023-10-18",
+        "2023-10-18 12:34:56",
+        "2023-10-18 12:34:56.789",
+        "2023-10-18 00:00:00.000",
+        "1900-01-01 23:59:59.001",
+        "2024-02-29",
+        // Not matching the default format
+        "2023-10-18T12:34:56",
+        "2023-10-18 12:34",
+        "2023-10-18 12:34:56.7",
+        "2023-10-18 12:34:56.789123",
+        "2023/10/18",
+        "18.10.2023",
+        "0000-01-01",
+        // Invalid dates are resolved by the formatter
+        "2023-02-30",
+        "2023-04-31 10:00:00",
+        "2023-13-01",
+        "2023-10-18 25:00:00",
+        "2023-10-18 24:00:00",
+        "text"
+    );
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testDefaultFormatTimestamps() throws Exception {
+        Object[] values = readValues(DATE_TIME_VALUES);
+        Assert.assertEquals(Timestamp.valueOf("2023-10-18 00:00:00"), values[0]);
+        Assert.assertEquals(Timestamp.valueOf("2023-10-18 12:34:56"), values[1]);
+        Assert.assertEquals(Timestamp.valueOf("2023-10-18 12:34:56.789"), values[2]);
+        Assert.assertEquals("2023-10-18T12:34:56", values[6]);
+        Assert.assertEquals("text", values[values.length - 1]);
+    }
+
+    /**
+     * Values converted by the reader must be the same as values converted by the result set with the default format
+     */
+    @Test
+    public void testSameAsDefaultFormat() throws Exception {
+        Object[] values = readValues(DATE_TIME_VALUES);
+        for (int i = 0; i < values.length; i++) {
+            String text = DATE_TIME_VALUES.get(i);
+            Object value = values[i];
+            if (value instanceof Timestamp) {
+                Assert.assertEquals(text, parseDefault(text), value);
+            } else {
+                // Left to the result set
+                Assert.assertEquals(text, value);
+            }
+        }
+    }
+
+    private Object[] readValues(List<String> values) throws Exception {
+        Path file = tempFolder.newFile().toPath();
+        Files.writeString(file, String.join(",", values) + "\n", StandardCharsets.UTF_8);
+        DBPDataKind[] kinds = new DBPDataKind[values.size()];
+        Arrays.fill(kinds, DBPDataKind.DATETIME);
+        try (MappedCSVReader reader = new MappedCSVReader(
+            file, StandardCharsets.UTF_8, ',', '"', '\\', kinds, false, false, null))
+        {
+            Object[] record = reader.readNext();
+            Assert.assertNotNull(record);
+            Assert.assertNull(reader.readNext());
+            return record;
+        }
+    }
+
+    // Same conversion as in StreamTransferResultSet
+    private static Object parseDefault(String text) {
+        try {
+            TemporalAccessor ta = DEFAULT_FORMAT.parse(text);
+            LocalDateTime localDT = ta.isSupported(ChronoField.NANO_OF_SECOND) ?
+                LocalDateTime.from(ta) : LocalDate.from(ta).atStartOfDay();
+            return Timestamp.valueOf(localDT);
+        } catch (Exception e) {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class GridRowModelTest {
+
+    private static final List<String> ELEMENTS = List.of("a", "b", "c", "d");
+
+    @Test
+    public void testPlainRows() {
+        GridRowModel model = new GridRowModel(ELEMENTS);
+        Assert.assertEquals(4, model.getRowCount());
+        for (int i = 0; i < ELEMENTS.size(); i++) {
+            IGridRow row = model.getRow(i);
+            Assert.assertSame(ELEMENTS.get(i), row.getElement());
+            Assert.assertSame(ELEMENTS.get(i), model.getRowElement(i));
+            Assert.assertEquals(i, row.getVisualPosition());
+            Assert.assertEquals(i, row.getRelativeIndex());
+            Assert.assertEquals(0, row.getRowDepth());
+            Assert.assertNull(row.getParent());
+            Assert.assertEquals(i, model.indexOf(row));
+        }
+        Assert.assertEquals(0, GridRowModel.EMPTY.getRowCount());
+    }
+
+    @Test
+    public void testRowsCreatedOnDemand() {
+        GridRowModel model = new GridRowModel(ELEMENTS);
+        IGridRow row = model.getRow(2);
+        // Rows created on demand are equal to the rows created before
+        Assert.assertEquals(row, new GridRowModel(ELEMENTS).getRow(2));
+        Assert.assertEquals(row, model.getRow(2));
+        model.getRow(1);
+        IGridRow recreated = model.getRow(2);
+        Assert.assertEquals(row, recreated);
+        Assert.assertEquals(row.hashCode(), recreated.hashCode());
+        Assert.assertEquals(2, model.indexOf(recreated));
+    }
+
+    @Test
+    public void testExpandedRows() {
+        // Element "b" has two nested rows
+        GridRow expanded = new GridRow("b", 1, 1);
+        IGridRow[] block = {expanded, new GridRowNested(expanded, 2), new GridRowNested(expanded, 3)};
+        GridRowModel model = new GridRowModel(ELEMENTS, new int[]{1}, new int[]{1}, new IGridRow[][]{block});
+
+        Assert.assertEquals(6, model.getRowCount());
+        Assert.assertEquals(new GridRow("a", 0, 0), model.getRow(0));
+        Assert.assertSame(expanded, model.getRow(1));
+        Assert.assertSame(block[1], model.getRow(2));
+        Assert.assertSame(block[2], model.getRow(3));
+        Assert.assertEquals(new GridRow("c", 2, 4), model.getRow(4));
+        Assert.assertEquals(new GridRow("d", 3, 5), model.getRow(5));
+
+        Assert.assertEquals("b", model.getRowElement(3));
+        Assert.assertEquals("c", model.getRowElement(4));
+        Assert.assertEquals(1, model.getRow(3).getRowDepth());
+        Assert.assertEquals(1, model.getRow(3).getRelativeIndex());
+        for (int i = 0; i < model.getRowCount(); i++) {
+            Assert.assertEquals(i, model.indexOf(model.getRow(i)));
+        }
+    }
+
+    @Test
+    public void testIndexOfForeignRow() {
+        GridRowModel model = new GridRowModel(ELEMENTS);
+        Assert.assertEquals(-1, model.indexOf(new GridRow("x", 1, 1)));
+        Assert.assertEquals(-1, model.indexOf(new GridRow("a", 0, 1)));
+        Assert.assertEquals(-1, model.indexOf(new GridRow("a", 0, 4)));
+        Assert.assertEquals(-1, model.indexOf(new GridRowNested(model.getRow(0), 1)));
+    }
+
+    @Test
+    public void testRowEquality() {
+        String element = "a";
+        GridRow row = new GridRow(element, 0, 0);
+        Assert.assertEquals(row, new GridRow(element, 0, 0));
+        Assert.assertEquals(row.hashCode(), new GridRow(element, 0, 0).hashCode());
+        // Elements are compared by identity
+        Assert.assertNotEquals(row, new GridRow(new String(element), 0, 0));
+        Assert.assertNotEquals(row, new GridRow(element, 0, 1));
+        Assert.assertNotEquals(row, new GridRow(element, 1, 0));
+
+        GridRowNested nested = new GridRowNested(row, 1);
+        Assert.assertEquals(nested, new GridRowNested(new GridRow(element, 0, 0), 1));
+        Assert.assertEquals(nested.hashCode(), new GridRowNested(new GridRow(element, 0, 0), 1).hashCode());
+        Assert.assertNotEquals(nested, new GridRowNested(row, 2));
+        Assert.assertNotEquals(nested, new GridRowNested(new GridRow(element, 0, 5), 1));
+        Assert.assertNotEquals(nested, row);
+        Assert.assertNotEquals(row, nested);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class ResultSetColumnarStorageTest {
+
+    private static final int ROW_COUNT = 500;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final List<IntFunction<Object>> columns = new ArrayList<>();
+
+    {
+        long now = System.currentTimeMillis();
+        columns.add(i -> i);
+        columns.add(i -> i * 1_000_000_000L);
+        columns.add(i -> (short) i);
+        columns.add(i -> (byte) i);
+        columns.add(i -> i / 3.0);
+        columns.add(i -> i / 4.0f);
+        columns.add(i -> i % 3 == 0);
+        // Dictionary
+        columns.add(i -> "value " + (i % 7));
+        columns.add(i -> {
+            Timestamp timestamp = new Timestamp(now + i * 1000L);
+            timestamp.setNanos(i * 1000 + 1);
+            return timestamp;
+        });
+        columns.add(i -> new java.sql.Date(now - i * 86_400_000L));
+        columns.add(i -> new Time(i * 1000L));
+        columns.add(i -> new BigDecimal(i + ".0" + i));
+        columns.add(i -> BigInteger.valueOf(i).shiftLeft(100));
+        columns.add(i -> new byte[]{(byte) i, (byte) (i >> 8)});
+        // Numbers and strings in one column
+        columns.add(i -> i < ROW_COUNT / 2 ? (Object) i : "text " + i);
+        // Leading nulls
+        columns.add(i -> i < 10 ? null : (long) i);
+        columns.add(i -> null);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        ResultSetColumnarStorage storage = createStorage(null);
+        checkStorage(storage);
+        checkRowValues(storage);
+    }
+
+    @Test
+    public void testSpillRoundTrip() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1024, folder);
+        ResultSetColumnarStorage storage = createStorage(buffer);
+        Assert.assertTrue(storage.spill(folder.resolve("storage.spill")));
+        Assert.assertTrue(storage.isSpilled());
+
+        checkStorage(storage);
+        Assert.assertFalse(storage.isSpilled());
+
+        // Not modified storage reuses the spill file
+        Assert.assertTrue(storage.spill(folder.resolve("other.spill")));
+        checkRowValues(storage);
+        buffer.dispose();
+    }
+
+    @Test
+    public void testUpdateAndDetach() {
+        ResultSetColumnarStorage storage = createStorage(null);
+        storage.setValue(5, 0, "changed");
+        storage.setValue(6, 7, null);
+        Assert.assertEquals("changed", storage.getValue(5, 0));
+        Assert.assertNull(storage.getValue(6, 7));
+        Assert.assertEquals(4, storage.getValue(4, 0));
+        Assert.assertEquals("value 0", storage.getValue(7, 7));
+
+        // Row owner keeps object values. Primitive and dictionary values stay in storage
+        storage.detachRow(8);
+        Assert.assertNull(storage.getValue(8, 11));
+        Assert.assertEquals(8_000_000_000L, storage.getValue(8, 1));
+        Assert.assertEquals("value 1", storage.getValue(8, 7));
+    }
+
+    @Test
+    public void testNotSpillableValues() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1024, folder);
+        ResultSetColumnarStorage storage = new ResultSetColumnarStorage(1, buffer);
+        Object complexValue = new Object();
+        storage.appendRow(new Object[]{complexValue});
+        Assert.assertFalse(storage.spill(folder.resolve("storage.spill")));
+        Assert.assertSame(complexValue, storage.getValue(0, 0));
+        buffer.dispose();
+    }
+
+    private ResultSetColumnarStorage createStorage(ResultSetSpillBuffer buffer) {
+        ResultSetColumnarStorage storage = new ResultSetColumnarStorage(columns.size(), buffer);
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            for (int k = 0; k < values.length; k++) {
+                values[k] = columns.get(k).apply(i);
+            }
+            // Values array may be reused
+            Assert.assertEquals(i, storage.appendRow(values));
+        }
+        Assert.assertEquals(ROW_COUNT, storage.getRowCount());
+        Assert.assertEquals(columns.size(), storage.getColumnCount());
+        return storage;
+    }
+
+    private void checkStorage(ResultSetColumnarStorage storage) {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            for (int k = 0; k < columns.size(); k++) {
+                assertValue(columns.get(k).apply(i), storage.getValue(i, k));
+            }
+        }
+    }
+
+    private void checkRowValues(ResultSetColumnarStorage storage) {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object[] values = storage.getRowValues(i);
+            Assert.assertEquals(columns.size(), values.length);
+            for (int k = 0; k < columns.size(); k++) {
+                assertValue(columns.get(k).apply(i), values[k]);
+            }
+        }
+    }
+
+    private static void assertValue(Object expected, Object actual) {
+        if (expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+        Assert.assertNotNull(actual);
+        // Value type must be preserved
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        if (expected instanceof byte[]) {
+            Assert.assertArrayEquals((byte[]) expected, (byte[]) actual);
+        } else {
+            Assert.assertEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.DBUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Checks that sorter orders rows the same way as the comparator previously used in {@link ResultSetModel#resetOrdering()}
+ */
+public class ResultSetSorterTest {
+
+    private static final String[] STRINGS = {
+        "apple", "Apple", "APPLE", "banana", "Banana", "a", "ab", "AB", "b", "", "\u00e9", "\u00c9", "\u00df", "z", "Z"
+    };
+    private static final String[] LOWERCASE_STRINGS = {"false", "true", "abc", "xyz", "t", ""};
+
+    private final Random random = new Random(20231018);
+
+    @Test
+    public void testNullsLast() {
+        List<Object[]> columns = List.<Object[]>of(new Object[]{3, null, 1, null, 2});
+        assertSortOrder(5, columns, new boolean[]{false}, true);
+        Assert.assertArrayEquals(new int[]{2, 4, 0, 1, 3}, sort(5, columns, new boolean[]{false}));
+        // Descending order reverses null placement as well
+        Assert.assertArrayEquals(new int[]{1, 3, 0, 4, 2}, sort(5, columns, new boolean[]{true}));
+    }
+
+    @Test
+    public void testCaseFoldedStrings() {
+        int rowCount = 1000;
+        List<Object[]> columns = List.<Object[]>of(makeColumn(rowCount, i -> STRINGS[random.nextInt(STRINGS.length)]));
+        assertSortOrder(rowCount, columns, new boolean[]{false}, true);
+        assertSortOrder(rowCount, columns, new boolean[]{true}, true);
+    }
+
+    @Test
+    public void testMixedNumbers() {
+        int rowCount = 1000;
+        List<Object[]> columns = List.<Object[]>of(makeColumn(rowCount, i -> makeNumber(random.nextInt(40) - 20)));
+        assertSortOrder(rowCount, columns, new boolean[]{false}, true);
+        assertSortOrder(rowCount, columns, new boolean[]{true}, true);
+    }
+
+    @Test
+    public void testDates() {
+        int rowCount = 1000;
+        long now = System.currentTimeMillis();
+        List<Object[]> columns = List.of(
+            makeColumn(rowCount, i -> new Date(now - random.nextInt(100) * 1000L)),
+            makeColumn(rowCount, i -> {
+                Timestamp timestamp = new Timestamp(now - random.nextInt(10) * 1000L);
+                timestamp.setNanos(random.nextInt(5) * 100);
+                return timestamp;
+            }));
+        assertSortOrder(rowCount, columns, new boolean[]{false, true}, true);
+    }
+
+    @Test
+    public void testMultipleColumnsPacked() {
+        int rowCount = 20000;
+        List<Object[]> columns = List.of(
+            makeColumn(rowCount, i -> STRINGS[random.nextInt(STRINGS.length)]),
+            makeColumn(rowCount, i -> makeNumber(random.nextInt(10))),
+            makeColumn(rowCount, i -> random.nextBoolean() ? "x" : "X"));
+        assertSortOrder(rowCount, columns, new boolean[]{false, true, false}, true);
+        assertSortOrder(rowCount, columns, new boolean[]{true, false, true}, true);
+    }
+
+    @Test
+    public void testMultipleColumnsMerge() {
+        // Too many distinct values to pack ranks of all columns into a long
+        int rowCount = 20000;
+        List<Object[]> columns = new ArrayList<>();
+        boolean[] descending = new boolean[6];
+        for (int i = 0; i < descending.length; i++) {
+            columns.add(makeColumn(rowCount, k -> makeNumber(random.nextInt(2000))));
+            descending[i] = i % 2 == 1;
+        }
+        assertSortOrder(rowCount, columns, descending, false);
+    }
+
+    @Test
+    public void testMixedTypesMerge() {
+        // Values of different types are compared with the original comparison
+        int rowCount = 20000;
+        List<Object[]> columns = List.of(
+            makeColumn(rowCount, i -> random.nextBoolean() ?
+                LOWERCASE_STRINGS[random.nextInt(LOWERCASE_STRINGS.length)] :
+                Boolean.valueOf(random.nextBoolean())),
+            makeColumn(rowCount, i -> makeNumber(random.nextInt(100))));
+        assertSortOrder(rowCount, columns, new boolean[]{false, false}, false);
+        assertSortOrder(rowCount, columns, new boolean[]{true, false}, false);
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertArrayEquals(new int[0], sort(0, List.<Object[]>of(new Object[0]), new boolean[]{false}));
+        Assert.assertArrayEquals(new int[]{0}, sort(1, List.<Object[]>of(new Object[]{null}), new boolean[]{false}));
+        Assert.assertArrayEquals(new int[]{0, 1, 2}, sort(3, List.of(), new boolean[0]));
+    }
+
+    private void assertSortOrder(int rowCount, List<Object[]> columns, boolean[] descending, boolean packed) {
+        ResultSetSorter sorter = new ResultSetSorter(rowCount, columns, descending);
+        Assert.assertEquals(packed, sorter.isPackable());
+        Assert.assertArrayEquals(sortWithComparator(rowCount, columns, descending), sorter.sort());
+    }
+
+    private static int[] sort(int rowCount, List<Object[]> columns, boolean[] descending) {
+        return new ResultSetSorter(rowCount, columns, descending).sort();
+    }
+
+    /**
+     * Comparator previously used for local sorting
+     */
+    private static int[] sortWithComparator(int rowCount, List<Object[]> columns, boolean[] descending) {
+        List<Integer> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(i);
+        }
+        rows.sort((row1, row2) -> {
+            int result = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                Object cell1 = columns.get(i)[row1];
+                Object cell2 = columns.get(i)[row2];
+                if (cell1 instanceof String && cell2 instanceof String) {
+                    result = (cell1.toString()).compareToIgnoreCase(cell2.toString());
+                } else {
+                    result = DBUtils.compareDataValues(cell1, cell2);
+                }
+                if (descending[i]) {
+                    result = -result;
+                }
+                if (result != 0) {
+                    break;
+                }
+            }
+            return result;
+        });
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Object[] makeColumn(int rowCount, Function<Integer, Object> generator) {
+        Object[] values = new Object[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = random.nextInt(10) == 0 ? null : generator.apply(i);
+        }
+        return values;
+    }
+
+    private Object makeNumber(int value) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return value;
+            case 1:
+                return (long) value;
+            case 2:
+                return (double) value;
+            case 3:
+                return (short) value;
+            default:
+                return BigDecimal.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class ResultSetSpillBufferTest {
+
+    private static final int ROW_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testSpillAndLoad() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1, folder);
+
+        ResultSetColumnarStorage first = createStorage(buffer, 0);
+        buffer.register(first);
+        Assert.assertFalse(first.isSpilled());
+
+        // Budget is exceeded. Least recently used chunk goes to disk
+        ResultSetColumnarStorage second = createStorage(buffer, ROW_COUNT);
+        buffer.register(second);
+        Assert.assertTrue(first.isSpilled());
+        Assert.assertFalse(second.isSpilled());
+        Assert.assertEquals(1, buffer.getSpilledChunkCount());
+        Assert.assertEquals(1, countFiles(folder));
+
+        // Access pages chunk back and spills the other one
+        checkStorage(first, 0);
+        Assert.assertFalse(first.isSpilled());
+        Assert.assertTrue(second.isSpilled());
+        checkStorage(second, ROW_COUNT);
+        Assert.assertTrue(first.isSpilled());
+
+        buffer.dispose();
+        Assert.assertEquals(0, countFiles(folder));
+    }
+
+    @Test
+    public void testModifiedChunkSpilledAgain() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1, folder);
+
+        ResultSetColumnarStorage first = createStorage(buffer, 0);
+        buffer.register(first);
+        ResultSetColumnarStorage second = createStorage(buffer, ROW_COUNT);
+        buffer.register(second);
+        Assert.assertTrue(first.isSpilled());
+
+        first.setValue(10, 1, "changed");
+        second.getValue(0, 0);
+        Assert.assertTrue(first.isSpilled());
+        Assert.assertEquals("changed", first.getValue(10, 1));
+        Assert.assertEquals(11L, first.getValue(11, 0));
+        buffer.dispose();
+    }
+
+    @Test
+    public void testRowObjectsCountedAgainstBudget() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer probe = new ResultSetSpillBuffer(Long.MAX_VALUE, folder);
+        probe.register(createStorage(probe, 0));
+        long budget = probe.getResidentSize() + 100L * ResultSetSpillBuffer.ROW_OBJECT_SIZE;
+        probe.dispose();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(budget, folder);
+
+        ResultSetColumnarStorage storage = createStorage(buffer, 0);
+        buffer.register(storage);
+        buffer.addRowObjects(100);
+        Assert.assertFalse(storage.isSpilled());
+
+        buffer.addRowObjects(ROW_COUNT);
+        Assert.assertTrue(storage.isSpilled());
+        Assert.assertEquals((100L + ROW_COUNT) * ResultSetSpillBuffer.ROW_OBJECT_SIZE, buffer.getRowObjectsSize());
+
+        buffer.removeRowObjects(100 + ROW_COUNT);
+        Assert.assertEquals(0, buffer.getRowObjectsSize());
+        checkStorage(storage, 0);
+        Assert.assertFalse(storage.isSpilled());
+        buffer.dispose();
+    }
+
+    @Test
+    public void testReadAfterDispose() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1, folder);
+
+        ResultSetColumnarStorage first = createStorage(buffer, 0);
+        buffer.register(first);
+        ResultSetColumnarStorage second = createStorage(buffer, ROW_COUNT);
+        buffer.register(second);
+        Assert.assertTrue(first.isSpilled());
+
+        buffer.dispose();
+        // Resident chunk keeps its data
+        checkStorage(second, ROW_COUNT);
+        // Spilled chunk content is lost
+        Assert.assertThrows(IllegalStateException.class, () -> first.getValue(0, 0));
+        Assert.assertThrows(IllegalStateException.class, () -> first.getRowValues(0));
+        Assert.assertThrows(IllegalStateException.class, () -> first.setValue(0, 0, 1L));
+        // Release of disposed storage is harmless
+        first.release();
+    }
+
+    @Test
+    public void testSpillReadError() throws IOException {
+        Path folder = tempFolder.newFolder().toPath();
+        ResultSetSpillBuffer buffer = new ResultSetSpillBuffer(1, folder);
+        AtomicInteger errorCount = new AtomicInteger();
+        buffer.setReadErrorHandler(errorCount::incrementAndGet);
+
+        ResultSetColumnarStorage first = createStorage(buffer, 0);
+        buffer.register(first);
+        ResultSetColumnarStorage second = createStorage(buffer, ROW_COUNT);
+        buffer.register(second);
+        Assert.assertTrue(first.isSpilled());
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : files.toList()) {
+                Files.write(file, new byte[] { 1, 2, 3 });
+            }
+        }
+
+        // Broken chunk shows nulls, error goes to the buffer
+        Assert.assertNull(first.getValue(0, 0));
+        Assert.assertNull(first.getRowValues(ROW_COUNT - 1)[1]);
+        Assert.assertEquals(1, errorCount.get());
+        Assert.assertNotNull(buffer.getReadError());
+        Assert.assertFalse(first.isSpilled());
+        buffer.dispose();
+    }
+
+    private static ResultSetColumnarStorage createStorage(ResultSetSpillBuffer buffer, int firstId) {
+        ResultSetColumnarStorage storage = new ResultSetColumnarStorage(5, buffer);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            storage.appendRow(makeRow(firstId + i));
+        }
+        return storage;
+    }
+
+    private static Object[] makeRow(int id) {
+        return new Object[] {
+            (long) id,
+            id % 7 == 0 ? null : "value" + (id % 10),
+            new BigDecimal(id).movePointLeft(2),
+            new Timestamp(1_700_000_000_000L + id * 1000L),
+            new byte[] { (byte) id, (byte) (id >> 8) }
+        };
+    }
+
+    private static void checkStorage(ResultSetColumnarStorage storage, int firstId) {
+        Assert.assertEquals(ROW_COUNT, storage.getRowCount());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object[] expected = makeRow(firstId + i);
+            Object[] actual = storage.getRowValues(i);
+            for (int column = 0; column < expected.length - 1; column++) {
+                Assert.assertEquals("Row " + i + ", column " + column, expected[column], actual[column]);
+            }
+            Assert.assertArrayEquals((byte[]) expected[4], (byte[]) actual[4]);
+        }
+    }
+
+    private static long countFiles(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.count();
+        }
+    }
+}